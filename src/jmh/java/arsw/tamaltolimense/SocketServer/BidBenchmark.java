@@ -0,0 +1,74 @@
+package arsw.tamaltolimense.SocketServer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Validación y aplicación de apuestas tal como las ejecuta onPlaceBid, sin E/S
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BidBenchmark {
+
+    private static final int PLAYERS = 8;
+    private static final int BID_CEILING = 1_000_000;
+
+    private GameState gameState;
+    private int turn;
+
+    @Setup
+    public void setup() {
+        List<String> nicknames = new ArrayList<>();
+        for (int i = 0; i < PLAYERS; i++) {
+            nicknames.add("jugador-" + i);
+        }
+        GameRoster roster = new GameRoster(nicknames);
+        for (int seat = 0; seat < PLAYERS; seat++) {
+            roster.setBalance(seat, 1 << 30);
+        }
+        gameState = new GameState();
+        gameState.setLobbyName("lobby-bench");
+        gameState.setRoster(roster);
+        gameState.transitionTo(GamePhase.BIDDING);
+        gameState.setCurrentRound(1);
+        gameState.getBids().open(1, AuctionRules.INITIAL_BID);
+    }
+
+    @Benchmark
+    public boolean validateAndApplyBid() {
+        if (gameState.getCurrentBid() > BID_CEILING) {
+            gameState.getBids().open(1, AuctionRules.INITIAL_BID);
+        }
+        int seat = turn++ % PLAYERS;
+        int amount = gameState.getCurrentBid() + 1;
+        if (AuctionRules.validateBid(gameState, seat, amount) != null) {
+            return false;
+        }
+        long previous = AuctionRules.placeBid(gameState, seat, 1, amount);
+        if (previous < 0) {
+            return false;
+        }
+        AuctionRules.refundPreviousBidder(gameState, previous, seat);
+        return true;
+    }
+
+    @Benchmark
+    public String validateRejectedBid() {
+        int seat = turn++ % PLAYERS;
+        return AuctionRules.validateBid(gameState, seat, gameState.getCurrentBid());
+    }
+}
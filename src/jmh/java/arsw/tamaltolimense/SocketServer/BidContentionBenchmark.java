@@ -0,0 +1,184 @@
+package arsw.tamaltolimense.SocketServer;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Apuestas concurrentes sobre el mismo contenedor: cada hilo es un jugador que sube la puja
+// vigente. "cas" es el camino de onPlaceBid (BidRegister + cargo y devolución de saldos);
+// "locked" es la alternativa con el estado de la subasta protegido por un monitor.
+//   mvn -Pjmh test-compile exec:exec@jmh -Djmh.args="BidContention"
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BidContentionBenchmark {
+
+    private static final int MAX_BIDDERS = 16;
+    private static final int BID_CEILING = 1_000_000;
+
+    @State(Scope.Benchmark)
+    public static class Auction {
+        final GameState gameState = new GameState();
+        final AtomicInteger nextSeat = new AtomicInteger();
+        final LockedAuction locked = new LockedAuction();
+
+        @Setup
+        public void setup() {
+            List<String> nicknames = new ArrayList<>();
+            for (int i = 0; i < MAX_BIDDERS; i++) {
+                nicknames.add("jugador-" + i);
+            }
+            GameRoster roster = new GameRoster(nicknames);
+            for (int seat = 0; seat < MAX_BIDDERS; seat++) {
+                roster.setBalance(seat, Integer.MAX_VALUE / 2);
+            }
+            gameState.setRoster(roster);
+            gameState.transitionTo(GamePhase.BIDDING);
+            gameState.setCurrentRound(1);
+            gameState.getBids().open(1, AuctionRules.INITIAL_BID);
+        }
+    }
+
+    // Asiento de cada hilo y resultado de sus apuestas
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Bidder {
+        public long won;
+        public long lost;
+        int seat;
+
+        @Setup(Level.Trial)
+        public void takeSeat(Auction auction) {
+            seat = auction.nextSeat.getAndIncrement() % MAX_BIDDERS;
+        }
+    }
+
+    // Estado equivalente protegido por un monitor: comprobar y escribir bajo el mismo lock
+    static final class LockedAuction {
+        private int amount = AuctionRules.INITIAL_BID;
+        private int seat = -1;
+
+        // Devuelve el estado anterior empaquetado igual que BidRegister, o -1 si la apuesta pierde
+        synchronized long bid(int bidderSeat, int bidAmount) {
+            if (bidAmount <= amount) {
+                return -1;
+            }
+            long previous = BidRegister.pack(false, 1, seat, amount);
+            amount = bidAmount;
+            seat = bidderSeat;
+            return previous;
+        }
+
+        synchronized int amount() {
+            return amount;
+        }
+
+        synchronized void reset() {
+            amount = AuctionRules.INITIAL_BID;
+            seat = -1;
+        }
+    }
+
+    private static boolean casBid(Auction auction, Bidder bidder) {
+        GameState gameState = auction.gameState;
+        int current = gameState.getCurrentBid();
+        if (current > BID_CEILING) {
+            gameState.getBids().open(1, AuctionRules.INITIAL_BID);
+            current = AuctionRules.INITIAL_BID;
+        }
+        long previous = AuctionRules.placeBid(gameState, bidder.seat, 1, current + 1);
+        if (previous < 0) {
+            bidder.lost++;
+            return false;
+        }
+        AuctionRules.refundPreviousBidder(gameState, previous, bidder.seat);
+        bidder.won++;
+        return true;
+    }
+
+    private static boolean lockedBid(Auction auction, Bidder bidder) {
+        int current = auction.locked.amount();
+        if (current > BID_CEILING) {
+            auction.locked.reset();
+            current = AuctionRules.INITIAL_BID;
+        }
+        GameRoster roster = auction.gameState.getRoster();
+        long previous = auction.locked.bid(bidder.seat, current + 1);
+        if (previous < 0) {
+            bidder.lost++;
+            return false;
+        }
+        roster.addBalance(bidder.seat, -(current + 1));
+        int previousSeat = BidRegister.seatOf(previous);
+        if (previousSeat >= 0 && previousSeat != bidder.seat) {
+            roster.addBalance(previousSeat, BidRegister.amountOf(previous));
+        }
+        bidder.won++;
+        return true;
+    }
+
+    @Benchmark
+    @Threads(2)
+    public boolean cas2(Auction auction, Bidder bidder) {
+        return casBid(auction, bidder);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean cas4(Auction auction, Bidder bidder) {
+        return casBid(auction, bidder);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean cas8(Auction auction, Bidder bidder) {
+        return casBid(auction, bidder);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public boolean cas16(Auction auction, Bidder bidder) {
+        return casBid(auction, bidder);
+    }
+
+    @Benchmark
+    @Threads(2)
+    public boolean locked2(Auction auction, Bidder bidder) {
+        return lockedBid(auction, bidder);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean locked4(Auction auction, Bidder bidder) {
+        return lockedBid(auction, bidder);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean locked8(Auction auction, Bidder bidder) {
+        return lockedBid(auction, bidder);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public boolean locked16(Auction auction, Bidder bidder) {
+        return lockedBid(auction, bidder);
+    }
+}
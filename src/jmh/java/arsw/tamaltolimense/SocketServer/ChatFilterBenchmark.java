@@ -0,0 +1,124 @@
+package arsw.tamaltolimense.SocketServer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+// Filtro del chat por mensaje: automaton = ChatPatternMatcher (Aho–Corasick), regex = una sola
+// expresión precompilada con todas las palabras y prefijos de enlace, lo que haría
+// onChatMessage sin el autómata. clean = mensajes sin coincidencias; mixed = 1 de cada 4 con
+// groserías o enlaces. words = tamaño de la lista (la del repositorio más palabras sintéticas).
+// Con -prof gc, automaton/clean debe dar 0 B/op.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ChatFilterBenchmark {
+
+    private static final List<String> LINK_PREFIXES = List.of("http://", "https://", "www.");
+
+    private static final String[] CLEAN = {
+            "buenas a todos, listos para la siguiente ronda?",
+            "ese contenedor épico se ve caro",
+            "subo a 1500 y no más",
+            "jajaja qué suerte la tuya",
+            "alguien sabe cuánto vale el reloj?",
+            "me quedé sin saldo otra vez",
+            "gg, buena partida",
+            "esperen que voy por un tinto",
+    };
+    private static final String[] DIRTY = {
+            "qué MIERDA de ronda",
+            "miren esto www.ejemplo.com/trucos",
+            "no seas pendejo, sube la apuesta",
+            "https://bit.ly/xyz gana saldo gratis",
+    };
+
+    @Param({"automaton", "regex"})
+    public String filter;
+
+    @Param({"clean", "mixed"})
+    public String traffic;
+
+    @Param({"15", "500"})
+    public int words;
+
+    private ChatPatternMatcher matcher;
+    private Pattern pattern;
+    private String[] messages;
+    private int next;
+
+    @Setup
+    public void setup() throws IOException {
+        List<String> list = new ArrayList<>(repositoryWords());
+        for (int i = list.size(); i < words; i++) {
+            list.add("grosería" + i);
+        }
+        list = list.subList(0, words);
+        matcher = new ChatPatternMatcher(list, LINK_PREFIXES);
+        pattern = Pattern.compile("\\b(?:" + list.stream().map(Pattern::quote).collect(Collectors.joining("|"))
+                        + ")\\b|(?:https?://|www\\.)\\S*",
+                Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+
+        messages = new String[CLEAN.length * 2];
+        for (int i = 0; i < messages.length; i++) {
+            boolean dirty = traffic.equals("mixed") && i % 4 == 3;
+            messages[i] = dirty ? DIRTY[i / 4 % DIRTY.length] : CLEAN[i % CLEAN.length];
+        }
+        for (String message : DIRTY) {
+            if (matcher.mask(message).equals(message)) {
+                throw new IllegalStateException("El autómata no filtró: " + message);
+            }
+        }
+    }
+
+    @Benchmark
+    public String filterMessage() {
+        String text = messages[next++ % messages.length];
+        if (filter.equals("automaton")) {
+            return matcher.mask(text);
+        }
+        Matcher m = pattern.matcher(text);
+        if (!m.find()) {
+            return text;
+        }
+        return m.replaceAll(match -> "*".repeat(match.group().length()));
+    }
+
+    private static List<String> repositoryWords() throws IOException {
+        List<String> list = new ArrayList<>();
+        try (InputStream in = ChatFilterBenchmark.class.getResourceAsStream("/chat/blocked-words.txt");
+             BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String word = line.trim();
+                if (!word.isEmpty() && !word.startsWith("#")) {
+                    list.add(word);
+                }
+            }
+        }
+        return list;
+    }
+}
@@ -0,0 +1,159 @@
+package arsw.tamaltolimense.SocketServer;
+
+import com.corundumstudio.socketio.protocol.JacksonJsonSupport;
+import com.corundumstudio.socketio.protocol.JsonSupport;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketExtensionData;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Coste en CPU y bytes en el cable de permessage-deflate sobre los eventos reales, pasando
+// por el mismo encoder que instala WebSocketDeflate. level=0 equivale a compresión apagada.
+// Cada evento rota entre variantes con números distintos para que el contexto de deflate
+// compartido entre tramas no vea siempre el mismo mensaje. Los contadores rawBytes y
+// wireBytes (totales por iteración) dan la relación de compresión de cada combinación:
+//   mvn -Pjmh test-compile exec:exec@jmh -Djmh.args="Compression"
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CompressionBenchmark {
+
+    @Param({"0", "1", "6", "9"})
+    public int level;
+
+    @Param({"0", "256"})
+    public int minSize;
+
+    private static final int VARIANTS = 16;
+
+    private EmbeddedChannel channel;
+    private final byte[][] newBid = new byte[VARIANTS][];
+    private final byte[][] gameStarted = new byte[VARIANTS][];
+    private final byte[][] gameEnd = new byte[VARIANTS][];
+    private int next;
+
+    // Bytes totales antes y después del encoder
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class WireCounters {
+        public long rawBytes;
+        public long wireBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            rawBytes = 0;
+            wireBytes = 0;
+        }
+    }
+
+    @Setup
+    public void setup() throws Exception {
+        JsonSupport jsonSupport = new JacksonJsonSupport();
+
+        for (int v = 0; v < VARIANTS; v++) {
+            newBid[v] = encode(jsonSupport, Arrays.asList("newBid", new NewBidData("jugador-" + (v % 4), 1250 + v * 37)));
+
+            ContainerInfo container = new ContainerInfo();
+            container.setId("container-1a2b3c" + Integer.toHexString(v) + "-color:azul-objects:Reloj,350.0;Cuadro,1200.5;Jarrón," + (80 + v));
+            container.setType("Épico");
+            container.setValue(1631 + v);
+            GameStartedData started = new GameStartedData();
+            started.setPlayers(Arrays.asList("jugador-0", "jugador-1", "jugador-2", "jugador-3"));
+            started.setContainer(container);
+            started.setInitialBid(AuctionRules.INITIAL_BID);
+            started.setRound(1 + v % 5);
+            started.setTotalRounds(5);
+            gameStarted[v] = encode(jsonSupport, Arrays.asList("gameStarted", started));
+
+            List<PlayerState> players = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                PlayerState player = new PlayerState();
+                player.setNickname("jugador-" + i);
+                player.setBalance(10000 + i * 731 + v * 113);
+                player.setScore(i * 417 - v * 29);
+                players.add(player);
+            }
+            GameEndData end = new GameEndData();
+            end.setWinner("jugador-" + (v % 8));
+            end.setFinalScores(players);
+            gameEnd[v] = encode(jsonSupport, Arrays.asList("gameEnd", end));
+        }
+
+        channel = new EmbeddedChannel();
+        if (level > 0) {
+            channel.pipeline().addLast(WebSocketDeflate.handshaker(level, minSize)
+                    .handshakeExtension(new WebSocketExtensionData("permessage-deflate", Collections.emptyMap()))
+                    .newExtensionEncoder());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        channel.finishAndReleaseAll();
+    }
+
+    // Paquete de evento de Socket.IO tal como lo escribe el encoder: "42" + [nombre, datos]
+    private static byte[] encode(JsonSupport jsonSupport, Object event) throws IOException {
+        ByteBuf buffer = Unpooled.buffer();
+        buffer.writeByte('4').writeByte('2');
+        jsonSupport.writeValue(new ByteBufOutputStream(buffer), event);
+        byte[] bytes = new byte[buffer.readableBytes()];
+        buffer.readBytes(bytes);
+        buffer.release();
+        return bytes;
+    }
+
+    private int send(byte[][] variants, WireCounters counters) {
+        byte[] payload = variants[next];
+        next = (next + 1) % VARIANTS;
+        channel.writeOutbound(new TextWebSocketFrame(Unpooled.wrappedBuffer(payload)));
+        WebSocketFrame frame = channel.readOutbound();
+        int wire = frame.content().readableBytes();
+        frame.release();
+        counters.rawBytes += payload.length;
+        counters.wireBytes += wire;
+        return wire;
+    }
+
+    @Benchmark
+    public int sendNewBid(WireCounters counters) {
+        return send(newBid, counters);
+    }
+
+    @Benchmark
+    public int sendGameStarted(WireCounters counters) {
+        return send(gameStarted, counters);
+    }
+
+    @Benchmark
+    public int sendGameEnd(WireCounters counters) {
+        return send(gameEnd, counters);
+    }
+}
@@ -0,0 +1,59 @@
+package arsw.tamaltolimense.SocketServer;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Procesamiento de la respuesta de /api/contenedor en generateContainers:
+// deserialización a Map (lo que hace RestTemplate) y construcción del ContainerInfo
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ContainerParsingBenchmark {
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {
+    };
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Random random = new Random(42);
+    private byte[] payload;
+    private Map<String, Object> parsedPayload;
+
+    @Setup
+    public void setup() throws IOException {
+        payload = ("{\"color\":\"dorado\",\"objetos\":["
+                + "{\"nombre\":\"Reloj\",\"precio\":350.0},"
+                + "{\"nombre\":\"Cuadro\",\"precio\":1200.5},"
+                + "{\"nombre\":\"Jarrón\",\"precio\":80.25},"
+                + "{\"nombre\":\"Lámpara\",\"precio\":45.0}]}").getBytes(StandardCharsets.UTF_8);
+        parsedPayload = objectMapper.readValue(payload, MAP_TYPE);
+    }
+
+    @Benchmark
+    public Object buildContainer() {
+        return ContainerFactory.fromApiPayload(parsedPayload, random);
+    }
+
+    @Benchmark
+    public Object parseAndBuildContainer() throws IOException {
+        return ContainerFactory.fromApiPayload(objectMapper.readValue(payload, MAP_TYPE), random);
+    }
+}
@@ -0,0 +1,199 @@
+package arsw.tamaltolimense.SocketServer;
+
+import com.corundumstudio.socketio.namespace.Namespace;
+import com.corundumstudio.socketio.protocol.Event;
+import com.corundumstudio.socketio.protocol.JacksonJsonSupport;
+import com.corundumstudio.socketio.protocol.JsonSupport;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Codificación JSON de los eventos salientes más frecuentes, igual que el encoder de netty-socketio
+// (el paquete de evento se serializa como [nombre, datos]), y decodificación de los entrantes más
+// frecuentes. jackson = JacksonJsonSupport de netty-socketio; game = GameJsonSupport.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EventEncodingBenchmark {
+
+    @Param({"jackson", "game"})
+    private String support;
+
+    private JsonSupport jsonSupport;
+    private ByteBuf buffer;
+    private List<Object> newBid;
+    private List<Object> playerUpdate;
+    private List<Object> gameStarted;
+    private List<Object> newRound;
+    private List<Object> bidResult;
+    private List<Object> gameEnd;
+    private ByteBuf placeBid;
+    private ByteBuf chatMessage;
+
+    @Setup
+    public void setup() throws IOException {
+        jsonSupport = create(support);
+        buffer = PooledByteBufAllocator.DEFAULT.buffer(1024);
+
+        newBid = Arrays.asList("newBid", new NewBidData("jugador-3", 1250, 1_760_000_000_000L));
+
+        PlayerUpdateData update = new PlayerUpdateData();
+        update.setNickname("jugador-3");
+        update.setBalance(750);
+        update.setScore(420);
+        playerUpdate = Arrays.asList("playerUpdate", update);
+
+        ContainerInfo container = new ContainerInfo();
+        container.setId("container-1a2b3c4d-color:azul-objects:Reloj,350.0;Cuadro,1200.5;Jarrón,80.25");
+        container.setType("Épico");
+        container.setValue(1631);
+        GameStartedData started = new GameStartedData();
+        started.setPlayers(Arrays.asList("jugador-0", "jugador-1", "jugador-2", "jugador-3"));
+        started.setContainer(container);
+        started.setInitialBid(AuctionRules.INITIAL_BID);
+        started.setRound(1);
+        started.setTotalRounds(5);
+        gameStarted = Arrays.asList("gameStarted", started);
+
+        NewRoundData round = new NewRoundData();
+        round.setRound(2);
+        round.setTotalRounds(5);
+        round.setContainer(container);
+        round.setInitialBid(AuctionRules.INITIAL_BID);
+        round.setDeadline(1_760_000_030_000L);
+        newRound = Arrays.asList("newRound", round);
+
+        BidResultData result = new BidResultData();
+        result.setWinner("jugador-3");
+        result.setContainerId(container.getId());
+        result.setContainerType(container.getType());
+        result.setBidAmount(1250);
+        result.setContainerValue(1631);
+        result.setProfit(381);
+        bidResult = Arrays.asList("bidResult", result);
+
+        GameEndData end = new GameEndData();
+        end.setWinner("jugador-3");
+        end.setFinalScores(new GameRoster(started.getPlayers()).standings());
+        gameEnd = Arrays.asList("gameEnd", end);
+
+        placeBid = Unpooled.copiedBuffer(
+                "[\"placeBid\",{\"nickname\":\"jugador-3\",\"lobbyName\":\"lobby-bench\",\"amount\":1250}]",
+                StandardCharsets.UTF_8);
+        chatMessage = Unpooled.copiedBuffer(
+                "[\"chatMessage\",{\"nickname\":\"jugador-3\",\"lobbyName\":\"lobby-bench\",\"message\":\"¡Subo a 1250!\"}]",
+                StandardCharsets.UTF_8);
+
+        // Ambas implementaciones deben producir exactamente el mismo JSON
+        JsonSupport reference = create("jackson");
+        for (List<Object> event : List.of(newBid, playerUpdate, gameStarted, newRound, bidResult, gameEnd)) {
+            String expected = encodeWith(reference, event);
+            String actual = encodeWith(jsonSupport, event);
+            if (!expected.equals(actual)) {
+                throw new IllegalStateException("JSON distinto para " + event.get(0) + ": " + actual + " != " + expected);
+            }
+        }
+        PlaceBidData bid = (PlaceBidData) decodePlaceBid();
+        ChatMessageData chat = (ChatMessageData) decodeChatMessage();
+        if (bid.getAmount() != 1250 || !"lobby-bench".equals(bid.getLobbyName()) || !"¡Subo a 1250!".equals(chat.getMessage())) {
+            throw new IllegalStateException("Decodificación incorrecta con " + support);
+        }
+    }
+
+    private static JsonSupport create(String support) {
+        JsonSupport created = "game".equals(support) ? new GameJsonSupport() : new JacksonJsonSupport();
+        created.addEventMapping(Namespace.DEFAULT_NAME, "placeBid", PlaceBidData.class);
+        created.addEventMapping(Namespace.DEFAULT_NAME, "chatMessage", ChatMessageData.class);
+        return created;
+    }
+
+    private static String encodeWith(JsonSupport jsonSupport, Object event) throws IOException {
+        ByteBuf out = Unpooled.buffer();
+        try {
+            jsonSupport.writeValue(new ByteBufOutputStream(out), event);
+            return out.toString(StandardCharsets.UTF_8);
+        } finally {
+            out.release();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        buffer.release();
+        placeBid.release();
+        chatMessage.release();
+    }
+
+    private int encode(Object event) throws IOException {
+        buffer.clear();
+        jsonSupport.writeValue(new ByteBufOutputStream(buffer), event);
+        return buffer.writerIndex();
+    }
+
+    @Benchmark
+    public int encodeNewBid() throws IOException {
+        return encode(newBid);
+    }
+
+    @Benchmark
+    public int encodePlayerUpdate() throws IOException {
+        return encode(playerUpdate);
+    }
+
+    @Benchmark
+    public int encodeGameStarted() throws IOException {
+        return encode(gameStarted);
+    }
+
+    @Benchmark
+    public int encodeNewRound() throws IOException {
+        return encode(newRound);
+    }
+
+    @Benchmark
+    public int encodeBidResult() throws IOException {
+        return encode(bidResult);
+    }
+
+    @Benchmark
+    public int encodeGameEnd() throws IOException {
+        return encode(gameEnd);
+    }
+
+    private Event decode(ByteBuf frame) throws IOException {
+        return jsonSupport.readValue(Namespace.DEFAULT_NAME, new ByteBufInputStream(frame.duplicate()), Event.class);
+    }
+
+    @Benchmark
+    public Object decodePlaceBid() throws IOException {
+        return decode(placeBid).getArgs().get(0);
+    }
+
+    @Benchmark
+    public Object decodeChatMessage() throws IOException {
+        return decode(chatMessage).getArgs().get(0);
+    }
+}
@@ -0,0 +1,83 @@
+package arsw.tamaltolimense.SocketServer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Costo de exportar una partida de bids apuestas: recordBid = anotar una apuesta en GameRecord
+// (lo que paga placeBid); encode = codificar la partida completa con GameExportFormat y
+// escribirla (lo que hace el hilo de GameExporter). Dividir encode entre bids da el costo por
+// apuesta para estimar cuántas apuestas por hora aguanta el escritor.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameExportBenchmark {
+
+    private static final OutputStream DISCARD = new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+
+    @Param({"100", "1000"})
+    public int bids;
+
+    private GameState game;
+    private GameRecord scratch;
+    private final GameExportFormat format = new GameExportFormat();
+    private int bidIndex;
+
+    @Setup
+    public void setUp() {
+        GameRoster roster = new GameRoster(List.of("jugador-0", "jugador-1", "jugador-2", "jugador-3"));
+        game = new GameState();
+        game.setLobbyName("lobby-benchmark");
+        game.setTotalRounds(5);
+        game.setRoster(roster);
+        game.startRecording(System.currentTimeMillis());
+        long start = game.getRecord().startedAt();
+        for (int i = 0; i < bids; i++) {
+            game.getRecord().bid(1 + i * 5 / bids, i % 4, 100 + i * 7, start + i * 40L);
+        }
+        for (int round = 1; round <= 5; round++) {
+            game.getRecord().round(new GameRecord.RoundOutcome(round, "contenedor-" + round, "EPICO",
+                    3000, round % 4, 2500, 500));
+        }
+        scratch = new GameRecord(start);
+    }
+
+    @Benchmark
+    public void recordBid() {
+        if (++bidIndex == bids) {
+            bidIndex = 0;
+            scratch = new GameRecord(scratch.startedAt());
+        }
+        scratch.bid(1, bidIndex & 3, 100 + bidIndex, scratch.startedAt() + bidIndex);
+    }
+
+    @Benchmark
+    public int encode() throws IOException {
+        format.encode(game, 0, game.getRecord().startedAt() + 60_000);
+        return format.writeTo(DISCARD);
+    }
+}
@@ -0,0 +1,151 @@
+package arsw.tamaltolimense.SocketServer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Memoria retenida por partida con 10k partidas inactivas (4 jugadores, ronda abierta, sin apuestas).
+// "legacy" reproduce la forma anterior: la fase como String, los asientos copiados en BidRegister
+// y un PlayerState por jugador en una lista guardada en un segundo mapa por lobby. "roster" es
+// GameState con GamePhase y GameRoster. Los nicknames se crean una sola vez fuera de la medición
+// porque ya existen en las sesiones y el lobby. Cada medición es el heap usado tras un GC completo
+// dividido entre las partidas; al final se imprime la mediana:
+//   mvn -Pjmh test-compile exec:exec@jmh -Djmh.args="GameFootprint"
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-XX:+UseSerialGC", "-Xmx512m"})
+@State(Scope.Thread)
+public class GameFootprintBenchmark {
+
+    private static final int GAMES = 10_000;
+    private static final int PLAYERS = 4;
+
+    @Param({"legacy", "roster"})
+    public String layout;
+
+    private String[] lobbyNames;
+    private List<List<String>> seats;
+
+    private final List<Long> samples = new ArrayList<>();
+
+    // Forma de GameState y PlayerState antes de GamePhase y GameRoster
+    static final class LegacyGame {
+        String lobbyName;
+        int currentRound;
+        int totalRounds;
+        String status;
+        ContainerInfo currentContainer;
+        final BidRegister bids = new BidRegister();
+        String[] seats;
+    }
+
+    static final class LegacyPlayer {
+        String nickname;
+        volatile int balance;
+        int score;
+    }
+
+    @Setup
+    public void setup() {
+        lobbyNames = new String[GAMES];
+        seats = new ArrayList<>(GAMES);
+        for (int g = 0; g < GAMES; g++) {
+            lobbyNames[g] = "lobby-" + g;
+            List<String> nicknames = new ArrayList<>(PLAYERS);
+            for (int p = 0; p < PLAYERS; p++) {
+                nicknames.add("jugador-" + g + "-" + p);
+            }
+            seats.add(List.copyOf(nicknames));
+        }
+    }
+
+    private Object legacyGames() {
+        Map<String, LegacyGame> activeGames = new HashMap<>();
+        Map<String, List<LegacyPlayer>> gamePlayers = new HashMap<>();
+        for (int g = 0; g < GAMES; g++) {
+            LegacyGame game = new LegacyGame();
+            game.lobbyName = lobbyNames[g];
+            game.currentRound = 1;
+            game.totalRounds = 5;
+            game.status = "BIDDING";
+            game.seats = seats.get(g).toArray(new String[0]);
+            game.bids.open(1, AuctionRules.INITIAL_BID);
+            List<LegacyPlayer> players = new ArrayList<>();
+            for (String nickname : seats.get(g)) {
+                LegacyPlayer player = new LegacyPlayer();
+                player.nickname = nickname;
+                player.balance = 2000;
+                players.add(player);
+            }
+            activeGames.put(lobbyNames[g], game);
+            gamePlayers.put(lobbyNames[g], players);
+        }
+        return new Object[]{activeGames, gamePlayers};
+    }
+
+    private Object rosterGames() {
+        Map<String, GameState> activeGames = new HashMap<>();
+        for (int g = 0; g < GAMES; g++) {
+            GameState game = new GameState();
+            game.setLobbyName(lobbyNames[g]);
+            game.setCurrentRound(1);
+            game.setTotalRounds(5);
+            GameRoster roster = new GameRoster(seats.get(g));
+            for (int seat = 0; seat < PLAYERS; seat++) {
+                roster.setBalance(seat, 2000);
+            }
+            game.setRoster(roster);
+            game.transitionTo(GamePhase.BIDDING);
+            game.getBids().open(1, AuctionRules.INITIAL_BID);
+            activeGames.put(lobbyNames[g], game);
+        }
+        return activeGames;
+    }
+
+    private static long usedAfterGc(MemoryMXBean memory) {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    // Mediana de las mediciones; se imprime en la salida del fork al terminar
+    @TearDown
+    public void report() {
+        List<Long> sorted = new ArrayList<>(samples);
+        sorted.sort(null);
+        System.out.printf("%nbytes por partida (%s, %d partidas inactivas): %d%n",
+                layout, GAMES, sorted.get(sorted.size() / 2));
+    }
+
+    @Benchmark
+    public int idleGames() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long before = usedAfterGc(memory);
+        Object games = "legacy".equals(layout) ? legacyGames() : rosterGames();
+        long after = usedAfterGc(memory);
+        Reference.reachabilityFence(games);
+        samples.add((after - before) / GAMES);
+        return games.hashCode();
+    }
+}
@@ -0,0 +1,83 @@
+package arsw.tamaltolimense.SocketServer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+// Un resultado de ronda en la clasificación global con players jugadores: actualizar al ganador y
+// consultar su posición. treap = LeaderboardTree; treeset = TreeSet ordenado, donde la posición
+// sale de headSet(...).size(), que recorre la vista (O(n)).
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LeaderboardBenchmark {
+
+    private record Standing(String nickname, long profit, int roundsWon) {
+    }
+
+    private static final Comparator<Standing> ORDER = Comparator.comparingLong(Standing::profit).reversed()
+            .thenComparing(Comparator.comparingInt(Standing::roundsWon).reversed())
+            .thenComparing(Standing::nickname);
+
+    @Param({"treap", "treeset"})
+    public String structure;
+
+    @Param({"10000", "100000"})
+    public int players;
+
+    private String[] nicknames;
+    private SplittableRandom random;
+    private LeaderboardTree tree;
+    private TreeSet<Standing> sorted;
+    private Map<String, Standing> byNickname;
+
+    @Setup
+    public void setUp() {
+        random = new SplittableRandom(42);
+        nicknames = new String[players];
+        tree = new LeaderboardTree();
+        sorted = new TreeSet<>(ORDER);
+        byNickname = new HashMap<>();
+        for (int i = 0; i < players; i++) {
+            nicknames[i] = "jugador" + i;
+            int profit = random.nextInt(-500, 2000);
+            tree.add(nicknames[i], profit, 0, 1);
+            Standing standing = new Standing(nicknames[i], profit, 1);
+            sorted.add(standing);
+            byNickname.put(nicknames[i], standing);
+        }
+    }
+
+    @Benchmark
+    public int recordRound() {
+        String winner = nicknames[random.nextInt(players)];
+        int profit = random.nextInt(-500, 2000);
+        if ("treap".equals(structure)) {
+            return tree.add(winner, profit, 0, 1);
+        }
+        Standing old = byNickname.get(winner);
+        sorted.remove(old);
+        Standing updated = new Standing(winner, old.profit() + profit, old.roundsWon() + 1);
+        sorted.add(updated);
+        byNickname.put(winner, updated);
+        return sorted.headSet(updated).size() + 1;
+    }
+}
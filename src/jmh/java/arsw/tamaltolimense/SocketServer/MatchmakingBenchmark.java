@@ -0,0 +1,119 @@
+package arsw.tamaltolimense.SocketServer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Una pasada del emparejador: llegan players tickets con saldo y rondas al azar y se forman los
+// lobbies; los que sobran siguen en la cola para la siguiente pasada. buckets = MatchmakingBuckets;
+// scan = una sola lista en la que cada jugador busca compañeros compatibles recorriéndola, que es
+// lo que haría un emparejador sin cubos. El tiempo es por pasada completa; dividir entre players
+// da el costo por jugador.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MatchmakingBenchmark {
+
+    private static final int LOBBY_SIZE = 4;
+    private static final int MAX_ROUNDS = 10;
+    private static final int[] BANDS = {1000, 3000, 10000};
+
+    @Param({"buckets", "scan"})
+    public String queue;
+
+    @Param({"1000", "10000"})
+    public int players;
+
+    private MatchmakingBuckets.Ticket[] tickets;
+    private MatchmakingBuckets buckets;
+    private final List<MatchmakingBuckets.Ticket> waiting = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        tickets = new MatchmakingBuckets.Ticket[players];
+        for (int i = 0; i < players; i++) {
+            tickets[i] = new MatchmakingBuckets.Ticket(new UUID(0, i), null, "jugador" + i,
+                    random.nextInt(15000), 1 + random.nextInt(5), 0);
+        }
+        buckets = new MatchmakingBuckets(LOBBY_SIZE, 2, Long.MAX_VALUE, MAX_ROUNDS, Integer.MAX_VALUE, BANDS);
+        waiting.clear();
+    }
+
+    @Benchmark
+    public int formLobbies() {
+        if ("scan".equals(queue)) {
+            return scan();
+        }
+        for (MatchmakingBuckets.Ticket ticket : tickets) {
+            buckets.enqueue(ticket);
+        }
+        return buckets.form(1).size();
+    }
+
+    private int scan() {
+        // Los tickets se reutilizan entre pasadas; uno que sigue esperando no se vuelve a agregar
+        int leftover = waiting.size();
+        for (MatchmakingBuckets.Ticket ticket : tickets) {
+            if (!waiting.subList(0, leftover).contains(ticket)) {
+                waiting.add(ticket);
+            }
+        }
+        boolean[] taken = new boolean[waiting.size()];
+        int lobbies = 0;
+        int[] group = new int[LOBBY_SIZE];
+        for (int i = 0; i < waiting.size(); i++) {
+            if (taken[i]) {
+                continue;
+            }
+            MatchmakingBuckets.Ticket first = waiting.get(i);
+            int size = 0;
+            group[size++] = i;
+            for (int j = i + 1; j < waiting.size() && size < LOBBY_SIZE; j++) {
+                MatchmakingBuckets.Ticket other = waiting.get(j);
+                if (!taken[j] && other.rounds == first.rounds && band(other.balance) == band(first.balance)) {
+                    group[size++] = j;
+                }
+            }
+            if (size == LOBBY_SIZE) {
+                for (int k = 0; k < size; k++) {
+                    taken[group[k]] = true;
+                }
+                lobbies++;
+            }
+        }
+        int kept = 0;
+        for (int i = 0; i < waiting.size(); i++) {
+            if (!taken[i]) {
+                waiting.set(kept++, waiting.get(i));
+            }
+        }
+        waiting.subList(kept, waiting.size()).clear();
+        return lobbies;
+    }
+
+    private static int band(int balance) {
+        int band = 0;
+        while (band < BANDS.length && balance >= BANDS[band]) {
+            band++;
+        }
+        return band;
+    }
+}
@@ -0,0 +1,56 @@
+package arsw.tamaltolimense.SocketServer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Búsqueda del asiento de un jugador (GameRoster.seatOf) en cada apuesta y cierre de ronda
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PlayerLookupBenchmark {
+
+    @Param({"2", "4", "8"})
+    public int playerCount;
+
+    private GameRoster roster;
+    private String[] nicknames;
+    private int next;
+
+    @Setup
+    public void setup() {
+        List<String> seated = new ArrayList<>();
+        nicknames = new String[playerCount];
+        for (int i = 0; i < playerCount; i++) {
+            seated.add("jugador-" + i);
+            // Copias distintas para no medir la comparación por identidad
+            nicknames[i] = new String(seated.get(i));
+        }
+        roster = new GameRoster(seated);
+    }
+
+    @Benchmark
+    public int findPlayer() {
+        return roster.seatOf(nicknames[next++ % playerCount]);
+    }
+
+    @Benchmark
+    public int findMissingPlayer() {
+        return roster.seatOf("espectador");
+    }
+}
@@ -0,0 +1,63 @@
+package arsw.tamaltolimense.SocketServer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Cálculo del resultado de endAuctionRound y liquidación del ganador
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RoundResultBenchmark {
+
+    private GameState gameState;
+    private GameRoster roster;
+
+    @Setup
+    public void setup() {
+        ContainerInfo container = new ContainerInfo();
+        container.setId("container-1a2b3c4d-color:dorado-objects:Reloj,350.0;Cuadro,1200.5");
+        container.setType("Legendario");
+        container.setValue(1551);
+
+        roster = new GameRoster(List.of("jugador-0"));
+        roster.setBalance(0, 2000);
+
+        gameState = new GameState();
+        gameState.setRoster(roster);
+        gameState.transitionTo(GamePhase.BIDDING);
+        gameState.setCurrentContainer(container);
+        gameState.getBids().open(1, AuctionRules.INITIAL_BID);
+        gameState.getBids().tryBid(1, 0, 900);
+        gameState.getBids().close();
+        gameState.transitionTo(GamePhase.REVEALING);
+    }
+
+    @Benchmark
+    public Object computeRoundResult() {
+        return AuctionRules.computeRoundResult(gameState);
+    }
+
+    @Benchmark
+    public int computeAndSettleRound() {
+        BidResultData result = AuctionRules.computeRoundResult(gameState);
+        AuctionRules.settleRound(roster, 0, result);
+        // Mantener estable el estado del ganador entre invocaciones
+        roster.setBalance(0, 2000);
+        roster.addScore(0, -result.getProfit());
+        return result.getProfit();
+    }
+}
@@ -0,0 +1,162 @@
+package arsw.tamaltolimense.SocketServer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+// Lee los archivos de GameExporter (formato en GameExportFormat) e imprime una línea JSON por
+// partida, o con summary=true solo los totales. path puede ser un archivo o un directorio:
+//   mvn -Ploadtest test-compile exec:exec@exportdump -Dexport.args="path=game-exports summary=true"
+public final class ExportDump {
+
+    private ExportDump() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        LoadTestOptions options = new LoadTestOptions(args);
+        Path path = Paths.get(options.exportPath());
+        List<Path> files;
+        if (Files.isDirectory(path)) {
+            try (Stream<Path> listing = Files.list(path)) {
+                files = listing.filter(file -> file.getFileName().toString().endsWith(".hcg")).sorted().toList();
+            }
+        } else {
+            files = List.of(path);
+        }
+
+        ObjectMapper mapper = new ObjectMapper();
+        long games = 0;
+        long bids = 0;
+        long bytes = 0;
+        for (Path file : files) {
+            bytes += Files.size(file);
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                byte[] magic = new byte[GameExportFormat.MAGIC.length];
+                in.readFully(magic);
+                int version = in.readUnsignedByte();
+                if (!Arrays.equals(magic, GameExportFormat.MAGIC) || version != GameExportFormat.VERSION) {
+                    System.err.printf("%s: no es un archivo de exportación v%d%n", file, GameExportFormat.VERSION);
+                    continue;
+                }
+                while (true) {
+                    long length;
+                    try {
+                        length = readVarLong(in);
+                    } catch (EOFException e) {
+                        break;
+                    }
+                    byte[] record = new byte[(int) length];
+                    in.readFully(record);
+                    Map<String, Object> game = decode(record);
+                    games++;
+                    bids += ((List<?>) game.get("bids")).size();
+                    if (!options.summary()) {
+                        System.out.println(mapper.writeValueAsString(game));
+                    }
+                }
+            }
+        }
+        System.err.printf("%d archivos, %d partidas, %d apuestas, %d bytes (%.1f bytes por apuesta)%n",
+                files.size(), games, bids, bytes, bids > 0 ? (double) bytes / bids : 0.0);
+    }
+
+    private static Map<String, Object> decode(byte[] record) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+        Map<String, Object> game = new LinkedHashMap<>();
+        long startedAt = readVarLong(in);
+        game.put("startedAt", startedAt);
+        game.put("durationMs", readVarLong(in));
+        game.put("lobby", readString(in));
+        game.put("totalRounds", readVarLong(in));
+
+        int seats = (int) readVarLong(in);
+        List<Map<String, Object>> players = new ArrayList<>(seats);
+        List<String> nicknames = new ArrayList<>(seats);
+        for (int seat = 0; seat < seats; seat++) {
+            Map<String, Object> player = new LinkedHashMap<>();
+            String nickname = readString(in);
+            nicknames.add(nickname);
+            player.put("nickname", nickname);
+            player.put("score", readZigZag(in));
+            player.put("balance", readZigZag(in));
+            players.add(player);
+        }
+        game.put("players", players);
+        game.put("winner", nicknameOf(nicknames, readZigZag(in)));
+
+        int roundCount = (int) readVarLong(in);
+        List<Map<String, Object>> rounds = new ArrayList<>(roundCount);
+        for (int i = 0; i < roundCount; i++) {
+            Map<String, Object> round = new LinkedHashMap<>();
+            round.put("round", readVarLong(in));
+            round.put("containerId", readString(in));
+            round.put("containerType", readString(in));
+            round.put("containerValue", readZigZag(in));
+            round.put("winner", nicknameOf(nicknames, readZigZag(in)));
+            round.put("bidAmount", readZigZag(in));
+            round.put("profit", readZigZag(in));
+            rounds.add(round);
+        }
+        game.put("rounds", rounds);
+
+        int bidCount = (int) readVarLong(in);
+        List<Map<String, Object>> bids = new ArrayList<>(bidCount);
+        long at = startedAt;
+        for (int i = 0; i < bidCount; i++) {
+            Map<String, Object> bid = new LinkedHashMap<>();
+            bid.put("round", readVarLong(in));
+            bid.put("player", nicknameOf(nicknames, readVarLong(in)));
+            bid.put("amount", readVarLong(in));
+            at += readZigZag(in);
+            bid.put("at", at);
+            bids.add(bid);
+        }
+        game.put("bids", bids);
+        return game;
+    }
+
+    private static String nicknameOf(List<String> nicknames, long seat) {
+        return seat >= 0 && seat < nicknames.size() ? nicknames.get((int) seat) : null;
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[(int) readVarLong(in)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static long readZigZag(InputStream in) throws IOException {
+        long value = readVarLong(in);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static long readVarLong(InputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException();
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("varint demasiado largo");
+    }
+}
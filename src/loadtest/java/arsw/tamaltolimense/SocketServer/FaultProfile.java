@@ -0,0 +1,31 @@
+package arsw.tamaltolimense.SocketServer;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+// Latencia e inyección de errores de un backend stub
+final class FaultProfile {
+    private final long latencyMs;
+    private final long jitterMs;
+    private final double errorRate;
+
+    FaultProfile(long latencyMs, long jitterMs, double errorRate) {
+        this.latencyMs = latencyMs;
+        this.jitterMs = jitterMs;
+        this.errorRate = errorRate;
+    }
+
+    // Duerme la latencia configurada y devuelve true si la petición debe fallar
+    boolean apply() throws InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long delay = latencyMs + (jitterMs > 0 ? random.nextLong(jitterMs + 1) : 0);
+        if (delay > 0) {
+            Thread.sleep(delay);
+        }
+        return errorRate > 0 && random.nextDouble() < errorRate;
+    }
+
+    @Override
+    public String toString() {
+        return "latencia=" + latencyMs + "ms jitter=" + jitterMs + "ms errores=" + errorRate;
+    }
+}
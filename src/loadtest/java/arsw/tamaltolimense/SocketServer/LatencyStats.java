@@ -0,0 +1,61 @@
+package arsw.tamaltolimense.SocketServer;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Latencias por evento (histogramas HDR en microsegundos) y contadores de errores
+final class LatencyStats {
+
+    private static final long MAX_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+    void record(String event, long elapsedNanos) {
+        long micros = Math.min(MAX_TRACKABLE_MICROS, Math.max(1, TimeUnit.NANOSECONDS.toMicros(elapsedNanos)));
+        histograms.computeIfAbsent(event, k -> new ConcurrentHistogram(MAX_TRACKABLE_MICROS, 3))
+                .recordValue(micros);
+    }
+
+    void error(String event) {
+        errors.computeIfAbsent(event, k -> new LongAdder()).increment();
+    }
+
+    long totalCount() {
+        long total = 0;
+        for (Histogram histogram : histograms.values()) {
+            total += histogram.getTotalCount();
+        }
+        return total;
+    }
+
+    void report(PrintStream out, double elapsedSeconds) {
+        out.printf("%-22s %9s %8s %11s %9s %9s %9s %9s%n",
+                "evento", "total", "errores", "eventos/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        Map<String, Histogram> sorted = new TreeMap<>(histograms);
+        for (String event : errors.keySet()) {
+            sorted.putIfAbsent(event, new Histogram(MAX_TRACKABLE_MICROS, 3));
+        }
+        for (Map.Entry<String, Histogram> entry : sorted.entrySet()) {
+            Histogram h = entry.getValue();
+            LongAdder errorCount = errors.get(entry.getKey());
+            out.printf("%-22s %9d %8d %11.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    entry.getKey(),
+                    h.getTotalCount(),
+                    errorCount != null ? errorCount.sum() : 0,
+                    h.getTotalCount() / elapsedSeconds,
+                    h.getValueAtPercentile(50) / 1000.0,
+                    h.getValueAtPercentile(99) / 1000.0,
+                    h.getValueAtPercentile(99.9) / 1000.0,
+                    h.getMaxValue() / 1000.0);
+        }
+        out.printf("Rendimiento total: %.1f eventos/s en %.1f s%n", totalCount() / elapsedSeconds, elapsedSeconds);
+    }
+}
@@ -0,0 +1,84 @@
+package arsw.tamaltolimense.SocketServer;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Argumentos clave=valor del generador de carga
+final class LoadTestOptions {
+
+    private final Map<String, String> values = new HashMap<>();
+
+    LoadTestOptions(String[] args) {
+        for (String arg : args) {
+            String trimmed = arg.startsWith("--") ? arg.substring(2) : arg;
+            int eq = trimmed.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Argumento inválido, se espera clave=valor: " + arg);
+            }
+            values.put(trimmed.substring(0, eq), trimmed.substring(eq + 1));
+        }
+    }
+
+    int lobbies() { return intValue("lobbies", 100); }
+    int playersPerLobby() { return intValue("playersPerLobby", 4); }
+    int bidsPerPlayer() { return intValue("bidsPerPlayer", 10); }
+    int rounds() { return intValue("rounds", 1); }
+    int concurrentLobbies() { return intValue("concurrentLobbies", lobbies()); }
+    int rampSeconds() { return intValue("rampSeconds", 5); }
+    int socketPort() { return intValue("socketPort", 9443); }
+    int stubPort() { return intValue("stubPort", 0); }
+    long timeoutMillis() { return intValue("timeoutMs", 30000); }
+    long thinkMillis() { return intValue("thinkMs", 0); }
+    // Mensajes de chat por jugador intercalados con las apuestas; con > 0 el primer jugador vuelve
+    // a entrar al lobby al final y espera el historial (chatHistory)
+    int chatPerPlayer() { return intValue("chatPerPlayer", 0); }
+    // Espectadores por lobby conectados con watchLobby durante toda la partida
+    int spectatorsPerLobby() { return intValue("spectatorsPerLobby", 0); }
+    // Jugadores que, después de los lobbies, piden partida con matchmake y esperan matchFound
+    int matchmakers() { return intValue("matchmakers", 0); }
+    String logLevel() { return values.getOrDefault("logLevel", "WARN"); }
+    // remote: APIs servidas por StubBackendServer; embedded: servicios en proceso sin red
+    String backendMode() { return values.getOrDefault("backend", "remote"); }
+    // Perfiles de transporte a comparar, separados por comas: default (NIO) y/o production
+    List<String> transports() { return List.of(values.getOrDefault("transport", "default").split(",")); }
+
+    // Sonda de arranque (StartupProbe): arranques por variante, variantes a comparar y artefactos
+    int runs() { return intValue("runs", 5); }
+    List<String> variants() { return List.of(values.getOrDefault("variants", "jar,extracted,aot,cds").split(",")); }
+    String jar() { return values.get("jar"); }
+    String cdsDirectory() { return values.get("cds"); }
+
+    // Lector de exportaciones (ExportDump): archivo o directorio, y si solo se imprimen totales
+    String exportPath() { return values.getOrDefault("path", "game-exports"); }
+    boolean summary() { return Boolean.parseBoolean(values.getOrDefault("summary", "false")); }
+
+    // Latencia y errores de una dependencia (lobbies, bids, containers, users), con valores globales por defecto
+    FaultProfile faults(String dependency) {
+        return new FaultProfile(
+                intValue(dependency + ".latencyMs", intValue("latencyMs", 20)),
+                intValue(dependency + ".jitterMs", intValue("jitterMs", 10)),
+                doubleValue(dependency + ".errorRate", doubleValue("errorRate", 0.0)));
+    }
+
+    // Propiedades adicionales de Spring pasadas como spring.xxx=valor o socketio.xxx=valor
+    Map<String, String> springProperties() {
+        Map<String, String> properties = new HashMap<>();
+        values.forEach((key, value) -> {
+            if (key.startsWith("spring.") || key.startsWith("socketio.") || key.startsWith("hiddencargo.")) {
+                properties.put(key, value);
+            }
+        });
+        return properties;
+    }
+
+    private int intValue(String key, int defaultValue) {
+        String value = values.get(key);
+        return value != null ? Integer.parseInt(value) : defaultValue;
+    }
+
+    private double doubleValue(String key, double defaultValue) {
+        String value = values.get(key);
+        return value != null ? Double.parseDouble(value) : defaultValue;
+    }
+}
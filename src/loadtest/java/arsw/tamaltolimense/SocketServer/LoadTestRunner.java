@@ -0,0 +1,253 @@
+package arsw.tamaltolimense.SocketServer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.socket.client.IO;
+import okhttp3.OkHttpClient;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Generador de carga autocontenido: arranca SocketServerApplication en un puerto local con las
+// cuatro APIs externas reemplazadas por StubBackendServer y lanza lobbies simulados en paralelo.
+// Responde "cuántos lobbies concurrentes aguanta un nodo" subiendo lobbies/concurrentLobbies.
+public final class LoadTestRunner {
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = new LoadTestOptions(args);
+        int exitCode;
+        try (StubBackendServer stub = new StubBackendServer(options.stubPort(), options.rounds(),
+                options.faults(StubBackendServer.LOBBIES))) {
+            for (String dependency : new String[]{StubBackendServer.BIDS, StubBackendServer.CONTAINERS,
+                    StubBackendServer.USERS}) {
+                stub.setFaults(dependency, options.faults(dependency));
+            }
+            stub.start();
+
+            // Con transport=default,production se repite la misma carga con cada perfil de transporte.
+            // Cada pasada usa su propio puerto: las conexiones en TIME_WAIT de una pasada sin
+            // SO_REUSEADDR impedirían a la siguiente escuchar en el mismo puerto.
+            exitCode = 0;
+            List<String> transports = options.transports();
+            for (int i = 0; i < transports.size(); i++) {
+                String transport = transports.get(i);
+                int port = options.socketPort() + i;
+                System.out.printf("=== Transporte: %s (puerto %d) ===%n", transport, port);
+                try (ConfigurableApplicationContext app = startServer(options, stub, transport, port)) {
+                    if (!runLobbies(options, port)) {
+                        exitCode = 1;
+                    }
+                    if (options.matchmakers() > 0) {
+                        if (!runMatchmaking(options, port)) {
+                            exitCode = 1;
+                        }
+                        reportMatchmaking(app);
+                    }
+                    reportSocketWrites(app);
+                    if (options.chatPerPlayer() > 0) {
+                        reportChat(app);
+                    }
+                    if (options.spectatorsPerLobby() > 0) {
+                        reportSpectators(app);
+                    }
+                    reportExport(app);
+                }
+            }
+        }
+        System.exit(exitCode);
+    }
+
+    static ConfigurableApplicationContext startServer(LoadTestOptions options, StubBackendServer stub,
+                                                      String transport, int port) {
+        List<String> properties = new ArrayList<>(List.of(stub.backendProperties()));
+        if (!"default".equals(transport)) {
+            // Perfil de Spring con las opciones de transporte (application-production.properties)
+            properties.add("spring.profiles.active=" + transport);
+        }
+        properties.add("socketio.hostname=127.0.0.1");
+        properties.add("socketio.port=" + port);
+        properties.add("server.port=0");
+        properties.add("spring.main.banner-mode=off");
+        properties.add("logging.level.arsw.tamaltolimense=" + options.logLevel());
+        properties.add("hiddencargo.backend.mode=" + options.backendMode());
+        properties.add("hiddencargo.embedded.rounds-per-game=" + options.rounds());
+        options.springProperties().forEach((key, value) -> properties.add(key + "=" + value));
+        // Como argumentos de línea de comandos para que prevalezcan sobre application.properties
+        return new SpringApplicationBuilder(SocketServerApplication.class)
+                .run(properties.stream().map(property -> "--" + property).toArray(String[]::new));
+    }
+
+    // Escrituras y flushes que llegaron al socket según SocketChannelMetrics
+    private static void reportSocketWrites(ConfigurableApplicationContext app) {
+        MeterRegistry registry = app.getBean(MeterRegistry.class);
+        double writes = registry.counter("hiddencargo.socket.writes").count();
+        double flushes = registry.counter("hiddencargo.socket.flushes").count();
+        System.out.printf("Socket: %.0f escrituras, %.0f flushes, %.2f escrituras por flush%n",
+                writes, flushes, flushes > 0 ? writes / flushes : 0.0);
+    }
+
+    // Mensajes de chat, envíos a los lobbies (un mensaje o un lote) e historiales según LobbyChat
+    private static void reportChat(ConfigurableApplicationContext app) {
+        MeterRegistry registry = app.getBean(MeterRegistry.class);
+        double messages = registry.counter("hiddencargo.chat.messages").count();
+        double frames = registry.counter("hiddencargo.chat.frames").count();
+        double replays = registry.counter("hiddencargo.chat.replays").count();
+        System.out.printf("Chat: %.0f mensajes en %.0f envíos, %.0f historiales reenviados%n",
+                messages, frames, replays);
+    }
+
+    // Fotos serializadas para los espectadores y entregas (una por espectador) según SpectatorFeed
+    private static void reportSpectators(ConfigurableApplicationContext app) {
+        MeterRegistry registry = app.getBean(MeterRegistry.class);
+        double snapshots = registry.counter("hiddencargo.spectators.snapshots").count();
+        double deliveries = registry.counter("hiddencargo.spectators.deliveries").count();
+        System.out.printf("Espectadores: %.0f fotos serializadas, %.0f entregas%n", snapshots, deliveries);
+    }
+
+    // Partidas y apuestas escritas por GameExporter (con hiddencargo.export.enabled=true)
+    private static void reportExport(ConfigurableApplicationContext app) {
+        if (!app.getBean(GameExportProperties.class).isEnabled()) {
+            return;
+        }
+        MeterRegistry registry = app.getBean(MeterRegistry.class);
+        System.out.printf("Exportación: %.0f partidas, %.0f apuestas, %.0f bytes, %.0f descartadas%n",
+                registry.counter("hiddencargo.export.games").count(),
+                registry.counter("hiddencargo.export.bids").count(),
+                registry.counter("hiddencargo.export.bytes").count(),
+                registry.counter("hiddencargo.export.dropped").count());
+    }
+
+    // Lobbies formados y espera en cola según MatchmakingQueue
+    private static void reportMatchmaking(ConfigurableApplicationContext app) {
+        MeterRegistry registry = app.getBean(MeterRegistry.class);
+        double matched = registry.counter("hiddencargo.matchmaking.matched").count();
+        double lobbies = registry.counter("hiddencargo.matchmaking.lobbies").count();
+        Timer wait = registry.timer("hiddencargo.matchmaking.wait");
+        System.out.printf("Emparejamiento: %.0f jugadores en %.0f lobbies, espera media %.1f ms, máxima %.1f ms%n",
+                matched, lobbies, wait.mean(TimeUnit.MILLISECONDS), wait.max(TimeUnit.MILLISECONDS));
+    }
+
+    // Todos los jugadores piden partida a la vez. Franja de saldo y rondas salen del índice, de modo
+    // que con un múltiplo de 48 jugadores cada cubo completa sus lobbies sin esperar max-wait.
+    private static boolean runMatchmaking(LoadTestOptions options, int port) {
+        OkHttpClient okHttp = sharedOkHttp();
+        URI serverUri = URI.create("http://127.0.0.1:" + port);
+        LatencyStats stats = new LatencyStats();
+        int[] balances = {500, 2000, 5000, 20000};
+        List<SimulatedPlayer> players = new ArrayList<>();
+        for (int i = 0; i < options.matchmakers(); i++) {
+            players.add(new SimulatedPlayer(serverUri, "mm-p" + i, null, stats, options.timeoutMillis()));
+        }
+        System.out.printf("Emparejamiento: %d jugadores%n", players.size());
+        long start = System.nanoTime();
+        int matched = 0;
+        try {
+            CompletableFuture.allOf(players.stream().map(SimulatedPlayer::connect).toArray(CompletableFuture<?>[]::new))
+                    .join();
+            long requested = System.nanoTime();
+            List<CompletableFuture<Object>> found = new ArrayList<>();
+            for (int i = 0; i < players.size(); i++) {
+                JSONObject payload = new JSONObject().put("nickname", players.get(i).nickname())
+                        .put("balance", balances[(i / 3) % balances.length]).put("rounds", 1 + i % 3);
+                found.add(players.get(i).emitAndAwait("matchmake", payload, "matchFound"));
+            }
+            for (CompletableFuture<Object> match : found) {
+                try {
+                    match.join();
+                    matched++;
+                } catch (RuntimeException e) {
+                    // Ya contado como matchmake.timeout
+                }
+            }
+            double seconds = (System.nanoTime() - requested) / 1e9;
+            System.out.printf("Emparejados: %d de %d en %.2f s (%.0f jugadores/s)%n",
+                    matched, players.size(), seconds, matched / seconds);
+        } catch (JSONException | RuntimeException e) {
+            System.out.println("Emparejamiento interrumpido: " + e);
+        } finally {
+            players.forEach(SimulatedPlayer::close);
+            release(okHttp);
+        }
+        stats.report(System.out, (System.nanoTime() - start) / 1e9);
+        return matched == players.size();
+    }
+
+    private static boolean runLobbies(LoadTestOptions options, int port) throws InterruptedException {
+        OkHttpClient okHttp = sharedOkHttp();
+        URI serverUri = URI.create("http://127.0.0.1:" + port);
+        LatencyStats stats = new LatencyStats();
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        Semaphore inFlight = new Semaphore(options.concurrentLobbies());
+        long rampDelayNanos = options.lobbies() > 1
+                ? TimeUnit.SECONDS.toNanos(options.rampSeconds()) / options.lobbies()
+                : 0;
+
+        System.out.printf("Carga: %d lobbies x %d jugadores, %d apuestas por jugador, %d concurrentes, backend %s%n",
+                options.lobbies(), options.playersPerLobby(), options.bidsPerPlayer(), options.concurrentLobbies(),
+                options.backendMode());
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> lobbies = new ArrayList<>();
+            for (int i = 0; i < options.lobbies(); i++) {
+                inFlight.acquire();
+                LobbyScenario scenario = new LobbyScenario(serverUri, "load-" + i, options, stats, executor);
+                lobbies.add(executor.submit(() -> {
+                    try {
+                        (scenario.run() ? completed : failed).incrementAndGet();
+                    } finally {
+                        inFlight.release();
+                    }
+                }));
+                if (rampDelayNanos > 0) {
+                    TimeUnit.NANOSECONDS.sleep(rampDelayNanos);
+                }
+            }
+            for (Future<?> lobby : lobbies) {
+                try {
+                    lobby.get();
+                } catch (Exception e) {
+                    failed.incrementAndGet();
+                }
+            }
+        } finally {
+            release(okHttp);
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("Lobbies completados: %d, fallidos: %d%n", completed.get(), failed.get());
+        stats.report(System.out, elapsedSeconds);
+        return failed.get() == 0;
+    }
+
+    // Un único cliente OkHttp compartido para no crear un pool de hilos por socket simulado
+    private static OkHttpClient sharedOkHttp() {
+        OkHttpClient okHttp = new OkHttpClient.Builder().readTimeout(1, TimeUnit.MINUTES).build();
+        okHttp.dispatcher().setMaxRequests(Integer.MAX_VALUE);
+        okHttp.dispatcher().setMaxRequestsPerHost(Integer.MAX_VALUE);
+        IO.setDefaultOkHttpWebSocketFactory(okHttp);
+        IO.setDefaultOkHttpCallFactory(okHttp);
+        return okHttp;
+    }
+
+    private static void release(OkHttpClient okHttp) {
+        okHttp.dispatcher().executorService().shutdown();
+        okHttp.connectionPool().evictAll();
+    }
+}
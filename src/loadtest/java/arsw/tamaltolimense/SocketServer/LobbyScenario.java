@@ -0,0 +1,108 @@
+package arsw.tamaltolimense.SocketServer;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Recorrido completo de un lobby: join → ready → startGame → ráfaga de apuestas (y chat) → leave,
+// con espectadores opcionales que siguen la partida por su feed
+final class LobbyScenario {
+
+    private final String lobbyName;
+    private final List<SimulatedPlayer> players = new ArrayList<>();
+    private final List<SimulatedPlayer> spectators = new ArrayList<>();
+    private final LoadTestOptions options;
+    private final ExecutorService executor;
+    private final AtomicInteger highestBid = new AtomicInteger(AuctionRules.INITIAL_BID);
+
+    LobbyScenario(URI serverUri, String lobbyName, LoadTestOptions options, LatencyStats stats,
+                  ExecutorService executor) {
+        this.lobbyName = lobbyName;
+        this.options = options;
+        this.executor = executor;
+        for (int i = 0; i < options.playersPerLobby(); i++) {
+            players.add(new SimulatedPlayer(serverUri, lobbyName + "-p" + i, lobbyName, stats,
+                    options.timeoutMillis()));
+        }
+        for (int i = 0; i < options.spectatorsPerLobby(); i++) {
+            spectators.add(new SimulatedPlayer(serverUri, lobbyName + "-s" + i, lobbyName, stats,
+                    options.timeoutMillis()));
+        }
+    }
+
+    // Ejecuta el escenario bloqueando el hilo (virtual) que lo llama; devuelve false si algo falló
+    boolean run() {
+        try {
+            allOf(players.stream().map(SimulatedPlayer::connect).toList());
+            allOf(spectators.stream().map(SimulatedPlayer::connect).toList());
+            allOf(spectators.stream().map(s -> s.emit("watchLobby", s.payload())).toList());
+            allOf(players.stream().map(p -> p.emit("joinLobby", p.payload())).toList());
+            allOf(players.stream().map(p -> p.emit("playerReady", p.payload())).toList());
+
+            List<CompletableFuture<Object>> newRound = players.stream().map(p -> p.await("newRound")).toList();
+            for (SimulatedPlayer player : players) {
+                player.on("newBid", this::onNewBid);
+            }
+            players.get(0).emitAndAwait("startGame", new JSONObject().put("lobbyName", lobbyName), "gameStarted")
+                    .join();
+            allOf(newRound);
+
+            allOf(players.stream()
+                    .map(p -> CompletableFuture.runAsync(() -> bidStorm(p), executor))
+                    .toList());
+
+            if (options.chatPerPlayer() > 0) {
+                // Reentrada tras una "reconexión": el historial llega en un solo evento
+                SimulatedPlayer rejoining = players.get(0);
+                CompletableFuture<Object> history = rejoining.await("chatHistory");
+                rejoining.emit("joinLobby", rejoining.payload()).join();
+                history.join();
+            }
+
+            allOf(players.stream().map(p -> p.emit("leaveGame", p.payload())).toList());
+            return true;
+        } catch (RuntimeException | JSONException e) {
+            return false;
+        } finally {
+            players.forEach(SimulatedPlayer::close);
+            spectators.forEach(SimulatedPlayer::close);
+        }
+    }
+
+    private void bidStorm(SimulatedPlayer player) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < options.bidsPerPlayer(); i++) {
+            int amount = highestBid.get() + 1 + random.nextInt(10);
+            if (i < options.chatPerPlayer()) {
+                player.send("chatMessage", player.chatPayload("Mensaje " + i + " de " + lobbyName));
+            }
+            player.emit("placeBid", player.bidPayload(amount)).join();
+            if (options.thinkMillis() > 0) {
+                try {
+                    Thread.sleep(options.thinkMillis());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void onNewBid(Object data) {
+        if (data instanceof JSONObject bid) {
+            int amount = bid.optInt("amount");
+            highestBid.accumulateAndGet(amount, Math::max);
+        }
+    }
+
+    private static <T> void allOf(List<CompletableFuture<T>> futures) {
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+    }
+}
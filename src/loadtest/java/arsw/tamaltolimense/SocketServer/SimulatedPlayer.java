@@ -0,0 +1,135 @@
+package arsw.tamaltolimense.SocketServer;
+
+import io.socket.client.Ack;
+import io.socket.client.IO;
+import io.socket.client.Socket;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// Cliente socket.io simulado que mide la latencia de cada evento hasta su ack
+final class SimulatedPlayer {
+
+    private final String nickname;
+    private final String lobbyName;
+    private final Socket socket;
+    private final LatencyStats stats;
+    private final long timeoutMillis;
+
+    SimulatedPlayer(URI serverUri, String nickname, String lobbyName, LatencyStats stats, long timeoutMillis) {
+        this.nickname = nickname;
+        this.lobbyName = lobbyName;
+        this.stats = stats;
+        this.timeoutMillis = timeoutMillis;
+
+        IO.Options options = new IO.Options();
+        options.forceNew = true;
+        options.reconnection = false;
+        options.transports = new String[]{"websocket"};
+        this.socket = IO.socket(serverUri, options);
+    }
+
+    String nickname() {
+        return nickname;
+    }
+
+    CompletableFuture<Void> connect() {
+        CompletableFuture<Void> connected = new CompletableFuture<>();
+        long start = System.nanoTime();
+        socket.once(Socket.EVENT_CONNECT, args -> {
+            stats.record("connect", System.nanoTime() - start);
+            connected.complete(null);
+        });
+        socket.once(Socket.EVENT_CONNECT_ERROR, args -> {
+            stats.error("connect");
+            connected.completeExceptionally(new IllegalStateException("Error de conexión: " + nickname));
+        });
+        socket.connect();
+        return connected.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // Emite un evento con ack; el futuro se completa con el texto del ack
+    CompletableFuture<String> emit(String event, JSONObject payload) {
+        CompletableFuture<String> acked = new CompletableFuture<>();
+        long start = System.nanoTime();
+        socket.emit(event, new Object[]{payload}, (Ack) args -> {
+            String response = args.length > 0 ? String.valueOf(args[0]) : "";
+            stats.record(event, System.nanoTime() - start);
+            if (response.startsWith("Error")) {
+                stats.error(event);
+            }
+            acked.complete(response);
+        });
+        return acked.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS)
+                .whenComplete((response, error) -> {
+                    if (error != null) {
+                        stats.error(event + ".timeout");
+                    }
+                });
+    }
+
+    // Emite sin ack y mide el tiempo hasta recibir el evento de respuesta esperado
+    CompletableFuture<Object> emitAndAwait(String event, JSONObject payload, String responseEvent) {
+        CompletableFuture<Object> received = new CompletableFuture<>();
+        long start = System.nanoTime();
+        socket.once(responseEvent, args -> {
+            stats.record(event, System.nanoTime() - start);
+            received.complete(args.length > 0 ? args[0] : null);
+        });
+        socket.emit(event, payload);
+        return received.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS)
+                .whenComplete((response, error) -> {
+                    if (error != null) {
+                        stats.error(event + ".timeout");
+                    }
+                });
+    }
+
+    // Emite sin ack ni respuesta esperada
+    void send(String event, JSONObject payload) {
+        socket.emit(event, payload);
+    }
+
+    CompletableFuture<Object> await(String event) {
+        CompletableFuture<Object> received = new CompletableFuture<>();
+        socket.once(event, args -> received.complete(args.length > 0 ? args[0] : null));
+        return received.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    void on(String event, Consumer<Object> listener) {
+        socket.on(event, args -> listener.accept(args.length > 0 ? args[0] : null));
+    }
+
+    JSONObject payload() {
+        try {
+            return new JSONObject().put("nickname", nickname).put("lobbyName", lobbyName);
+        } catch (JSONException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    JSONObject chatPayload(String message) {
+        try {
+            return payload().put("message", message);
+        } catch (JSONException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    JSONObject bidPayload(int amount) {
+        try {
+            return payload().put("amount", amount);
+        } catch (JSONException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    void close() {
+        socket.off();
+        socket.disconnect();
+    }
+}
@@ -0,0 +1,140 @@
+package arsw.tamaltolimense.SocketServer;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Sonda de arranque: lanza el jar en un proceso aparte y mide el tiempo hasta la primera
+// conexión Socket.IO aceptada (handshake de long-polling con 200) y la memoria residente del
+// proceso en ese momento. Compara el jar actual con el extraído, con Spring AOT y con AOT + CDS:
+// mvn -Pcds,loadtest -DskipTests package exec:exec@startup -Dstartup.args="runs=5"
+public final class StartupProbe {
+
+    private static final long STARTUP_TIMEOUT_NANOS = TimeUnit.MINUTES.toNanos(2);
+
+    private StartupProbe() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = new LoadTestOptions(args);
+        Path jar = Path.of(options.jar());
+        Path cds = Path.of(options.cdsDirectory());
+        List<String> variants = options.variants();
+        long[][] ttfc = new long[variants.size()][options.runs()];
+        long[][] rss = new long[variants.size()][options.runs()];
+
+        try (StubBackendServer stub = new StubBackendServer(0, options.rounds(), new FaultProfile(0, 0, 0.0))) {
+            stub.start();
+            int port = options.socketPort();
+            // Variantes intercaladas para que la caché de disco y el ruido afecten a todas por igual
+            for (int run = 0; run < options.runs(); run++) {
+                for (int v = 0; v < variants.size(); v++) {
+                    List<String> command = command(variants.get(v), jar, cds);
+                    for (String property : stub.backendProperties()) {
+                        command.add("--" + property);
+                    }
+                    command.addAll(List.of("--socketio.hostname=127.0.0.1", "--socketio.port=" + port,
+                            "--server.port=0", "--spring.main.banner-mode=off", "--logging.level.root=WARN"));
+                    long[] sample = measure(command, port++);
+                    ttfc[v][run] = sample[0];
+                    rss[v][run] = sample[1];
+                    System.out.printf("%-10s arranque %d: primera conexión en %d ms, RSS %d MB%n",
+                            variants.get(v), run + 1, sample[0], sample[1] / 1024);
+                }
+            }
+        }
+
+        System.out.printf("%n%-10s %14s %10s %14s%n", "variante", "TTFC p50 ms", "min ms", "RSS p50 MB");
+        for (int v = 0; v < variants.size(); v++) {
+            System.out.printf("%-10s %14d %10d %14d%n", variants.get(v), median(ttfc[v]),
+                    Arrays.stream(ttfc[v]).min().orElse(-1), median(rss[v]) / 1024);
+        }
+    }
+
+    // jar: el jar ejecutable actual; extracted: jar extraído (lib/); aot: extraído con Spring AOT;
+    // cds: extraído con Spring AOT y el archivo de clases compartidas del entrenamiento
+    private static List<String> command(String variant, Path jar, Path cds) throws IOException {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        Path extracted = cds.resolve(jar.getFileName());
+        List<String> command = new ArrayList<>(List.of(java));
+        switch (variant) {
+            case "jar" -> command.addAll(List.of("-jar", jar.toString()));
+            case "extracted" -> command.addAll(List.of("-jar", extracted.toString()));
+            case "aot" -> command.addAll(List.of("-Dspring.aot.enabled=true", "-jar", extracted.toString()));
+            case "cds" -> {
+                Path archive = cds.resolve("application.jsa");
+                if (!Files.exists(archive)) {
+                    throw new IOException("No existe " + archive + ": compilar con -Pcds");
+                }
+                command.addAll(List.of("-XX:SharedArchiveFile=" + archive, "-Dspring.aot.enabled=true",
+                        "-jar", extracted.toString()));
+            }
+            default -> throw new IllegalArgumentException("Variante desconocida: " + variant);
+        }
+        return command;
+    }
+
+    // {milisegundos hasta la primera conexión aceptada, VmRSS en KB en ese instante}
+    private static long[] measure(List<String> command, int port) throws IOException, InterruptedException {
+        URI handshake = URI.create("http://127.0.0.1:" + port + "/socket.io/?EIO=3&transport=polling");
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            while (!accepted(handshake)) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("El servidor terminó con código " + process.exitValue());
+                }
+                if (System.nanoTime() - start > STARTUP_TIMEOUT_NANOS) {
+                    throw new IllegalStateException("Sin conexión aceptada tras 2 minutos");
+                }
+                Thread.sleep(5);
+            }
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            return new long[]{elapsed, residentKilobytes(process.pid())};
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private static boolean accepted(URI handshake) {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) handshake.toURL().openConnection();
+            connection.setConnectTimeout(200);
+            connection.setReadTimeout(2000);
+            try {
+                return connection.getResponseCode() == 200;
+            } finally {
+                connection.disconnect();
+            }
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static long residentKilobytes(long pid) throws IOException {
+        for (String line : Files.readAllLines(Path.of("/proc", Long.toString(pid), "status"))) {
+            if (line.startsWith("VmRSS:")) {
+                return Long.parseLong(line.substring(6).trim().split("\\s+")[0]);
+            }
+        }
+        return -1;
+    }
+
+    private static long median(long[] samples) {
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
@@ -0,0 +1,223 @@
+package arsw.tamaltolimense.SocketServer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Servidor HTTP en proceso que reemplaza las cuatro APIs de Azure (Lobbies, Bids, Contenedor y Users)
+// con latencia e inyección de errores configurables por dependencia
+final class StubBackendServer implements AutoCloseable {
+
+    static final String LOBBIES = "lobbies";
+    static final String BIDS = "bids";
+    static final String CONTAINERS = "containers";
+    static final String USERS = "users";
+
+    private static final String[] COLORS = {"gris", "blanco", "azul", "dorado"};
+    private static final String[] OBJECTS = {"Reloj", "Cuadro", "Jarrón", "Lámpara", "Radio", "Espejo"};
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Map<String, StubLobby> lobbies = new ConcurrentHashMap<>();
+    private final Map<String, Integer> balances = new ConcurrentHashMap<>();
+    private final Map<String, FaultProfile> faults = new ConcurrentHashMap<>();
+    private final int roundsPerGame;
+    private final HttpServer http;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    StubBackendServer(int port, int roundsPerGame, FaultProfile defaultFaults) throws IOException {
+        this.roundsPerGame = roundsPerGame;
+        for (String dependency : new String[]{LOBBIES, BIDS, CONTAINERS, USERS}) {
+            faults.put(dependency, defaultFaults);
+        }
+        http = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 4096);
+        http.createContext("/lobbies/lobbies", withFaults(LOBBIES, this::handleLobby));
+        http.createContext("/bids", withFaults(BIDS, this::handleBid));
+        http.createContext("/api/contenedor", withFaults(CONTAINERS, this::handleContainer));
+        http.createContext("/users/offer", withFaults(USERS, this::handleUserOffer));
+        http.setExecutor(executor);
+    }
+
+    void start() {
+        http.start();
+    }
+
+    void setFaults(String dependency, FaultProfile profile) {
+        faults.put(dependency, profile);
+    }
+
+    String baseUrl() {
+        return "http://127.0.0.1:" + http.getAddress().getPort();
+    }
+
+    // Propiedades de Spring que apuntan LobbySocketService a este servidor
+    String[] backendProperties() {
+        String base = baseUrl();
+        return new String[]{
+                "hiddencargo.api.lobbies-url=" + base + "/lobbies/lobbies",
+                "hiddencargo.api.bids-url=" + base + "/bids",
+                "hiddencargo.api.containers-url=" + base + "/api/contenedor",
+                "hiddencargo.api.users-url=" + base + "/users/offer",
+                "hiddencargo.api.key=loadtest"
+        };
+    }
+
+    @Override
+    public void close() {
+        http.stop(0);
+        executor.shutdownNow();
+    }
+
+    private interface Handler {
+        void handle(HttpExchange exchange, byte[] body) throws IOException;
+    }
+
+    private HttpHandler withFaults(String dependency, Handler handler) {
+        return exchange -> {
+            try (exchange) {
+                byte[] body = readBody(exchange.getRequestBody());
+                if (faults.get(dependency).apply()) {
+                    exchange.sendResponseHeaders(503, -1);
+                    return;
+                }
+                handler.handle(exchange, body);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                exchange.sendResponseHeaders(500, -1);
+            }
+        };
+    }
+
+    // GET /{lobby}, PUT /{lobby}/agregarJugador, PUT /{lobby}/quitarJugador,
+    // GET /{lobby}/agregarListo, GET /{lobby}/quitarListo
+    private void handleLobby(HttpExchange exchange, byte[] body) throws IOException {
+        URI uri = exchange.getRequestURI();
+        String[] parts = uri.getPath().substring("/lobbies/lobbies/".length()).split("/");
+        String name = parts[0];
+        String action = parts.length > 1 ? parts[1] : "";
+        String nickname = queryParam(uri, "nickname");
+
+        if ("agregarJugador".equals(action)) {
+            lobbies.computeIfAbsent(name, StubLobby::new).addPlayer(nickname);
+        }
+        StubLobby lobby = lobbies.get(name);
+        if (lobby == null) {
+            exchange.sendResponseHeaders(404, -1);
+            return;
+        }
+        switch (action) {
+            case "quitarJugador" -> lobby.removePlayer(nickname);
+            case "agregarListo" -> lobby.ready(1);
+            case "quitarListo" -> lobby.ready(-1);
+            default -> {
+                // GET del lobby o agregarJugador ya aplicado
+            }
+        }
+        sendJson(exchange, lobby.toJson(roundsPerGame));
+    }
+
+    // POST /bids/start, /bids/offer y /bids/close/{container}
+    private void handleBid(HttpExchange exchange, byte[] body) throws IOException {
+        sendJson(exchange, Map.of("status", "ok"));
+    }
+
+    private void handleContainer(HttpExchange exchange, byte[] body) throws IOException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<Map<String, Object>> objetos = new ArrayList<>();
+        int count = 1 + random.nextInt(4);
+        for (int i = 0; i < count; i++) {
+            objetos.add(Map.of("nombre", OBJECTS[random.nextInt(OBJECTS.length)],
+                    "precio", 50 + random.nextInt(1500) + 0.5));
+        }
+        Map<String, Object> container = new LinkedHashMap<>();
+        container.put("color", COLORS[random.nextInt(COLORS.length)]);
+        container.put("objetos", objetos);
+        sendJson(exchange, container);
+    }
+
+    // POST con {"username", "amount"}; cada usuario arranca con 2000
+    private void handleUserOffer(HttpExchange exchange, byte[] body) throws IOException {
+        Map<?, ?> request = mapper.readValue(body, Map.class);
+        String username = String.valueOf(request.get("username"));
+        int amount = ((Number) request.get("amount")).intValue();
+        int balance = balances.merge(username, 2000 + amount, (current, ignored) -> current + amount);
+        sendJson(exchange, Map.of("userBalance", balance));
+    }
+
+    private void sendJson(HttpExchange exchange, Object body) throws IOException {
+        byte[] bytes = mapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static byte[] readBody(InputStream in) throws IOException {
+        return in.readAllBytes();
+    }
+
+    private static String queryParam(URI uri, String name) {
+        String query = uri.getQuery();
+        if (query == null) {
+            return null;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0 && pair.substring(0, eq).equals(name)) {
+                return pair.substring(eq + 1);
+            }
+        }
+        return null;
+    }
+
+    private static final class StubLobby {
+        private final String name;
+        private final List<String> players = new ArrayList<>();
+        private int ready;
+
+        StubLobby(String name) {
+            this.name = name;
+        }
+
+        synchronized void addPlayer(String nickname) {
+            if (nickname != null && !players.contains(nickname)) {
+                players.add(nickname);
+            }
+        }
+
+        synchronized void removePlayer(String nickname) {
+            players.remove(nickname);
+            ready = Math.min(ready, players.size());
+        }
+
+        synchronized void ready(int delta) {
+            ready = Math.max(0, Math.min(players.size(), ready + delta));
+        }
+
+        synchronized Map<String, Object> toJson(int rounds) {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("nombre", name);
+            json.put("jugadoresConectados", players.size());
+            json.put("jugadoresListos", ready);
+            json.put("numeroDeRondas", rounds);
+            json.put("jugadores", new ArrayList<>(players));
+            return json;
+        }
+    }
+}
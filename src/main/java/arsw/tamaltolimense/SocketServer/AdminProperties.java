@@ -0,0 +1,22 @@
+package arsw.tamaltolimense.SocketServer;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+// Endpoints de administración (salud, métricas, drenaje) servidos por Netty en el puerto de
+// Socket.IO; el perfil "lean" los activa porque arranca sin Tomcat
+@ConfigurationProperties(prefix = "socketio.admin")
+public class AdminProperties {
+    private boolean enabled = false;
+    // Mismas rutas que con Tomcat para no cambiar las sondas ni los scripts de despliegue
+    private String basePath = "/actuator";
+    // Token (Authorization: Bearer) que exigen las operaciones que cambian el nodo, como el
+    // drenaje o el muestreo de logs; vacío = el puerto público solo sirve consultas
+    private String token = "";
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public String getBasePath() { return basePath; }
+    public void setBasePath(String basePath) { this.basePath = basePath; }
+    public String getToken() { return token; }
+    public void setToken(String token) { this.token = token; }
+}
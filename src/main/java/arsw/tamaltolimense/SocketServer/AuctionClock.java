@@ -0,0 +1,188 @@
+package arsw.tamaltolimense.SocketServer;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Reloj autoritativo de las subastas. Cada ronda tiene un cierre absoluto (epoch ms del
+// servidor) que se envía a los clientes; una apuesta solo mueve ese cierre, y la tarea ya
+// programada, al despertar antes de tiempo, se vuelve a programar para lo que falte.
+// También ejecuta los envíos diferidos del juego en lugar de un java.util.Timer por tarea.
+// Los hilos del reloj solo miden el tiempo: los cierres y las tareas diferidas pueden dormir o
+// llamar al backend, así que se pasan a otro pool para que no retrasen los cierres de los demás lobbies.
+@Component
+public class AuctionClock {
+    private static final Logger logger = LoggerFactory.getLogger(AuctionClock.class);
+
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService workers;
+    private final Map<String, RoundDeadline> deadlines = new ConcurrentHashMap<>();
+
+    @Autowired
+    public AuctionClock(AuctionProperties properties) {
+        this(newScheduler(properties.getClockThreads()), newWorkers());
+    }
+
+    AuctionClock(ScheduledExecutorService scheduler, ExecutorService workers) {
+        this.scheduler = scheduler;
+        this.workers = workers;
+    }
+
+    private static ScheduledExecutorService newScheduler(int threads) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newScheduledThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "auction-clock-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Sin límite de hilos, como el Timer por tarea de antes: una partida que espera solo se retrasa a sí misma
+    private static ExecutorService newWorkers() {
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "auction-worker-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    long now() {
+        return System.currentTimeMillis();
+    }
+
+    // Abre la subasta del lobby y devuelve su cierre; reemplaza la de la ronda anterior
+    long open(String lobbyName, long durationMillis, Runnable onClose) {
+        RoundDeadline deadline = new RoundDeadline(lobbyName, now() + durationMillis, onClose);
+        RoundDeadline previous = deadline.publish(durationMillis);
+        if (previous != null) {
+            previous.cancel();
+        }
+        return deadline.closesAt;
+    }
+
+    // Verdadero si una apuesta recibida en receivedAt llegó antes del cierre
+    boolean isOpen(String lobbyName, long receivedAt) {
+        RoundDeadline deadline = deadlines.get(lobbyName);
+        return deadline != null && deadline.isOpen(receivedAt);
+    }
+
+    // Deja al menos hasta atLeastUntil para el cierre, sin adelantarlo nunca.
+    // Devuelve el cierre vigente, o -1 si la subasta ya no está abierta.
+    long extend(String lobbyName, long atLeastUntil) {
+        RoundDeadline deadline = deadlines.get(lobbyName);
+        return deadline == null ? -1 : deadline.extend(atLeastUntil);
+    }
+
+    // Cierre vigente del lobby, o -1 si no hay subasta abierta
+    long deadline(String lobbyName) {
+        RoundDeadline deadline = deadlines.get(lobbyName);
+        return deadline == null ? -1 : deadline.closesAt;
+    }
+
+    // Cierra la subasta sin ejecutar su tarea de cierre
+    void cancel(String lobbyName) {
+        RoundDeadline deadline = deadlines.remove(lobbyName);
+        if (deadline != null) {
+            deadline.cancel();
+        }
+    }
+
+    // Ejecuta la tarea tras el retraso indicado
+    void after(long delayMillis, Runnable task) {
+        scheduler.schedule(() -> dispatch(task), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    // Pasa la tarea a los hilos de trabajo sin ejecutarla en el del reloj
+    private void dispatch(Runnable task) {
+        try {
+            workers.execute(() -> runSafely(task));
+        } catch (RejectedExecutionException e) {
+            logger.warn("Tarea del reloj de subastas descartada al apagar: {}", e.toString());
+        }
+    }
+
+    // Sin esto una excepción se perdería dentro del ScheduledFuture
+    private static void runSafely(Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            logger.error("Error en tarea del reloj de subastas: {}", e.getMessage(), e);
+        }
+    }
+
+    private final class RoundDeadline {
+        private final String lobbyName;
+        private final Runnable onClose;
+        private volatile long closesAt;
+        private boolean closed;
+        private ScheduledFuture<?> task;
+
+        RoundDeadline(String lobbyName, long closesAt, Runnable onClose) {
+            this.lobbyName = lobbyName;
+            this.closesAt = closesAt;
+            this.onClose = onClose;
+        }
+
+        // Con el monitor tomado nadie puede cancelarla ni expirarla antes de que tenga su tarea
+        synchronized RoundDeadline publish(long delayMillis) {
+            RoundDeadline previous = deadlines.put(lobbyName, this);
+            task = scheduler.schedule(this::expire, delayMillis, TimeUnit.MILLISECONDS);
+            return previous;
+        }
+
+        synchronized boolean isOpen(long receivedAt) {
+            return !closed && receivedAt < closesAt;
+        }
+
+        synchronized long extend(long atLeastUntil) {
+            if (closed) {
+                return -1;
+            }
+            if (atLeastUntil > closesAt) {
+                closesAt = atLeastUntil;
+            }
+            return closesAt;
+        }
+
+        synchronized void cancel() {
+            closed = true;
+            task.cancel(false);
+        }
+
+        private void expire() {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                long remaining = closesAt - now();
+                if (remaining > 0) {
+                    // El cierre se movió mientras esperábamos
+                    task = scheduler.schedule(this::expire, remaining, TimeUnit.MILLISECONDS);
+                    return;
+                }
+                closed = true;
+            }
+            deadlines.remove(lobbyName, this);
+            dispatch(onClose);
+        }
+    }
+}
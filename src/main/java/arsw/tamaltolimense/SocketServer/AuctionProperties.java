@@ -0,0 +1,22 @@
+package arsw.tamaltolimense.SocketServer;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+// Reloj de la subasta: duración de cada ronda, cuánto se alarga el cierre tras una apuesta
+// y los hilos que miden los cierres y los envíos diferidos
+@ConfigurationProperties(prefix = "hiddencargo.auction")
+public class AuctionProperties {
+    private Duration roundDuration = Duration.ofSeconds(30);
+    // Una apuesta deja al menos este tiempo hasta el cierre; nunca lo adelanta
+    private Duration bidExtension = Duration.ofSeconds(15);
+    private int clockThreads = 4;
+
+    public Duration getRoundDuration() { return roundDuration; }
+    public void setRoundDuration(Duration roundDuration) { this.roundDuration = roundDuration; }
+    public Duration getBidExtension() { return bidExtension; }
+    public void setBidExtension(Duration bidExtension) { this.bidExtension = bidExtension; }
+    public int getClockThreads() { return clockThreads; }
+    public void setClockThreads(int clockThreads) { this.clockThreads = clockThreads; }
+}
@@ -0,0 +1,87 @@
+package arsw.tamaltolimense.SocketServer;
+
+// Reglas puras de la subasta, sin E/S ni sockets, para que LobbySocketService
+// y los benchmarks de JMH ejecuten exactamente el mismo código
+final class AuctionRules {
+
+    static final int INITIAL_BID = 100;
+
+    private AuctionRules() {
+    }
+
+    // Comprobación previa sin asignaciones; devuelve null si es válida o el mensaje de error para
+    // el cliente. La decisión final entre apuestas concurrentes la toma placeBid.
+    static String validateBid(GameState gameState, int seat, int amount) {
+        if (gameState.getPhase() != GamePhase.BIDDING) {
+            return "No se pueden realizar apuestas en este momento";
+        }
+        if (seat < 0) {
+            return "Jugador no encontrado en el juego";
+        }
+        if (gameState.getRoster().balance(seat) < amount) {
+            return "Saldo insuficiente para realizar esta apuesta";
+        }
+        if (amount <= gameState.getCurrentBid()) {
+            return "La apuesta debe ser mayor que la apuesta actual";
+        }
+        return null;
+    }
+
+    // Registra la apuesta con un solo compare-and-set y, si gana, descuenta el monto al jugador.
+    // Devuelve el estado anterior del registro, o BidRegister.TOO_LOW / CLOSED si pierde.
+    static long placeBid(GameState gameState, int seat, int round, int amount) {
+        long previous = gameState.getBids().tryBid(round, seat, amount);
+        if (previous >= 0) {
+            gameState.getRoster().addBalance(seat, -amount);
+        }
+        return previous;
+    }
+
+    // Devuelve el monto del estado anterior a su apostador si es otro jugador; retorna su asiento o -1
+    static int refundPreviousBidder(GameState gameState, long previous, int seat) {
+        int previousSeat = BidRegister.seatOf(previous);
+        if (previousSeat < 0 || previousSeat == seat) {
+            return -1;
+        }
+        gameState.getRoster().addBalance(previousSeat, BidRegister.amountOf(previous));
+        return previousSeat;
+    }
+
+    // Cierra la subasta y devuelve la apuesta vigente a su apostador (drenaje sin liquidar la
+    // ronda); retorna su asiento o -1 si nadie había apostado
+    static int refundOpenBid(GameState gameState) {
+        long last = gameState.getBids().close();
+        int seat = BidRegister.seatOf(last);
+        if (seat >= 0) {
+            gameState.getRoster().addBalance(seat, BidRegister.amountOf(last));
+        }
+        return seat;
+    }
+
+    // Calcula el resultado de la ronda a partir de la apuesta ganadora; null si nadie apostó.
+    // Se llama con el registro ya cerrado, así que el ganador no puede cambiar.
+    static BidResultData computeRoundResult(GameState gameState) {
+        String winner = gameState.getLastBidder();
+        if (winner == null) {
+            return null;
+        }
+        ContainerInfo container = gameState.getCurrentContainer();
+        int bidAmount = gameState.getCurrentBid();
+        int containerValue = container.getValue();
+
+        BidResultData resultData = new BidResultData();
+        resultData.setWinner(winner);
+        resultData.setContainerId(container.getId());
+        resultData.setContainerType(container.getType());
+        resultData.setBidAmount(bidAmount);
+        resultData.setContainerValue(containerValue);
+        resultData.setProfit(containerValue - bidAmount);
+        return resultData;
+    }
+
+    // El ganador recibe el valor del contenedor y suma el beneficio a su puntuación
+    static void settleRound(GameRoster roster, int winner, BidResultData result) {
+        roster.addBalance(winner, result.getContainerValue());
+        roster.addScore(winner, result.getProfit());
+    }
+}
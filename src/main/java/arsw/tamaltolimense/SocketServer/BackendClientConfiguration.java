@@ -0,0 +1,24 @@
+package arsw.tamaltolimense.SocketServer;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.http.HttpClient;
+
+// Cliente HTTP compartido para los servicios externos, con tiempos de espera acotados
+// para que una dependencia lenta falle rápido en lugar de retener hilos
+@Configuration
+public class BackendClientConfiguration {
+
+    @Bean
+    public RestTemplate backendRestTemplate(ResilienceProperties resilience) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(resilience.getConnectTimeout())
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(resilience.getReadTimeout());
+        return new RestTemplate(requestFactory);
+    }
+}
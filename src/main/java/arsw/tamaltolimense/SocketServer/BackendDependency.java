@@ -0,0 +1,20 @@
+package arsw.tamaltolimense.SocketServer;
+
+// Servicios externos de los que depende el servidor; cada uno tiene su propio
+// circuit breaker y bulkhead para que la lentitud de uno no afecte a los demás
+enum BackendDependency {
+    LOBBIES("lobbies"),
+    BIDS("bids"),
+    CONTAINERS("containers"),
+    USERS("users");
+
+    private final String id;
+
+    BackendDependency(String id) {
+        this.id = id;
+    }
+
+    String id() {
+        return id;
+    }
+}
@@ -0,0 +1,23 @@
+package arsw.tamaltolimense.SocketServer;
+
+import java.util.Map;
+
+// Punto de extensión opcional del modo embebido para guardar lo que normalmente
+// persistirían los servicios externos. Si no hay ningún bean, no se persiste nada.
+public interface BackendPersistenceHook {
+
+    BackendPersistenceHook NONE = new BackendPersistenceHook() {
+    };
+
+    default void lobbyChanged(Map<String, Object> lobby) {
+    }
+
+    default void lobbyRemoved(String lobbyName) {
+    }
+
+    default void auctionClosed(String containerId, String winner, int amount, int realValue) {
+    }
+
+    default void balanceChanged(String username, int balance) {
+    }
+}
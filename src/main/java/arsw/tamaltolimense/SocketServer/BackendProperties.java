@@ -0,0 +1,24 @@
+package arsw.tamaltolimense.SocketServer;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+// URLs y credenciales de los servicios externos (Lobbies, Bids, Contenedor y Users)
+@ConfigurationProperties(prefix = "hiddencargo.api")
+public class BackendProperties {
+    private String lobbiesUrl = "https://thehiddencargo1.azure-api.net/lobbies/lobbies";
+    private String bidsUrl = "https://thehiddencargo1.azure-api.net/bids";
+    private String containersUrl = "https://thehiddencargo1.azure-api.net/api/contenedor";
+    private String usersUrl = "https://thehiddencargo1.azure-api.net/creation/polling/users/offer/username";
+    private String key;
+
+    public String getLobbiesUrl() { return lobbiesUrl; }
+    public void setLobbiesUrl(String lobbiesUrl) { this.lobbiesUrl = lobbiesUrl; }
+    public String getBidsUrl() { return bidsUrl; }
+    public void setBidsUrl(String bidsUrl) { this.bidsUrl = bidsUrl; }
+    public String getContainersUrl() { return containersUrl; }
+    public void setContainersUrl(String containersUrl) { this.containersUrl = containersUrl; }
+    public String getUsersUrl() { return usersUrl; }
+    public void setUsersUrl(String usersUrl) { this.usersUrl = usersUrl; }
+    public String getKey() { return key; }
+    public void setKey(String key) { this.key = key; }
+}
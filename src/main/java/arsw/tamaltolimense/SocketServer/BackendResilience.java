@@ -0,0 +1,209 @@
+package arsw.tamaltolimense.SocketServer;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Circuit breaker y bulkhead por dependencia externa. Las llamadas que pueden esperar y se
+// pueden repetir sin efectos dobles (cierres de subasta, ofertas, salidas de lobby) se difieren
+// mientras el circuito está abierto y se reenvían en orden cuando el servicio se recupera.
+// Las que no (abonos de saldo) van por callOnce: un solo intento y, si falla, error visible.
+@Component
+public class BackendResilience {
+    private static final Logger logger = LoggerFactory.getLogger(BackendResilience.class);
+
+    // Estados del circuito que no dejan pasar llamadas
+    private static final Set<CircuitBreaker.State> UNAVAILABLE =
+            EnumSet.of(CircuitBreaker.State.OPEN, CircuitBreaker.State.FORCED_OPEN);
+
+    private final Map<BackendDependency, CircuitBreaker> breakers = new EnumMap<>(BackendDependency.class);
+    private final Map<BackendDependency, Bulkhead> bulkheads = new EnumMap<>(BackendDependency.class);
+    private final Map<BackendDependency, BlockingDeque<DeferredCall>> deferredCalls = new EnumMap<>(BackendDependency.class);
+    private final Counter droppedCalls;
+    private final Map<BackendDependency, Counter> failedCalls = new EnumMap<>(BackendDependency.class);
+    private final ScheduledExecutorService replayScheduler;
+    private final Duration replayInterval;
+
+    public BackendResilience(ResilienceProperties properties, MeterRegistry meterRegistry) {
+        CircuitBreakerConfig breakerConfig = CircuitBreakerConfig.custom()
+                .failureRateThreshold(properties.getFailureRateThreshold())
+                .slowCallRateThreshold(properties.getSlowCallRateThreshold())
+                .slowCallDurationThreshold(properties.getSlowCallDurationThreshold())
+                .slidingWindowSize(properties.getSlidingWindowSize())
+                .minimumNumberOfCalls(properties.getMinimumNumberOfCalls())
+                .waitDurationInOpenState(properties.getWaitDurationInOpenState())
+                .permittedNumberOfCallsInHalfOpenState(properties.getPermittedCallsInHalfOpenState())
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                // Un 4xx es un error del cliente y un bulkhead lleno es presión local: ninguno abre el circuito
+                .ignoreExceptions(HttpClientErrorException.class, BulkheadFullException.class)
+                .build();
+        CircuitBreakerRegistry breakerRegistry = CircuitBreakerRegistry.of(breakerConfig);
+        BulkheadRegistry bulkheadRegistry = BulkheadRegistry.ofDefaults();
+
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(breakerRegistry).bindTo(meterRegistry);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheadRegistry).bindTo(meterRegistry);
+
+        for (BackendDependency dependency : BackendDependency.values()) {
+            CircuitBreaker breaker = breakerRegistry.circuitBreaker(dependency.id());
+            breaker.getEventPublisher().onStateTransition(event ->
+                    logger.warn("Circuito de {} cambió de estado: {}",
+                            dependency.id(), event.getStateTransition()));
+            breakers.put(dependency, breaker);
+
+            // Sin espera: si la dependencia está saturada se falla de inmediato
+            bulkheads.put(dependency, bulkheadRegistry.bulkhead(dependency.id(), BulkheadConfig.custom()
+                    .maxConcurrentCalls(properties.maxConcurrentCallsFor(dependency))
+                    .maxWaitDuration(Duration.ZERO)
+                    .build()));
+
+            BlockingDeque<DeferredCall> queue = new LinkedBlockingDeque<>(properties.getDeferredQueueCapacity());
+            deferredCalls.put(dependency, queue);
+            Gauge.builder("hiddencargo.backend.deferred.calls", queue, BlockingDeque::size)
+                    .description("Llamadas diferidas pendientes de reenvío")
+                    .tag("dependency", dependency.id())
+                    .register(meterRegistry);
+            failedCalls.put(dependency, Counter.builder("hiddencargo.backend.failed.calls")
+                    .description("Llamadas no repetibles que fallaron y no se reintentan")
+                    .tag("dependency", dependency.id())
+                    .register(meterRegistry));
+        }
+
+        droppedCalls = Counter.builder("hiddencargo.backend.deferred.dropped")
+                .description("Llamadas descartadas por tener la cola de diferidas llena")
+                .register(meterRegistry);
+
+        replayScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "backend-replay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        replayInterval = properties.getReplayInterval();
+    }
+
+    @PostConstruct
+    public void start() {
+        long intervalMillis = replayInterval.toMillis();
+        replayScheduler.scheduleWithFixedDelay(this::replayDeferredCalls,
+                intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // Ejecuta la llamada dentro del bulkhead y el circuit breaker de la dependencia.
+    // Lanza CallNotPermittedException o BulkheadFullException sin tocar la red si no hay capacidad.
+    <T> T call(BackendDependency dependency, Supplier<T> call) {
+        Supplier<T> guarded = Bulkhead.decorateSupplier(bulkheads.get(dependency), call);
+        return breakers.get(dependency).executeSupplier(guarded);
+    }
+
+    // Ejecuta la llamada o, si la dependencia no responde, la encola para reenviarla más tarde.
+    // Si ya hay llamadas diferidas se encola detrás de ellas para conservar el orden.
+    void callOrDefer(BackendDependency dependency, String description, Runnable call) {
+        BlockingDeque<DeferredCall> queue = deferredCalls.get(dependency);
+        if (queue.isEmpty()) {
+            try {
+                call(dependency, () -> {
+                    call.run();
+                    return null;
+                });
+                return;
+            } catch (HttpClientErrorException e) {
+                logger.error("Llamada rechazada por {} ({}): {}", dependency.id(), description, e.getMessage());
+                return;
+            } catch (RuntimeException e) {
+                logger.warn("{} no disponible, difiriendo {}: {}", dependency.id(), description, e.getMessage());
+            }
+        }
+        if (!queue.offerLast(new DeferredCall(description, call))) {
+            droppedCalls.increment();
+            logger.error("Cola de llamadas diferidas de {} llena, descartando {}", dependency.id(), description);
+        }
+    }
+
+    // Un solo intento, sin diferir: para llamadas que no son idempotentes, donde un reenvío tras
+    // un timeout que el servicio sí aplicó duplicaría el efecto. Devuelve null si falla.
+    <T> T callOnce(BackendDependency dependency, String description, Supplier<T> call) {
+        try {
+            return call(dependency, call);
+        } catch (RuntimeException e) {
+            failedCalls.get(dependency).increment();
+            logger.error("Falló {} en {} y no se reintenta: {}", description, dependency.id(), e.getMessage());
+            return null;
+        }
+    }
+
+    // Indica si el circuito de la dependencia deja pasar llamadas
+    boolean isAvailable(BackendDependency dependency) {
+        return !UNAVAILABLE.contains(breakers.get(dependency).getState());
+    }
+
+    int deferredCount(BackendDependency dependency) {
+        return deferredCalls.get(dependency).size();
+    }
+
+    // Reenvía en orden las llamadas diferidas mientras el circuito lo permita
+    void replayDeferredCalls() {
+        for (Map.Entry<BackendDependency, BlockingDeque<DeferredCall>> entry : deferredCalls.entrySet()) {
+            BackendDependency dependency = entry.getKey();
+            BlockingDeque<DeferredCall> queue = entry.getValue();
+            DeferredCall next;
+            while (isAvailable(dependency) && (next = queue.peekFirst()) != null) {
+                try {
+                    DeferredCall current = next;
+                    call(dependency, () -> {
+                        current.call().run();
+                        return null;
+                    });
+                    queue.pollFirst();
+                    logger.info("Llamada diferida reenviada a {}: {}", dependency.id(), current.description());
+                } catch (HttpClientErrorException e) {
+                    // El servicio la rechaza de forma definitiva: no tiene sentido reintentarla
+                    queue.pollFirst();
+                    logger.error("Llamada diferida rechazada por {} ({}): {}",
+                            dependency.id(), next.description(), e.getMessage());
+                } catch (RuntimeException e) {
+                    logger.debug("Reenvío a {} pospuesto: {}", dependency.id(), e.getMessage());
+                    break;
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        replayScheduler.shutdownNow();
+        deferredCalls.forEach((dependency, queue) -> {
+            if (!queue.isEmpty()) {
+                logger.warn("Se pierden {} llamadas diferidas a {} al detener el servidor", queue.size(), dependency.id());
+            }
+        });
+    }
+
+    private record DeferredCall(String description, Runnable call) {
+    }
+}
@@ -0,0 +1,26 @@
+package arsw.tamaltolimense.SocketServer;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+// Cola de salida por cliente mientras su canal no es escribible. La pausa y la reanudación
+// las marcan socketio.transport.write-buffer-high/low-water-mark (bytes en Netty); aquí se
+// limita cuántos eventos puede retener un cliente lento antes de desconectarlo.
+@ConfigurationProperties(prefix = "socketio.backpressure")
+public class BackpressureProperties {
+    // Eventos en cola por encima de los cuales el cliente se considera lento; con el doble se le
+    // desconecta al momento
+    private int highWaterMark = 256;
+    // Long-polling: paquetes sin recoger por encima de los cuales el cliente cuenta como no escribible
+    private int pollingHighWaterMark = 64;
+    // Tiempo máximo por encima de highWaterMark antes de desconectar al cliente
+    private Duration slowConsumerTimeout = Duration.ofSeconds(10);
+
+    public int getHighWaterMark() { return highWaterMark; }
+    public void setHighWaterMark(int highWaterMark) { this.highWaterMark = highWaterMark; }
+    public int getPollingHighWaterMark() { return pollingHighWaterMark; }
+    public void setPollingHighWaterMark(int pollingHighWaterMark) { this.pollingHighWaterMark = pollingHighWaterMark; }
+    public Duration getSlowConsumerTimeout() { return slowConsumerTimeout; }
+    public void setSlowConsumerTimeout(Duration slowConsumerTimeout) { this.slowConsumerTimeout = slowConsumerTimeout; }
+}
@@ -0,0 +1,11 @@
+package arsw.tamaltolimense.SocketServer;
+
+// Registro de subastas en el servicio de apuestas
+public interface BidGateway {
+
+    void startAuction(String containerId, int initialValue, int realValue);
+
+    void placeOffer(String containerId, String owner, int amount);
+
+    void closeAuction(String containerId);
+}
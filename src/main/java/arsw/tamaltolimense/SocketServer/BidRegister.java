@@ -0,0 +1,97 @@
+package arsw.tamaltolimense.SocketServer;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongBinaryOperator;
+
+// Estado de la subasta de una partida empaquetado en un solo long, para que aceptar o
+// rechazar una apuesta sea una única operación atómica sin locks ni asignaciones:
+//
+//   bit 63     siempre 0, así un estado válido nunca es negativo
+//   bit 62     subasta cerrada
+//   bits 61-48 ronda (hasta 16383)
+//   bits 47-32 asiento del apostador + 1 (0 = nadie ha apostado)
+//   bits 31-0  monto vigente
+//
+// El asiento es el de GameRoster: la posición del jugador al empezar la partida.
+final class BidRegister {
+
+    // Valores de tryBid cuando la apuesta pierde
+    static final long TOO_LOW = -1;
+    static final long CLOSED = -2;
+
+    private static final long CLOSED_BIT = 1L << 62;
+    private static final int ROUND_SHIFT = 48;
+    private static final int SEAT_SHIFT = 32;
+    private static final long ROUND_MASK = 0x3FFF;
+    private static final long SEAT_MASK = 0xFFFF;
+    private static final long AMOUNT_MASK = 0xFFFF_FFFFL;
+
+    // Operadores estáticos sin capturas: nada se asigna por apuesta, y si otro hilo cambia
+    // el estado entre medias AtomicLong reintenta con el valor nuevo
+    private static final LongBinaryOperator BID = (current, bid) -> wins(current, bid) ? bid : current;
+    private static final LongBinaryOperator CLOSE = (current, closedBit) -> current | closedBit;
+
+    private final AtomicLong state = new AtomicLong(CLOSED_BIT);
+
+    // Abre la subasta de la ronda con el monto inicial y sin apostador
+    void open(int round, int initialBid) {
+        state.set(pack(false, round, -1, initialBid));
+    }
+
+    // Intenta dejar la apuesta como vigente. Devuelve el estado anterior (para devolver su
+    // monto al apostador previo) o TOO_LOW / CLOSED si la apuesta pierde.
+    long tryBid(int round, int seat, int amount) {
+        long bid = pack(false, round, seat, amount);
+        long previous = state.getAndAccumulate(bid, BID);
+        if (wins(previous, bid)) {
+            return previous;
+        }
+        return isClosed(previous) || roundOf(previous) != roundOf(bid) ? CLOSED : TOO_LOW;
+    }
+
+    // Cierra la subasta: a partir de aquí ninguna apuesta entra. Devuelve el estado final.
+    long close() {
+        return state.accumulateAndGet(CLOSED_BIT, CLOSE);
+    }
+
+    long snapshot() {
+        return state.get();
+    }
+
+    int amount() {
+        return amountOf(state.get());
+    }
+
+    // Asiento del apostador vigente, o -1 si nadie ha apostado
+    int bidder() {
+        return seatOf(state.get());
+    }
+
+    // Gana si la subasta sigue abierta en la ronda de la apuesta y esta supera el monto vigente
+    private static boolean wins(long current, long bid) {
+        return !isClosed(current) && roundOf(current) == roundOf(bid) && amountOf(bid) > amountOf(current);
+    }
+
+    static long pack(boolean closed, int round, int seat, int amount) {
+        return (closed ? CLOSED_BIT : 0L)
+                | ((round & ROUND_MASK) << ROUND_SHIFT)
+                | (((seat + 1) & SEAT_MASK) << SEAT_SHIFT)
+                | (amount & AMOUNT_MASK);
+    }
+
+    static boolean isClosed(long packed) {
+        return (packed & CLOSED_BIT) != 0;
+    }
+
+    static int roundOf(long packed) {
+        return (int) ((packed >>> ROUND_SHIFT) & ROUND_MASK);
+    }
+
+    static int seatOf(long packed) {
+        return (int) ((packed >>> SEAT_SHIFT) & SEAT_MASK) - 1;
+    }
+
+    static int amountOf(long packed) {
+        return (int) (packed & AMOUNT_MASK);
+    }
+}
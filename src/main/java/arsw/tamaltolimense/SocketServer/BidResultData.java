@@ -0,0 +1,23 @@
+package arsw.tamaltolimense.SocketServer;
+
+class BidResultData {
+    private String winner;
+    private String containerId;
+    private String containerType;
+    private int bidAmount;
+    private int containerValue;
+    private int profit;
+
+    public String getWinner() { return winner; }
+    public void setWinner(String winner) { this.winner = winner; }
+    public String getContainerId() { return containerId; }
+    public void setContainerId(String containerId) { this.containerId = containerId; }
+    public String getContainerType() { return containerType; }
+    public void setContainerType(String containerType) { this.containerType = containerType; }
+    public int getBidAmount() { return bidAmount; }
+    public void setBidAmount(int bidAmount) { this.bidAmount = bidAmount; }
+    public int getContainerValue() { return containerValue; }
+    public void setContainerValue(int containerValue) { this.containerValue = containerValue; }
+    public int getProfit() { return profit; }
+    public void setProfit(int profit) { this.profit = profit; }
+}
@@ -0,0 +1,131 @@
+package arsw.tamaltolimense.SocketServer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+// Mapa acotado con expiración por inactividad. Las entradas se guardan en orden de último acceso,
+// así que al superar el tamaño máximo se descarta la menos usada y el barrido de expiradas se
+// detiene en la primera que sigue viva. Publica su tamaño y los descartes por causa.
+final class BoundedStore<K, V> {
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final LinkedHashMap<K, Slot<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Counter evictedBySize;
+    private final Counter expired;
+    private final LongSupplier clock;
+
+    BoundedStore(String name, int maxSize, Duration ttl, MeterRegistry meterRegistry) {
+        this(name, maxSize, ttl, meterRegistry, System::currentTimeMillis);
+    }
+
+    // Reloj inyectable para probar la expiración sin esperar
+    BoundedStore(String name, int maxSize, Duration ttl, MeterRegistry meterRegistry, LongSupplier clock) {
+        this.maxSize = maxSize;
+        this.clock = clock;
+        this.ttlMillis = ttl.toMillis();
+        Gauge.builder("hiddencargo.store.size", this, BoundedStore::size)
+                .description("Entradas en el mapa en memoria")
+                .tag("store", name)
+                .register(meterRegistry);
+        evictedBySize = Counter.builder("hiddencargo.store.evictions")
+                .description("Entradas descartadas del mapa en memoria")
+                .tag("store", name)
+                .tag("cause", "size")
+                .register(meterRegistry);
+        expired = Counter.builder("hiddencargo.store.evictions")
+                .description("Entradas descartadas del mapa en memoria")
+                .tag("store", name)
+                .tag("cause", "expired")
+                .register(meterRegistry);
+    }
+
+    synchronized V get(K key) {
+        Slot<V> slot = live(key, clock.getAsLong());
+        return slot != null ? slot.value : null;
+    }
+
+    synchronized void put(K key, V value) {
+        entries.put(key, new Slot<>(value, clock.getAsLong()));
+        evictOverflow();
+    }
+
+    synchronized V computeIfAbsent(K key, Function<? super K, ? extends V> factory) {
+        long now = clock.getAsLong();
+        Slot<V> slot = live(key, now);
+        if (slot == null) {
+            slot = new Slot<>(factory.apply(key), now);
+            entries.put(key, slot);
+            evictOverflow();
+        }
+        return slot.value;
+    }
+
+    synchronized V remove(K key) {
+        Slot<V> slot = entries.remove(key);
+        return slot != null ? slot.value : null;
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    // Retira las entradas sin acceso desde hace más de ttl; devuelve cuántas quitó
+    synchronized int removeExpired() {
+        long now = clock.getAsLong();
+        int removed = 0;
+        Iterator<Slot<V>> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Slot<V> slot = iterator.next();
+            if (now - slot.lastAccess <= ttlMillis) {
+                break;
+            }
+            iterator.remove();
+            removed++;
+        }
+        expired.increment(removed);
+        return removed;
+    }
+
+    // Entrada vigente de la clave, renovando su último acceso; las expiradas se retiran aquí
+    private Slot<V> live(K key, long now) {
+        Slot<V> slot = entries.get(key);
+        if (slot == null) {
+            return null;
+        }
+        if (now - slot.lastAccess > ttlMillis) {
+            entries.remove(key);
+            expired.increment();
+            return null;
+        }
+        slot.lastAccess = now;
+        return slot;
+    }
+
+    private void evictOverflow() {
+        Iterator<Map.Entry<K, Slot<V>>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxSize) {
+            eldest.next();
+            eldest.remove();
+            evictedBySize.increment();
+        }
+    }
+
+    private static final class Slot<V> {
+        final V value;
+        long lastAccess;
+
+        Slot(V value, long lastAccess) {
+            this.value = value;
+            this.lastAccess = lastAccess;
+        }
+    }
+}
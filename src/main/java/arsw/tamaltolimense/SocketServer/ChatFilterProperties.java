@@ -0,0 +1,40 @@
+package arsw.tamaltolimense.SocketServer;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Filtro de groserías y enlaces del chat (ChatWordFilter). La lista de palabras se vuelve a
+// cargar sola cuando cambia el archivo, sin reiniciar el servidor.
+@ConfigurationProperties(prefix = "hiddencargo.chat.filter")
+public class ChatFilterProperties {
+
+    // Qué se hace con un mensaje que tiene alguna coincidencia
+    public enum Action { MASK, DROP }
+
+    private boolean enabled = true;
+    // Recurso con una palabra o expresión por línea; las líneas que empiezan por # se ignoran
+    private String wordsFile = "classpath:chat/blocked-words.txt";
+    // Palabras adicionales a las del archivo
+    private List<String> words = new ArrayList<>();
+    // Enmascarar también los enlaces (http://, https://, www.)
+    private boolean blockLinks = true;
+    private Action action = Action.MASK;
+    // Cada cuánto se comprueba si el archivo de palabras cambió
+    private Duration reloadInterval = Duration.ofSeconds(30);
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public String getWordsFile() { return wordsFile; }
+    public void setWordsFile(String wordsFile) { this.wordsFile = wordsFile; }
+    public List<String> getWords() { return words; }
+    public void setWords(List<String> words) { this.words = words; }
+    public boolean isBlockLinks() { return blockLinks; }
+    public void setBlockLinks(boolean blockLinks) { this.blockLinks = blockLinks; }
+    public Action getAction() { return action; }
+    public void setAction(Action action) { this.action = action; }
+    public Duration getReloadInterval() { return reloadInterval; }
+    public void setReloadInterval(Duration reloadInterval) { this.reloadInterval = reloadInterval; }
+}
@@ -0,0 +1,58 @@
+package arsw.tamaltolimense.SocketServer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Buffer circular con los últimos mensajes de chat de un lobby. Acotado por número de mensajes
+// y por caracteres de texto: al pasar cualquiera de los dos se descartan los más antiguos, y un
+// mensaje que por sí solo supera el tope de caracteres no se guarda.
+final class ChatHistory {
+
+    private final ChatMessageData[] messages;
+    private final int maxChars;
+    private int head;
+    private int size;
+    private int chars;
+
+    ChatHistory(int capacity, int maxChars) {
+        this.messages = new ChatMessageData[Math.max(1, capacity)];
+        this.maxChars = maxChars;
+    }
+
+    synchronized void add(ChatMessageData message) {
+        int length = length(message);
+        if (length > maxChars) {
+            return;
+        }
+        while (size == messages.length || chars + length > maxChars) {
+            dropOldest();
+        }
+        messages[(head + size) % messages.length] = message;
+        size++;
+        chars += length;
+    }
+
+    // Copia en orden de llegada, del más antiguo al más reciente
+    synchronized List<ChatMessageData> snapshot() {
+        List<ChatMessageData> copy = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            copy.add(messages[(head + i) % messages.length]);
+        }
+        return copy;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    private void dropOldest() {
+        chars -= length(messages[head]);
+        messages[head] = null;
+        head = (head + 1) % messages.length;
+        size--;
+    }
+
+    private static int length(ChatMessageData message) {
+        return message.getMessage() != null ? message.getMessage().length() : 0;
+    }
+}
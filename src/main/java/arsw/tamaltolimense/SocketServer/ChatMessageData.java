@@ -0,0 +1,16 @@
+package arsw.tamaltolimense.SocketServer;
+
+class ChatMessageData {
+    private String nickname;
+    private String lobbyName;
+    private String message;
+
+    public ChatMessageData() {}
+
+    public String getNickname() { return nickname; }
+    public void setNickname(String nickname) { this.nickname = nickname; }
+    public String getLobbyName() { return lobbyName; }
+    public void setLobbyName(String lobbyName) { this.lobbyName = lobbyName; }
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+}
@@ -0,0 +1,200 @@
+package arsw.tamaltolimense.SocketServer;
+
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+// Autómata de Aho–Corasick sobre el texto de los mensajes de chat, compilado una sola vez por
+// lista de palabras. Las transiciones se guardan como tabla densa (estado × clase de carácter)
+// con los enlaces de fallo ya resueltos, así que recorrer un mensaje es un acceso a arreglo por
+// carácter y no asigna memoria; solo se copia el texto si hay algo que enmascarar.
+// Mayúsculas y tildes se pliegan antes de comparar: "PÉNDEJO" coincide con "pendejo".
+final class ChatPatternMatcher {
+
+    static final char MASK = '*';
+
+    // Minúscula sin tilde para Latin-1 y Latin extendido; el resto solo pasa a minúscula
+    private static final char[] FOLD = buildFold(0x250);
+
+    private final short[] classOf = new short[Character.MAX_VALUE + 1];
+    private final int width;
+    private final int[] next;
+    private final int[] outputStart;
+    private final int[] outputs;
+    private final int[] patternLength;
+    private final boolean[] patternIsLink;
+    private final int patterns;
+
+    // Las palabras solo coinciden completas; los prefijos de enlace abarcan hasta el siguiente espacio
+    ChatPatternMatcher(List<String> words, List<String> linkPrefixes) {
+        List<String> folded = new ArrayList<>();
+        List<Boolean> links = new ArrayList<>();
+        addPatterns(words, false, folded, links);
+        addPatterns(linkPrefixes, true, folded, links);
+        this.patterns = folded.size();
+
+        // Clase 0 = carácter que no aparece en ningún patrón
+        short classes = 1;
+        for (String pattern : folded) {
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = pattern.charAt(i);
+                if (classOf[c] == 0) {
+                    classOf[c] = classes++;
+                }
+            }
+        }
+        this.width = classes;
+
+        // Trie de los patrones
+        List<Map<Integer, Integer>> children = new ArrayList<>();
+        List<List<Integer>> ends = new ArrayList<>();
+        children.add(new HashMap<>());
+        ends.add(new ArrayList<>());
+        for (int p = 0; p < folded.size(); p++) {
+            String pattern = folded.get(p);
+            int state = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                int cls = classOf[pattern.charAt(i)];
+                Integer child = children.get(state).get(cls);
+                if (child == null) {
+                    child = children.size();
+                    children.get(state).put(cls, child);
+                    children.add(new HashMap<>());
+                    ends.add(new ArrayList<>());
+                }
+                state = child;
+            }
+            ends.get(state).add(p);
+        }
+
+        // Enlaces de fallo en anchura y tabla de transiciones completa; cada estado hereda las
+        // salidas de su enlace de fallo
+        int states = children.size();
+        next = new int[states * width];
+        int[] fail = new int[states];
+        List<List<Integer>> stateOutputs = new ArrayList<>(ends);
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (Map.Entry<Integer, Integer> edge : children.get(0).entrySet()) {
+            next[edge.getKey()] = edge.getValue();
+            queue.add(edge.getValue());
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            List<Integer> inherited = new ArrayList<>(stateOutputs.get(state));
+            inherited.addAll(stateOutputs.get(fail[state]));
+            stateOutputs.set(state, inherited);
+            for (int cls = 0; cls < width; cls++) {
+                Integer child = children.get(state).get(cls);
+                if (child == null) {
+                    next[state * width + cls] = next[fail[state] * width + cls];
+                } else {
+                    fail[child] = next[fail[state] * width + cls];
+                    next[state * width + cls] = child;
+                    queue.add(child);
+                }
+            }
+        }
+
+        outputStart = new int[states + 1];
+        for (int state = 0; state < states; state++) {
+            outputStart[state + 1] = outputStart[state] + stateOutputs.get(state).size();
+        }
+        outputs = new int[outputStart[states]];
+        for (int state = 0; state < states; state++) {
+            List<Integer> out = stateOutputs.get(state);
+            for (int i = 0; i < out.size(); i++) {
+                outputs[outputStart[state] + i] = out.get(i);
+            }
+        }
+        patternLength = new int[folded.size()];
+        patternIsLink = new boolean[folded.size()];
+        for (int p = 0; p < folded.size(); p++) {
+            patternLength[p] = folded.get(p).length();
+            patternIsLink[p] = links.get(p);
+        }
+    }
+
+    int patterns() {
+        return patterns;
+    }
+
+    // Primera coincidencia que empieza en from o después: (inicio << 32) | fin exclusivo, o -1
+    long find(CharSequence text, int from) {
+        int length = text.length();
+        int state = 0;
+        for (int i = from; i < length; i++) {
+            state = next[state * width + classOf[fold(text.charAt(i))]];
+            for (int o = outputStart[state]; o < outputStart[state + 1]; o++) {
+                int pattern = outputs[o];
+                // El recorrido empieza en from, así que ninguna salida empieza antes
+                int start = i - patternLength[pattern] + 1;
+                if (!isBoundary(text, start - 1)) {
+                    continue;
+                }
+                if (patternIsLink[pattern]) {
+                    int end = i + 1;
+                    while (end < length && !Character.isWhitespace(text.charAt(end))) {
+                        end++;
+                    }
+                    return ((long) start << 32) | end;
+                }
+                if (isBoundary(text, i + 1)) {
+                    return ((long) start << 32) | (i + 1);
+                }
+            }
+        }
+        return -1;
+    }
+
+    // El mismo String si no hay coincidencias; si no, una copia con cada coincidencia enmascarada
+    String mask(String text) {
+        long match = find(text, 0);
+        if (match < 0) {
+            return text;
+        }
+        char[] chars = text.toCharArray();
+        while (match >= 0) {
+            int end = (int) match;
+            Arrays.fill(chars, (int) (match >>> 32), end, MASK);
+            match = find(text, end);
+        }
+        return new String(chars);
+    }
+
+    static char fold(char c) {
+        return c < FOLD.length ? FOLD[c] : Character.toLowerCase(c);
+    }
+
+    private static boolean isBoundary(CharSequence text, int index) {
+        return index < 0 || index >= text.length() || !Character.isLetterOrDigit(text.charAt(index));
+    }
+
+    private static void addPatterns(List<String> source, boolean link, List<String> folded, List<Boolean> links) {
+        for (String pattern : source) {
+            String trimmed = pattern.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            char[] chars = trimmed.toCharArray();
+            for (int i = 0; i < chars.length; i++) {
+                chars[i] = fold(chars[i]);
+            }
+            folded.add(new String(chars));
+            links.add(link);
+        }
+    }
+
+    private static char[] buildFold(int size) {
+        char[] fold = new char[size];
+        for (char c = 0; c < size; c++) {
+            String base = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+            fold[c] = Character.toLowerCase(base.charAt(0));
+        }
+        return fold;
+    }
+}
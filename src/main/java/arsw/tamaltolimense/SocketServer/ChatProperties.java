@@ -0,0 +1,28 @@
+package arsw.tamaltolimense.SocketServer;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+// Chat de los lobbies: historial que se reenvía a quien entra o vuelve a entrar y ventana
+// opcional para agrupar los mensajes de un lobby con mucho tráfico en un solo envío
+@ConfigurationProperties(prefix = "hiddencargo.chat")
+public class ChatProperties {
+    // Mensajes recientes guardados por lobby
+    private int historySize = 50;
+    // Tope de caracteres de texto guardados por lobby; se descartan los más antiguos al pasarlo
+    private int historyMaxChars = 8192;
+    // 0 = cada mensaje se reenvía al momento; si no, los de esta ventana salen juntos en chatBatch
+    private Duration batchWindow = Duration.ZERO;
+    // Al llegar a este número de mensajes el lote sale sin esperar al final de la ventana
+    private int batchMaxMessages = 20;
+
+    public int getHistorySize() { return historySize; }
+    public void setHistorySize(int historySize) { this.historySize = historySize; }
+    public int getHistoryMaxChars() { return historyMaxChars; }
+    public void setHistoryMaxChars(int historyMaxChars) { this.historyMaxChars = historyMaxChars; }
+    public Duration getBatchWindow() { return batchWindow; }
+    public void setBatchWindow(Duration batchWindow) { this.batchWindow = batchWindow; }
+    public int getBatchMaxMessages() { return batchMaxMessages; }
+    public void setBatchMaxMessages(int batchMaxMessages) { this.batchMaxMessages = batchMaxMessages; }
+}
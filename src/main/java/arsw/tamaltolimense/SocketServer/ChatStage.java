@@ -0,0 +1,9 @@
+package arsw.tamaltolimense.SocketServer;
+
+// Etapa del procesamiento de un mensaje de chat antes de reenviarlo al lobby. LobbyChat aplica
+// todas las etapas registradas como beans, en el orden de @Order.
+public interface ChatStage {
+
+    // El mismo mensaje (modificado o no) para seguir, o null para descartarlo
+    ChatMessageData process(String lobbyName, ChatMessageData message);
+}
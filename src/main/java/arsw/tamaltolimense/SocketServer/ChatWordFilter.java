@@ -0,0 +1,140 @@
+package arsw.tamaltolimense.SocketServer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Etapa del chat que enmascara (o descarta) groserías y enlaces con un ChatPatternMatcher.
+// Un mensaje limpio se devuelve tal cual, sin asignar memoria. El autómata se compila al cargar
+// la lista de palabras y se reemplaza de una vez cuando el archivo cambia.
+@Component
+@Order(0)
+@ConditionalOnProperty(name = "hiddencargo.chat.filter.enabled", havingValue = "true", matchIfMissing = true)
+public final class ChatWordFilter implements ChatStage {
+    private static final Logger logger = LoggerFactory.getLogger(ChatWordFilter.class);
+
+    private static final List<String> LINK_PREFIXES = List.of("http://", "https://", "www.");
+
+    private final ChatFilterProperties properties;
+    private final Resource wordsFile;
+    private final ScheduledExecutorService reloader;
+    private final Counter masked;
+    private final Counter dropped;
+    private volatile ChatPatternMatcher matcher;
+    private volatile long loadedModified;
+
+    public ChatWordFilter(ChatFilterProperties properties, ResourceLoader resourceLoader, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.wordsFile = properties.getWordsFile().isBlank() ? null : resourceLoader.getResource(properties.getWordsFile());
+        masked = Counter.builder("hiddencargo.chat.filtered")
+                .description("Mensajes de chat con groserías o enlaces")
+                .tag("action", "masked")
+                .register(meterRegistry);
+        dropped = Counter.builder("hiddencargo.chat.filtered")
+                .description("Mensajes de chat con groserías o enlaces")
+                .tag("action", "dropped")
+                .register(meterRegistry);
+        reload();
+
+        reloader = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "chat-filter-reload");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = properties.getReloadInterval().toMillis();
+        reloader.scheduleWithFixedDelay(this::reloadIfChanged, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public ChatMessageData process(String lobbyName, ChatMessageData message) {
+        String text = message.getMessage();
+        ChatPatternMatcher current = matcher;
+        if (text == null || current.find(text, 0) < 0) {
+            return message;
+        }
+        if (properties.getAction() == ChatFilterProperties.Action.DROP) {
+            dropped.increment();
+            return null;
+        }
+        masked.increment();
+        message.setMessage(current.mask(text));
+        return message;
+    }
+
+    // Compila de nuevo la lista de palabras; devuelve cuántos patrones quedaron
+    int reload() {
+        List<String> words = new ArrayList<>(properties.getWords());
+        long modified = 0;
+        if (wordsFile != null) {
+            try {
+                modified = lastModified();
+                words.addAll(readWords(wordsFile));
+            } catch (IOException e) {
+                logger.warn("No se pudo leer la lista de palabras del chat {}: {}", properties.getWordsFile(), e.getMessage());
+                if (matcher != null) {
+                    return matcher.patterns();
+                }
+            }
+        }
+        ChatPatternMatcher compiled = new ChatPatternMatcher(words,
+                properties.isBlockLinks() ? LINK_PREFIXES : List.of());
+        matcher = compiled;
+        loadedModified = modified;
+        logger.info("Filtro del chat cargado: {} patrones", compiled.patterns());
+        return compiled.patterns();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        reloader.shutdownNow();
+    }
+
+    void reloadIfChanged() {
+        try {
+            if (wordsFile != null && lastModified() != loadedModified) {
+                reload();
+            }
+        } catch (IOException e) {
+            logger.warn("No se pudo comprobar la lista de palabras del chat {}: {}", properties.getWordsFile(), e.getMessage());
+        }
+    }
+
+    private long lastModified() throws IOException {
+        return wordsFile.exists() ? wordsFile.lastModified() : 0;
+    }
+
+    private static List<String> readWords(Resource resource) throws IOException {
+        List<String> words = new ArrayList<>();
+        if (!resource.exists()) {
+            return words;
+        }
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String word = line.trim();
+                if (!word.isEmpty() && !word.startsWith("#")) {
+                    words.add(word);
+                }
+            }
+        }
+        return words;
+    }
+}
@@ -0,0 +1,31 @@
+package arsw.tamaltolimense.SocketServer;
+
+import com.corundumstudio.socketio.handler.ClientHead;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+
+// Avisa a GameBroadcaster cuando el canal de un cliente cruza las marcas del buffer de
+// escritura (socketio.transport.write-buffer-*), para pausar o reanudar su cola de salida
+@ChannelHandler.Sharable
+class ClientBackpressureHandler extends ChannelInboundHandlerAdapter {
+
+    static final String HANDLER_NAME = "clientBackpressure";
+
+    private final GameBroadcaster broadcaster;
+
+    ClientBackpressureHandler(GameBroadcaster broadcaster) {
+        this.broadcaster = broadcaster;
+    }
+
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+        // Solo los canales ya asociados a una sesión (websocket tras el handshake) tienen cliente;
+        // los de long-polling los sigue GameBroadcaster por el tamaño de su cola
+        ClientHead client = ctx.channel().attr(ClientHead.CLIENT).get();
+        if (client != null) {
+            broadcaster.writabilityChanged(client.getSessionId(), ctx.channel().isWritable());
+        }
+        super.channelWritabilityChanged(ctx);
+    }
+}
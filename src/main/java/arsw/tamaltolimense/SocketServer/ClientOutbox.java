@@ -0,0 +1,84 @@
+package arsw.tamaltolimense.SocketServer;
+
+import com.corundumstudio.socketio.SocketIOClient;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Cola de salida de un cliente. Mientras su canal es escribible los eventos pasan directo;
+// si Netty lo marca como no escribible se retienen aquí, y los eventos reemplazables
+// (último saldo de un jugador, último valor del temporizador, apuesta vigente) se
+// conflacionan para que solo quede el más reciente.
+final class ClientOutbox {
+
+    // Resultado de encolar un evento
+    enum Offer { SENT, QUEUED, CONFLATED }
+
+    private final SocketIOClient client;
+    private final Map<Object, OutboundEvent> pending = new LinkedHashMap<>();
+    private boolean writable = true;
+    private long sequence;
+    private long overHighSince = -1;
+
+    ClientOutbox(SocketIOClient client) {
+        this.client = client;
+    }
+
+    // conflationKey null indica un evento que no se puede descartar
+    synchronized Offer offer(String event, Object conflationKey, Object[] data, int highWaterMark, long now) {
+        // Al volver a ser escribible la cola se vacía entera, así que nunca hay nada delante
+        if (writable) {
+            client.sendEvent(event, data);
+            return Offer.SENT;
+        }
+        Object key = conflationKey != null ? conflationKey : sequence++;
+        // Quitar y volver a insertar deja el valor nuevo detrás de los eventos ya encolados
+        boolean conflated = pending.remove(key) != null;
+        pending.put(key, new OutboundEvent(event, data));
+        if (pending.size() > highWaterMark && overHighSince < 0) {
+            overHighSince = now;
+        }
+        return conflated ? Offer.CONFLATED : Offer.QUEUED;
+    }
+
+    // Llamado desde el event loop del canal al cambiar su escribibilidad. Las marcas alta y baja
+    // del buffer de escritura de Netty dan la histéresis: se pausa al pasar la alta y se
+    // reanuda al bajar de la baja, momento en que se vacía la cola en orden.
+    synchronized void writabilityChanged(boolean nowWritable) {
+        writable = nowWritable;
+        if (!nowWritable) {
+            return;
+        }
+        for (OutboundEvent next : pending.values()) {
+            client.sendEvent(next.event(), next.data());
+        }
+        pending.clear();
+        overHighSince = -1;
+    }
+
+    // Long-polling: netty-socketio retiene los paquetes hasta que el cliente vuelve a pedirlos, así
+    // que el canal nunca se llena. Se toma como no escribible mientras su cola supere el límite;
+    // al recogerla, el siguiente evento encuentra la cola vacía y reanuda el envío.
+    synchronized void pollingBacklogChanged(int backlog, int limit) {
+        boolean nowWritable = backlog < limit;
+        if (nowWritable != writable) {
+            writabilityChanged(nowWritable);
+        }
+    }
+
+    // Verdadero si el cliente lleva más de timeoutNanos por encima del límite
+    synchronized boolean isSlowConsumer(long now, long timeoutNanos) {
+        return overHighSince >= 0 && now - overHighSince > timeoutNanos;
+    }
+
+    synchronized int size() {
+        return pending.size();
+    }
+
+    SocketIOClient client() {
+        return client;
+    }
+
+    private record OutboundEvent(String event, Object[] data) {
+    }
+}
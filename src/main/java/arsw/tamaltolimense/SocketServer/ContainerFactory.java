@@ -0,0 +1,105 @@
+package arsw.tamaltolimense.SocketServer;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+// Convierte la respuesta del microservicio de contenedores en un ContainerInfo
+final class ContainerFactory {
+
+    private static final String[] LOCAL_TYPES = {"Normal", "Raro", "Épico", "Legendario"};
+
+    private ContainerFactory() {
+    }
+
+    // Construye el contenedor a partir del cuerpo JSON ya deserializado de /api/contenedor
+    @SuppressWarnings("unchecked")
+    static ContainerInfo fromApiPayload(Map<String, Object> containerData, Random random) {
+        ContainerInfo container = new ContainerInfo();
+        container.setId("container-" + UUID.randomUUID().toString().substring(0, 8));
+
+        // Obtener el color del contenedor y usarlo para determinar el tipo
+        String color = (String) containerData.get("color");
+        String type = typeForColor(color);
+        container.setType(type);
+
+        // Obtener y procesar objetos para calcular el valor
+        List<Map<String, Object>> objetos = (List<Map<String, Object>>) containerData.get("objetos");
+        if (objetos != null && !objetos.isEmpty()) {
+            // Calcular el valor total como suma de precios de los objetos
+            double valorTotal = 0;
+            for (Map<String, Object> objeto : objetos) {
+                valorTotal += precio(objeto);
+            }
+
+            // Establecer el valor total redondeado a entero
+            container.setValue((int) Math.round(valorTotal));
+
+            // Guardar información adicional en el ID para recuperarla después
+            // Formato: container-[UUID]-color:[color]-objects:[objeto1,precio1;objeto2,precio2]
+            StringBuilder idBuilder = new StringBuilder(container.getId());
+            idBuilder.append("-color:").append(color);
+            idBuilder.append("-objects:");
+
+            for (int j = 0; j < objetos.size(); j++) {
+                Map<String, Object> objeto = objetos.get(j);
+                String nombre = (String) objeto.get("nombre");
+                double precio = precio(objeto);
+
+                idBuilder.append(nombre).append(",").append(precio);
+                if (j < objetos.size() - 1) {
+                    idBuilder.append(";");
+                }
+            }
+
+            container.setId(idBuilder.toString());
+        } else {
+            // Si no hay objetos, asignar un valor por defecto según el tipo
+            container.setValue(defaultValueForType(type, random));
+        }
+        return container;
+    }
+
+    // Precio del objeto; 0 si no lo trae, igual que al sumar el valor
+    private static double precio(Map<String, Object> objeto) {
+        return objeto.get("precio") instanceof Number precio ? precio.doubleValue() : 0;
+    }
+
+    // Contenedor generado localmente cuando el microservicio de contenedores no está disponible
+    static ContainerInfo localContainer(Random random) {
+        String type = LOCAL_TYPES[random.nextInt(LOCAL_TYPES.length)];
+        ContainerInfo container = new ContainerInfo();
+        container.setId("container-" + UUID.randomUUID().toString().substring(0, 8) + "-local");
+        container.setType(type);
+        container.setValue(defaultValueForType(type, random));
+        return container;
+    }
+
+    // Mapear color a tipo
+    static String typeForColor(String color) {
+        if ("gris".equalsIgnoreCase(color)) {
+            return "Raro";
+        } else if ("blanco".equalsIgnoreCase(color)) {
+            return "Normal";
+        } else if ("azul".equalsIgnoreCase(color)) {
+            return "Épico";
+        } else if ("dorado".equalsIgnoreCase(color)) {
+            return "Legendario";
+        }
+        return "Normal"; // Por defecto
+    }
+
+    static int defaultValueForType(String type, Random random) {
+        switch (type) {
+            case "Raro":
+                return 500 + random.nextInt(500);
+            case "Épico":
+                return 1000 + random.nextInt(1000);
+            case "Legendario":
+                return 2000 + random.nextInt(3000);
+            default: // Normal
+                return 200 + random.nextInt(300);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package arsw.tamaltolimense.SocketServer;
+
+// Fuente de contenedores para las rondas
+public interface ContainerGateway {
+
+    // Siguiente contenedor, o null si el servicio respondió sin contenido
+    ContainerInfo nextContainer();
+}
@@ -0,0 +1,14 @@
+package arsw.tamaltolimense.SocketServer;
+
+class ContainerInfo {
+    private String id;
+    private String type;
+    private int value;
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+    public int getValue() { return value; }
+    public void setValue(int value) { this.value = value; }
+}
@@ -0,0 +1,90 @@
+package arsw.tamaltolimense.SocketServer;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Contenedores pedidos al servicio por adelantado. Al iniciar una partida se toman de aquí y
+// el hueco se rellena en segundo plano; si la reserva está vacía se piden en el momento.
+@Component
+public class ContainerPool {
+    private static final Logger logger = LoggerFactory.getLogger(ContainerPool.class);
+
+    private final ContainerGateway containerSource;
+    private final BackendResilience resilience;
+    private final BlockingQueue<ContainerInfo> ready;
+    private final ExecutorService refiller;
+    private final AtomicBoolean refilling = new AtomicBoolean();
+
+    public ContainerPool(ContainerGateway containerSource, BackendResilience resilience,
+                         WarmupProperties properties, MeterRegistry meterRegistry) {
+        this.containerSource = containerSource;
+        this.resilience = resilience;
+        this.ready = new ArrayBlockingQueue<>(Math.max(1, properties.getContainerPoolSize()));
+        this.refiller = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "container-prefill");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("hiddencargo.containers.pool.size", ready, BlockingQueue::size)
+                .description("Contenedores precargados disponibles")
+                .register(meterRegistry);
+    }
+
+    // Contenedor precargado o null si no hay; en ambos casos se programa el relleno
+    ContainerInfo poll() {
+        ContainerInfo container = ready.poll();
+        refillAsync();
+        return container;
+    }
+
+    // Llena la reserva en el hilo que llama; devuelve cuántos contenedores quedaron listos
+    int prefill() {
+        while (ready.remainingCapacity() > 0) {
+            ContainerInfo container;
+            try {
+                container = resilience.call(BackendDependency.CONTAINERS, containerSource::nextContainer);
+            } catch (RuntimeException e) {
+                logger.warn("No se pudo precargar un contenedor: {}", e.getMessage());
+                break;
+            }
+            if (container == null) {
+                break;
+            }
+            // Si otro relleno ocupó el último hueco, offer falla y el bucle termina al no quedar
+            // capacidad
+            ready.offer(container);
+        }
+        return ready.size();
+    }
+
+    int size() {
+        return ready.size();
+    }
+
+    private void refillAsync() {
+        if (refilling.compareAndSet(false, true)) {
+            refiller.execute(() -> {
+                try {
+                    prefill();
+                } finally {
+                    refilling.set(false);
+                }
+            });
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refiller.shutdownNow();
+    }
+}
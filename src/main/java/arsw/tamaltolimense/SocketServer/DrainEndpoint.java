@@ -0,0 +1,44 @@
+package arsw.tamaltolimense.SocketServer;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Drenaje manual antes de un despliegue: POST /actuator/drain lo inicia (el nodo deja de estar
+// listo para recibir tráfico) y GET indica cuándo terminó, para enviar SIGTERM solo con el nodo
+// ya vacío. Sin esta llamada el drenaje se hace igualmente al detener la aplicación.
+@Component
+@Endpoint(id = "drain")
+public class DrainEndpoint {
+
+    private final LobbySocketService lobbySocketService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public DrainEndpoint(LobbySocketService lobbySocketService, ApplicationEventPublisher eventPublisher) {
+        this.lobbySocketService = lobbySocketService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("draining", lobbySocketService.isDraining());
+        status.put("drained", lobbySocketService.isDraining() && lobbySocketService.drain().isDone());
+        status.put("activeGames", lobbySocketService.activeGameCount());
+        return status;
+    }
+
+    @WriteOperation
+    public Map<String, Object> start() {
+        AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
+        lobbySocketService.drain();
+        return status();
+    }
+}
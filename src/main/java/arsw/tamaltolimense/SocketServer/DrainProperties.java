@@ -0,0 +1,33 @@
+package arsw.tamaltolimense.SocketServer;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+// Drenaje antes de apagar el nodo: cuánto se espera a que las partidas terminen solas, cuánto
+// se da para liquidar las que queden y a dónde se envía a los clientes para reconectarse
+@ConfigurationProperties(prefix = "hiddencargo.drain")
+public class DrainProperties {
+    // Las partidas cierran su ronda en curso y terminan; pasado este tiempo se liquidan
+    private Duration timeout = Duration.ofSeconds(90);
+    // Margen para liquidar las partidas restantes y enviar los eventos de respaldo de gameEnd
+    private Duration settleGrace = Duration.ofSeconds(10);
+    // URL de otro nodo para el aviso reconnectHint; vacía = reconectar a la misma dirección
+    private String reconnectUrl = "";
+    // Los clientes esperan un tiempo aleatorio hasta este máximo antes de reconectarse
+    private Duration reconnectSpread = Duration.ofSeconds(5);
+    // Máximo que se bloquea la detención de la aplicación drenando; debe quedar por debajo del
+    // periodo de gracia de la plataforma (30 s por defecto en Kubernetes) o el proceso muere a medias
+    private Duration shutdownTimeout = Duration.ofSeconds(25);
+
+    public Duration getTimeout() { return timeout; }
+    public void setTimeout(Duration timeout) { this.timeout = timeout; }
+    public Duration getSettleGrace() { return settleGrace; }
+    public void setSettleGrace(Duration settleGrace) { this.settleGrace = settleGrace; }
+    public String getReconnectUrl() { return reconnectUrl; }
+    public void setReconnectUrl(String reconnectUrl) { this.reconnectUrl = reconnectUrl; }
+    public Duration getReconnectSpread() { return reconnectSpread; }
+    public void setReconnectSpread(Duration reconnectSpread) { this.reconnectSpread = reconnectSpread; }
+    public Duration getShutdownTimeout() { return shutdownTimeout; }
+    public void setShutdownTimeout(Duration shutdownTimeout) { this.shutdownTimeout = shutdownTimeout; }
+}
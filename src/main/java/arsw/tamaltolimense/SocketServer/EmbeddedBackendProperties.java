@@ -0,0 +1,15 @@
+package arsw.tamaltolimense.SocketServer;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+// Valores de los servicios en proceso usados con hiddencargo.backend.mode=embedded
+@ConfigurationProperties(prefix = "hiddencargo.embedded")
+public class EmbeddedBackendProperties {
+    private int roundsPerGame = 5;
+    private int initialBalance = 2000;
+
+    public int getRoundsPerGame() { return roundsPerGame; }
+    public void setRoundsPerGame(int roundsPerGame) { this.roundsPerGame = roundsPerGame; }
+    public int getInitialBalance() { return initialBalance; }
+    public void setInitialBalance(int initialBalance) { this.initialBalance = initialBalance; }
+}
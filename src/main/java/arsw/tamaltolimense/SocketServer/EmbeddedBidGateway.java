@@ -0,0 +1,60 @@
+package arsw.tamaltolimense.SocketServer;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Subastas en memoria: guarda la mejor oferta de cada contenedor hasta que se cierra
+@Component
+@ConditionalOnProperty(name = "hiddencargo.backend.mode", havingValue = "embedded")
+public class EmbeddedBidGateway implements BidGateway {
+
+    private final Map<String, EmbeddedAuction> auctions = new ConcurrentHashMap<>();
+    private final BackendPersistenceHook persistence;
+
+    public EmbeddedBidGateway(ObjectProvider<BackendPersistenceHook> persistence) {
+        this.persistence = persistence.getIfAvailable(() -> BackendPersistenceHook.NONE);
+    }
+
+    @Override
+    public void startAuction(String containerId, int initialValue, int realValue) {
+        auctions.put(containerId, new EmbeddedAuction(initialValue, realValue));
+    }
+
+    @Override
+    public void placeOffer(String containerId, String owner, int amount) {
+        EmbeddedAuction auction = auctions.get(containerId);
+        if (auction != null) {
+            auction.offer(owner, amount);
+        }
+    }
+
+    @Override
+    public void closeAuction(String containerId) {
+        EmbeddedAuction auction = auctions.remove(containerId);
+        if (auction != null && auction.owner != null) {
+            persistence.auctionClosed(containerId, auction.owner, auction.amount, auction.realValue);
+        }
+    }
+
+    private static final class EmbeddedAuction {
+        private final int realValue;
+        private String owner;
+        private int amount;
+
+        EmbeddedAuction(int initialValue, int realValue) {
+            this.amount = initialValue;
+            this.realValue = realValue;
+        }
+
+        synchronized void offer(String bidder, int bid) {
+            if (bid > amount) {
+                owner = bidder;
+                amount = bid;
+            }
+        }
+    }
+}
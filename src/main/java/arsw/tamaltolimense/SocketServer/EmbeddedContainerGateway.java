@@ -0,0 +1,17 @@
+package arsw.tamaltolimense.SocketServer;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+// Contenedores generados en proceso con los mismos tipos y rangos de valor que el respaldo local
+@Component
+@ConditionalOnProperty(name = "hiddencargo.backend.mode", havingValue = "embedded")
+public class EmbeddedContainerGateway implements ContainerGateway {
+
+    @Override
+    public ContainerInfo nextContainer() {
+        return ContainerFactory.localContainer(ThreadLocalRandom.current());
+    }
+}
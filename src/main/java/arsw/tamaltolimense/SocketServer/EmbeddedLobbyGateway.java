@@ -0,0 +1,138 @@
+package arsw.tamaltolimense.SocketServer;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Lobbies en memoria. Un lobby se crea al unirse el primer jugador y desaparece cuando sale el último.
+@Component
+@ConditionalOnProperty(name = "hiddencargo.backend.mode", havingValue = "embedded")
+public class EmbeddedLobbyGateway implements LobbyGateway {
+
+    private final Map<String, EmbeddedLobby> lobbies = new ConcurrentHashMap<>();
+    private final EmbeddedBackendProperties properties;
+    private final BackendPersistenceHook persistence;
+
+    public EmbeddedLobbyGateway(EmbeddedBackendProperties properties,
+                                ObjectProvider<BackendPersistenceHook> persistence) {
+        this.properties = properties;
+        this.persistence = persistence.getIfAvailable(() -> BackendPersistenceHook.NONE);
+    }
+
+    @Override
+    public Map<String, Object> getLobby(String lobbyName) {
+        EmbeddedLobby lobby = lobbies.get(lobbyName);
+        return lobby != null ? lobby.snapshot() : null;
+    }
+
+    @Override
+    public boolean addPlayer(String lobbyName, String nickname) {
+        if (nickname == null || nickname.isEmpty()) {
+            return false;
+        }
+        // compute serializa por nombre con removePlayer: nadie entra a un lobby que ya se descartó
+        EmbeddedLobby lobby = lobbies.compute(lobbyName, (name, current) -> {
+            EmbeddedLobby joined = current != null ? current : new EmbeddedLobby(name, properties.getRoundsPerGame());
+            joined.addPlayer(nickname);
+            return joined;
+        });
+        persistence.lobbyChanged(lobby.snapshot());
+        return true;
+    }
+
+    @Override
+    public List<String> registerLobbies(List<MatchedLobby> matched) {
+        List<String> registered = new ArrayList<>(matched.size());
+        for (MatchedLobby match : matched) {
+            EmbeddedLobby lobby = new EmbeddedLobby(match.name(), match.rounds());
+            match.players().forEach(lobby::addPlayer);
+            if (lobbies.putIfAbsent(match.name(), lobby) == null) {
+                persistence.lobbyChanged(lobby.snapshot());
+                registered.add(match.name());
+            }
+        }
+        return registered;
+    }
+
+    @Override
+    public boolean removePlayer(String lobbyName, String nickname) {
+        if (!lobbies.containsKey(lobbyName)) {
+            return false;
+        }
+        // El lobby que queda vacío se descarta en el mismo compute que quita al jugador
+        EmbeddedLobby remaining = lobbies.computeIfPresent(lobbyName,
+                (name, lobby) -> lobby.removePlayer(nickname) ? lobby : null);
+        if (remaining == null) {
+            persistence.lobbyRemoved(lobbyName);
+        } else {
+            persistence.lobbyChanged(remaining.snapshot());
+        }
+        return true;
+    }
+
+    @Override
+    public boolean markReady(String lobbyName) {
+        return changeReady(lobbyName, 1);
+    }
+
+    @Override
+    public boolean markNotReady(String lobbyName) {
+        return changeReady(lobbyName, -1);
+    }
+
+    private boolean changeReady(String lobbyName, int delta) {
+        EmbeddedLobby lobby = lobbies.get(lobbyName);
+        if (lobby == null) {
+            return false;
+        }
+        persistence.lobbyChanged(lobby.changeReady(delta));
+        return true;
+    }
+
+    private static final class EmbeddedLobby {
+        private final String name;
+        private final int rounds;
+        private final List<String> players = new ArrayList<>();
+        private int ready;
+
+        EmbeddedLobby(String name, int rounds) {
+            this.name = name;
+            this.rounds = rounds;
+        }
+
+        synchronized void addPlayer(String nickname) {
+            if (!players.contains(nickname)) {
+                players.add(nickname);
+            }
+        }
+
+        // Devuelve si al lobby le quedan jugadores
+        synchronized boolean removePlayer(String nickname) {
+            players.remove(nickname);
+            ready = Math.min(ready, players.size());
+            return !players.isEmpty();
+        }
+
+        synchronized Map<String, Object> changeReady(int delta) {
+            ready = Math.max(0, Math.min(players.size(), ready + delta));
+            return snapshot();
+        }
+
+        // Mismas claves que devuelve el API de lobbies
+        synchronized Map<String, Object> snapshot() {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("nombre", name);
+            json.put("jugadoresConectados", players.size());
+            json.put("jugadoresListos", ready);
+            json.put("numeroDeRondas", rounds);
+            json.put("jugadores", new ArrayList<>(players));
+            return json;
+        }
+    }
+}
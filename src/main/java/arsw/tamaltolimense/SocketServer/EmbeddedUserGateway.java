@@ -0,0 +1,32 @@
+package arsw.tamaltolimense.SocketServer;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Saldos de usuario en memoria; cada usuario empieza con hiddencargo.embedded.initial-balance
+@Component
+@ConditionalOnProperty(name = "hiddencargo.backend.mode", havingValue = "embedded")
+public class EmbeddedUserGateway implements UserGateway {
+
+    private final Map<String, Integer> balances = new ConcurrentHashMap<>();
+    private final EmbeddedBackendProperties properties;
+    private final BackendPersistenceHook persistence;
+
+    public EmbeddedUserGateway(EmbeddedBackendProperties properties,
+                               ObjectProvider<BackendPersistenceHook> persistence) {
+        this.properties = properties;
+        this.persistence = persistence.getIfAvailable(() -> BackendPersistenceHook.NONE);
+    }
+
+    @Override
+    public Integer addToBalance(String username, int amount) {
+        int balance = balances.merge(username, properties.getInitialBalance() + amount,
+                (current, ignored) -> current + amount);
+        persistence.balanceChanged(username, balance);
+        return balance;
+    }
+}
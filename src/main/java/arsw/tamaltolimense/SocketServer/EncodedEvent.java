@@ -0,0 +1,36 @@
+package arsw.tamaltolimense.SocketServer;
+
+import java.nio.charset.StandardCharsets;
+
+// Evento ya serializado como [nombre, datos] por GameJsonSupport.encode. Al enviarlo a muchos
+// clientes el encoder de cada canal solo copia estos bytes, sin volver a serializar los datos.
+final class EncodedEvent {
+
+    private final String event;
+    private final byte[] packet;
+    private final int dataOffset;
+
+    EncodedEvent(String event, byte[] packet, int dataOffset) {
+        this.event = event;
+        this.packet = packet;
+        this.dataOffset = dataOffset;
+    }
+
+    String event() {
+        return event;
+    }
+
+    // [nombre, datos] completo, tal como lo escribe el encoder
+    byte[] packet() {
+        return packet;
+    }
+
+    // Solo los datos, para cuando el evento acaba serializado dentro de otro valor
+    String dataJson() {
+        return new String(packet, dataOffset, packet.length - dataOffset - 1, StandardCharsets.UTF_8);
+    }
+
+    int size() {
+        return packet.length;
+    }
+}
@@ -0,0 +1,188 @@
+package arsw.tamaltolimense.SocketServer;
+
+import com.corundumstudio.socketio.AckRequest;
+import com.corundumstudio.socketio.SocketIOClient;
+import com.corundumstudio.socketio.SocketIOServer;
+import com.corundumstudio.socketio.Transport;
+import com.corundumstudio.socketio.transport.NamespaceClient;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Único camino de salida de los eventos del juego. Dentro de un pase de procesamiento
+// (un evento recibido o un temporizador) los envíos y acks se acumulan y se despachan
+// juntos al final, de modo que las escrituras a cada canal llegan en la misma vuelta del
+// event loop y FlushConsolidationHandler las vacía con un solo flush.
+// Cada cliente tiene además su ClientOutbox: si su canal deja de ser escribible los eventos
+// se retienen (conflacionando los reemplazables) y si sigue atascado se le desconecta. En
+// long-polling no hay canal que se llene: cuenta como no escribible mientras tenga más de
+// polling-high-water-mark paquetes esperando a que el cliente los recoja. Con más del doble de
+// high-water-mark eventos en cola se le desconecta sin esperar a slow-consumer-timeout.
+@Component
+public final class GameBroadcaster {
+    private static final Logger logger = LoggerFactory.getLogger(GameBroadcaster.class);
+
+    private final ThreadLocal<List<Runnable>> currentPass = new ThreadLocal<>();
+    private final Map<UUID, ClientOutbox> outboxes = new ConcurrentHashMap<>();
+    private final ClientBackpressureHandler backpressureHandler = new ClientBackpressureHandler(this);
+    private final int highWaterMark;
+    private final int maxPending;
+    private final int pollingHighWaterMark;
+    private final long slowConsumerTimeoutNanos;
+    private final Counter queuedEvents;
+    private final Counter conflatedEvents;
+    private final Counter slowConsumerDisconnects;
+    private SocketIOServer server;
+
+    public GameBroadcaster(BackpressureProperties properties, MeterRegistry meterRegistry) {
+        this.highWaterMark = properties.getHighWaterMark();
+        this.maxPending = 2 * properties.getHighWaterMark();
+        this.pollingHighWaterMark = properties.getPollingHighWaterMark();
+        this.slowConsumerTimeoutNanos = properties.getSlowConsumerTimeout().toNanos();
+        Gauge.builder("hiddencargo.socket.outbox.pending", outboxes, GameBroadcaster::pendingEvents)
+                .description("Eventos retenidos en las colas de clientes no escribibles")
+                .register(meterRegistry);
+        queuedEvents = Counter.builder("hiddencargo.socket.outbox.queued")
+                .description("Eventos retenidos por tener el canal del cliente lleno")
+                .register(meterRegistry);
+        conflatedEvents = Counter.builder("hiddencargo.socket.outbox.conflated")
+                .description("Eventos reemplazados por uno más reciente antes de enviarse")
+                .register(meterRegistry);
+        slowConsumerDisconnects = Counter.builder("hiddencargo.socket.slow.consumers")
+                .description("Clientes desconectados por no vaciar su cola a tiempo")
+                .register(meterRegistry);
+    }
+
+    // La cola vive lo mismo que la conexión: se crea al conectar y se quita al desconectar
+    void attach(SocketIOServer server) {
+        this.server = server;
+        server.addConnectListener(client -> outboxes.put(client.getSessionId(), new ClientOutbox(client)));
+        server.addDisconnectListener(client -> outboxes.remove(client.getSessionId()));
+    }
+
+    ClientBackpressureHandler backpressureHandler() {
+        return backpressureHandler;
+    }
+
+    // Ejecuta el procesamiento agrupando sus envíos; los pases anidados se unen al exterior
+    void inPass(Runnable processing) {
+        if (currentPass.get() != null) {
+            processing.run();
+            return;
+        }
+        List<Runnable> pending = new ArrayList<>();
+        currentPass.set(pending);
+        try {
+            processing.run();
+        } finally {
+            currentPass.remove();
+            dispatch(pending);
+        }
+    }
+
+    // Despacha ya lo acumulado en el pase actual, p. ej. antes de una pausa entre reenvíos
+    void flush() {
+        List<Runnable> pending = currentPass.get();
+        if (pending != null && !pending.isEmpty()) {
+            List<Runnable> batch = new ArrayList<>(pending);
+            pending.clear();
+            dispatch(batch);
+        }
+    }
+
+    void toRoom(String room, String event, Object... data) {
+        toRoomLatest(room, event, null, data);
+    }
+
+    // Como toRoom, pero si el cliente está atascado solo se conserva el último evento con la misma clave
+    void toRoomLatest(String room, String event, Object conflationKey, Object... data) {
+        submit(() -> {
+            for (SocketIOClient client : server.getRoomOperations(room).getClients()) {
+                offer(client, event, conflationKey, data);
+            }
+        });
+    }
+
+    void toClient(SocketIOClient client, String event, Object... data) {
+        submit(() -> offer(client, event, null, data));
+    }
+
+    void ack(AckRequest ackRequest, Object... data) {
+        submit(() -> ackRequest.sendAckData(data));
+    }
+
+    // Llamado por ClientBackpressureHandler desde el event loop del canal
+    void writabilityChanged(UUID sessionId, boolean writable) {
+        ClientOutbox outbox = outboxes.get(sessionId);
+        if (outbox != null) {
+            outbox.writabilityChanged(writable);
+        }
+    }
+
+    private void offer(SocketIOClient client, String event, Object conflationKey, Object[] data) {
+        // Sin cola el cliente ya se desconectó: no se le recrea una que nadie quitaría
+        ClientOutbox outbox = outboxes.get(client.getSessionId());
+        if (outbox == null) {
+            return;
+        }
+        if (client.getTransport() == Transport.POLLING) {
+            outbox.pollingBacklogChanged(pollingBacklog(client), pollingHighWaterMark);
+        }
+        long now = System.nanoTime();
+        switch (outbox.offer(event, conflationKey, data, highWaterMark, now)) {
+            case QUEUED -> queuedEvents.increment();
+            case CONFLATED -> conflatedEvents.increment();
+            default -> {
+                return;
+            }
+        }
+        // Los eventos que no se conflacionan (chat, newRound, gameEnd) harían crecer la cola sin
+        // tope hasta el timeout, que además solo se comprueba cuando llega otro evento
+        if (outbox.size() > maxPending || outbox.isSlowConsumer(now, slowConsumerTimeoutNanos)) {
+            slowConsumerDisconnects.increment();
+            logger.warn("Desconectando cliente lento {}: {} eventos sin enviar", client.getSessionId(), outbox.size());
+            outboxes.remove(client.getSessionId());
+            client.disconnect();
+        }
+    }
+
+    // Paquetes que netty-socketio guarda hasta la próxima petición de long-polling del cliente
+    private static int pollingBacklog(SocketIOClient client) {
+        if (client instanceof NamespaceClient namespaceClient) {
+            return namespaceClient.getBaseClient().getPacketsQueue(Transport.POLLING).size();
+        }
+        return 0;
+    }
+
+    private static double pendingEvents(Map<UUID, ClientOutbox> outboxes) {
+        int total = 0;
+        for (ClientOutbox outbox : outboxes.values()) {
+            total += outbox.size();
+        }
+        return total;
+    }
+
+    private void submit(Runnable send) {
+        List<Runnable> pending = currentPass.get();
+        if (pending != null) {
+            pending.add(send);
+        } else {
+            send.run();
+        }
+    }
+
+    private static void dispatch(List<Runnable> sends) {
+        for (Runnable send : sends) {
+            send.run();
+        }
+    }
+}
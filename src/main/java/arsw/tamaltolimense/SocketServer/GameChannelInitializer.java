@@ -0,0 +1,51 @@
+package arsw.tamaltolimense.SocketServer;
+
+import com.corundumstudio.socketio.SocketIOChannelInitializer;
+import io.netty.channel.ChannelPipeline;
+import io.netty.handler.flush.FlushConsolidationHandler;
+
+// Pipeline de netty-socketio con consolidación de flushes: EncoderHandler hace writeAndFlush
+// por cada trama, y FlushConsolidationHandler convierte esos flushes en uno por vuelta del
+// event loop (o cada explicitFlushAfterFlushes), reduciendo syscalls y paquetes TCP.
+// También sustituye el permessage-deflate fijo de netty-socketio por WebSocketDeflate y, sin
+// Tomcat, atiende los endpoints de administración antes de que lleguen a netty-socketio.
+class GameChannelInitializer extends SocketIOChannelInitializer {
+
+    static final String FLUSH_CONSOLIDATION = "flushConsolidation";
+
+    private final TransportProperties transport;
+    private final int compressionLevel;
+    private final SocketChannelMetrics channelMetrics;
+    private final ClientBackpressureHandler backpressureHandler;
+    private final NettyAdminHandler adminHandler;
+
+    GameChannelInitializer(TransportProperties transport, int compressionLevel, SocketChannelMetrics channelMetrics,
+                           ClientBackpressureHandler backpressureHandler, NettyAdminHandler adminHandler) {
+        this.transport = transport;
+        this.compressionLevel = compressionLevel;
+        this.channelMetrics = channelMetrics;
+        this.backpressureHandler = backpressureHandler;
+        this.adminHandler = adminHandler;
+    }
+
+    @Override
+    protected void addSocketioHandlers(ChannelPipeline pipeline) {
+        super.addSocketioHandlers(pipeline);
+        if (adminHandler.isEnabled()) {
+            // Tras el agregador y el codificador HTTP: recibe peticiones completas y sus
+            // respuestas salen por el mismo codificador (y la compresión) que el long-polling
+            pipeline.addBefore(PACKET_HANDLER, NettyAdminHandler.HANDLER_NAME, adminHandler);
+        }
+        if (transport.isWebsocketCompression()) {
+            pipeline.addBefore(WEB_SOCKET_TRANSPORT, WEB_SOCKET_TRANSPORT_COMPRESSION,
+                    WebSocketDeflate.handler(compressionLevel, transport.getCompressionMinSize()));
+        }
+        pipeline.addFirst(ClientBackpressureHandler.HANDLER_NAME, backpressureHandler);
+        if (transport.isFlushConsolidation()) {
+            pipeline.addFirst(FLUSH_CONSOLIDATION,
+                    new FlushConsolidationHandler(transport.getExplicitFlushAfterFlushes(), true));
+        }
+        // Delante de la consolidación para contar solo los flushes que llegan al socket
+        pipeline.addFirst(SocketChannelMetrics.HANDLER_NAME, channelMetrics);
+    }
+}
@@ -0,0 +1,13 @@
+package arsw.tamaltolimense.SocketServer;
+
+import java.util.List;
+
+class GameEndData {
+    private String winner;
+    private List<PlayerState> finalScores;
+
+    public String getWinner() { return winner; }
+    public void setWinner(String winner) { this.winner = winner; }
+    public List<PlayerState> getFinalScores() { return finalScores; }
+    public void setFinalScores(List<PlayerState> finalScores) { this.finalScores = finalScores; }
+}
@@ -0,0 +1,127 @@
+package arsw.tamaltolimense.SocketServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+// Formato binario por filas de la exportación de partidas. Cada archivo empieza con "HCGX" y
+// la versión (1 byte); después, una partida por registro:
+//
+//   registro   = varint(longitud) partida
+//   partida    = varlong(inicio, epoch ms) varlong(duración ms) texto(lobby) varint(rondas totales)
+//                varint(asientos) { texto(nickname) zigzag(puntuación) zigzag(saldo) }
+//                zigzag(asiento ganador, -1 = nadie)
+//                varint(rondas) { varint(ronda) texto(contenedor) texto(tipo) zigzag(valor)
+//                                 zigzag(asiento ganador) zigzag(monto) zigzag(beneficio) }
+//                varint(apuestas) { varint(ronda) varint(asiento) varint(monto)
+//                                   zigzag(ms desde la apuesta anterior) }
+//   texto      = varint(bytes UTF-8) bytes
+//
+// Los varint son LEB128 (7 bits por byte) y zigzag los lleva a positivos, así que una apuesta
+// típica ocupa 5-7 bytes. El codificador reutiliza su búfer; lo usa un solo hilo.
+final class GameExportFormat {
+
+    static final byte[] MAGIC = {'H', 'C', 'G', 'X'};
+    static final byte VERSION = 1;
+
+    private byte[] buffer = new byte[4096];
+    private final byte[] length = new byte[10];
+    private int position;
+    private int bidCount;
+
+    // Codifica la partida en el búfer; devuelve su tamaño sin el prefijo de longitud
+    int encode(GameState game, int winnerSeat, long endedAt) {
+        GameRecord record = game.getRecord();
+        GameRoster roster = game.getRoster();
+        position = 0;
+        writeVarLong(record.startedAt());
+        writeVarLong(Math.max(0, endedAt - record.startedAt()));
+        writeString(game.getLobbyName());
+        writeVarLong(game.getTotalRounds());
+
+        writeVarLong(roster.seats());
+        for (int seat = 0; seat < roster.seats(); seat++) {
+            writeString(roster.nickname(seat));
+            writeZigZag(roster.score(seat));
+            writeZigZag(roster.balance(seat));
+        }
+        writeZigZag(winnerSeat);
+
+        List<GameRecord.RoundOutcome> rounds = record.rounds();
+        writeVarLong(rounds.size());
+        for (GameRecord.RoundOutcome round : rounds) {
+            writeVarLong(round.round());
+            writeString(round.containerId());
+            writeString(round.containerType());
+            writeZigZag(round.containerValue());
+            writeZigZag(round.winnerSeat());
+            writeZigZag(round.bidAmount());
+            writeZigZag(round.profit());
+        }
+
+        int[] bids = record.bids();
+        bidCount = bids.length / GameRecord.BID_FIELDS;
+        writeVarLong(bidCount);
+        int previousMillis = 0;
+        for (int i = 0; i < bids.length; i += GameRecord.BID_FIELDS) {
+            writeVarLong(bids[i]);
+            writeVarLong(bids[i + 1]);
+            writeVarLong(bids[i + 2]);
+            writeZigZag(bids[i + 3] - previousMillis);
+            previousMillis = bids[i + 3];
+        }
+        return position;
+    }
+
+    // Escribe el último registro codificado precedido de su longitud; devuelve los bytes escritos
+    int writeTo(OutputStream out) throws IOException {
+        int lengthBytes = varLong(length, 0, position);
+        out.write(length, 0, lengthBytes);
+        out.write(buffer, 0, position);
+        return lengthBytes + position;
+    }
+
+    // Apuestas del último registro codificado
+    int bidCount() {
+        return bidCount;
+    }
+
+    static void writeHeader(OutputStream out) throws IOException {
+        out.write(MAGIC);
+        out.write(VERSION);
+    }
+
+    private void writeString(String value) {
+        byte[] bytes = value != null ? value.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        writeVarLong(bytes.length);
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    private void writeZigZag(long value) {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    private void writeVarLong(long value) {
+        ensure(10);
+        position = varLong(buffer, position, value);
+    }
+
+    private static int varLong(byte[] target, int offset, long value) {
+        while ((value & ~0x7FL) != 0) {
+            target[offset++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        target[offset++] = (byte) value;
+        return offset;
+    }
+
+    private void ensure(int extra) {
+        if (position + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+        }
+    }
+}
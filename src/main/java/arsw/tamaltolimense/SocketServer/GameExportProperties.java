@@ -0,0 +1,41 @@
+package arsw.tamaltolimense.SocketServer;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+// Exportación de partidas terminadas (GameExporter) a archivos locales en formato binario
+// (GameExportFormat) para análisis; desactivada por defecto
+@ConfigurationProperties(prefix = "hiddencargo.export")
+public class GameExportProperties {
+    private boolean enabled = false;
+    private String directory = "game-exports";
+    // Partidas esperando a escribirse; si se llena, las siguientes se descartan y se cuentan
+    private int queueCapacity = 10_000;
+    // Cada cuánto se vuelca a disco lo escrito
+    private Duration flushInterval = Duration.ofSeconds(1);
+    // Se abre un archivo nuevo al pasar de este tamaño o de esta antigüedad
+    private long maxFileBytes = 64L * 1024 * 1024;
+    private Duration rollInterval = Duration.ofHours(1);
+    // Archivos que se conservan; los más antiguos se borran
+    private int maxFiles = 168;
+    // Lo que se espera al apagar a que se escriban las partidas pendientes
+    private Duration shutdownTimeout = Duration.ofSeconds(10);
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public String getDirectory() { return directory; }
+    public void setDirectory(String directory) { this.directory = directory; }
+    public int getQueueCapacity() { return queueCapacity; }
+    public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+    public Duration getFlushInterval() { return flushInterval; }
+    public void setFlushInterval(Duration flushInterval) { this.flushInterval = flushInterval; }
+    public long getMaxFileBytes() { return maxFileBytes; }
+    public void setMaxFileBytes(long maxFileBytes) { this.maxFileBytes = maxFileBytes; }
+    public Duration getRollInterval() { return rollInterval; }
+    public void setRollInterval(Duration rollInterval) { this.rollInterval = rollInterval; }
+    public int getMaxFiles() { return maxFiles; }
+    public void setMaxFiles(int maxFiles) { this.maxFiles = maxFiles; }
+    public Duration getShutdownTimeout() { return shutdownTimeout; }
+    public void setShutdownTimeout(Duration shutdownTimeout) { this.shutdownTimeout = shutdownTimeout; }
+}
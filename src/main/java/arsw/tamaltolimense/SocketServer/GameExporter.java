@@ -0,0 +1,240 @@
+package arsw.tamaltolimense.SocketServer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Exporta cada partida terminada a archivos locales rotativos (GameExportFormat) para el equipo
+// de datos. endGame solo deja la partida en una cola acotada con offer(), que nunca bloquea: si
+// la cola está llena la partida se descarta y se cuenta. Un hilo propio codifica, escribe con
+// búfer, vuelca a disco cada flush-interval y abre un archivo nuevo por tamaño o antigüedad.
+@Component
+public class GameExporter {
+    private static final Logger logger = LoggerFactory.getLogger(GameExporter.class);
+
+    private static final String FILE_PREFIX = "games-";
+    private static final String FILE_SUFFIX = ".hcg";
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private record Finished(GameState game, int winnerSeat, long endedAt) {
+    }
+
+    private final GameExportProperties properties;
+    private final BlockingQueue<Finished> queue;
+    private final ExecutorService writer;
+    private final GameExportFormat format = new GameExportFormat();
+    private final Counter exportedGames;
+    private final Counter exportedBids;
+    private final Counter writtenBytes;
+    private final Counter dropped;
+    private final Counter errors;
+    // Solo los usa el hilo escritor
+    private OutputStream out;
+    private Path currentFile;
+    private long currentBytes;
+    private long openedAt;
+    private long lastFlush;
+    private boolean dirty;
+    private int fileSequence;
+
+    public GameExporter(GameExportProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity()));
+        Gauge.builder("hiddencargo.export.queued", queue, BlockingQueue::size)
+                .description("Partidas terminadas esperando a escribirse")
+                .register(meterRegistry);
+        exportedGames = Counter.builder("hiddencargo.export.games")
+                .description("Partidas escritas en los archivos de exportación")
+                .register(meterRegistry);
+        exportedBids = Counter.builder("hiddencargo.export.bids")
+                .description("Apuestas escritas en los archivos de exportación")
+                .register(meterRegistry);
+        writtenBytes = Counter.builder("hiddencargo.export.bytes")
+                .description("Bytes escritos en los archivos de exportación")
+                .register(meterRegistry);
+        dropped = Counter.builder("hiddencargo.export.dropped")
+                .description("Partidas descartadas por cola de exportación llena")
+                .register(meterRegistry);
+        errors = Counter.builder("hiddencargo.export.errors")
+                .description("Partidas que no se pudieron escribir")
+                .register(meterRegistry);
+
+        writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "game-export");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        if (properties.isEnabled()) {
+            writer.execute(this::writeLoop);
+        }
+    }
+
+    boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    // Desde endGame: encola la partida sin bloquear; winnerSeat = -1 si no hubo ganador
+    void export(GameState game, int winnerSeat) {
+        // Sin registro la partida empezó con la exportación desactivada
+        if (!properties.isEnabled() || game.getRecord() == null) {
+            return;
+        }
+        if (!queue.offer(new Finished(game, winnerSeat, now()))) {
+            dropped.increment();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // La interrupción hace que el hilo escriba lo que quede en la cola y cierre el archivo
+        writer.shutdownNow();
+        try {
+            if (!writer.awaitTermination(properties.getShutdownTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                logger.warn("La exportación no terminó de escribir {} partidas", queue.size());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeLoop() {
+        long flushMillis = Math.max(1, properties.getFlushInterval().toMillis());
+        List<Finished> batch = new ArrayList<>();
+        try {
+            // poll lanza InterruptedException en cuanto llega la interrupción, también si llegó
+            // mientras se escribía, y la escritura final empieza ya sin ella
+            while (true) {
+                Finished first = queue.poll(flushMillis, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch);
+                    batch.forEach(this::write);
+                    batch.clear();
+                }
+                if (dirty && now() - lastFlush >= flushMillis) {
+                    flush();
+                }
+            }
+        } catch (InterruptedException e) {
+            // Apagado: se escribe lo pendiente
+        }
+        queue.drainTo(batch);
+        batch.forEach(this::write);
+        close();
+    }
+
+    private void write(Finished finished) {
+        try {
+            format.encode(finished.game(), finished.winnerSeat(), finished.endedAt());
+            OutputStream target = currentOutput();
+            int written = format.writeTo(target);
+            currentBytes += written;
+            dirty = true;
+            exportedGames.increment();
+            exportedBids.increment(format.bidCount());
+            writtenBytes.increment(written);
+        } catch (IOException | RuntimeException e) {
+            errors.increment();
+            logger.warn("No se pudo exportar la partida del lobby {}: {}", finished.game().getLobbyName(), e.toString());
+            // Se reintenta con un archivo nuevo en la siguiente partida
+            close();
+        }
+    }
+
+    private OutputStream currentOutput() throws IOException {
+        long now = now();
+        if (out != null && (currentBytes >= properties.getMaxFileBytes()
+                || now - openedAt >= properties.getRollInterval().toMillis())) {
+            close();
+        }
+        if (out == null) {
+            Path directory = Paths.get(properties.getDirectory());
+            Files.createDirectories(directory);
+            currentFile = directory.resolve(FILE_PREFIX + LocalDateTime.now().format(FILE_TIME)
+                    + String.format("-%04d", fileSequence++) + FILE_SUFFIX);
+            out = new BufferedOutputStream(open(currentFile), 64 * 1024);
+            GameExportFormat.writeHeader(out);
+            currentBytes = GameExportFormat.MAGIC.length + 1;
+            openedAt = now;
+            lastFlush = now;
+            logger.info("Exportando partidas en {}", currentFile);
+            deleteOldFiles(directory);
+        }
+        return out;
+    }
+
+    private void flush() {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            errors.increment();
+            logger.warn("No se pudo volcar {} a disco: {}", currentFile, e.toString());
+            close();
+        }
+        lastFlush = now();
+        dirty = false;
+    }
+
+    long now() {
+        return System.currentTimeMillis();
+    }
+
+    OutputStream open(Path file) throws IOException {
+        return Files.newOutputStream(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+    }
+
+    private void close() {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.close();
+        } catch (IOException e) {
+            logger.warn("Error al cerrar {}: {}", currentFile, e.toString());
+        }
+        out = null;
+        dirty = false;
+    }
+
+    // Conserva solo los max-files archivos más recientes; el nombre lleva la fecha, así que
+    // el orden alfabético es el cronológico
+    private void deleteOldFiles(Path directory) throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX);
+            }).sorted().toList();
+        }
+        for (int i = 0; i < files.size() - Math.max(1, properties.getMaxFiles()); i++) {
+            Files.deleteIfExists(files.get(i));
+        }
+    }
+}
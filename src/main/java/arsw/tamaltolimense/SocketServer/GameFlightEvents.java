@@ -0,0 +1,140 @@
+package arsw.tamaltolimense.SocketServer;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+// Eventos personalizados de JDK Flight Recorder para las rutas críticas del juego.
+// Se activan con "jcmd <pid> JFR.start" y no cuestan casi nada con la grabación apagada:
+// si isEnabled() es falso no se toman tiempos ni se cuentan destinatarios.
+final class GameFlightEvents {
+
+    private GameFlightEvents() {
+    }
+
+    // Campos comunes a todos los eventos del juego
+    @Category({"HiddenCargo", "Juego"})
+    @StackTrace(false)
+    abstract static class GameHotPathEvent extends Event {
+        @Label("Lobby")
+        String lobby;
+
+        @Label("Ronda")
+        int round;
+
+        @Label("Jugadores")
+        int playerCount;
+
+        @Label("Tiempo HTTP")
+        @Description("Tiempo gastado en llamadas HTTP salientes")
+        @Timespan(Timespan.NANOSECONDS)
+        long httpTime;
+
+        @Label("Tiempo local")
+        @Description("Tiempo de procesamiento local, sin HTTP ni pausas")
+        @Timespan(Timespan.NANOSECONDS)
+        long localTime;
+
+        @Label("Tiempo en pausa")
+        @Description("Tiempo dormido entre reenvíos de eventos")
+        @Timespan(Timespan.NANOSECONDS)
+        long pauseTime;
+
+        @Label("Tramas")
+        @Description("Eventos de sala enviados durante el procesamiento")
+        int frames;
+
+        @Label("Fan-out")
+        @Description("Tramas multiplicadas por los clientes de la sala")
+        int fanOut;
+
+        private transient long startNanos;
+
+        void start() {
+            if (isEnabled()) {
+                startNanos = System.nanoTime();
+                begin();
+            }
+        }
+
+        // Devuelve el instante de inicio de una llamada HTTP, o 0 si no se está grabando
+        long httpStart() {
+            return isEnabled() ? System.nanoTime() : 0L;
+        }
+
+        void httpEnd(long httpStartNanos) {
+            if (httpStartNanos != 0L) {
+                httpTime += System.nanoTime() - httpStartNanos;
+            }
+        }
+
+        long pauseStart() {
+            return isEnabled() ? System.nanoTime() : 0L;
+        }
+
+        void pauseEnd(long pauseStartNanos) {
+            if (pauseStartNanos != 0L) {
+                pauseTime += System.nanoTime() - pauseStartNanos;
+            }
+        }
+
+        void frameSent() {
+            frames++;
+        }
+
+        void finish(int recipients) {
+            if (isEnabled()) {
+                end();
+                if (shouldCommit()) {
+                    localTime = Math.max(0L, System.nanoTime() - startNanos - httpTime - pauseTime);
+                    fanOut = frames * recipients;
+                    commit();
+                }
+            }
+        }
+    }
+
+    @Name("arsw.hiddencargo.PlaceBid")
+    @Label("Apuesta procesada")
+    static class PlaceBidEvent extends GameHotPathEvent {
+        @Label("Jugador")
+        String nickname;
+
+        @Label("Monto")
+        int amount;
+
+        @Label("Aceptada")
+        boolean accepted;
+    }
+
+    @Name("arsw.hiddencargo.StartNewRound")
+    @Label("Inicio de ronda")
+    static class StartNewRoundEvent extends GameHotPathEvent {
+        @Label("Contenedor")
+        String containerId;
+    }
+
+    @Name("arsw.hiddencargo.EndAuctionRound")
+    @Label("Fin de subasta")
+    static class EndAuctionRoundEvent extends GameHotPathEvent {
+        @Label("Ganador")
+        String winner;
+
+        @Label("Beneficio")
+        int profit;
+    }
+
+    @Name("arsw.hiddencargo.GenerateContainers")
+    @Label("Generación de contenedores")
+    static class GenerateContainersEvent extends GameHotPathEvent {
+        @Label("Solicitados")
+        int requested;
+
+        @Label("Generados")
+        int generated;
+    }
+}
@@ -0,0 +1,423 @@
+package arsw.tamaltolimense.SocketServer;
+
+import com.corundumstudio.socketio.namespace.Namespace;
+import com.corundumstudio.socketio.protocol.Event;
+import com.corundumstudio.socketio.protocol.JacksonJsonSupport;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// JsonSupport de netty-socketio con serializadores escritos a mano para los eventos del juego.
+// Salida: [nombre, datos] se escribe directamente con un JsonGenerator (buffers reciclados de
+// Jackson) sobre el ByteBuf del encoder, sin la búsqueda de serializadores ni el SerializerProvider
+// que crea ObjectMapper.writeValue en cada envío. Entrada: placeBid y chatMessage se leen token a
+// token desde el ByteBuf; cualquier otra forma (tipos inesperados, más argumentos, otros eventos)
+// vuelve al deserializador de netty-socketio. El JSON producido es idéntico al de JacksonJsonSupport
+// (mismo orden de campos y sin campos null). Un EncodedEvent (encode) se copia tal cual, para
+// difundir un mismo evento a muchos clientes serializándolo una sola vez.
+class GameJsonSupport extends JacksonJsonSupport {
+
+    // Escritura de un objeto JSON completo con el generador
+    @FunctionalInterface
+    interface EventWriter<T> {
+        void write(JsonGenerator generator, T value) throws IOException;
+    }
+
+    // Lectura de los datos de un evento; null si el JSON no tiene la forma esperada
+    @FunctionalInterface
+    interface EventReader<T> {
+        T read(JsonParser parser) throws IOException;
+    }
+
+    private static final SerializedString NICKNAME = new SerializedString("nickname");
+    private static final SerializedString CONTAINER_ID = new SerializedString("containerId");
+    private static final SerializedString AMOUNT = new SerializedString("amount");
+    private static final SerializedString DEADLINE = new SerializedString("deadline");
+    private static final SerializedString BALANCE = new SerializedString("balance");
+    private static final SerializedString SCORE = new SerializedString("score");
+    private static final SerializedString WINNER = new SerializedString("winner");
+    private static final SerializedString CONTAINER_TYPE = new SerializedString("containerType");
+    private static final SerializedString BID_AMOUNT = new SerializedString("bidAmount");
+    private static final SerializedString CONTAINER_VALUE = new SerializedString("containerValue");
+    private static final SerializedString PROFIT = new SerializedString("profit");
+    private static final SerializedString ROUND = new SerializedString("round");
+    private static final SerializedString TOTAL_ROUNDS = new SerializedString("totalRounds");
+    private static final SerializedString CONTAINER = new SerializedString("container");
+    private static final SerializedString INITIAL_BID = new SerializedString("initialBid");
+    private static final SerializedString PLAYERS = new SerializedString("players");
+    private static final SerializedString FINAL_SCORES = new SerializedString("finalScores");
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString TYPE = new SerializedString("type");
+    private static final SerializedString VALUE = new SerializedString("value");
+    private static final SerializedString LOBBY_NAME = new SerializedString("lobbyName");
+    private static final SerializedString PHASE = new SerializedString("phase");
+    private static final SerializedString CURRENT_BID = new SerializedString("currentBid");
+    private static final SerializedString LAST_BIDDER = new SerializedString("lastBidder");
+    private static final SerializedString SPECTATORS = new SerializedString("spectators");
+
+    private static final Map<Class<?>, EventWriter<?>> WRITERS = Map.of(
+            NewBidData.class, (EventWriter<NewBidData>) GameJsonSupport::writeNewBid,
+            PlayerUpdateData.class, (EventWriter<PlayerUpdateData>) GameJsonSupport::writePlayerUpdate,
+            BidResultData.class, (EventWriter<BidResultData>) GameJsonSupport::writeBidResult,
+            NewRoundData.class, (EventWriter<NewRoundData>) GameJsonSupport::writeNewRound,
+            GameStartedData.class, (EventWriter<GameStartedData>) GameJsonSupport::writeGameStarted,
+            GameEndData.class, (EventWriter<GameEndData>) GameJsonSupport::writeGameEnd,
+            ContainerInfo.class, (EventWriter<ContainerInfo>) GameJsonSupport::writeContainer,
+            PlayerState.class, (EventWriter<PlayerState>) GameJsonSupport::writePlayerState,
+            SpectatorSnapshotData.class, (EventWriter<SpectatorSnapshotData>) GameJsonSupport::writeSpectatorSnapshot,
+            EncodedEvent.class, (EventWriter<EncodedEvent>) (generator, encoded) -> generator.writeRawValue(encoded.dataJson()));
+
+    private static final Map<Class<?>, EventReader<?>> READERS = Map.of(
+            PlaceBidData.class, (EventReader<PlaceBidData>) GameJsonSupport::readPlaceBid,
+            ChatMessageData.class, (EventReader<ChatMessageData>) GameJsonSupport::readChatMessage);
+
+    // Eventos del namespace por defecto cuyo único argumento tiene lector propio
+    private final Map<String, EventReader<?>> hotEvents = new ConcurrentHashMap<>();
+
+    GameJsonSupport() {
+        super(eventsModule());
+    }
+
+    // Los mismos escritores como serializadores de Jackson, para cuando estos objetos aparecen
+    // dentro de otros valores que sigue serializando el ObjectMapper
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static SimpleModule eventsModule() {
+        SimpleModule module = new SimpleModule("hiddencargo-events");
+        WRITERS.forEach((type, writer) -> module.addSerializer((Class) type, new WriterSerializer(type, writer)));
+        return module;
+    }
+
+    @Override
+    public void addEventMapping(String namespaceName, String eventName, Class<?>... eventClass) {
+        super.addEventMapping(namespaceName, eventName, eventClass);
+        EventReader<?> reader = eventClass.length == 1 ? READERS.get(eventClass[0]) : null;
+        if (Namespace.DEFAULT_NAME.equals(namespaceName) && reader != null) {
+            hotEvents.put(eventName, reader);
+        } else if (Namespace.DEFAULT_NAME.equals(namespaceName)) {
+            hotEvents.remove(eventName);
+        }
+    }
+
+    @Override
+    public void removeEventMapping(String namespaceName, String eventName) {
+        super.removeEventMapping(namespaceName, eventName);
+        if (Namespace.DEFAULT_NAME.equals(namespaceName)) {
+            hotEvents.remove(eventName);
+        }
+    }
+
+    @Override
+    public <T> T readValue(String namespaceName, ByteBufInputStream src, Class<T> valueType) throws IOException {
+        if (valueType == Event.class && Namespace.DEFAULT_NAME.equals(namespaceName) && !hotEvents.isEmpty()) {
+            src.mark(Integer.MAX_VALUE);
+            Event event = readHotEvent(src);
+            if (event != null) {
+                return valueType.cast(event);
+            }
+            src.reset();
+        }
+        return super.readValue(namespaceName, src, valueType);
+    }
+
+    // ["evento", {...}] de un evento con lector propio; null para volver al camino general
+    private Event readHotEvent(ByteBufInputStream src) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser((InputStream) src)) {
+            String name = parser.nextToken() == JsonToken.START_ARRAY ? parser.nextTextValue() : null;
+            EventReader<?> reader = name != null ? hotEvents.get(name) : null;
+            Object data = reader != null && parser.nextToken() == JsonToken.START_OBJECT ? reader.read(parser) : null;
+            Event event = null;
+            if (data != null && parser.nextToken() == JsonToken.END_ARRAY) {
+                List<Object> args = new ArrayList<>(1);
+                args.add(data);
+                event = new Event(name, args);
+            }
+            return event;
+        }
+    }
+
+    @Override
+    public void writeValue(ByteBufOutputStream out, Object value) throws IOException {
+        if (!(value instanceof List<?> packet) || !writable(packet)) {
+            super.writeValue(out, value);
+            return;
+        }
+        // Sin adjuntos binarios, igual que tras el clear() del camino general; getArrays() es la
+        // lista de este hilo que el encoder consulta tras cada escritura
+        getArrays().clear();
+        if (packet.size() == 2 && packet.get(1) instanceof EncodedEvent encoded && encoded.event().equals(packet.get(0))) {
+            out.write(encoded.packet());
+            return;
+        }
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator((OutputStream) out)) {
+            generator.writeStartArray();
+            for (Object element : packet) {
+                if (element instanceof String text) {
+                    generator.writeString(text);
+                } else {
+                    write(generator, element);
+                }
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    // Serializa [event, data] una sola vez para enviarlo después a varios clientes
+    EncodedEvent encode(String event, Object data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        int dataOffset;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(bytes)) {
+            generator.writeStartArray();
+            generator.writeString(event);
+            generator.flush();
+            // La coma que separa el nombre de los datos
+            dataOffset = bytes.size() + 1;
+            if (data != null && WRITERS.containsKey(data.getClass())) {
+                write(generator, data);
+            } else {
+                objectMapper.writeValue(generator, data);
+            }
+            generator.writeEndArray();
+        }
+        return new EncodedEvent(event, bytes.toByteArray(), dataOffset);
+    }
+
+    // Todos los elementos son texto (el nombre del evento) u objetos con escritor propio
+    private static boolean writable(List<?> packet) {
+        for (Object element : packet) {
+            if (!(element instanceof String) && (element == null || !WRITERS.containsKey(element.getClass()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void write(JsonGenerator generator, T value) throws IOException {
+        ((EventWriter<T>) WRITERS.get(value.getClass())).write(generator, value);
+    }
+
+    static void writeNewBid(JsonGenerator generator, NewBidData data) throws IOException {
+        generator.writeStartObject();
+        writeString(generator, NICKNAME, data.getNickname());
+        writeNumber(generator, AMOUNT, data.getAmount());
+        writeNumber(generator, DEADLINE, data.getDeadline());
+        generator.writeEndObject();
+    }
+
+    static void writePlayerUpdate(JsonGenerator generator, PlayerUpdateData data) throws IOException {
+        generator.writeStartObject();
+        writeString(generator, NICKNAME, data.getNickname());
+        writeNumber(generator, BALANCE, data.getBalance());
+        writeNumber(generator, SCORE, data.getScore());
+        generator.writeEndObject();
+    }
+
+    static void writeBidResult(JsonGenerator generator, BidResultData data) throws IOException {
+        generator.writeStartObject();
+        writeString(generator, WINNER, data.getWinner());
+        writeString(generator, CONTAINER_ID, data.getContainerId());
+        writeString(generator, CONTAINER_TYPE, data.getContainerType());
+        writeNumber(generator, BID_AMOUNT, data.getBidAmount());
+        writeNumber(generator, CONTAINER_VALUE, data.getContainerValue());
+        writeNumber(generator, PROFIT, data.getProfit());
+        generator.writeEndObject();
+    }
+
+    static void writeNewRound(JsonGenerator generator, NewRoundData data) throws IOException {
+        generator.writeStartObject();
+        writeNumber(generator, ROUND, data.getRound());
+        writeNumber(generator, TOTAL_ROUNDS, data.getTotalRounds());
+        if (data.getContainer() != null) {
+            generator.writeFieldName(CONTAINER);
+            writeContainer(generator, data.getContainer());
+        }
+        writeNumber(generator, INITIAL_BID, data.getInitialBid());
+        writeNumber(generator, DEADLINE, data.getDeadline());
+        generator.writeEndObject();
+    }
+
+    static void writeGameStarted(JsonGenerator generator, GameStartedData data) throws IOException {
+        generator.writeStartObject();
+        if (data.getPlayers() != null) {
+            generator.writeFieldName(PLAYERS);
+            generator.writeStartArray();
+            for (String player : data.getPlayers()) {
+                generator.writeString(player);
+            }
+            generator.writeEndArray();
+        }
+        if (data.getContainer() != null) {
+            generator.writeFieldName(CONTAINER);
+            writeContainer(generator, data.getContainer());
+        }
+        writeNumber(generator, INITIAL_BID, data.getInitialBid());
+        writeNumber(generator, ROUND, data.getRound());
+        writeNumber(generator, TOTAL_ROUNDS, data.getTotalRounds());
+        generator.writeEndObject();
+    }
+
+    static void writeGameEnd(JsonGenerator generator, GameEndData data) throws IOException {
+        generator.writeStartObject();
+        writeString(generator, WINNER, data.getWinner());
+        if (data.getFinalScores() != null) {
+            generator.writeFieldName(FINAL_SCORES);
+            generator.writeStartArray();
+            for (PlayerState player : data.getFinalScores()) {
+                if (player != null) {
+                    writePlayerState(generator, player);
+                } else {
+                    generator.writeNull();
+                }
+            }
+            generator.writeEndArray();
+        }
+        generator.writeEndObject();
+    }
+
+    static void writeContainer(JsonGenerator generator, ContainerInfo container) throws IOException {
+        generator.writeStartObject();
+        writeString(generator, ID, container.getId());
+        writeString(generator, TYPE, container.getType());
+        writeNumber(generator, VALUE, container.getValue());
+        generator.writeEndObject();
+    }
+
+    static void writePlayerState(JsonGenerator generator, PlayerState player) throws IOException {
+        generator.writeStartObject();
+        writeString(generator, NICKNAME, player.getNickname());
+        writeNumber(generator, BALANCE, player.getBalance());
+        writeNumber(generator, SCORE, player.getScore());
+        generator.writeEndObject();
+    }
+
+    static void writeSpectatorSnapshot(JsonGenerator generator, SpectatorSnapshotData data) throws IOException {
+        generator.writeStartObject();
+        writeString(generator, LOBBY_NAME, data.getLobbyName());
+        writeString(generator, PHASE, data.getPhase());
+        writeNumber(generator, ROUND, data.getRound());
+        writeNumber(generator, TOTAL_ROUNDS, data.getTotalRounds());
+        writeNumber(generator, CURRENT_BID, data.getCurrentBid());
+        writeString(generator, LAST_BIDDER, data.getLastBidder());
+        writeNumber(generator, DEADLINE, data.getDeadline());
+        if (data.getContainer() != null) {
+            generator.writeFieldName(CONTAINER);
+            writeContainer(generator, data.getContainer());
+        }
+        if (data.getPlayers() != null) {
+            generator.writeFieldName(PLAYERS);
+            generator.writeStartArray();
+            for (PlayerState player : data.getPlayers()) {
+                writePlayerState(generator, player);
+            }
+            generator.writeEndArray();
+        }
+        writeNumber(generator, SPECTATORS, data.getSpectators());
+        generator.writeEndObject();
+    }
+
+    // Los null se omiten, como con la inclusión NON_NULL que configura JacksonJsonSupport
+    private static void writeString(JsonGenerator generator, SerializedString field, String value) throws IOException {
+        if (value != null) {
+            generator.writeFieldName(field);
+            generator.writeString(value);
+        }
+    }
+
+    private static void writeNumber(JsonGenerator generator, SerializedString field, long value) throws IOException {
+        generator.writeFieldName(field);
+        generator.writeNumber(value);
+    }
+
+    // {"nickname", "lobbyName", "containerId", "amount"}; los campos desconocidos se ignoran
+    static PlaceBidData readPlaceBid(JsonParser parser) throws IOException {
+        PlaceBidData data = new PlaceBidData();
+        String field;
+        while ((field = parser.nextFieldName()) != null) {
+            JsonToken token = parser.nextToken();
+            switch (field) {
+                case "amount" -> {
+                    if (token != JsonToken.VALUE_NUMBER_INT) {
+                        return null;
+                    }
+                    data.setAmount(parser.getIntValue());
+                }
+                case "nickname", "lobbyName", "containerId" -> {
+                    if (!isText(token)) {
+                        return null;
+                    }
+                    String text = parser.getValueAsString();
+                    switch (field) {
+                        case "nickname" -> data.setNickname(text);
+                        case "lobbyName" -> data.setLobbyName(text);
+                        default -> data.setContainerId(text);
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+        // nextFieldName solo devuelve null en el cierre del objeto; cualquier otra cosa es un error
+        // de sintaxis que lanza el parser
+        return data;
+    }
+
+    // {"nickname", "lobbyName", "message"}; los campos desconocidos se ignoran
+    static ChatMessageData readChatMessage(JsonParser parser) throws IOException {
+        ChatMessageData data = new ChatMessageData();
+        String field;
+        while ((field = parser.nextFieldName()) != null) {
+            JsonToken token = parser.nextToken();
+            switch (field) {
+                case "nickname", "lobbyName", "message" -> {
+                    if (!isText(token)) {
+                        return null;
+                    }
+                    String text = parser.getValueAsString();
+                    switch (field) {
+                        case "nickname" -> data.setNickname(text);
+                        case "lobbyName" -> data.setLobbyName(text);
+                        default -> data.setMessage(text);
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+        return data;
+    }
+
+    // Texto o null; otros tipos los convierte (o rechaza) el deserializador de Jackson
+    private static boolean isText(JsonToken token) {
+        return token == JsonToken.VALUE_STRING || token == JsonToken.VALUE_NULL;
+    }
+
+    // Adaptador de un EventWriter al ObjectMapper
+    private static final class WriterSerializer<T> extends StdSerializer<T> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient EventWriter<T> writer;
+
+        WriterSerializer(Class<T> type, EventWriter<T> writer) {
+            super(type);
+            this.writer = writer;
+        }
+
+        @Override
+        public void serialize(T value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            writer.write(generator, value);
+        }
+    }
+}
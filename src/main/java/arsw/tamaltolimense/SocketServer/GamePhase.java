@@ -0,0 +1,30 @@
+package arsw.tamaltolimense.SocketServer;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+// Fases de una partida y las transiciones permitidas entre ellas:
+//
+//   STARTING  -> BIDDING, FINISHED
+//   BIDDING   -> REVEALING, FINISHED
+//   REVEALING -> BIDDING, FINISHED
+//   FINISHED  (final)
+enum GamePhase {
+    STARTING,
+    BIDDING,
+    REVEALING,
+    FINISHED;
+
+    private Set<GamePhase> next;
+
+    static {
+        STARTING.next = EnumSet.of(BIDDING, FINISHED);
+        BIDDING.next = EnumSet.of(REVEALING, FINISHED);
+        REVEALING.next = EnumSet.of(BIDDING, FINISHED);
+        FINISHED.next = EnumSet.noneOf(GamePhase.class);
+    }
+
+    boolean canMoveTo(GamePhase target) {
+        return next.contains(target);
+    }
+}
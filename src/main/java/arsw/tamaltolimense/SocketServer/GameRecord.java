@@ -0,0 +1,59 @@
+package arsw.tamaltolimense.SocketServer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Historia de una partida para la exportación (GameExporter): apuestas aceptadas y resultado de
+// cada ronda. Una apuesta son cuatro ints en un arreglo que crece por duplicación, así que
+// anotarla no crea objetos; el arreglo solo se reserva con la primera apuesta.
+final class GameRecord {
+
+    static final int BID_FIELDS = 4;
+
+    // Resultado de una ronda; winnerSeat = -1 si nadie apostó
+    record RoundOutcome(int round, String containerId, String containerType, int containerValue,
+                        int winnerSeat, int bidAmount, int profit) {
+    }
+
+    private final long startedAt;
+    // round, seat, amount, milisegundos desde startedAt
+    private int[] bids;
+    private int bidCount;
+    private final List<RoundOutcome> rounds = new ArrayList<>();
+
+    GameRecord(long startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    long startedAt() {
+        return startedAt;
+    }
+
+    synchronized void bid(int round, int seat, int amount, long at) {
+        if (bids == null) {
+            bids = new int[16 * BID_FIELDS];
+        } else if ((bidCount + 1) * BID_FIELDS > bids.length) {
+            bids = Arrays.copyOf(bids, bids.length * 2);
+        }
+        int i = bidCount * BID_FIELDS;
+        bids[i] = round;
+        bids[i + 1] = seat;
+        bids[i + 2] = amount;
+        bids[i + 3] = (int) Math.max(0, at - startedAt);
+        bidCount++;
+    }
+
+    synchronized void round(RoundOutcome outcome) {
+        rounds.add(outcome);
+    }
+
+    // Copia de las apuestas (BID_FIELDS ints por apuesta), para leerlas fuera del lock
+    synchronized int[] bids() {
+        return bids != null ? Arrays.copyOf(bids, bidCount * BID_FIELDS) : new int[0];
+    }
+
+    synchronized List<RoundOutcome> rounds() {
+        return new ArrayList<>(rounds);
+    }
+}
@@ -0,0 +1,133 @@
+package arsw.tamaltolimense.SocketServer;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+
+// Jugadores de una partida en arreglos primitivos indexados por asiento, en lugar de un
+// PlayerState por jugador. El asiento es la posición del jugador al empezar la partida (el
+// mismo que guarda BidRegister) y no cambia aunque otros se vayan.
+//
+// Saldo y puntuación los tocan a la vez las apuestas de distintos clientes, el cierre de ronda y
+// los balances que llegan del servicio de usuarios, así que se accede a cada celda con VarHandle.
+final class GameRoster {
+
+    private static final VarHandle INTS = MethodHandles.arrayElementVarHandle(int[].class);
+    private static final VarHandle FLAGS = MethodHandles.arrayElementVarHandle(boolean[].class);
+
+    static final GameRoster EMPTY = new GameRoster(List.of());
+
+    private final String[] nicknames;
+    private final int[] balances;
+    private final int[] scores;
+    private final boolean[] left;
+
+    GameRoster(List<String> players) {
+        nicknames = players.toArray(new String[0]);
+        balances = new int[nicknames.length];
+        scores = new int[nicknames.length];
+        left = new boolean[nicknames.length];
+    }
+
+    // Asientos totales, incluidos los de jugadores que ya se fueron
+    int seats() {
+        return nicknames.length;
+    }
+
+    // Jugadores que siguen en la partida
+    int playerCount() {
+        int count = 0;
+        for (int seat = 0; seat < nicknames.length; seat++) {
+            if (isPresent(seat)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Asiento del jugador si sigue en la partida, o -1
+    int seatOf(String nickname) {
+        for (int seat = 0; seat < nicknames.length; seat++) {
+            if (nicknames[seat].equals(nickname)) {
+                return isPresent(seat) ? seat : -1;
+            }
+        }
+        return -1;
+    }
+
+    String nickname(int seat) {
+        return nicknames[seat];
+    }
+
+    boolean isPresent(int seat) {
+        return !(boolean) FLAGS.getVolatile(left, seat);
+    }
+
+    // Marca el asiento como abandonado; devuelve false si ya lo estaba
+    boolean leave(int seat) {
+        return FLAGS.compareAndSet(left, seat, false, true);
+    }
+
+    int balance(int seat) {
+        return (int) INTS.getVolatile(balances, seat);
+    }
+
+    void setBalance(int seat, int balance) {
+        INTS.setVolatile(balances, seat, balance);
+    }
+
+    // Suma (o resta) al saldo de forma atómica; devuelve el saldo resultante
+    int addBalance(int seat, int delta) {
+        return (int) INTS.getAndAdd(balances, seat, delta) + delta;
+    }
+
+    int score(int seat) {
+        return (int) INTS.getVolatile(scores, seat);
+    }
+
+    int addScore(int seat, int delta) {
+        return (int) INTS.getAndAdd(scores, seat, delta) + delta;
+    }
+
+    // Asiento con mayor puntuación entre los que siguen (el primero en caso de empate), o -1
+    int leader() {
+        int leader = -1;
+        for (int seat = 0; seat < nicknames.length; seat++) {
+            if (isPresent(seat) && (leader < 0 || score(seat) > score(leader))) {
+                leader = seat;
+            }
+        }
+        return leader;
+    }
+
+    List<String> nicknames() {
+        List<String> present = new ArrayList<>(nicknames.length);
+        for (int seat = 0; seat < nicknames.length; seat++) {
+            if (isPresent(seat)) {
+                present.add(nicknames[seat]);
+            }
+        }
+        return present;
+    }
+
+    // Copia del jugador para enviarla a los clientes
+    PlayerState toPlayerState(int seat) {
+        PlayerState player = new PlayerState();
+        player.setNickname(nicknames[seat]);
+        player.setBalance(balance(seat));
+        player.setScore(score(seat));
+        return player;
+    }
+
+    // Estado final de los jugadores que siguen en la partida, en orden de asiento
+    List<PlayerState> standings() {
+        List<PlayerState> standings = new ArrayList<>(nicknames.length);
+        for (int seat = 0; seat < nicknames.length; seat++) {
+            if (isPresent(seat)) {
+                standings.add(toPlayerState(seat));
+            }
+        }
+        return standings;
+    }
+}
@@ -0,0 +1,22 @@
+package arsw.tamaltolimense.SocketServer;
+
+import java.util.List;
+
+class GameStartedData {
+    private List<String> players;
+    private ContainerInfo container;
+    private int initialBid;
+    private int round;
+    private int totalRounds;
+
+    public List<String> getPlayers() { return players; }
+    public void setPlayers(List<String> players) { this.players = players; }
+    public ContainerInfo getContainer() { return container; }
+    public void setContainer(ContainerInfo container) { this.container = container; }
+    public int getInitialBid() { return initialBid; }
+    public void setInitialBid(int initialBid) { this.initialBid = initialBid; }
+    public int getRound() { return round; }
+    public void setRound(int round) { this.round = round; }
+    public int getTotalRounds() { return totalRounds; }
+    public void setTotalRounds(int totalRounds) { this.totalRounds = totalRounds; }
+}
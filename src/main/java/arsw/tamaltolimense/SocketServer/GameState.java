@@ -0,0 +1,53 @@
+package arsw.tamaltolimense.SocketServer;
+
+class GameState {
+    private String lobbyName;
+    private int currentRound;
+    private int totalRounds;
+    private volatile GamePhase phase = GamePhase.STARTING;
+    private ContainerInfo currentContainer;
+    // Apuesta vigente y apostador, actualizados con compare-and-set
+    private final BidRegister bids = new BidRegister();
+    // Apuestas y resultados de cada ronda para GameExporter; null si la exportación está desactivada
+    private GameRecord record;
+    // Saldos y puntuaciones por asiento; se fija al comenzar la partida
+    private volatile GameRoster roster = GameRoster.EMPTY;
+
+    public String getLobbyName() { return lobbyName; }
+    public void setLobbyName(String lobbyName) { this.lobbyName = lobbyName; }
+    public int getCurrentRound() { return currentRound; }
+    public void setCurrentRound(int currentRound) { this.currentRound = currentRound; }
+    public int getTotalRounds() { return totalRounds; }
+    public void setTotalRounds(int totalRounds) { this.totalRounds = totalRounds; }
+    public GamePhase getPhase() { return phase; }
+    public ContainerInfo getCurrentContainer() { return currentContainer; }
+    public void setCurrentContainer(ContainerInfo currentContainer) { this.currentContainer = currentContainer; }
+    public int getCurrentBid() { return bids.amount(); }
+    BidRegister getBids() { return bids; }
+    GameRecord getRecord() { return record; }
+    void startRecording(long startedAt) { this.record = new GameRecord(startedAt); }
+    GameRoster getRoster() { return roster; }
+    void setRoster(GameRoster roster) { this.roster = roster; }
+
+    // Nickname del apostador vigente, o null si nadie ha apostado
+    public String getLastBidder() {
+        int seat = bids.bidder();
+        return seat >= 0 ? roster.nickname(seat) : null;
+    }
+
+    // Cambia de fase; lanza IllegalStateException si la transición no está permitida
+    synchronized void transitionTo(GamePhase target) {
+        if (!tryTransitionTo(target)) {
+            throw new IllegalStateException("Transición de fase no permitida en " + lobbyName + ": " + phase + " -> " + target);
+        }
+    }
+
+    // Cambia de fase si la transición está permitida; devuelve false si no lo está
+    synchronized boolean tryTransitionTo(GamePhase target) {
+        if (!phase.canMoveTo(target)) {
+            return false;
+        }
+        phase = target;
+        return true;
+    }
+}
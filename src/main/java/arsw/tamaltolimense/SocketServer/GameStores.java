@@ -0,0 +1,73 @@
+package arsw.tamaltolimense.SocketServer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Mapas por jugador y por lobby de LobbySocketService, acotados y con expiración, y el de
+// sesiones, que vive lo que cada conexión (SessionStore). Su tamaño se publica como
+// hiddencargo.store.size{store=...}.
+@Component
+public class GameStores {
+    private static final Logger logger = LoggerFactory.getLogger(GameStores.class);
+
+    private final SessionStore sessions;
+    private final BoundedStore<String, Integer> playerBalances;
+    private final BoundedStore<String, Set<String>> readyPlayers;
+    private final BoundedStore<String, ChatHistory> chatHistories;
+    private final ScheduledExecutorService sweeper;
+    private final Duration sweepInterval;
+
+    public GameStores(StoreProperties properties, MeterRegistry meterRegistry) {
+        sessions = new SessionStore(meterRegistry);
+        playerBalances = new BoundedStore<>("playerBalances",
+                properties.getBalancesMaxSize(), properties.getBalanceTtl(), meterRegistry);
+        readyPlayers = new BoundedStore<>("readyPlayers",
+                properties.getReadyLobbiesMaxSize(), properties.getReadyTtl(), meterRegistry);
+        chatHistories = new BoundedStore<>("chatHistories",
+                properties.getChatLobbiesMaxSize(), properties.getChatTtl(), meterRegistry);
+
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "store-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweepInterval = properties.getSweepInterval();
+    }
+
+    @PostConstruct
+    public void start() {
+        long intervalMillis = sweepInterval.toMillis();
+        sweeper.scheduleWithFixedDelay(this::removeExpired, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    SessionStore sessions() { return sessions; }
+    BoundedStore<String, Integer> playerBalances() { return playerBalances; }
+    BoundedStore<String, Set<String>> readyPlayers() { return readyPlayers; }
+    BoundedStore<String, ChatHistory> chatHistories() { return chatHistories; }
+
+    void removeExpired() {
+        int removed = 0;
+        for (BoundedStore<String, ?> store : List.of(playerBalances, readyPlayers, chatHistories)) {
+            removed += store.removeExpired();
+        }
+        if (removed > 0) {
+            logger.info("Entradas expiradas retiradas de los mapas en memoria: {}", removed);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sweeper.shutdownNow();
+    }
+}
@@ -0,0 +1,137 @@
+package arsw.tamaltolimense.SocketServer;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.spi.LoggingEventBuilder;
+import org.slf4j.spi.NOPLoggingEventBuilder;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Logs de las rutas calientes (apuestas, chat, listos, envíos, contenedores, balances, conexiones)
+// con muestreo 1 de cada N y un límite de líneas por segundo por tipo de evento. Uso:
+//   hotLog.at(HotPathLog.Kind.BID, logger).log("Apuesta de {} en {}", nickname, lobbyName);
+// Si el evento no se escribe se devuelve el builder NOP de SLF4J: sin mensaje, sin argumentos
+// formateados y sin paso por el appender. Los que sí se escriben llevan el par event=<tipo>,
+// visible en el formato estructurado (perfil json-logs). Las líneas escritas y descartadas se
+// publican como hiddencargo.log.hotpath{kind, outcome}.
+@Component
+public class HotPathLog {
+
+    enum Kind {
+        BID, CHAT, READY, BROADCAST, CONTAINER, BALANCE, CONNECTION;
+
+        String key() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    // Ventana del límite por segundo: 2^30 ns, algo más de un segundo, sin divisiones
+    private static final int WINDOW_SHIFT = 30;
+
+    private final Policy[] policies = new Policy[Kind.values().length];
+
+    public HotPathLog(HotPathLogProperties properties, MeterRegistry meterRegistry) {
+        for (Kind kind : Kind.values()) {
+            Policy policy = new Policy(properties.getSampleEvery().getOrDefault(kind, 1),
+                    properties.getRatePerSecond().getOrDefault(kind, 0));
+            policies[kind.ordinal()] = policy;
+            registerCounter(meterRegistry, kind, "emitted", policy.emitted);
+            registerCounter(meterRegistry, kind, "sampled", policy.sampled);
+            registerCounter(meterRegistry, kind, "limited", policy.limited);
+        }
+    }
+
+    private static void registerCounter(MeterRegistry meterRegistry, Kind kind, String outcome, LongAdder count) {
+        FunctionCounter.builder("hiddencargo.log.hotpath", count, LongAdder::sum)
+                .description("Logs de rutas calientes escritos y descartados por muestreo o límite")
+                .tag("kind", kind.key())
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    // Builder INFO con event=<tipo> si este evento se escribe; el NOP de SLF4J si no
+    LoggingEventBuilder at(Kind kind, Logger logger) {
+        if (!logger.isInfoEnabled() || !policies[kind.ordinal()].admit(nanoTime())) {
+            return NOPLoggingEventBuilder.singleton();
+        }
+        return logger.atInfo().addKeyValue("event", kind.key());
+    }
+
+    long nanoTime() {
+        return System.nanoTime();
+    }
+
+    // Cambia el muestreo y/o el límite de un tipo; null deja el valor actual
+    void configure(Kind kind, Integer sampleEvery, Integer ratePerSecond) {
+        Policy policy = policies[kind.ordinal()];
+        if (sampleEvery != null) {
+            policy.sampleEvery = Math.max(0, sampleEvery);
+        }
+        if (ratePerSecond != null) {
+            policy.ratePerSecond = Math.max(0, ratePerSecond);
+        }
+    }
+
+    // Configuración y contadores por tipo, para el endpoint de administración
+    Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        for (Kind kind : Kind.values()) {
+            Policy policy = policies[kind.ordinal()];
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("sampleEvery", policy.sampleEvery);
+            entry.put("ratePerSecond", policy.ratePerSecond);
+            entry.put("emitted", policy.emitted.sum());
+            entry.put("sampled", policy.sampled.sum());
+            entry.put("limited", policy.limited.sum());
+            status.put(kind.key(), entry);
+        }
+        return status;
+    }
+
+    private static final class Policy {
+        volatile int sampleEvery;
+        volatile int ratePerSecond;
+        // Ventana actual del límite y líneas escritas en ella
+        final AtomicLong window = new AtomicLong();
+        final AtomicInteger windowCount = new AtomicInteger();
+        final LongAdder emitted = new LongAdder();
+        final LongAdder sampled = new LongAdder();
+        final LongAdder limited = new LongAdder();
+
+        Policy(int sampleEvery, int ratePerSecond) {
+            this.sampleEvery = Math.max(0, sampleEvery);
+            this.ratePerSecond = Math.max(0, ratePerSecond);
+        }
+
+        boolean admit(long nanoTime) {
+            int every = sampleEvery;
+            // Aleatorio por hilo en vez de un contador compartido: sin escrituras en común
+            if (every == 0 || (every > 1 && ThreadLocalRandom.current().nextInt(every) != 0)) {
+                sampled.increment();
+                return false;
+            }
+            int limit = ratePerSecond;
+            if (limit > 0) {
+                // Solo el primero que ve la ventana nueva reinicia la cuenta
+                long current = nanoTime >>> WINDOW_SHIFT;
+                if (window.getAndSet(current) != current) {
+                    windowCount.set(0);
+                }
+                if (windowCount.incrementAndGet() > limit) {
+                    limited.increment();
+                    return false;
+                }
+            }
+            emitted.increment();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package arsw.tamaltolimense.SocketServer;
+
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+
+// Muestreo de los logs de rutas calientes sin reiniciar: GET /actuator/hotlog muestra la
+// configuración y los contadores por tipo; POST con {"kind": "bid", "sampleEvery": 100,
+// "ratePerSecond": 20} la cambia (sin kind, para todos los tipos). sampleEvery=1 escribe todo,
+// 0 nada; ratePerSecond=0 quita el límite.
+@Component
+@Endpoint(id = "hotlog")
+public class HotPathLogEndpoint {
+
+    private final HotPathLog hotPathLog;
+
+    public HotPathLogEndpoint(HotPathLog hotPathLog) {
+        this.hotPathLog = hotPathLog;
+    }
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        return hotPathLog.status();
+    }
+
+    @WriteOperation
+    public Map<String, Object> configure(@Nullable String kind, @Nullable Integer sampleEvery,
+                                         @Nullable Integer ratePerSecond) {
+        if (kind == null || kind.isBlank()) {
+            for (HotPathLog.Kind each : HotPathLog.Kind.values()) {
+                hotPathLog.configure(each, sampleEvery, ratePerSecond);
+            }
+        } else {
+            hotPathLog.configure(kindOf(kind), sampleEvery, ratePerSecond);
+        }
+        return status();
+    }
+
+    private static HotPathLog.Kind kindOf(String kind) {
+        try {
+            return HotPathLog.Kind.valueOf(kind.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidEndpointRequestException("Tipo de evento desconocido: " + kind, "Tipo de evento desconocido");
+        }
+    }
+}
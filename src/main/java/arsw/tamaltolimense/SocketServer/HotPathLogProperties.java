@@ -0,0 +1,22 @@
+package arsw.tamaltolimense.SocketServer;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+// Muestreo y límite por segundo de los logs de las rutas calientes (HotPathLog), por tipo de
+// evento: bid, chat, ready, broadcast, container, balance, connection. Valores iniciales; en
+// caliente se cambian con /actuator/hotlog.
+@ConfigurationProperties(prefix = "hiddencargo.logging.hot-path")
+public class HotPathLogProperties {
+    // 1 de cada N eventos se escribe (1 = todos, 0 = ninguno)
+    private Map<HotPathLog.Kind, Integer> sampleEvery = new EnumMap<>(HotPathLog.Kind.class);
+    // Máximo de líneas por segundo tras el muestreo (0 = sin límite)
+    private Map<HotPathLog.Kind, Integer> ratePerSecond = new EnumMap<>(HotPathLog.Kind.class);
+
+    public Map<HotPathLog.Kind, Integer> getSampleEvery() { return sampleEvery; }
+    public void setSampleEvery(Map<HotPathLog.Kind, Integer> sampleEvery) { this.sampleEvery = sampleEvery; }
+    public Map<HotPathLog.Kind, Integer> getRatePerSecond() { return ratePerSecond; }
+    public void setRatePerSecond(Map<HotPathLog.Kind, Integer> ratePerSecond) { this.ratePerSecond = ratePerSecond; }
+}
@@ -0,0 +1,201 @@
+package arsw.tamaltolimense.SocketServer;
+
+import com.corundumstudio.socketio.SocketIOClient;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Clasificación global que sobrevive a cleanupGame. Cada resultado de endAuctionRound (y el
+// ganador de endGame) actualiza al jugador en LeaderboardTree en O(log n). Los suscriptores
+// (subscribeLeaderboard) están en la sala "leaderboard": al entrar reciben el top completo y
+// después, cada push-interval y solo si hubo resultados, las posiciones del top que cambiaron y,
+// si siguen a un jugador, su nueva posición cuando se mueve.
+@Component
+public final class Leaderboard {
+    private static final Logger logger = LoggerFactory.getLogger(Leaderboard.class);
+
+    private static final String ROOM = "leaderboard";
+
+    private final LeaderboardProperties properties;
+    private final GameBroadcaster broadcaster;
+    private final LeaderboardTree tree = new LeaderboardTree();
+    private final Map<UUID, Subscriber> subscribers = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+    private final ScheduledExecutorService pusher;
+    private final Counter updates;
+    private final Counter pushes;
+    // Solo los usa el hilo del pusher
+    private long pushedVersion;
+    private List<LeaderboardEntry> pushedTop = List.of();
+
+    public Leaderboard(LeaderboardProperties properties, GameBroadcaster broadcaster, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.broadcaster = broadcaster;
+        Gauge.builder("hiddencargo.leaderboard.players", this, Leaderboard::size)
+                .description("Jugadores en la clasificación global")
+                .register(meterRegistry);
+        Gauge.builder("hiddencargo.leaderboard.subscribers", subscribers, Map::size)
+                .description("Sesiones suscritas a la clasificación")
+                .register(meterRegistry);
+        updates = Counter.builder("hiddencargo.leaderboard.updates")
+                .description("Resultados aplicados a la clasificación")
+                .register(meterRegistry);
+        pushes = Counter.builder("hiddencargo.leaderboard.pushes")
+                .description("Cambios de posición enviados a los suscriptores")
+                .register(meterRegistry);
+
+        pusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "leaderboard");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = Math.max(1, properties.getPushInterval().toMillis());
+        pusher.scheduleWithFixedDelay(this::pushChanges, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // Resultado de una subasta: el ganador suma el beneficio (puede ser negativo) y una ronda
+    void recordRound(String winner, int profit) {
+        record(winner, profit, 0, 1);
+    }
+
+    // Ganador de una partida
+    void recordGame(String winner) {
+        record(winner, 0, 1, 0);
+    }
+
+    List<LeaderboardEntry> top(int limit) {
+        int k = Math.max(0, Math.min(limit, properties.getMaxQuery()));
+        synchronized (tree) {
+            return tree.top(k);
+        }
+    }
+
+    LeaderboardEntry entry(String nickname) {
+        synchronized (tree) {
+            return tree.entry(nickname);
+        }
+    }
+
+    int size() {
+        synchronized (tree) {
+            return tree.size();
+        }
+    }
+
+    // Suscribe la sesión a los cambios; nickname (opcional) es el jugador cuya posición sigue
+    String subscribe(SocketIOClient client, String nickname) {
+        if (!properties.isEnabled()) {
+            return "Error: la clasificación está desactivada";
+        }
+        Subscriber subscriber = new Subscriber(client, nickname);
+        subscribers.put(client.getSessionId(), subscriber);
+        client.joinRoom(ROOM);
+        List<LeaderboardEntry> top = top(properties.getTopSize());
+        broadcaster.toClient(client, "leaderboardTop", new LeaderboardUpdateData(size(), top.size(), top));
+        if (nickname != null) {
+            LeaderboardEntry entry = entry(nickname);
+            subscriber.lastRank = entry != null ? entry.rank() : -1;
+            if (entry != null) {
+                broadcaster.toClient(client, "leaderboardRank", entry);
+            }
+        }
+        return null;
+    }
+
+    void unsubscribe(SocketIOClient client) {
+        if (subscribers.remove(client.getSessionId()) != null) {
+            client.leaveRoom(ROOM);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pusher.shutdownNow();
+    }
+
+    private void record(String nickname, long profit, int wins, int roundsWon) {
+        if (!properties.isEnabled() || nickname == null) {
+            return;
+        }
+        synchronized (tree) {
+            tree.add(nickname, profit, wins, roundsWon);
+            if (tree.size() > properties.getMaxPlayers()) {
+                tree.removeLast();
+            }
+        }
+        version.incrementAndGet();
+        updates.increment();
+    }
+
+    void pushChanges() {
+        try {
+            long current = version.get();
+            if (current == pushedVersion || subscribers.isEmpty()) {
+                return;
+            }
+            pushedVersion = current;
+            pushTopChanges();
+            pushRankChanges();
+        } catch (RuntimeException e) {
+            // Sin esto el ScheduledExecutorService dejaría de ejecutar la tarea
+            logger.warn("No se pudieron enviar los cambios de la clasificación: {}", e.toString());
+        }
+    }
+
+    // Solo las posiciones del top cuyo jugador o valores cambiaron desde el último envío
+    private void pushTopChanges() {
+        List<LeaderboardEntry> top = top(properties.getTopSize());
+        List<LeaderboardEntry> changed = new ArrayList<>();
+        for (int i = 0; i < top.size(); i++) {
+            if (i >= pushedTop.size() || !top.get(i).equals(pushedTop.get(i))) {
+                changed.add(top.get(i));
+            }
+        }
+        pushedTop = top;
+        // El top nunca se acorta (solo se descarta a alguien para volver a maxPlayers), así que
+        // basta con enviar las posiciones que cambiaron
+        if (!changed.isEmpty()) {
+            broadcaster.toRoom(ROOM, "leaderboardChanges", new LeaderboardUpdateData(size(), top.size(), changed));
+            pushes.increment(changed.size());
+        }
+    }
+
+    private void pushRankChanges() {
+        for (Subscriber subscriber : subscribers.values()) {
+            if (subscriber.nickname == null) {
+                continue;
+            }
+            LeaderboardEntry entry = entry(subscriber.nickname);
+            if (entry != null && entry.rank() != subscriber.lastRank) {
+                subscriber.lastRank = entry.rank();
+                broadcaster.toClient(subscriber.client, "leaderboardRank", entry);
+                pushes.increment();
+            }
+        }
+    }
+
+    private static final class Subscriber {
+        private final SocketIOClient client;
+        private final String nickname;
+        private volatile int lastRank = -1;
+
+        Subscriber(SocketIOClient client, String nickname) {
+            this.client = client;
+            this.nickname = nickname;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package arsw.tamaltolimense.SocketServer;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Consulta de la clasificación global: GET /actuator/leaderboard?limit=20&player=ana devuelve el
+// total de jugadores, el top-limit y, si se pide, la posición del jugador. Cada consulta es
+// O(log n + limit) sobre el árbol, sin ordenar nada.
+@Component
+@Endpoint(id = "leaderboard")
+public class LeaderboardEndpoint {
+
+    private static final int DEFAULT_LIMIT = 10;
+
+    private final Leaderboard leaderboard;
+
+    public LeaderboardEndpoint(Leaderboard leaderboard) {
+        this.leaderboard = leaderboard;
+    }
+
+    @ReadOperation
+    public Map<String, Object> query(@Nullable Integer limit, @Nullable String player) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("players", leaderboard.size());
+        body.put("top", leaderboard.top(limit != null ? limit : DEFAULT_LIMIT));
+        if (player != null && !player.isBlank()) {
+            body.put("player", leaderboard.entry(player.trim()));
+        }
+        return body;
+    }
+}
@@ -0,0 +1,5 @@
+package arsw.tamaltolimense.SocketServer;
+
+// Posición de un jugador en la clasificación global: beneficio acumulado, partidas y rondas ganadas
+public record LeaderboardEntry(int rank, String nickname, long profit, int wins, int roundsWon) {
+}
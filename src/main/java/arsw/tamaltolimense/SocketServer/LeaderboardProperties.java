@@ -0,0 +1,31 @@
+package arsw.tamaltolimense.SocketServer;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+// Clasificación global entre partidas (Leaderboard): beneficio y victorias acumulados, consultas
+// por /actuator/leaderboard y suscripción por socket que solo recibe cambios de posición
+@ConfigurationProperties(prefix = "hiddencargo.leaderboard")
+public class LeaderboardProperties {
+    private boolean enabled = true;
+    // Jugadores guardados como máximo; al pasarse se descarta al último
+    private int maxPlayers = 100_000;
+    // Cada cuánto se revisan los cambios para los suscriptores
+    private Duration pushInterval = Duration.ofSeconds(1);
+    // Tamaño del top que siguen los suscriptores
+    private int topSize = 10;
+    // Máximo de posiciones que devuelve una consulta
+    private int maxQuery = 100;
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public int getMaxPlayers() { return maxPlayers; }
+    public void setMaxPlayers(int maxPlayers) { this.maxPlayers = maxPlayers; }
+    public Duration getPushInterval() { return pushInterval; }
+    public void setPushInterval(Duration pushInterval) { this.pushInterval = pushInterval; }
+    public int getTopSize() { return topSize; }
+    public void setTopSize(int topSize) { this.topSize = topSize; }
+    public int getMaxQuery() { return maxQuery; }
+    public void setMaxQuery(int maxQuery) { this.maxQuery = maxQuery; }
+}
@@ -0,0 +1,199 @@
+package arsw.tamaltolimense.SocketServer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Clasificación global como treap de estadísticos de orden: cada nodo guarda el tamaño de su
+// subárbol, así que actualizar a un jugador, su posición y el top-K cuestan O(log n) (+K) sin
+// reordenar a nadie más. Orden: beneficio acumulado, partidas ganadas y rondas ganadas de mayor a
+// menor; a igualdad, por nickname. No es thread-safe: Leaderboard lo protege con su lock.
+final class LeaderboardTree {
+
+    private static final class Node {
+        final String nickname;
+        final long profit;
+        final int wins;
+        final int roundsWon;
+        final int priority;
+        int size = 1;
+        Node left;
+        Node right;
+
+        Node(String nickname, long profit, int wins, int roundsWon, int priority) {
+            this.nickname = nickname;
+            this.profit = profit;
+            this.wins = wins;
+            this.roundsWon = roundsWon;
+            this.priority = priority;
+        }
+    }
+
+    private final Map<String, Node> byNickname = new HashMap<>();
+    private Node root;
+
+    int size() {
+        return byNickname.size();
+    }
+
+    // Suma los resultados al jugador (creándolo si hace falta) y devuelve su nueva posición (1 = primero)
+    int add(String nickname, long profit, int wins, int roundsWon) {
+        Node old = byNickname.get(nickname);
+        if (old != null) {
+            root = delete(root, old);
+        }
+        Node updated = old == null
+                ? new Node(nickname, profit, wins, roundsWon, ThreadLocalRandom.current().nextInt())
+                : new Node(nickname, old.profit + profit, old.wins + wins, old.roundsWon + roundsWon, old.priority);
+        root = insert(root, updated);
+        byNickname.put(nickname, updated);
+        return rankOf(updated);
+    }
+
+    // Posición del jugador (1 = primero) o -1 si no está
+    int rank(String nickname) {
+        Node node = byNickname.get(nickname);
+        return node != null ? rankOf(node) : -1;
+    }
+
+    LeaderboardEntry entry(String nickname) {
+        Node node = byNickname.get(nickname);
+        return node != null ? toEntry(node, rankOf(node)) : null;
+    }
+
+    // Los k primeros en orden
+    List<LeaderboardEntry> top(int k) {
+        List<LeaderboardEntry> top = new ArrayList<>(Math.min(k, size()));
+        collect(root, top, k);
+        return top;
+    }
+
+    // Quita al último de la clasificación; para no crecer sin límite
+    void removeLast() {
+        Node last = root;
+        if (last == null) {
+            return;
+        }
+        while (last.right != null) {
+            last = last.right;
+        }
+        root = delete(root, last);
+        byNickname.remove(last.nickname);
+    }
+
+    // target está en el árbol, así que el recorrido siempre termina en él
+    private int rankOf(Node target) {
+        int rank = 1;
+        Node node = root;
+        int cmp;
+        while ((cmp = compare(target, node)) != 0) {
+            if (cmp < 0) {
+                node = node.left;
+            } else {
+                rank += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return rank + size(node.left);
+    }
+
+    private void collect(Node node, List<LeaderboardEntry> out, int k) {
+        if (node == null || out.size() >= k) {
+            return;
+        }
+        collect(node.left, out, k);
+        if (out.size() < k) {
+            out.add(toEntry(node, out.size() + 1));
+            collect(node.right, out, k);
+        }
+    }
+
+    private static Node insert(Node node, Node inserted) {
+        if (node == null) {
+            return inserted;
+        }
+        if (compare(inserted, node) < 0) {
+            node.left = insert(node.left, inserted);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, inserted);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        return update(node);
+    }
+
+    // target está en el árbol: byNickname y el treap cambian juntos
+    private static Node delete(Node node, Node target) {
+        int cmp = compare(target, node);
+        if (cmp < 0) {
+            node.left = delete(node.left, target);
+        } else if (cmp > 0) {
+            node.right = delete(node.right, target);
+        } else {
+            return merge(node.left, node.right);
+        }
+        return update(node);
+    }
+
+    // Une dos treaps en los que todas las claves de left van antes que las de right
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            return update(left);
+        }
+        right.left = merge(left, right.left);
+        return update(right);
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = update(node);
+        return update(pivot);
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = update(node);
+        return update(pivot);
+    }
+
+    private static Node update(Node node) {
+        node.size = 1 + size(node.left) + size(node.right);
+        return node;
+    }
+
+    private static int size(Node node) {
+        return node != null ? node.size : 0;
+    }
+
+    private static int compare(Node a, Node b) {
+        if (a.profit != b.profit) {
+            return a.profit > b.profit ? -1 : 1;
+        }
+        if (a.wins != b.wins) {
+            return a.wins > b.wins ? -1 : 1;
+        }
+        if (a.roundsWon != b.roundsWon) {
+            return a.roundsWon > b.roundsWon ? -1 : 1;
+        }
+        return a.nickname.compareTo(b.nickname);
+    }
+
+    private static LeaderboardEntry toEntry(Node node, int rank) {
+        return new LeaderboardEntry(rank, node.nickname, node.profit, node.wins, node.roundsWon);
+    }
+}
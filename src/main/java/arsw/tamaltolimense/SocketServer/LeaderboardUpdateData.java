@@ -0,0 +1,26 @@
+package arsw.tamaltolimense.SocketServer;
+
+import java.util.List;
+
+// Top de la clasificación: completo al suscribirse (leaderboardTop) o solo las posiciones que
+// cambiaron (leaderboardChanges). size es el tamaño actual del top; players, el total de jugadores
+class LeaderboardUpdateData {
+    private int players;
+    private int size;
+    private List<LeaderboardEntry> entries;
+
+    public LeaderboardUpdateData() {}
+
+    public LeaderboardUpdateData(int players, int size, List<LeaderboardEntry> entries) {
+        this.players = players;
+        this.size = size;
+        this.entries = entries;
+    }
+
+    public int getPlayers() { return players; }
+    public void setPlayers(int players) { this.players = players; }
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+    public List<LeaderboardEntry> getEntries() { return entries; }
+    public void setEntries(List<LeaderboardEntry> entries) { this.entries = entries; }
+}
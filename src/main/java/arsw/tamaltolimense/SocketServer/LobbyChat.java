@@ -0,0 +1,134 @@
+package arsw.tamaltolimense.SocketServer;
+
+import com.corundumstudio.socketio.SocketIOClient;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Reenvío de los mensajes de chat de cada lobby y su historial reciente. Antes de reenviarse,
+// cada mensaje pasa por las etapas ChatStage registradas (p. ej. ChatWordFilter). Quien entra (o vuelve
+// a entrar tras reconectarse) con joinLobby recibe el historial en un solo evento chatHistory.
+// Con hiddencargo.chat.batch-window activa, los mensajes de un lobby se acumulan durante la
+// ventana y salen en un solo chatBatch; un lote de un único mensaje sale como chatMessage.
+// Un mensaje entra al historial cuando se envía, así la reproducción no duplica lo que el
+// cliente va a recibir igualmente con el lote pendiente.
+@Component
+public class LobbyChat {
+
+    private final GameBroadcaster broadcaster;
+    private final AuctionClock auctionClock;
+    private final ChatStage[] stages;
+    private final BoundedStore<String, ChatHistory> histories;
+    private final int historySize;
+    private final int historyMaxChars;
+    private final long batchWindowMillis;
+    private final int batchMaxMessages;
+    private final Map<String, PendingBatch> batches = new ConcurrentHashMap<>();
+    private final Counter messages;
+    private final Counter frames;
+    private final Counter replays;
+
+    public LobbyChat(ChatProperties properties, GameStores stores, GameBroadcaster broadcaster,
+                     AuctionClock auctionClock, ObjectProvider<ChatStage> stages, MeterRegistry meterRegistry) {
+        this.broadcaster = broadcaster;
+        this.auctionClock = auctionClock;
+        this.stages = stages.orderedStream().toArray(ChatStage[]::new);
+        this.histories = stores.chatHistories();
+        this.historySize = properties.getHistorySize();
+        this.historyMaxChars = properties.getHistoryMaxChars();
+        this.batchWindowMillis = properties.getBatchWindow().toMillis();
+        this.batchMaxMessages = Math.max(1, properties.getBatchMaxMessages());
+        messages = Counter.builder("hiddencargo.chat.messages")
+                .description("Mensajes de chat reenviados a su lobby")
+                .register(meterRegistry);
+        frames = Counter.builder("hiddencargo.chat.frames")
+                .description("Envíos de chat a un lobby (un mensaje o un lote)")
+                .register(meterRegistry);
+        replays = Counter.builder("hiddencargo.chat.replays")
+                .description("Historiales de chat enviados al entrar a un lobby")
+                .register(meterRegistry);
+    }
+
+    // Pasa el mensaje por las etapas y lo reenvía al lobby, al momento o dentro del lote de la ventana actual
+    void publish(String lobbyName, ChatMessageData message) {
+        if (lobbyName == null) {
+            return;
+        }
+        for (ChatStage stage : stages) {
+            message = stage.process(lobbyName, message);
+            if (message == null) {
+                return;
+            }
+        }
+        messages.increment();
+        if (batchWindowMillis <= 0) {
+            send(lobbyName, List.of(message));
+            return;
+        }
+        // Los envíos se hacen dentro de compute, con la entrada del lobby bloqueada, para que el
+        // historial y el lobby vean el mismo orden
+        ChatMessageData accepted = message;
+        batches.compute(lobbyName, (name, batch) -> {
+            if (batch == null) {
+                batch = new PendingBatch();
+                auctionClock.after(batchWindowMillis, () -> broadcaster.inPass(() -> flush(name)));
+            }
+            batch.messages.add(accepted);
+            if (batch.messages.size() >= batchMaxMessages) {
+                send(name, batch.drain());
+            }
+            return batch;
+        });
+    }
+
+    // Envía al cliente el historial del lobby, si lo hay
+    void replay(SocketIOClient client, String lobbyName) {
+        ChatHistory history = histories.get(lobbyName);
+        if (history == null || history.size() == 0) {
+            return;
+        }
+        replays.increment();
+        broadcaster.toClient(client, "chatHistory", history.snapshot());
+    }
+
+    // Fin de la ventana: sale lo acumulado y el lote se retira del mapa
+    private void flush(String lobbyName) {
+        batches.computeIfPresent(lobbyName, (name, batch) -> {
+            List<ChatMessageData> pending = batch.drain();
+            if (!pending.isEmpty()) {
+                send(name, pending);
+            }
+            return null;
+        });
+    }
+
+    private void send(String lobbyName, List<ChatMessageData> sent) {
+        ChatHistory history = histories.computeIfAbsent(lobbyName,
+                name -> new ChatHistory(historySize, historyMaxChars));
+        for (ChatMessageData message : sent) {
+            history.add(message);
+        }
+        frames.increment();
+        if (sent.size() == 1) {
+            broadcaster.toRoom(lobbyName, "chatMessage", sent.get(0));
+        } else {
+            broadcaster.toRoom(lobbyName, "chatBatch", sent);
+        }
+    }
+
+    private static final class PendingBatch {
+        private List<ChatMessageData> messages = new ArrayList<>();
+
+        private List<ChatMessageData> drain() {
+            List<ChatMessageData> drained = messages;
+            messages = new ArrayList<>();
+            return drained;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package arsw.tamaltolimense.SocketServer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Operaciones sobre lobbies que usa LobbySocketService. Las implementaciones lanzan excepción
+// si el servicio falla, para que el circuit breaker de BackendResilience la cuente.
+public interface LobbyGateway {
+
+    // Estado del lobby con las claves del API: nombre, jugadoresConectados, jugadoresListos,
+    // numeroDeRondas y jugadores; null si no existe
+    Map<String, Object> getLobby(String lobbyName);
+
+    boolean addPlayer(String lobbyName, String nickname);
+
+    boolean removePlayer(String lobbyName, String nickname);
+
+    boolean markReady(String lobbyName);
+
+    boolean markNotReady(String lobbyName);
+
+    // Registra de una vez los lobbies que formó el emparejamiento y devuelve los nombres que
+    // quedaron creados. El API remoto no tiene alta en bloque, así que por defecto se une a cada
+    // jugador con addPlayer; las rondas pedidas solo las respeta el backend embebido. Un lobby
+    // que no se completa se deshace con removePlayer, porque sus jugadores vuelven a la cola.
+    default List<String> registerLobbies(List<MatchedLobby> matched) {
+        List<String> registered = new ArrayList<>(matched.size());
+        for (MatchedLobby lobby : matched) {
+            List<String> added = new ArrayList<>(lobby.players().size());
+            try {
+                for (String nickname : lobby.players()) {
+                    if (!addPlayer(lobby.name(), nickname)) {
+                        break;
+                    }
+                    added.add(nickname);
+                }
+            } catch (RuntimeException e) {
+                removePlayers(lobby.name(), added);
+                // Sin ningún lobby creado el fallo llega al circuit breaker; si no, los que
+                // faltan vuelven a la cola
+                if (registered.isEmpty()) {
+                    throw e;
+                }
+                return registered;
+            }
+            if (added.size() == lobby.players().size()) {
+                registered.add(lobby.name());
+            } else {
+                removePlayers(lobby.name(), added);
+            }
+        }
+        return registered;
+    }
+
+    // Saca a los jugadores que ya se habían unido a un lobby que no se completó
+    private void removePlayers(String lobbyName, List<String> nicknames) {
+        for (String nickname : nicknames) {
+            try {
+                removePlayer(lobbyName, nickname);
+            } catch (RuntimeException e) {
+                // Se sigue con los demás; el lobby incompleto no se usa
+            }
+        }
+    }
+}
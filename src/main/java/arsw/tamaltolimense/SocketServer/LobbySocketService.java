@@ -3,15 +3,21 @@ import com.corundumstudio.socketio.*;
 import com.corundumstudio.socketio.listener.ConnectListener;
 import com.corundumstudio.socketio.listener.DataListener;
 import com.corundumstudio.socketio.listener.DisconnectListener;
-import org.springframework.http.*;
+import com.corundumstudio.socketio.protocol.JsonSupport;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.RestTemplate;
 
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 
 import java.security.SecureRandom;
 import java.util.*;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -19,38 +25,105 @@ import org.slf4j.LoggerFactory;
 public class LobbySocketService {
     private static final Logger logger = LoggerFactory.getLogger(LobbySocketService.class);
 
-    // API URLs
-    private static final String LOBBIES_API_URL = "https://thehiddencargo1.azure-api.net/lobbies/lobbies";
-    private static final String BID_SERVICE_URL = "https://thehiddencargo1.azure-api.net/bids";
-    private static final String API_KEY = System.getenv("API_KEY");
+    // Configuración del servidor
+    private final SocketServerProperties socketProperties;
+    private final TransportProperties transportProperties;
 
     private SocketIOServer server;
-    private final Map<String, String> sessionToNickname = new HashMap<>();
-    private final Map<String, String> sessionToLobby = new HashMap<>();
+    // Serialización de eventos del servidor; ServerWarmup la usa para calentar sus serializadores
+    private final GameJsonSupport jsonSupport = new GameJsonSupport();
+    // Nickname y lobby por sesión; viven lo que la conexión (SessionStore)
+    private final SessionStore sessions;
 
     // Mapas para gestionar partidas
-    private final Map<String, GameState> activeGames = new HashMap<>();
-    private final Map<String, List<PlayerState>> gamePlayers = new HashMap<>();
-    private final Map<String, Queue<ContainerInfo>> gameContainers = new HashMap<>();
-    private final Map<String, Timer> gameTimers = new HashMap<>();
-    private final Map<String, Set<String>> playersReadyForNextRound = new HashMap<>();
-    private final Map<String, Integer> playerBalances = new HashMap<>();
-
-    // RestTemplate para comunicación con servicios externos
-    private final RestTemplate restTemplate = new RestTemplate();
+    // Sincronizado: el hilo de drenaje lo recorre mientras los listeners lo modifican
+    private final Map<String, GameState> activeGames = Collections.synchronizedMap(new HashMap<>());
+    private final Map<String, Queue<ContainerInfo>> gameContainers = new ConcurrentHashMap<>();
+    private final BoundedStore<String, Set<String>> playersReadyForNextRound;
+    private final BoundedStore<String, Integer> playerBalances;
+
+    // Servicios de lobbies, apuestas, contenedores y usuarios (remotos o embebidos según
+    // hiddencargo.backend.mode), protegidos por circuit breakers y bulkheads
+    private final LobbyGateway lobbies;
+    private final BidGateway bids;
+    private final ContainerGateway containerSource;
+    private final ContainerPool containerPool;
+    private final NettyAdminHandler adminHandler;
+    // Logs muestreados y con límite por segundo de las rutas calientes
+    private final HotPathLog hotLog;
+    private final LobbyChat chat;
+    private final SpectatorFeed spectators;
+    private final MatchmakingQueue matchmaking;
+    private final Leaderboard leaderboard;
+    private final GameExporter exporter;
+    private final UserGateway users;
+    private final BackendResilience resilience;
+
+    // Salida de eventos agrupada por pase de procesamiento
+    private final GameBroadcaster broadcaster;
+    private final SocketChannelMetrics channelMetrics;
+
+    // Cierres de subasta y envíos diferidos
+    private final AuctionClock auctionClock;
+    private final AuctionProperties auctionProperties;
+
+    // Drenaje antes de apagar: sin lobbies ni partidas nuevas; las partidas en curso terminan
+    // con su ronda actual y los clientes reciben reconnectHint
+    private final DrainProperties drainProperties;
+    private volatile boolean draining;
+    private CompletableFuture<Void> drain;
+    // Al detener la aplicación, momento (System.nanoTime) a partir del cual se deja de esperar a
+    // que las partidas terminen solas y se liquidan
+    private volatile boolean stopping;
+    private volatile long settleBy;
+
+    public LobbySocketService(SocketServerProperties socketProperties, TransportProperties transportProperties,
+                              LobbyGateway lobbies, BidGateway bids, ContainerGateway containerSource,
+                              UserGateway users, BackendResilience resilience,
+                              GameBroadcaster broadcaster, SocketChannelMetrics channelMetrics,
+                              AuctionClock auctionClock, AuctionProperties auctionProperties,
+                              GameStores stores, DrainProperties drainProperties, ContainerPool containerPool,
+                              NettyAdminHandler adminHandler, HotPathLog hotLog, LobbyChat chat,
+                              SpectatorFeed spectators, MatchmakingQueue matchmaking, Leaderboard leaderboard,
+                              GameExporter exporter) {
+        this.socketProperties = socketProperties;
+        this.transportProperties = transportProperties;
+        this.lobbies = lobbies;
+        this.bids = bids;
+        this.containerSource = containerSource;
+        this.users = users;
+        this.resilience = resilience;
+        this.broadcaster = broadcaster;
+        this.channelMetrics = channelMetrics;
+        this.auctionClock = auctionClock;
+        this.auctionProperties = auctionProperties;
+        this.sessions = stores.sessions();
+        this.playersReadyForNextRound = stores.readyPlayers();
+        this.playerBalances = stores.playerBalances();
+        this.drainProperties = drainProperties;
+        this.containerPool = containerPool;
+        this.adminHandler = adminHandler;
+        this.hotLog = hotLog;
+        this.chat = chat;
+        this.spectators = spectators;
+        this.matchmaking = matchmaking;
+        this.leaderboard = leaderboard;
+        this.exporter = exporter;
+    }
 
     @PostConstruct
     public void init() {
         try {
             Configuration config = new Configuration();
-            config.setHostname("0.0.0.0");
-            config.setPort(443);
+            config.setHostname(socketProperties.getHostname());
+            config.setPort(socketProperties.getPort());
 
             // Configuración correcta para Socket.IO
             config.setContext("/socket.io");
             config.setOrigin("*");
             config.setAllowCustomRequests(true);
             config.setAuthorizationListener(data -> true);
+            config.setJsonSupport(jsonSupport);
             config.setTransports(new Transport[]{Transport.WEBSOCKET, Transport.POLLING});
 
             // Configuraciones adicionales
@@ -58,29 +131,41 @@ public class LobbySocketService {
             config.setPingInterval(25000);
 
             logger.info("Creando instancia de SocketIOServer");
-            server = new SocketIOServer(config);
+            server = TunedSocketIOServer.create(config, transportProperties, channelMetrics,
+                    broadcaster.backpressureHandler(), adminHandler);
+            broadcaster.attach(server);
+            spectators.attach(server, jsonSupport, activeGames::get);
 
             // Configurar listeners para eventos de conexión y desconexión
             server.addConnectListener(onConnected());
             server.addDisconnectListener(onDisconnected());
 
             // Configurar listeners para eventos específicos del lobby
-            server.addEventListener("joinLobby", JoinLobbyData.class, onJoinLobby());
-            server.addEventListener("leaveLobby", LeaveLobbyData.class, onLeaveLobby());
-            server.addEventListener("playerReady", PlayerReadyData.class, onPlayerReady());
-            server.addEventListener("playerNotReady", PlayerNotReadyData.class, onPlayerNotReady());
-            server.addEventListener("chatMessage", ChatMessageData.class, onChatMessage());
-            server.addEventListener("readyForNextRound", ReadyForNextRoundData.class, onReadyForNextRound());
-            server.addEventListener("updatePlayerBalance", PlayerBalanceData.class, onUpdatePlayerBalance());
+            server.addEventListener("joinLobby", JoinLobbyData.class, batched(onJoinLobby()));
+            server.addEventListener("leaveLobby", LeaveLobbyData.class, batched(onLeaveLobby()));
+            server.addEventListener("playerReady", PlayerReadyData.class, batched(onPlayerReady()));
+            server.addEventListener("playerNotReady", PlayerNotReadyData.class, batched(onPlayerNotReady()));
+            server.addEventListener("chatMessage", ChatMessageData.class, batched(onChatMessage()));
+            server.addEventListener("matchmake", MatchmakeData.class, batched(onMatchmake()));
+            server.addEventListener("cancelMatchmaking", MatchmakeData.class, batched(onCancelMatchmaking()));
+            server.addEventListener("readyForNextRound", ReadyForNextRoundData.class, batched(onReadyForNextRound()));
+            server.addEventListener("updatePlayerBalance", PlayerBalanceData.class, batched(onUpdatePlayerBalance()));
 
             // Eventos del juego
-            server.addEventListener("startGame", StartGameData.class, onStartGame());
-            server.addEventListener("placeBid", PlaceBidData.class, onPlaceBid());
-            server.addEventListener("leaveGame", LeaveGameData.class, onLeaveGame());
-
-            logger.info("Iniciando servidor Socket.IO en puerto 443 con path /socket.io");
+            server.addEventListener("startGame", StartGameData.class, batched(onStartGame()));
+            server.addEventListener("placeBid", PlaceBidData.class, batched(onPlaceBid()));
+            server.addEventListener("leaveGame", LeaveGameData.class, batched(onLeaveGame()));
+            // Espectadores: feed propio por lobby, sin pasar por los eventos de los jugadores
+            server.addEventListener("watchLobby", WatchLobbyData.class, onWatchLobby());
+            server.addEventListener("stopWatching", WatchLobbyData.class, onStopWatching());
+            server.addEventListener("subscribeLeaderboard", LeaderboardSubscribeData.class, onSubscribeLeaderboard());
+            server.addEventListener("unsubscribeLeaderboard", LeaderboardSubscribeData.class, onUnsubscribeLeaderboard());
+            // Sin agrupar: la respuesta debe salir cuanto antes para que el desfase medido sea fiable
+            server.addEventListener("clockSync", ClockSyncData.class, onClockSync());
+
+            logger.info("Iniciando servidor Socket.IO en puerto {} con path /socket.io", config.getPort());
             server.start();
-            logger.info("SocketIO Server iniciado en puerto 443 con path /socket.io");
+            logger.info("SocketIO Server iniciado en puerto {} con path /socket.io", config.getPort());
         } catch (Exception e) {
             logger.error("Error al iniciar SocketIO Server", e);
         }
@@ -88,32 +173,31 @@ public class LobbySocketService {
 
     @PreDestroy
     public void destroy() {
+        // Terminar o liquidar las partidas y avisar a los clientes antes de cerrar los sockets, sin
+        // pasar de shutdown-timeout: la plataforma mata el proceso al agotar su periodo de gracia.
+        // La mitad del plazo se espera a que las partidas terminen solas y el resto queda para
+        // liquidarlas y enviar reconnectHint.
+        long maxWait = drainProperties.getShutdownTimeout().toMillis();
+        settleBy = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWait / 2);
+        stopping = true;
+        try {
+            drain().get(maxWait, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Drenaje interrumpido al detener el servidor");
+        } catch (ExecutionException | TimeoutException e) {
+            logger.error("El drenaje no terminó antes de detener el servidor: {}", e.toString());
+        }
         if (server != null) {
             logger.info("Deteniendo SocketIO Server");
             server.stop();
         }
     }
 
-    // Método para crear headers con la API key
-    private HttpHeaders createHeaders() {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.set("Ocp-Apim-Subscription-Key", API_KEY);
-        return headers;
-    }
-
-    // Métodos para interactuar con la API de Lobbies
+    // Métodos para interactuar con el servicio de Lobbies
     private Map<String, Object> getLobby(String lobbyName) {
         try {
-            String url = LOBBIES_API_URL + "/" + lobbyName;
-            HttpEntity<String> entity = new HttpEntity<>(createHeaders());
-            ResponseEntity<Map> response = restTemplate.exchange(
-                    url, HttpMethod.GET, entity, Map.class);
-
-            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                return response.getBody();
-            }
-            return null;
+            return resilience.call(BackendDependency.LOBBIES, () -> lobbies.getLobby(lobbyName));
         } catch (Exception e) {
             logger.error("Error al obtener lobby {}: {}", lobbyName, e.getMessage());
             return null;
@@ -122,12 +206,7 @@ public class LobbySocketService {
 
     private boolean addPlayerToLobby(String lobbyName, String nickname) {
         try {
-            String url = LOBBIES_API_URL + "/" + lobbyName + "/agregarJugador?nickname=" + nickname;
-            HttpEntity<String> entity = new HttpEntity<>(createHeaders());
-            ResponseEntity<Map> response = restTemplate.exchange(
-                    url, HttpMethod.PUT, entity, Map.class);
-
-            return response.getStatusCode().is2xxSuccessful();
+            return resilience.call(BackendDependency.LOBBIES, () -> lobbies.addPlayer(lobbyName, nickname));
         } catch (Exception e) {
             logger.error("Error al agregar jugador {} al lobby {}: {}",
                     nickname, lobbyName, e.getMessage());
@@ -135,29 +214,16 @@ public class LobbySocketService {
         }
     }
 
+    // Si el servicio de lobbies no responde, la salida se difiere y se reenvía cuando se recupere
     private boolean removePlayerFromLobby(String lobbyName, String nickname) {
-        try {
-            String url = LOBBIES_API_URL + "/" + lobbyName + "/quitarJugador?nickname=" + nickname;
-            HttpEntity<String> entity = new HttpEntity<>(createHeaders());
-            ResponseEntity<Map> response = restTemplate.exchange(
-                    url, HttpMethod.PUT, entity, Map.class);
-
-            return response.getStatusCode().is2xxSuccessful();
-        } catch (Exception e) {
-            logger.error("Error al quitar jugador {} del lobby {}: {}",
-                    nickname, lobbyName, e.getMessage());
-            return false;
-        }
+        resilience.callOrDefer(BackendDependency.LOBBIES, "quitarJugador " + nickname + " de " + lobbyName,
+                () -> lobbies.removePlayer(lobbyName, nickname));
+        return true;
     }
 
     private boolean markPlayerAsReady(String lobbyName) {
         try {
-            String url = LOBBIES_API_URL + "/" + lobbyName + "/agregarListo";
-            HttpEntity<String> entity = new HttpEntity<>(createHeaders());
-            ResponseEntity<Map> response = restTemplate.exchange(
-                    url, HttpMethod.GET, entity, Map.class);
-
-            return response.getStatusCode().is2xxSuccessful();
+            return resilience.call(BackendDependency.LOBBIES, () -> lobbies.markReady(lobbyName));
         } catch (Exception e) {
             logger.error("Error al marcar jugador como listo en lobby {}: {}",
                     lobbyName, e.getMessage());
@@ -167,12 +233,7 @@ public class LobbySocketService {
 
     private boolean markPlayerAsNotReady(String lobbyName) {
         try {
-            String url = LOBBIES_API_URL + "/" + lobbyName + "/quitarListo";
-            HttpEntity<String> entity = new HttpEntity<>(createHeaders());
-            ResponseEntity<Map> response = restTemplate.exchange(
-                    url, HttpMethod.GET, entity, Map.class);
-
-            return response.getStatusCode().is2xxSuccessful();
+            return resilience.call(BackendDependency.LOBBIES, () -> lobbies.markNotReady(lobbyName));
         } catch (Exception e) {
             logger.error("Error al quitar jugador listo en lobby {}: {}",
                     lobbyName, e.getMessage());
@@ -180,19 +241,51 @@ public class LobbySocketService {
         }
     }
 
+    // Clave de conflación: a un cliente atascado solo le interesa el último estado de cada jugador
+    private static String playerUpdateKey(PlayerUpdateData update) {
+        return "playerUpdate:" + update.getNickname();
+    }
+
+    // Agrupa los envíos de cada evento recibido para despacharlos juntos al terminar.
+    // Los espectadores solo leen: sus eventos de jugador se rechazan aquí.
+    private <T> DataListener<T> batched(DataListener<T> listener) {
+        return (client, data, ackRequest) -> {
+            if (spectators.isSpectator(client)) {
+                if (ackRequest.isAckRequested()) {
+                    broadcaster.ack(ackRequest, "Error: los espectadores no pueden jugar");
+                }
+                return;
+            }
+            broadcaster.inPass(() -> {
+                try {
+                    listener.onData(client, data, ackRequest);
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+        };
+    }
+
     private ConnectListener onConnected() {
         return client -> {
-            logger.info("Cliente conectado: {}", client.getSessionId());
+            sessions.connected(client.getSessionId().toString());
+            hotLog.at(HotPathLog.Kind.CONNECTION, logger).log("Cliente conectado: {}", client.getSessionId());
         };
     }
 
     private DisconnectListener onDisconnected() {
         return client -> {
             String sessionId = client.getSessionId().toString();
-            String nickname = sessionToNickname.get(sessionId);
-            String lobbyName = sessionToLobby.get(sessionId);
-
-            logger.info("Cliente desconectado: {}. Nickname: {}, Lobby: {}",
+            // Se quita la sesión antes que nada: lo que llegue después ya no puede asociarle un lobby
+            SessionStore.Session session = sessions.disconnected(sessionId);
+            String nickname = session.nickname();
+            String lobbyName = session.lobbyName();
+            matchmaking.cancel(client.getSessionId());
+            leaderboard.unsubscribe(client);
+
+            hotLog.at(HotPathLog.Kind.CONNECTION, logger).log("Cliente desconectado: {}. Nickname: {}, Lobby: {}",
                     sessionId, nickname, lobbyName);
 
             if (nickname != null && lobbyName != null) {
@@ -204,7 +297,7 @@ public class LobbySocketService {
                     removePlayerFromLobby(lobbyName, nickname);
 
                     // Notificar a todos en la sala que el jugador se desconectó
-                    server.getRoomOperations(lobbyName).sendEvent("playerLeft", new PlayerLeftData(nickname));
+                    broadcaster.toRoom(lobbyName, "playerLeft", new PlayerLeftData(nickname));
                     logger.info("Jugador {} removido del lobby {} por desconexión", nickname, lobbyName);
 
                     // Si hay una partida activa, manejar la salida del jugador
@@ -213,91 +306,52 @@ public class LobbySocketService {
                     }
                 }
             }
-
-            // Limpiar los mapas
-            sessionToNickname.remove(sessionId);
-            sessionToLobby.remove(sessionId);
         };
     }
 
-    // Método actualizado para actualizar el balance en el servicio externo
-    private void updateUserBalance(String nickname, int profit) {
-        try {
-            // Crear los datos para la petición
-            Map<String, Object> requestData = new HashMap<>();
-            requestData.put("username", nickname);
-            requestData.put("amount", profit);
-
-            // Configurar los headers con la clave de suscripción correcta
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.set("Ocp-Apim-Subscription-Key", API_KEY);
-
-            // Crear la entidad HTTP con el cuerpo JSON
-            HttpEntity<Map<String, Object>> requestEntity = new HttpEntity<>(requestData, headers);
-
-            // URL del servicio
-            String apiUrl = "https://thehiddencargo1.azure-api.net/creation/polling/users/offer/username";
-
-            // Hacer la petición POST
-            logger.info("Enviando actualización de balance para usuario {}: profit={}", nickname, profit);
-            ResponseEntity<Map> response = restTemplate.exchange(
-                    apiUrl,
-                    HttpMethod.POST,
-                    requestEntity,
-                    Map.class
-            );
-
-            // Verificar respuesta
-            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                Map<String, Object> responseData = response.getBody();
-                if (responseData != null && responseData.containsKey("userBalance")) {
-                    int newBalance = ((Number) responseData.get("userBalance")).intValue();
-                    logger.info("Balance actualizado para usuario {}: nuevo balance={}", nickname, newBalance);
-
-                    // Actualizar el balance en el juego con el nuevo valor del servicio
-                    // Esto es importante para mantener sincronizado el balance del juego con el del sistema
-                    updatePlayerBalanceFromService(nickname, newBalance);
-                } else {
-                    logger.warn("La respuesta del servicio no contiene el campo userBalance: {}", responseData);
-                }
-            } else {
-                logger.error("Error al actualizar balance para usuario {}: {}", nickname, response.getStatusCode());
-            }
-        }catch (NullPointerException e) {
-            logger.error("Null pointerException {}: {}", nickname, e.getMessage(), e);
-
-        } catch (Exception e) {
-            logger.error("Error al enviar actualización de balance para usuario {}: {}", nickname, e.getMessage(), e);
+    // Método actualizado para actualizar el balance en el servicio externo.
+    // Abonar saldo no es idempotente: un reenvío tras un timeout que el servicio sí aplicó lo
+    // abonaría dos veces, así que se intenta una sola vez y un fallo queda como error y métrica.
+    private void updateUserBalance(GameState game, int seat, int profit) {
+        String nickname = game.getRoster().nickname(seat);
+        hotLog.at(HotPathLog.Kind.BALANCE, logger).log("Enviando actualización de balance para usuario {}: profit={}", nickname, profit);
+        Integer newBalance = resilience.callOnce(BackendDependency.USERS,
+                "abono de " + profit + " a " + nickname + " (lobby " + game.getLobbyName() + ", ronda " + game.getCurrentRound() + ")",
+                () -> users.addToBalance(nickname, profit));
+        if (newBalance != null) {
+            hotLog.at(HotPathLog.Kind.BALANCE, logger).log("Balance actualizado para usuario {}: nuevo balance={}", nickname, newBalance);
+
+            // Actualizar el balance en el juego con el nuevo valor del servicio
+            // Esto es importante para mantener sincronizado el balance del juego con el del sistema
+            updatePlayerBalanceFromService(game, seat, newBalance);
         }
     }
 
-    private void updatePlayerBalanceFromService(String nickname, int newBalance) {
-        // Buscar al jugador en todos los juegos activos
-        for (Map.Entry<String, List<PlayerState>> entry : gamePlayers.entrySet()) {
-            String lobbyName = entry.getKey();
-            List<PlayerState> players = entry.getValue();
+    // Solo entre rondas: con la subasta abierta el saldo lleva descontada la apuesta vigente y
+    // sobrescribirlo haría que el reembolso al ser superado devolviera ese dinero dos veces
+    private void updatePlayerBalanceFromService(GameState game, int seat, int newBalance) {
+        String nickname = game.getRoster().nickname(seat);
+        if (game.getPhase() != GamePhase.REVEALING) {
+            logger.warn("Balance del servicio para {} ignorado: la partida de {} está en fase {}",
+                    nickname, game.getLobbyName(), game.getPhase());
+            return;
+        }
+        GameRoster roster = game.getRoster();
 
-            for (PlayerState player : players) {
-                if (player.getNickname().equals(nickname)) {
-                    // Actualizamos el balance con el valor del servicio
-                    player.setBalance(newBalance);
+        // Actualizamos el balance con el valor del servicio
+        roster.setBalance(seat, newBalance);
 
-                    // Notificar a todos los clientes sobre el balance actualizado
-                    PlayerUpdateData updateData = new PlayerUpdateData();
-                    updateData.setNickname(nickname);
-                    updateData.setBalance(newBalance);
-                    updateData.setScore(player.getScore());
+        // Notificar a todos los clientes sobre el balance actualizado
+        PlayerUpdateData updateData = new PlayerUpdateData();
+        updateData.setNickname(nickname);
+        updateData.setBalance(newBalance);
+        updateData.setScore(roster.score(seat));
 
-                    server.getRoomOperations(lobbyName).sendEvent("playerUpdate", updateData);
-                    logger.info("Balance de jugador {} actualizado con valor del servicio: {}", nickname, newBalance);
+        broadcaster.toRoomLatest(game.getLobbyName(), "playerUpdate", playerUpdateKey(updateData), updateData);
+        hotLog.at(HotPathLog.Kind.BALANCE, logger).log("Balance de jugador {} actualizado con valor del servicio: {}", nickname, newBalance);
 
-                    // Actualizamos también el mapa de balances para este jugador
-                    playerBalances.put(nickname, newBalance);
-                    break;
-                }
-            }
-        }
+        // Actualizamos también el mapa de balances para este jugador
+        playerBalances.put(nickname, newBalance);
     }
 
     private DataListener<PlayerBalanceData> onUpdatePlayerBalance() {
@@ -306,28 +360,25 @@ public class LobbySocketService {
             String lobbyName = data.getLobbyName();
             int initialBalance = data.getInitialBalance();
 
-            logger.info("Recibido balance inicial para jugador {}: {}", nickname, initialBalance);
+            hotLog.at(HotPathLog.Kind.BALANCE, logger).log("Recibido balance inicial para jugador {}: {}", nickname, initialBalance);
 
             // Almacenar el balance del jugador
             playerBalances.put(nickname, initialBalance);
 
             // Si hay un juego activo, actualizar el balance del jugador
-            if (activeGames.containsKey(lobbyName)) {
-                List<PlayerState> players = gamePlayers.get(lobbyName);
-                if (players != null) {
-                    for (PlayerState player : players) {
-                        if (player.getNickname().equals(nickname)) {
-                            player.setBalance(initialBalance);
-                            logger.info("Balance actualizado para jugador {} en juego activo: {}",
-                                    nickname, initialBalance);
-                            break;
-                        }
-                    }
+            GameState game = activeGames.get(lobbyName);
+            if (game != null) {
+                GameRoster roster = game.getRoster();
+                int seat = roster.seatOf(nickname);
+                if (seat >= 0) {
+                    roster.setBalance(seat, initialBalance);
+                    hotLog.at(HotPathLog.Kind.BALANCE, logger).log("Balance actualizado para jugador {} en juego activo: {}",
+                            nickname, initialBalance);
                 }
             }
 
             if (ackRequest.isAckRequested()) {
-                ackRequest.sendAckData("Balance actualizado correctamente");
+                broadcaster.ack(ackRequest, "Balance actualizado correctamente");
             }
         };
     }
@@ -336,10 +387,21 @@ public class LobbySocketService {
         return (client, data, ackRequest) -> {
             logger.info("Jugador {} intenta unirse al lobby: {}", data.getNickname(), data.getLobbyName());
 
+            // En drenaje el cliente se envía a otro nodo
+            if (draining) {
+                broadcaster.toClient(client, "reconnectHint", reconnectHint());
+                if (ackRequest.isAckRequested()) {
+                    broadcaster.ack(ackRequest, "Error: el servidor se está reiniciando, vuelve a conectarte");
+                }
+                return;
+            }
+
             // Guardar la información de sesión
             String sessionId = client.getSessionId().toString();
-            sessionToNickname.put(sessionId, data.getNickname());
-            sessionToLobby.put(sessionId, data.getLobbyName());
+            if (!sessions.join(sessionId, data.getNickname(), data.getLobbyName())) {
+                // La sesión se desconectó mientras llegaba el evento
+                return;
+            }
 
             // Usar la API para agregar el jugador
             boolean success = addPlayerToLobby(data.getLobbyName(), data.getNickname());
@@ -349,21 +411,23 @@ public class LobbySocketService {
                 client.joinRoom(data.getLobbyName());
 
                 // Notificar a todos en la sala que un jugador se unió
-                server.getRoomOperations(data.getLobbyName()).sendEvent("playerJoined",
+                broadcaster.toRoom(data.getLobbyName(), "playerJoined",
                         new PlayerJoinedData(data.getNickname()));
 
                 if (ackRequest.isAckRequested()) {
-                    ackRequest.sendAckData("Te has unido al lobby: " + data.getLobbyName());
+                    broadcaster.ack(ackRequest, "Te has unido al lobby: " + data.getLobbyName());
                 }
 
+                // Mensajes recientes para quien entra o vuelve tras reconectarse
+                chat.replay(client, data.getLobbyName());
+
                 logger.info("Jugador {} unido exitosamente al lobby {}", data.getNickname(), data.getLobbyName());
             } else {
                 if (ackRequest.isAckRequested()) {
-                    ackRequest.sendAckData("Error al unirse al lobby: " + data.getLobbyName());
+                    broadcaster.ack(ackRequest, "Error al unirse al lobby: " + data.getLobbyName());
                 }
                 // Limpiar información de sesión en caso de error
-                sessionToNickname.remove(sessionId);
-                sessionToLobby.remove(sessionId);
+                sessions.clear(sessionId);
             }
         };
     }
@@ -371,7 +435,7 @@ public class LobbySocketService {
     private DataListener<LeaveLobbyData> onLeaveLobby() {
         return (client, data, ackRequest) -> {
             String sessionId = client.getSessionId().toString();
-            String nickname = sessionToNickname.get(sessionId);
+            String nickname = sessions.nickname(sessionId);
             String lobbyName = data.getLobbyName();
 
             logger.info("Jugador {} intentando salir del lobby {}", nickname, lobbyName);
@@ -381,7 +445,7 @@ public class LobbySocketService {
                 client.leaveRoom(lobbyName);
 
                 // Notificar a todos en la sala que el jugador se fue
-                server.getRoomOperations(lobbyName).sendEvent("playerLeft",
+                broadcaster.toRoom(lobbyName, "playerLeft",
                         new PlayerLeftData(nickname));
 
                 // Usar la API para quitar al jugador del lobby
@@ -391,7 +455,7 @@ public class LobbySocketService {
                 }
 
                 // Limpiar el mapa de lobby para esta sesión
-                sessionToLobby.remove(sessionId);
+                sessions.leaveLobby(sessionId);
 
                 // Si hay una partida activa, manejar la salida del jugador
                 if (activeGames.containsKey(lobbyName)) {
@@ -400,7 +464,7 @@ public class LobbySocketService {
             }
 
             if (ackRequest.isAckRequested()) {
-                ackRequest.sendAckData("Has abandonado el lobby: " + lobbyName);
+                broadcaster.ack(ackRequest, "Has abandonado el lobby: " + lobbyName);
             }
         };
     }
@@ -410,13 +474,13 @@ public class LobbySocketService {
             String lobbyName = data.getLobbyName();
             String nickname = data.getNickname();
 
-            logger.info("Jugador {} marcándose como listo en lobby {}", nickname, lobbyName);
+            hotLog.at(HotPathLog.Kind.READY, logger).log("Jugador {} marcándose como listo en lobby {}", nickname, lobbyName);
 
             // Validar los datos recibidos
             if (lobbyName == null || lobbyName.isEmpty()) {
                 logger.error("Nombre de lobby vacío o nulo en evento playerReady");
                 if (ackRequest.isAckRequested()) {
-                    ackRequest.sendAckData("Error: Nombre de lobby inválido");
+                    broadcaster.ack(ackRequest, "Error: Nombre de lobby inválido");
                 }
                 return;
             }
@@ -424,7 +488,7 @@ public class LobbySocketService {
             if (nickname == null || nickname.isEmpty()) {
                 logger.error("Nickname vacío o nulo en evento playerReady");
                 if (ackRequest.isAckRequested()) {
-                    ackRequest.sendAckData("Error: Nickname inválido");
+                    broadcaster.ack(ackRequest, "Error: Nickname inválido");
                 }
                 return;
             }
@@ -434,7 +498,7 @@ public class LobbySocketService {
             if (lobby == null) {
                 logger.error("Lobby {} no encontrado al marcar jugador {} como listo", lobbyName, nickname);
                 if (ackRequest.isAckRequested()) {
-                    ackRequest.sendAckData("Error: Lobby no encontrado");
+                    broadcaster.ack(ackRequest, "Error: Lobby no encontrado");
                 }
                 return;
             }
@@ -442,7 +506,7 @@ public class LobbySocketService {
             int jugadoresConectados = ((Number) lobby.get("jugadoresConectados")).intValue();
             int jugadoresListos = ((Number) lobby.get("jugadoresListos")).intValue();
 
-            logger.info("Estado actual del lobby {}: jugadores conectados={}, jugadores listos={}",
+            hotLog.at(HotPathLog.Kind.READY, logger).log("Estado actual del lobby {}: jugadores conectados={}, jugadores listos={}",
                     lobbyName, jugadoresConectados, jugadoresListos);
 
             try {
@@ -456,21 +520,21 @@ public class LobbySocketService {
                         int nuevosJugadoresListos = ((Number) lobbyActualizado.get("jugadoresListos")).intValue();
                         int nuevosJugadoresConectados = ((Number) lobbyActualizado.get("jugadoresConectados")).intValue();
 
-                        logger.info("Jugador {} marcado como listo. Nuevo estado del lobby: jugadores listos={}",
+                        hotLog.at(HotPathLog.Kind.READY, logger).log("Jugador {} marcado como listo. Nuevo estado del lobby: jugadores listos={}",
                                 nickname, nuevosJugadoresListos);
 
                         // Notificar a todos en la sala que el jugador está listo
-                        server.getRoomOperations(lobbyName).sendEvent("playerReady",
+                        broadcaster.toRoom(lobbyName, "playerReady",
                                 new PlayerReadyData(nickname, lobbyName));
 
                         // Enviar confirmación al cliente
                         if (ackRequest.isAckRequested()) {
-                            ackRequest.sendAckData("Te has marcado como listo");
+                            broadcaster.ack(ackRequest, "Te has marcado como listo");
                         }
 
                         // Comprobar si todos los jugadores están listos
                         if (nuevosJugadoresListos == nuevosJugadoresConectados) {
-                            server.getRoomOperations(lobbyName).sendEvent("allPlayersReady", lobbyName);
+                            broadcaster.toRoom(lobbyName, "allPlayersReady", lobbyName);
                             logger.info("Todos los jugadores listos en lobby {}", lobbyName);
                         }
                     }
@@ -479,7 +543,7 @@ public class LobbySocketService {
                             nickname, lobbyName);
 
                     if (ackRequest.isAckRequested()) {
-                        ackRequest.sendAckData("Error al marcarte como listo");
+                        broadcaster.ack(ackRequest, "Error al marcarte como listo");
                     }
                 }
             } catch (Exception e) {
@@ -487,7 +551,7 @@ public class LobbySocketService {
                         nickname, lobbyName, e.getMessage(), e);
 
                 if (ackRequest.isAckRequested()) {
-                    ackRequest.sendAckData("Error: " + e.getMessage());
+                    broadcaster.ack(ackRequest, "Error: " + e.getMessage());
                 }
             }
         };
@@ -498,14 +562,14 @@ public class LobbySocketService {
             String lobbyName = data.getLobbyName();
             String nickname = data.getNickname();
 
-            logger.info("Jugador {} marcándose como no listo en lobby {}", nickname, lobbyName);
+            hotLog.at(HotPathLog.Kind.READY, logger).log("Jugador {} marcándose como no listo en lobby {}", nickname, lobbyName);
 
             // Usar la API para marcar al jugador como no listo
             boolean success = markPlayerAsNotReady(lobbyName);
 
             if (success) {
                 // Notificar a todos en la sala que el jugador no está listo
-                server.getRoomOperations(lobbyName).sendEvent("playerNotReady",
+                broadcaster.toRoom(lobbyName, "playerNotReady",
                         new PlayerNotReadyData(nickname, lobbyName));
             }
         };
@@ -517,10 +581,97 @@ public class LobbySocketService {
             String nickname = data.getNickname();
             String message = data.getMessage();
 
-            logger.info("Mensaje recibido de {} en lobby {}: {}", nickname, lobbyName, message);
+            // Sin el texto del mensaje: solo su longitud
+            hotLog.at(HotPathLog.Kind.CHAT, logger).log("Mensaje recibido de {} en lobby {} ({} caracteres)",
+                    nickname, lobbyName, message != null ? message.length() : 0);
+
+            // Reenviar el mensaje a todos en la sala (al momento o en el lote de la ventana) y guardarlo en el historial
+            chat.publish(lobbyName, data);
+        };
+    }
 
-            // Reenviar el mensaje a todos en la sala
-            server.getRoomOperations(lobbyName).sendEvent("chatMessage", data);
+    private DataListener<WatchLobbyData> onWatchLobby() {
+        return (client, data, ackRequest) -> {
+            String lobbyName = data.getLobbyName();
+            String error;
+            if (lobbyName == null || lobbyName.isEmpty()) {
+                error = "Error: Nombre de lobby inválido";
+            } else if (sessions.nickname(client.getSessionId().toString()) != null) {
+                error = "Error: los jugadores no pueden ser espectadores";
+            } else {
+                error = spectators.watch(client, lobbyName);
+            }
+            hotLog.at(HotPathLog.Kind.CONNECTION, logger).log("Espectador {} en lobby {}: {}",
+                    client.getSessionId(), lobbyName, error != null ? error : "aceptado");
+            if (ackRequest.isAckRequested()) {
+                broadcaster.ack(ackRequest, error != null ? error : "Viendo el lobby: " + lobbyName);
+            }
+        };
+    }
+
+    private DataListener<WatchLobbyData> onStopWatching() {
+        return (client, data, ackRequest) -> {
+            if (data.getLobbyName() != null) {
+                spectators.unwatch(client, data.getLobbyName());
+            }
+            if (ackRequest.isAckRequested()) {
+                broadcaster.ack(ackRequest, "Has dejado de ver el lobby: " + data.getLobbyName());
+            }
+        };
+    }
+
+    private DataListener<MatchmakeData> onMatchmake() {
+        return (client, data, ackRequest) -> {
+            String nickname = data.getNickname();
+            if (draining) {
+                broadcaster.toClient(client, "reconnectHint", reconnectHint());
+                if (ackRequest.isAckRequested()) {
+                    broadcaster.ack(ackRequest, "Error: el servidor se está reiniciando, vuelve a conectarte");
+                }
+                return;
+            }
+            String error;
+            if (nickname == null || nickname.isEmpty()) {
+                error = "Error: Nickname inválido";
+            } else if (sessions.lobbyName(client.getSessionId().toString()) != null) {
+                error = "Error: ya estás en un lobby";
+            } else {
+                // Sin saldo en la solicitud se usa el último conocido del jugador
+                Integer balance = data.getBalance() != null ? data.getBalance() : playerBalances.get(nickname);
+                error = matchmaking.enqueue(client, nickname, balance != null ? balance : 0, data.getRounds());
+            }
+            hotLog.at(HotPathLog.Kind.CONNECTION, logger).log("Emparejamiento de {}: {}",
+                    nickname, error != null ? error : "en cola");
+            if (ackRequest.isAckRequested()) {
+                broadcaster.ack(ackRequest, error != null ? error : "Buscando partida");
+            }
+        };
+    }
+
+    private DataListener<MatchmakeData> onCancelMatchmaking() {
+        return (client, data, ackRequest) -> {
+            matchmaking.cancel(client.getSessionId());
+            if (ackRequest.isAckRequested()) {
+                broadcaster.ack(ackRequest, "Búsqueda de partida cancelada");
+            }
+        };
+    }
+
+    private DataListener<LeaderboardSubscribeData> onSubscribeLeaderboard() {
+        return (client, data, ackRequest) -> {
+            String error = leaderboard.subscribe(client, data.getNickname());
+            if (ackRequest.isAckRequested()) {
+                broadcaster.ack(ackRequest, error != null ? error : "Suscrito a la clasificación");
+            }
+        };
+    }
+
+    private DataListener<LeaderboardSubscribeData> onUnsubscribeLeaderboard() {
+        return (client, data, ackRequest) -> {
+            leaderboard.unsubscribe(client);
+            if (ackRequest.isAckRequested()) {
+                broadcaster.ack(ackRequest, "Suscripción a la clasificación cancelada");
+            }
         };
     }
 
@@ -529,6 +680,11 @@ public class LobbySocketService {
             String lobbyName = data.getLobbyName();
             logger.info("Solicitud para iniciar juego en lobby: {}", lobbyName);
 
+            if (draining) {
+                sendErrorToClient(client, "El servidor se está reiniciando; no se pueden iniciar partidas nuevas", ackRequest);
+                return;
+            }
+
             // Obtener el lobby actual usando la API
             Map<String, Object> lobby = getLobby(lobbyName);
 
@@ -546,42 +702,42 @@ public class LobbySocketService {
                 GameState gameState = new GameState();
                 gameState.setLobbyName(lobbyName);
                 gameState.setCurrentRound(1);
+                // El registro de apuestas solo existe si se va a exportar
+                if (exporter.isEnabled()) {
+                    gameState.startRecording(System.currentTimeMillis());
+                }
 
                 // Usar el nombre de campo correcto según tu modelo
                 int rounds = ((Number) lobby.get("numeroDeRondas")).intValue();
                 rounds = rounds > 0 ? rounds : 3;
 
                 gameState.setTotalRounds(rounds);
-                gameState.setStatus("STARTING");
 
                 activeGames.put(lobbyName, gameState);
 
-                // Inicializar jugadores
-                List<PlayerState> players = new ArrayList<>();
-                List<String> playersList = (List<String>) lobby.get("jugadores");
+                // Inicializar jugadores: cada uno ocupa el asiento de su posición en el lobby
+                List<String> playersList = lobby.get("jugadores") instanceof List<?> jugadores
+                        ? jugadores.stream().map(String::valueOf).toList() : null;
 
                 if (playersList != null && !playersList.isEmpty()) {
-                    for (String playerName : playersList) {
-                        PlayerState player = new PlayerState();
-                        player.setNickname(playerName);
+                    GameRoster roster = new GameRoster(playersList);
+                    for (int seat = 0; seat < roster.seats(); seat++) {
+                        String playerName = roster.nickname(seat);
 
                         // Buscar si existe un balance personalizado para este jugador
-                        Integer customBalance = playerBalances.getOrDefault(playerName, null);
+                        Integer customBalance = playerBalances.get(playerName);
                         if (customBalance != null && customBalance > 0) {
-                            player.setBalance(customBalance); // Usar el balance personalizado
-                            logger.info("Usando balance personalizado para jugador {}: {}", playerName, customBalance);
+                            roster.setBalance(seat, customBalance); // Usar el balance personalizado
+                            hotLog.at(HotPathLog.Kind.BALANCE, logger).log("Usando balance personalizado para jugador {}: {}", playerName, customBalance);
                         } else {
-                            player.setBalance(2000); // Usar el balance por defecto
-                            logger.info("Usando balance por defecto para jugador {}: 2000", playerName);
+                            roster.setBalance(seat, 2000); // Usar el balance por defecto
+                            hotLog.at(HotPathLog.Kind.BALANCE, logger).log("Usando balance por defecto para jugador {}: 2000", playerName);
                         }
-
-                        player.setScore(0);
-                        players.add(player);
                     }
-                    gamePlayers.put(lobbyName, players);
+                    gameState.setRoster(roster);
 
                     // Generar contenedores para todas las rondas
-                    Queue<ContainerInfo> containers = generateContainers(gameState.getTotalRounds() * 2);
+                    Queue<ContainerInfo> containers = generateContainers(lobbyName, gameState.getTotalRounds() * 2);
                     gameContainers.put(lobbyName, containers);
 
                     try {
@@ -592,12 +748,12 @@ public class LobbySocketService {
                             // Solo asignar el contenedor pero NO consumirlo aún de la cola
                             // startNewRound() se encargará de extraerlo
                             gameState.setCurrentContainer(firstContainer);
-                            logger.info("Contenedor asignado para primera ronda: {}", firstContainer.getId());
+                            hotLog.at(HotPathLog.Kind.CONTAINER, logger).log("Contenedor asignado para primera ronda: {}", firstContainer.getId());
                         }
 
                         // Notificar que el juego ha comenzado con información de contenedor pre-asignada
-                        GameStartedData gameStartedData = createGameStartedData(lobbyName, gameState, players);
-                        server.getRoomOperations(lobbyName).sendEvent("gameStarted", gameStartedData);
+                        GameStartedData gameStartedData = createGameStartedData(lobbyName, gameState);
+                        broadcaster.toRoom(lobbyName, "gameStarted", gameStartedData);
 
                         // Log para verificar que el contenedor se envía correctamente
                         logger.info("Evento gameStarted enviado con contenedor: {}",
@@ -606,12 +762,7 @@ public class LobbySocketService {
 
                         // Pequeña pausa antes de iniciar la primera ronda para que los clientes
                         // tengan tiempo de procesar el evento gameStarted
-                        new Timer().schedule(new TimerTask() {
-                            @Override
-                            public void run() {
-                                startNewRound(lobbyName);
-                            }
-                        }, 1000); // 1 segundo de espera
+                        auctionClock.after(1000, () -> broadcaster.inPass(() -> startNewRound(lobbyName))); // 1 segundo de espera
 
                         logger.info("Juego iniciado en lobby: {}", lobbyName);
                     } catch (Exception e) {
@@ -627,16 +778,11 @@ public class LobbySocketService {
         };
     }
     // Método para crear el objeto de datos de inicio de juego
-    private GameStartedData createGameStartedData(String lobbyName, GameState state, List<PlayerState> players) {
+    private GameStartedData createGameStartedData(String lobbyName, GameState state) {
         GameStartedData data = new GameStartedData();
 
         // Obtener nombres de los jugadores
-        List<String> playerNames = new ArrayList<>();
-        for (PlayerState player : players) {
-            playerNames.add(player.getNickname());
-        }
-
-        data.setPlayers(playerNames);
+        data.setPlayers(state.getRoster().nicknames());
 
         // Verificar que el estado tenga un contenedor válido
         if (state.getCurrentContainer() == null) {
@@ -665,12 +811,23 @@ public class LobbySocketService {
         // Log para diagnóstico
         logger.info("Datos de inicio de juego para lobby {}: ronda={}/{}, jugadores={}, contenedor={}",
                 lobbyName, data.getRound(), data.getTotalRounds(),
-                playerNames.size(), data.getContainer() != null ? data.getContainer().getId() : "null");
+                data.getPlayers().size(), data.getContainer() != null ? data.getContainer().getId() : "null");
 
         return data;
     }
 
     private void startNewRound(String lobbyName) {
+        GameFlightEvents.StartNewRoundEvent flight = new GameFlightEvents.StartNewRoundEvent();
+        flight.start();
+        try {
+            startNewRound(lobbyName, flight);
+        } finally {
+            flight.finish(roomSize(lobbyName, flight));
+        }
+    }
+
+    private void startNewRound(String lobbyName, GameFlightEvents.StartNewRoundEvent flight) {
+        flight.lobby = lobbyName;
         if (!activeGames.containsKey(lobbyName)) {
             logger.warn("No se puede iniciar una nueva ronda. Juego no encontrado: {}", lobbyName);
             return;
@@ -678,6 +835,8 @@ public class LobbySocketService {
 
         GameState gameState = activeGames.get(lobbyName);
         Queue<ContainerInfo> containers = gameContainers.get(lobbyName);
+        flight.round = gameState.getCurrentRound();
+        flight.playerCount = playerCount(lobbyName);
 
         // Verificar si ya se llegó al límite de rondas
         if (gameState.getCurrentRound() > gameState.getTotalRounds()) {
@@ -685,6 +844,14 @@ public class LobbySocketService {
             return;
         }
 
+        // En drenaje no se abren rondas nuevas: la partida termina con las rondas ya jugadas
+        if (draining) {
+            logger.info("Drenaje: finalizando el juego del lobby {} en lugar de abrir la ronda {}",
+                    lobbyName, gameState.getCurrentRound());
+            endGame(lobbyName);
+            return;
+        }
+
         // Obtener el siguiente contenedor
         ContainerInfo container = containers.poll();
         if (container == null) {
@@ -693,44 +860,36 @@ public class LobbySocketService {
             return;
         }
 
-        // Actualizar el estado del juego
-        gameState.setCurrentContainer(container);
-        gameState.setStatus("BIDDING");
-        gameState.setLastBidder(null);
-        gameState.setCurrentBid(100); // Apuesta inicial
+        flight.containerId = container.getId();
 
-        try {
-            int initialValue = 100;
-            int realValue = container.getValue();
-
-            // Crear una URL simplificada - MANTENIENDO LA URL ORIGINAL
-            String apiUrl = BID_SERVICE_URL + "/bids/start";
-
-            // Usar un Map<String, String> para los parámetros
-            Map<String, String> params = new HashMap<>();
-            params.put("container", container.getId());
-            params.put("initialValue", String.valueOf(initialValue));
-            params.put("realValue", String.valueOf(realValue));
+        // Solo se abre una ronda desde el inicio o tras revelar la anterior
+        if (!gameState.tryTransitionTo(GamePhase.BIDDING)) {
+            logger.warn("No se puede iniciar una nueva ronda en lobby {} desde la fase {}",
+                    lobbyName, gameState.getPhase());
+            return;
+        }
 
-            // Configurar los headers
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.set("Ocp-Apim-Subscription-Key", API_KEY);
+        // Actualizar el estado del juego
+        gameState.setCurrentContainer(container);
+        gameState.getBids().open(gameState.getCurrentRound(), AuctionRules.INITIAL_BID); // Apuesta inicial
 
-            // Crear la entidad HTTP con el cuerpo JSON
-            HttpEntity<Map<String, String>> requestEntity = new HttpEntity<>(params, headers);
+        int initialValue = AuctionRules.INITIAL_BID;
+        int realValue = container.getValue();
 
-            // Hacer la petición POST con el cuerpo JSON
-            logger.info("Iniciando subasta a {} con contenedor: {}, valor inicial: {}, valor real: {}",
-                    apiUrl, container.getId(), initialValue, realValue);
+        // Registrar la subasta; si el servicio de apuestas no responde
+        // la ronda sigue localmente y el registro se reenvía más tarde
+        logger.info("Iniciando subasta con contenedor: {}, valor inicial: {}, valor real: {}",
+                container.getId(), initialValue, realValue);
 
-            ResponseEntity<Object> response = restTemplate.postForEntity(
-                    apiUrl,
-                    requestEntity,
-                    Object.class
-            );
+        long httpStart = flight.httpStart();
+        resilience.callOrDefer(BackendDependency.BIDS, "inicio de subasta " + container.getId(),
+                () -> bids.startAuction(container.getId(), initialValue, realValue));
+        flight.httpEnd(httpStart);
 
-            logger.info("Respuesta del servicio de apuestas: {}", response.getStatusCode());
+        try {
+            // Abrir la subasta: los clientes reciben el cierre absoluto en lugar de una cuenta atrás
+            long deadline = auctionClock.open(lobbyName, auctionProperties.getRoundDuration().toMillis(),
+                    () -> broadcaster.inPass(() -> endAuctionRound(lobbyName)));
 
             // Enviar notificación de nueva ronda a todos los jugadores
             NewRoundData roundData = new NewRoundData();
@@ -738,44 +897,23 @@ public class LobbySocketService {
             roundData.setTotalRounds(gameState.getTotalRounds());
             roundData.setContainer(container);
             roundData.setInitialBid(initialValue);
+            roundData.setDeadline(deadline);
 
             // Enviar el evento varias veces para asegurar que todos lo reciban
-            for (int attempt = 0; attempt < 3; attempt++) {
-                server.getRoomOperations(lobbyName).sendEvent("newRound", roundData);
-                logger.info("Intento {} - Enviando evento newRound para lobby {}, ronda {}/{}",
-                        attempt + 1, lobbyName, gameState.getCurrentRound(), gameState.getTotalRounds());
+            broadcaster.toRoom(lobbyName, "newRound", roundData);
+            flight.frameSent();
+            hotLog.at(HotPathLog.Kind.BROADCAST, logger).log("Intento 1 - Enviando evento newRound para lobby {}, ronda {}/{}",
+                    lobbyName, gameState.getCurrentRound(), gameState.getTotalRounds());
 
-                // Pequeña pausa entre intentos
-                if (attempt < 2) {
-                    try {
-                        Thread.sleep(200);
-                    } catch (InterruptedException ie) {
-                        // Re-interrumpir el hilo actual
-                        Thread.currentThread().interrupt();
-                        // Loguear el evento de interrupción
-                        logger.warn("Hilo interrumpido mientras enviaba eventos a lobby {}", lobbyName);
-                        break; // Salir del bucle si el hilo fue interrumpido
-                    }
-                }
-            }
+            // Los reintentos se programan en el reloj en lugar de dormir el hilo
+            auctionClock.after(200, () -> resendNewRound(lobbyName, roundData, "Intento 2 -"));
+            auctionClock.after(400, () -> resendNewRound(lobbyName, roundData, "Intento 3 -"));
 
             // Enviar evento adicional después de un tiempo para clientes que podrían haber perdido el mensaje
-            new Timer().schedule(new TimerTask() {
-                @Override
-                public void run() {
-                    // Solo enviar si el juego aún está activo y en la misma ronda
-                    if (activeGames.containsKey(lobbyName) &&
-                            "BIDDING".equals(activeGames.get(lobbyName).getStatus()) &&
-                            activeGames.get(lobbyName).getCurrentRound() == roundData.getRound()) {
-                        server.getRoomOperations(lobbyName).sendEvent("newRound", roundData);
-                        logger.info("Enviando evento newRound de respaldo para lobby {}, ronda {}/{}",
-                                lobbyName, roundData.getRound(), roundData.getTotalRounds());
-                    }
-                }
-            }, 2000); // 2 segundos después
+            auctionClock.after(2000, () -> resendNewRound(lobbyName, roundData, "Respaldo -")); // 2 segundos después
 
-            // Configurar un temporizador para finalizar la subasta después de un tiempo determinado
-            setupAuctionTimer(lobbyName, 30); // 30 segundos por ronda
+            // Cuenta atrás para los clientes que aún no leen el cierre absoluto
+            sendAuctionTimer(lobbyName, deadline);
 
             logger.info("Nueva ronda iniciada en lobby {}: Ronda {}/{}",
                     lobbyName, gameState.getCurrentRound(), gameState.getTotalRounds());
@@ -785,260 +923,284 @@ public class LobbySocketService {
         }
     }
 
-    // Método para configurar un temporizador para la subasta actual
-    private void setupAuctionTimer(String lobbyName, int seconds) {
-        // Cancelar cualquier temporizador existente
-        if (gameTimers.containsKey(lobbyName)) {
-            gameTimers.get(lobbyName).cancel();
+    // Reenvía newRound solo si el juego aún está activo y en la misma ronda
+    private void resendNewRound(String lobbyName, NewRoundData sent, String attempt) {
+        GameState gameState = activeGames.get(lobbyName);
+        if (gameState == null || gameState.getPhase() != GamePhase.BIDDING
+                || gameState.getCurrentRound() != sent.getRound()) {
+            return;
         }
+        // El cierre puede haberse alargado con las apuestas desde el primer envío; si ya pasó
+        // (la subasta expiró y aún no se revela) no se reenvía
+        long deadline = auctionClock.deadline(lobbyName);
+        if (deadline < 0) {
+            return;
+        }
+        // Copia: el primer envío puede seguir en la cola del broadcaster
+        NewRoundData roundData = new NewRoundData();
+        roundData.setRound(sent.getRound());
+        roundData.setTotalRounds(sent.getTotalRounds());
+        roundData.setContainer(sent.getContainer());
+        roundData.setInitialBid(sent.getInitialBid());
+        roundData.setDeadline(deadline);
+        broadcaster.toRoom(lobbyName, "newRound", roundData);
+        hotLog.at(HotPathLog.Kind.BROADCAST, logger).log("{} Enviando evento newRound para lobby {}, ronda {}/{}",
+                attempt, lobbyName, roundData.getRound(), roundData.getTotalRounds());
+    }
 
-        // Crear un nuevo temporizador
-        Timer timer = new Timer();
-        timer.schedule(new TimerTask() {
-            @Override
-            public void run() {
-                endAuctionRound(lobbyName);
-            }
-        }, seconds * 1000L);
-
-        gameTimers.put(lobbyName, timer);
+    // Evento heredado auctionTimer: segundos que faltan para el cierre, redondeados hacia arriba.
+    // Se mantiene junto a los campos deadline de newRound y newBid para los clientes antiguos.
+    private void sendAuctionTimer(String lobbyName, long deadline) {
+        long remainingMillis = Math.max(0, deadline - auctionClock.now());
+        int seconds = (int) ((remainingMillis + 999) / 1000);
+        broadcaster.toRoomLatest(lobbyName, "auctionTimer", "auctionTimer:" + lobbyName, seconds);
+    }
 
-        // Notificar a los clientes sobre el tiempo restante
-        server.getRoomOperations(lobbyName).sendEvent("auctionTimer", seconds);
+    // Responde con la hora del servidor para que el cliente estime su desfase:
+    // desfase ≈ serverTime - (clientTime + ida y vuelta / 2)
+    private DataListener<ClockSyncData> onClockSync() {
+        return (client, data, ackRequest) -> {
+            if (ackRequest.isAckRequested()) {
+                ackRequest.sendAckData(new ClockSyncReplyData(data.getClientTime(), auctionClock.now()));
+            }
+        };
     }
 
     // Método para manejar las apuestas de los jugadores
     private DataListener<PlaceBidData> onPlaceBid() {
         return (client, data, ackRequest) -> {
-            String lobbyName = data.getLobbyName();
-            String nickname = data.getNickname();
-            int amount = data.getAmount();
-
-            logger.info("Apuesta recibida de {} en lobby {}: ${}", nickname, lobbyName, amount);
-
-            // Verificar si el juego existe
-            if (!activeGames.containsKey(lobbyName)) {
-                sendErrorToClient(client, "Juego no encontrado", ackRequest);
-                return;
-            }
-
-            GameState gameState = activeGames.get(lobbyName);
-
-            // Verificar que el juego esté en estado de apuestas
-            if (!"BIDDING".equals(gameState.getStatus())) {
-                sendErrorToClient(client, "No se pueden realizar apuestas en este momento", ackRequest);
-                return;
-            }
-
-            // Verificar que el jugador exista
-            PlayerState player = findPlayerByNickname(lobbyName, nickname);
-            if (player == null) {
-                sendErrorToClient(client, "Jugador no encontrado en el juego", ackRequest);
-                return;
-            }
-
-            // Verificar saldo y monto de apuesta
-            if (player.getBalance() < amount) {
-                sendErrorToClient(client, "Saldo insuficiente para realizar esta apuesta", ackRequest);
-                return;
-            }
-
-            if (amount <= gameState.getCurrentBid()) {
-                sendErrorToClient(client, "La apuesta debe ser mayor que la apuesta actual", ackRequest);
-                return;
+            GameFlightEvents.PlaceBidEvent flight = new GameFlightEvents.PlaceBidEvent();
+            flight.start();
+            try {
+                placeBid(client, data, ackRequest, flight);
+            } finally {
+                flight.finish(roomSize(data.getLobbyName(), flight));
             }
+        };
+    }
 
-            try {
-                // Obtener el apostador anterior para devolverle su dinero
-                String previousBidder = gameState.getLastBidder();
-                int previousBid = gameState.getCurrentBid();
-
-                // Si hay un apostador anterior, devolverle su dinero
-                if (previousBidder != null && !previousBidder.equals(nickname)) {
-                    PlayerState previousPlayer = findPlayerByNickname(lobbyName, previousBidder);
-                    if (previousPlayer != null) {
-                        // Devolver la apuesta anterior al saldo del jugador
-                        previousPlayer.setBalance(previousPlayer.getBalance() + previousBid);
-
-                        // Notificar la actualización del saldo
-                        PlayerUpdateData updateData = new PlayerUpdateData();
-                        updateData.setNickname(previousBidder);
-                        updateData.setBalance(previousPlayer.getBalance());
-                        updateData.setScore(previousPlayer.getScore());
-
-                        server.getRoomOperations(lobbyName).sendEvent("playerUpdate", updateData);
-                        logger.info("Devolviendo ${} al jugador anterior {}", previousBid, previousBidder);
-                    }
-                }
+    // Lógica de la apuesta; el evento de JFR se cierra al salir, sea cual sea el resultado
+    private void placeBid(SocketIOClient client, PlaceBidData data, AckRequest ackRequest,
+                          GameFlightEvents.PlaceBidEvent flight) {
+        long receivedAt = auctionClock.now();
+        String lobbyName = data.getLobbyName();
+        String nickname = data.getNickname();
+        int amount = data.getAmount();
 
-                // Enviar la apuesta al servicio de BidService
-                ContainerInfo container = gameState.getCurrentContainer();
+        flight.lobby = lobbyName;
+        flight.nickname = nickname;
+        flight.amount = amount;
 
-                // Crear una URL simplificada
-                String apiUrl = BID_SERVICE_URL + "/bids/offer";
+        hotLog.at(HotPathLog.Kind.BID, logger).log("Apuesta recibida de {} en lobby {}: ${}", nickname, lobbyName, amount);
 
-                // Usar un Map<String, String> para los parámetros
-                Map<String, String> params = new HashMap<>();
-                params.put("container", container.getId());
-                params.put("owner", nickname);
-                params.put("amount", String.valueOf(amount));
+        // Verificar si el juego existe
+        if (!activeGames.containsKey(lobbyName)) {
+            sendErrorToClient(client, "Juego no encontrado", ackRequest);
+            return;
+        }
 
-                // Configurar los headers
-                HttpHeaders headers = new HttpHeaders();
-                headers.setContentType(MediaType.APPLICATION_JSON);
-                headers.set("Ocp-Apim-Subscription-Key", API_KEY);
+        GameState gameState = activeGames.get(lobbyName);
+        flight.round = gameState.getCurrentRound();
+        flight.playerCount = playerCount(lobbyName);
+
+        // Verificar estado del juego, jugador, saldo y monto de apuesta
+        GameRoster roster = gameState.getRoster();
+        int seat = roster.seatOf(nickname);
+        String validationError = AuctionRules.validateBid(gameState, seat, amount);
+        if (validationError != null) {
+            sendErrorToClient(client, validationError, ackRequest);
+            return;
+        }
 
-                // Crear la entidad HTTP con el cuerpo JSON
-                HttpEntity<Map<String, String>> requestEntity = new HttpEntity<>(params, headers);
+        // Se juzga con la hora de llegada al servidor contra el cierre vigente
+        if (!auctionClock.isOpen(lobbyName, receivedAt)) {
+            sendErrorToClient(client, "La subasta de esta ronda ya cerró", ackRequest);
+            return;
+        }
 
-                // Hacer la petición POST con el cuerpo JSON
-                logger.info("Enviando apuesta a {} con contenedor: {}, dueño: {}, monto: {}",
-                        apiUrl, container.getId(), nickname, amount);
+        // Un solo compare-and-set decide entre apuestas concurrentes; las perdedoras se
+        // rechazan aquí, antes de cualquier llamada al servicio de apuestas
+        long previous = AuctionRules.placeBid(gameState, seat, flight.round, amount);
+        if (previous == BidRegister.TOO_LOW) {
+            sendErrorToClient(client, "La apuesta debe ser mayor que la apuesta actual", ackRequest);
+            return;
+        } else if (previous < 0) {
+            sendErrorToClient(client, "La subasta de esta ronda ya cerró", ackRequest);
+            return;
+        }
+        GameRecord record = gameState.getRecord();
+        if (record != null) {
+            record.bid(flight.round, seat, amount, receivedAt);
+        }
 
-                ResponseEntity<Object> response = restTemplate.postForEntity(
-                        apiUrl,
-                        requestEntity,
-                        Object.class
-                );
+        // La apuesta deja al menos bidExtension hasta el cierre
+        long deadline = auctionClock.extend(lobbyName, receivedAt + auctionProperties.getBidExtension().toMillis());
+        if (deadline < 0) {
+            // La subasta cerró entre isOpen y el compare-and-set. La apuesta llegó a tiempo y ganó
+            // el CAS antes del cierre del registro, así que entra en la liquidación de la ronda;
+            // se cierra el registro para que no entre ninguna más y se anuncia el cierre como inmediato.
+            gameState.getBids().close();
+            deadline = auctionClock.now();
+        }
 
-                logger.info("Respuesta del servicio de apuestas: {}", response.getStatusCode());
+        try {
+            // Si hay un apostador anterior, devolverle su dinero
+            int previousSeat = AuctionRules.refundPreviousBidder(gameState, previous, seat);
+            if (previousSeat >= 0) {
+                // Notificar la actualización del saldo
+                PlayerUpdateData updateData = playerUpdate(roster, previousSeat);
+
+                broadcaster.toRoomLatest(lobbyName, "playerUpdate", playerUpdateKey(updateData), updateData);
+                flight.frameSent();
+                hotLog.at(HotPathLog.Kind.BID, logger).log("Devolviendo ${} al jugador anterior {}", BidRegister.amountOf(previous),
+                        updateData.getNickname());
+            }
 
-                // Actualizar el estado del juego
-                gameState.setCurrentBid(amount);
-                gameState.setLastBidder(nickname);
+            // Enviar la apuesta al servicio de BidService
+            ContainerInfo container = gameState.getCurrentContainer();
 
-                // Restar el monto de la apuesta del saldo del jugador
-                player.setBalance(player.getBalance() - amount);
+            // Si el servicio de apuestas no responde la apuesta se acepta localmente
+            // y la oferta queda en cola para reenviarla
+            hotLog.at(HotPathLog.Kind.BID, logger).log("Enviando apuesta con contenedor: {}, dueño: {}, monto: {}",
+                    container.getId(), nickname, amount);
 
-                // Notificar la actualización del saldo del nuevo apostador
-                PlayerUpdateData newBidderUpdate = new PlayerUpdateData();
-                newBidderUpdate.setNickname(nickname);
-                newBidderUpdate.setBalance(player.getBalance());
-                newBidderUpdate.setScore(player.getScore());
+            long httpStart = flight.httpStart();
+            resilience.callOrDefer(BackendDependency.BIDS, "oferta de " + nickname + " por " + container.getId(),
+                    () -> bids.placeOffer(container.getId(), nickname, amount));
+            flight.httpEnd(httpStart);
 
-                server.getRoomOperations(lobbyName).sendEvent("playerUpdate", newBidderUpdate);
+            // Notificar la actualización del saldo del nuevo apostador
+            PlayerUpdateData newBidderUpdate = playerUpdate(roster, seat);
 
-                // Enviar la nueva apuesta a todos los jugadores
-                server.getRoomOperations(lobbyName).sendEvent("newBid",
-                        new NewBidData(nickname, amount));
+            broadcaster.toRoomLatest(lobbyName, "playerUpdate", playerUpdateKey(newBidderUpdate), newBidderUpdate);
+            flight.frameSent();
 
-                // Reiniciar el temporizador para dar más tiempo
-                setupAuctionTimer(lobbyName, 15); // 15 segundos adicionales después de una apuesta
+            // Enviar la nueva apuesta a todos los jugadores junto con el cierre actualizado
+            broadcaster.toRoomLatest(lobbyName, "newBid", "newBid:" + lobbyName,
+                    new NewBidData(nickname, amount, deadline));
+            flight.frameSent();
+            sendAuctionTimer(lobbyName, deadline);
+            flight.frameSent();
+            flight.accepted = true;
 
-                if (ackRequest.isAckRequested()) {
-                    ackRequest.sendAckData("Apuesta realizada con éxito");
-                }
-            } catch (Exception e) {
-                logger.error("Error al procesar apuesta de {} en lobby {}: {}",
-                        nickname, lobbyName, e.getMessage(), e);
-                sendErrorToClient(client, "Error al procesar la apuesta: " + e.getMessage(), ackRequest);
+            if (ackRequest.isAckRequested()) {
+                broadcaster.ack(ackRequest, "Apuesta realizada con éxito");
             }
-        };
+        } catch (Exception e) {
+            logger.error("Error al procesar apuesta de {} en lobby {}: {}",
+                    nickname, lobbyName, e.getMessage(), e);
+            sendErrorToClient(client, "Error al procesar la apuesta: " + e.getMessage(), ackRequest);
+        }
     }
 
     // Método para finalizar una ronda de subasta (modificado)
     private void endAuctionRound(String lobbyName) {
+        GameFlightEvents.EndAuctionRoundEvent flight = new GameFlightEvents.EndAuctionRoundEvent();
+        flight.start();
+        try {
+            endAuctionRound(lobbyName, flight);
+        } finally {
+            flight.finish(roomSize(lobbyName, flight));
+        }
+    }
+
+    private void endAuctionRound(String lobbyName, GameFlightEvents.EndAuctionRoundEvent flight) {
+        flight.lobby = lobbyName;
         if (!activeGames.containsKey(lobbyName)) {
             logger.warn("No se puede finalizar la ronda. Juego no encontrado: {}", lobbyName);
             return;
         }
 
         GameState gameState = activeGames.get(lobbyName);
-
-        // Actualizar estado
-        gameState.setStatus("REVEALING");
-
-        // Cancelar cualquier temporizador activo
-        if (gameTimers.containsKey(lobbyName)) {
-            gameTimers.get(lobbyName).cancel();
-            gameTimers.remove(lobbyName);
+        flight.round = gameState.getCurrentRound();
+        flight.playerCount = playerCount(lobbyName);
+
+        // Actualizar estado y cerrar el registro: las apuestas que lleguen ahora pierden el CAS.
+        // Si la ronda ya se cerró (o la partida terminó) no hay nada que revelar.
+        if (!gameState.tryTransitionTo(GamePhase.REVEALING)) {
+            logger.warn("La ronda de lobby {} no está abierta (fase {}); se ignora el cierre",
+                    lobbyName, gameState.getPhase());
+            return;
         }
+        gameState.getBids().close();
+
+        // Cerrar la subasta si sigue abierta (p. ej. al terminar el juego antes de tiempo)
+        auctionClock.cancel(lobbyName);
 
-        // Determinar el ganador de la ronda
-        String winner = gameState.getLastBidder();
+        // Determinar el ganador de la ronda y calcular resultados
+        BidResultData resultData = AuctionRules.computeRoundResult(gameState);
         ContainerInfo container = gameState.getCurrentContainer();
-        int bidAmount = gameState.getCurrentBid();
 
         // Si nadie hizo una apuesta, pasar a la siguiente ronda
-        if (winner == null) {
+        if (resultData == null) {
+            GameRecord record = gameState.getRecord();
+            if (record != null && container != null) {
+                record.round(new GameRecord.RoundOutcome(gameState.getCurrentRound(), container.getId(),
+                        container.getType(), container.getValue(), -1, 0, 0));
+            }
             logger.info("Nadie hizo una apuesta en lobby {}. Pasando a la siguiente ronda.", lobbyName);
             gameState.setCurrentRound(gameState.getCurrentRound() + 1);
             startNewRound(lobbyName);
             return;
         }
 
-        try {
-            // Cerrar la apuesta actual
-            String closeUrl = BID_SERVICE_URL + "/bids/close/" + container.getId();
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("Ocp-Apim-Subscription-Key", API_KEY);
-
-            HttpEntity<Object> requestEntity = new HttpEntity<>(headers);
-
-            // Hacer la petición POST para cerrar la apuesta
-            logger.info("Cerrando apuesta para el contenedor: {}", container.getId());
-            ResponseEntity<Object> closeResponse = restTemplate.exchange(
-                    closeUrl,
-                    HttpMethod.POST,
-                    requestEntity,
-                    Object.class
-            );
-
-            logger.info("Respuesta al cerrar apuesta: {}", closeResponse.getStatusCode());
-        } catch (Exception e) {
-            logger.error("Error al cerrar apuesta para contenedor {}: {}",
-                    container.getId(), e.getMessage());
-            // Continuamos con el proceso a pesar del error
-        }
+        // Cerrar la apuesta actual; si el servicio de apuestas no responde el cierre se difiere
+        logger.info("Cerrando apuesta para el contenedor: {}", container.getId());
+        long httpStart = flight.httpStart();
+        resilience.callOrDefer(BackendDependency.BIDS, "cierre de subasta " + container.getId(),
+                () -> bids.closeAuction(container.getId()));
+        flight.httpEnd(httpStart);
 
-        // Calcular resultados
-        int containerValue = container.getValue();
-        int profit = containerValue - bidAmount;
+        String winner = resultData.getWinner();
+        int profit = resultData.getProfit();
+        flight.winner = winner;
+        flight.profit = profit;
 
         // Actualizar el saldo y puntuación del ganador
-        PlayerState winnerPlayer = findPlayerByNickname(lobbyName, winner);
-        if (winnerPlayer != null) {
+        GameRoster roster = gameState.getRoster();
+        int winnerSeat = roster.seatOf(winner);
+        if (winnerSeat >= 0) {
             // CAMBIO: Primero enviamos el beneficio al servicio externo
             // Esto actualizará el balance en el servicio y nos devolverá el nuevo valor
-            updateUserBalance(winner, profit);
+            long balanceStart = flight.httpStart();
+            updateUserBalance(gameState, winnerSeat, profit);
+            flight.httpEnd(balanceStart);
 
             // Importante: Mantenemos la lógica original, pero el balance real será actualizado
             // desde el servicio a través del método updateUserBalance y updatePlayerBalanceFromService
-            winnerPlayer.setBalance(winnerPlayer.getBalance() + containerValue);
-            winnerPlayer.setScore(winnerPlayer.getScore() + profit);
+            AuctionRules.settleRound(roster, winnerSeat, resultData);
+            leaderboard.recordRound(winner, profit);
 
             // Enviar actualización del jugador ganador
-            PlayerUpdateData winnerUpdate = new PlayerUpdateData();
-            winnerUpdate.setNickname(winner);
-            winnerUpdate.setBalance(winnerPlayer.getBalance());
-            winnerUpdate.setScore(winnerPlayer.getScore());
+            PlayerUpdateData winnerUpdate = playerUpdate(roster, winnerSeat);
 
-            server.getRoomOperations(lobbyName).sendEvent("playerUpdate", winnerUpdate);
+            broadcaster.toRoomLatest(lobbyName, "playerUpdate", playerUpdateKey(winnerUpdate), winnerUpdate);
+            flight.frameSent();
         }
 
-        // Enviar resultado a todos los jugadores
-        BidResultData resultData = new BidResultData();
-        resultData.setWinner(winner);
-        resultData.setContainerId(container.getId());
-        resultData.setContainerType(container.getType());
-        resultData.setBidAmount(bidAmount);
-        resultData.setContainerValue(containerValue);
-        resultData.setProfit(profit);
+        GameRecord record = gameState.getRecord();
+        if (record != null) {
+            record.round(new GameRecord.RoundOutcome(gameState.getCurrentRound(), container.getId(),
+                    container.getType(), container.getValue(), winnerSeat, resultData.getBidAmount(), profit));
+        }
 
-        server.getRoomOperations(lobbyName).sendEvent("bidResult", resultData);
+        // Enviar resultado a todos los jugadores
+        broadcaster.toRoom(lobbyName, "bidResult", resultData);
+        flight.frameSent();
 
         // Revelar el contenedor
-        server.getRoomOperations(lobbyName).sendEvent("containerRevealed", container);
+        broadcaster.toRoom(lobbyName, "containerRevealed", container);
+        flight.frameSent();
 
         // Enviar actualizaciones del estado de los jugadores
-        List<PlayerState> players = gamePlayers.get(lobbyName);
-        for (PlayerState player : players) {
-            PlayerUpdateData playerData = new PlayerUpdateData();
-            playerData.setNickname(player.getNickname());
-            playerData.setBalance(player.getBalance());
-            playerData.setScore(player.getScore());
-
-            server.getRoomOperations(lobbyName).sendEvent("playerUpdate", playerData);
+        for (int seat = 0; seat < roster.seats(); seat++) {
+            if (!roster.isPresent(seat)) {
+                continue;
+            }
+            PlayerUpdateData playerData = playerUpdate(roster, seat);
+
+            broadcaster.toRoomLatest(lobbyName, "playerUpdate", playerUpdateKey(playerData), playerData);
+            flight.frameSent();
         }
 
         logger.info("Subasta finalizada en lobby {}. Ganador: {}, Beneficio: ${}",
@@ -1059,7 +1221,7 @@ public class LobbySocketService {
             handlePlayerLeaveGame(lobbyName, nickname);
 
             if (ackRequest.isAckRequested()) {
-                ackRequest.sendAckData("Has abandonado el juego");
+                broadcaster.ack(ackRequest, "Has abandonado el juego");
             }
         };
     }
@@ -1071,15 +1233,16 @@ public class LobbySocketService {
         }
 
         // Notificar a los demás jugadores
-        server.getRoomOperations(lobbyName).sendEvent("playerLeftGame", new PlayerLeftGameData(nickname));
+        broadcaster.toRoom(lobbyName, "playerLeftGame", new PlayerLeftGameData(nickname));
 
-        // Eliminar al jugador de la lista
-        List<PlayerState> players = gamePlayers.get(lobbyName);
-        if (players != null) {
-            players.removeIf(p -> p.getNickname().equals(nickname));
+        // Liberar el asiento del jugador
+        GameRoster roster = activeGames.get(lobbyName).getRoster();
+        int seat = roster.seatOf(nickname);
+        if (seat >= 0) {
+            roster.leave(seat);
 
             // Si quedan menos de 2 jugadores, finalizar el juego
-            if (players.size() < 2) {
+            if (roster.playerCount() < 2) {
                 logger.info("Quedan menos de 2 jugadores en lobby {}. Finalizando juego.", lobbyName);
                 endGame(lobbyName);
             }
@@ -1098,63 +1261,42 @@ public class LobbySocketService {
 
         // Actualizar el estado del juego a FINISHED para evitar cualquier procesamiento adicional
         GameState gameState = activeGames.get(lobbyName);
-        gameState.setStatus("FINISHED");
-
-        // Cancelar cualquier temporizador activo
-        if (gameTimers.containsKey(lobbyName)) {
-            gameTimers.get(lobbyName).cancel();
-            gameTimers.remove(lobbyName);
+        if (!gameState.tryTransitionTo(GamePhase.FINISHED)) {
+            logger.info("El juego del lobby {} ya había finalizado", lobbyName);
+            return;
         }
+        gameState.getBids().close();
+
+        // Cerrar la subasta si sigue abierta (p. ej. al terminar el juego antes de tiempo)
+        auctionClock.cancel(lobbyName);
 
         // Determinar ganador
-        List<PlayerState> players = gamePlayers.get(lobbyName);
-        if (players != null && !players.isEmpty()) {
-            // Encontrar el jugador con mayor puntuación
-            PlayerState winner = players.get(0);
-            for (PlayerState player : players) {
-                if (player.getScore() > winner.getScore()) {
-                    winner = player;
-                }
-            }
+        GameRoster roster = gameState.getRoster();
+        int leader = roster.leader();
+        // Al archivo de análisis; no bloquea aunque la exportación vaya atrasada
+        exporter.export(gameState, leader);
+        if (leader >= 0) {
+            // El jugador con mayor puntuación
+            String winner = roster.nickname(leader);
+            leaderboard.recordGame(winner);
 
             // Crear datos del resultado final
             GameEndData endData = new GameEndData();
-            endData.setWinner(winner.getNickname());
-            endData.setFinalScores(players);
+            endData.setWinner(winner);
+            endData.setFinalScores(roster.standings());
 
             try {
-                // Enviar resultado a todos los jugadores con múltiples intentos
-                for (int attempt = 0; attempt < 3; attempt++) {
-                    server.getRoomOperations(lobbyName).sendEvent("gameEnd", endData);
-                    logger.info("Intento {} - Enviando evento gameEnd para lobby {}. Ganador: {}",
-                            attempt + 1, lobbyName, winner.getNickname());
-
-                    // Pequeña pausa entre intentos
-                    if (attempt < 2) Thread.sleep(500);
-                }
+                // Enviar resultado a todos los jugadores con múltiples intentos; los reintentos se
+                // programan en lugar de dormir el hilo
+                broadcaster.toRoom(lobbyName, "gameEnd", endData);
+                hotLog.at(HotPathLog.Kind.BROADCAST, logger).log("Intento 1 - Enviando evento gameEnd para lobby {}. Ganador: {}",
+                        lobbyName, winner);
+                auctionClock.after(500, () -> resendGameEnd(lobbyName, gameState, endData, "Intento 2 -"));
+                auctionClock.after(1000, () -> resendGameEnd(lobbyName, gameState, endData, "Intento 3 -"));
 
                 // Esperar un momento y enviar un evento de respaldo para asegurar que todos reciban la notificación
-                new Timer().schedule(new TimerTask() {
-                    @Override
-                    public void run() {
-                        try {
-                            // Verificar si el juego aún está en la colección (por si fue removido)
-                            if (activeGames.containsKey(lobbyName)) {
-                                server.getRoomOperations(lobbyName).sendEvent("gameEnd", endData);
-                                logger.info("Enviando evento gameEnd de respaldo para lobby {}", lobbyName);
-                            }
-                        } catch (Exception e) {
-                            logger.error("Error al enviar evento gameEnd de respaldo: {}", e.getMessage());
-                        }
-                    }
-                }, 2000); // Enviar evento de respaldo después de 2 segundos
-            }catch (InterruptedException ie) {
-                // Re-interrumpir el hilo
-                Thread.currentThread().interrupt();
-                // Loguear la interrupción
-                logger.warn("Hilo interrumpido mientras se enviaban eventos de finalización para lobby {}", lobbyName);
-            }
-            catch (Exception e) {
+                auctionClock.after(2000, () -> resendGameEnd(lobbyName, gameState, endData, "Respaldo -")); // Enviar evento de respaldo después de 2 segundos
+            } catch (Exception e) {
                 logger.error("Error al enviar evento gameEnd: {}", e.getMessage());
             } finally {
                 // Asegurarnos de limpiar recursos
@@ -1166,19 +1308,29 @@ public class LobbySocketService {
         }
     }
 
+    // Reenvía gameEnd mientras la partida no se haya retirado (por si fue removida)
+    private void resendGameEnd(String lobbyName, GameState gameState, GameEndData endData, String attempt) {
+        try {
+            if (activeGames.get(lobbyName) == gameState) {
+                broadcaster.toRoom(lobbyName, "gameEnd", endData);
+                hotLog.at(HotPathLog.Kind.BROADCAST, logger).log("{} Enviando evento gameEnd para lobby {}. Ganador: {}",
+                        attempt, lobbyName, endData.getWinner());
+            }
+        } catch (Exception e) {
+            logger.error("Error al enviar evento gameEnd de respaldo: {}", e.getMessage());
+        }
+    }
+
     // Método auxiliar para limpiar recursos del juego
     private void cleanupGame(String lobbyName) {
         try {
             // Limpiar recursos con un pequeño retraso para asegurar que todos los eventos se procesen
-            new Timer().schedule(new TimerTask() {
-                @Override
-                public void run() {
-                    activeGames.remove(lobbyName);
-                    gamePlayers.remove(lobbyName);
-                    gameContainers.remove(lobbyName);
-                    logger.info("Recursos del juego liberados para lobby {}", lobbyName);
-                }
-            }, 5000); // 5 segundos de espera antes de limpiar
+            auctionClock.after(5000, () -> {
+                activeGames.remove(lobbyName);
+                gameContainers.remove(lobbyName);
+                playersReadyForNextRound.remove(lobbyName);
+                logger.info("Recursos del juego liberados para lobby {}", lobbyName);
+            }); // 5 segundos de espera antes de limpiar
         } catch (Exception e) {
             logger.error("Error al limpiar recursos del juego: {}", e.getMessage());
         }
@@ -1190,7 +1342,7 @@ public class LobbySocketService {
             String lobbyName = data.getLobbyName();
             String nickname = data.getNickname();
 
-            logger.info("Jugador {} está listo para la siguiente ronda en lobby {}", nickname, lobbyName);
+            hotLog.at(HotPathLog.Kind.READY, logger).log("Jugador {} está listo para la siguiente ronda en lobby {}", nickname, lobbyName);
 
             if (!activeGames.containsKey(lobbyName)) {
                 logger.warn("No se encontró juego activo para lobby: {}", lobbyName);
@@ -1198,29 +1350,28 @@ public class LobbySocketService {
             }
 
             // Obtener o crear el conjunto de jugadores listos para este lobby
-            Set<String> readyPlayers = playersReadyForNextRound.computeIfAbsent(lobbyName, k -> new HashSet<>());
+            Set<String> readyPlayers = playersReadyForNextRound.computeIfAbsent(lobbyName, k -> ConcurrentHashMap.newKeySet());
 
             // Añadir este jugador al conjunto
             readyPlayers.add(nickname);
 
             // Notificar a todos los jugadores sobre el nuevo jugador listo
-            server.getRoomOperations(lobbyName).sendEvent("playerReadyForNextRound",
+            broadcaster.toRoom(lobbyName, "playerReadyForNextRound",
                     new ReadyPlayerData(nickname, lobbyName));
 
             // Verificar si todos los jugadores están listos
-            List<PlayerState> allPlayers = gamePlayers.get(lobbyName);
-            if (allPlayers != null && !allPlayers.isEmpty()) {
-                int totalPlayers = allPlayers.size();
+            int totalPlayers = activeGames.get(lobbyName).getRoster().playerCount();
+            if (totalPlayers > 0) {
                 int readyCount = readyPlayers.size();
 
-                logger.info("Estado de listos en lobby {}: {}/{}", lobbyName, readyCount, totalPlayers);
+                hotLog.at(HotPathLog.Kind.READY, logger).log("Estado de listos en lobby {}: {}/{}", lobbyName, readyCount, totalPlayers);
 
                 if (readyCount >= totalPlayers) {
                     // Todos los jugadores están listos
                     logger.info("Todos los jugadores están listos para la siguiente ronda en lobby {}", lobbyName);
 
                     // Notificar a todos que todos están listos
-                    server.getRoomOperations(lobbyName).sendEvent("allPlayersReadyForNextRound",
+                    broadcaster.toRoom(lobbyName, "allPlayersReadyForNextRound",
                             new AllReadyData(lobbyName));
 
                     // Limpiar el conjunto de jugadores listos
@@ -1240,160 +1391,230 @@ public class LobbySocketService {
     }
 
     public void notifyGameStarted(String lobbyName) {
-        server.getRoomOperations(lobbyName).sendEvent("gameStarted", lobbyName);
-        logger.info("Notificación de inicio de juego enviada al lobby {}", lobbyName);
+        broadcaster.toRoom(lobbyName, "gameStarted", lobbyName);
+        hotLog.at(HotPathLog.Kind.BROADCAST, logger).log("Notificación de inicio de juego enviada al lobby {}", lobbyName);
     }
 
     public void notifyRoundEnded(String lobbyName, int remainingRounds) {
-        server.getRoomOperations(lobbyName).sendEvent("roundEnded",
+        broadcaster.toRoom(lobbyName, "roundEnded",
                 new RoundEndedData(lobbyName, remainingRounds));
-        logger.info("Notificación de fin de ronda enviada al lobby {}. Rondas restantes: {}",
+        hotLog.at(HotPathLog.Kind.BROADCAST, logger).log("Notificación de fin de ronda enviada al lobby {}. Rondas restantes: {}",
                 lobbyName, remainingRounds);
     }
 
     public void notifyGameEnded(String lobbyName) {
         // Evento opcional que podría utilizarse al integrar con otros componentes
-        server.getRoomOperations(lobbyName).sendEvent("gameEnded", lobbyName);
-        logger.info("Notificación de fin de juego enviada al lobby {}", lobbyName);
+        broadcaster.toRoom(lobbyName, "gameEnded", lobbyName);
+        hotLog.at(HotPathLog.Kind.BROADCAST, logger).log("Notificación de fin de juego enviada al lobby {}", lobbyName);
     }
 
-    private Queue<ContainerInfo> generateContainers(int count) {
+    private Queue<ContainerInfo> generateContainers(String lobbyName, int count) {
+        GameFlightEvents.GenerateContainersEvent flight = new GameFlightEvents.GenerateContainersEvent();
+        flight.start();
+        flight.lobby = lobbyName;
+        flight.requested = count;
+        Queue<ContainerInfo> containers = null;
+        try {
+            containers = generateContainers(count, flight);
+            return containers;
+        } finally {
+            flight.generated = containers != null ? containers.size() : 0;
+            flight.finish(0);
+        }
+    }
+
+    private Queue<ContainerInfo> generateContainers(int count, GameFlightEvents.GenerateContainersEvent flight) {
         Queue<ContainerInfo> containers = new LinkedList<>();
         SecureRandom random = new SecureRandom();
 
         for (int i = 0; i < count; i++) {
+            // Primero la reserva precargada; el servicio solo se llama si está vacía
+            ContainerInfo container = containerPool.poll();
+            if (container != null) {
+                containers.add(container);
+                continue;
+            }
             try {
-                // Configurar los headers para la petición
-                HttpHeaders headers = new HttpHeaders();
-                headers.set("Ocp-Apim-Subscription-Key", API_KEY);
-                HttpEntity<Object> requestEntity = new HttpEntity<>(headers);
-
-                // Realizar la petición GET al microservicio de contenedores
-                String apiUrl = "https://thehiddencargo1.azure-api.net/api/contenedor";
-                ResponseEntity<Map> response = restTemplate.exchange(
-                        apiUrl,
-                        HttpMethod.GET,
-                        requestEntity,
-                        Map.class
-                );
-
-                if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                    Map<String, Object> containerData = response.getBody();
-                    if(containerData != null) {
-
-                        ContainerInfo container = new ContainerInfo();
-                        container.setId("container-" + UUID.randomUUID().toString().substring(0, 8));
-
-                        // Obtener el color del contenedor y usarlo para determinar el tipo
-                        String color = (String) containerData.get("color");
-
-                        // Mapear color a tipo (adaptar según necesites)
-                        String type;
-                        if ("gris".equalsIgnoreCase(color)) {
-                            type = "Raro";
-                        } else if ("blanco".equalsIgnoreCase(color)) {
-                            type = "Normal";
-                        } else if ("azul".equalsIgnoreCase(color)) {
-                            type = "Épico";
-                        } else if ("dorado".equalsIgnoreCase(color)) {
-                            type = "Legendario";
-                        } else {
-                            type = "Normal"; // Por defecto
-                        }
-                        container.setType(type);
-
-                        // Obtener y procesar objetos para calcular el valor
-                        List<Map<String, Object>> objetos = (List<Map<String, Object>>) containerData.get("objetos");
-                        if (objetos != null && !objetos.isEmpty()) {
-                            // Calcular el valor total como suma de precios de los objetos
-                            double valorTotal = 0;
-                            for (Map<String, Object> objeto : objetos) {
-                                if (objeto.containsKey("precio")) {
-                                    double precio = ((Number) objeto.get("precio")).doubleValue();
-                                    valorTotal += precio;
-                                }
-                            }
-
-                            // Establecer el valor total redondeado a entero
-                            container.setValue((int) Math.round(valorTotal));
-
-                            // Guardar información adicional en el ID para recuperarla después
-                            // Formato: container-[UUID]-color:[color]-objects:[objeto1,precio1;objeto2,precio2]
-                            StringBuilder idBuilder = new StringBuilder(container.getId());
-                            idBuilder.append("-color:").append(color);
-                            idBuilder.append("-objects:");
-
-                            for (int j = 0; j < objetos.size(); j++) {
-                                Map<String, Object> objeto = objetos.get(j);
-                                String nombre = (String) objeto.get("nombre");
-                                double precio = ((Number) objeto.get("precio")).doubleValue();
-
-                                idBuilder.append(nombre).append(",").append(precio);
-                                if (j < objetos.size() - 1) {
-                                    idBuilder.append(";");
-                                }
-                            }
-
-                            container.setId(idBuilder.toString());
-                        } else {
-                            // Si no hay objetos, asignar un valor por defecto según el tipo
-                            int valor;
-                            switch (type) {
-                                case "Raro":
-                                    valor = 500 + random.nextInt(500);
-                                    break;
-                                case "Épico":
-                                    valor = 1000 + random.nextInt(1000);
-                                    break;
-                                case "Legendario":
-                                    valor = 2000 + random.nextInt(3000);
-                                    break;
-                                default: // Normal
-                                    valor = 200 + random.nextInt(300);
-                            }
-                            container.setValue(valor);
-                        }
-
-                        logger.info("Contenedor obtenido de API: id={}, tipo={}, valor={}",
-                                container.getId(), container.getType(), container.getValue());
-
-                        containers.add(container);
-                    } else {
-                        logger.warn("Error al obtener contenedor desde API. Generando uno local. Respuesta: {}",
-                                response.getStatusCode());
-                        // Generar contenedor local en caso de error
-
-                    }
-                    }
+                long httpStart = flight.httpStart();
+                try {
+                    container = resilience.call(BackendDependency.CONTAINERS, containerSource::nextContainer);
+                } finally {
+                    flight.httpEnd(httpStart);
+                }
 
+                if (container != null) {
+                    hotLog.at(HotPathLog.Kind.CONTAINER, logger).log("Contenedor obtenido de API: id={}, tipo={}, valor={}",
+                            container.getId(), container.getType(), container.getValue());
+                }
             } catch (Exception e) {
                 logger.error("Error al comunicarse con API de contenedores: {}", e.getMessage());
-                // Generar contenedor local en caso de error
+            }
 
+            // Generar contenedor local en caso de error
+            if (container == null) {
+                container = ContainerFactory.localContainer(random);
+                hotLog.at(HotPathLog.Kind.CONTAINER, logger).log("Contenedor local generado: id={}, tipo={}, valor={}",
+                        container.getId(), container.getType(), container.getValue());
             }
+            containers.add(container);
         }
 
         return containers;
     }
 
-    // Método auxiliar para encontrar un jugador por su nickname
-    private PlayerState findPlayerByNickname(String lobbyName, String nickname) {
-        List<PlayerState> players = gamePlayers.get(lobbyName);
-        if (players != null) {
-            for (PlayerState player : players) {
-                if (player.getNickname().equals(nickname)) {
-                    return player;
-                }
+    JsonSupport jsonSupport() {
+        return jsonSupport;
+    }
+
+    // Inicia el drenaje una sola vez. El futuro se completa cuando no quedan partidas en el nodo
+    // (terminadas o liquidadas) y los clientes conectados recibieron reconnectHint.
+    synchronized CompletableFuture<Void> drain() {
+        if (drain == null) {
+            draining = true;
+            logger.warn("Drenaje iniciado con {} partidas en curso; no se aceptan lobbies ni partidas nuevas",
+                    activeGames.size());
+            drain = CompletableFuture.runAsync(this::drainGames, runnable -> {
+                Thread thread = new Thread(runnable, "game-drain");
+                thread.setDaemon(true);
+                thread.start();
+            });
+        }
+        return drain;
+    }
+
+    boolean isDraining() {
+        return draining;
+    }
+
+    int activeGameCount() {
+        return activeGames.size();
+    }
+
+    private void drainGames() {
+        // Primero se deja que cada partida cierre su ronda en curso y termine sola
+        if (!awaitNoGames(drainProperties.getTimeout(), true)) {
+            List<GameState> pending = runningGames();
+            logger.warn("Drenaje: liquidando {} partidas que no terminaron a tiempo", pending.size());
+            for (GameState game : pending) {
+                broadcaster.inPass(() -> settleForDrain(game.getLobbyName()));
+            }
+            if (!awaitNoGames(drainProperties.getSettleGrace(), false)) {
+                logger.error("Drenaje: {} partidas siguen activas al terminar el margen de liquidación",
+                        activeGames.size());
+            }
+        }
+        sendReconnectHints();
+        logger.info("Drenaje completado");
+    }
+
+    // Espera a que cleanupGame retire todas las partidas; false si se agota el tiempo o, con
+    // untilShutdown, si la aplicación se está deteniendo y ya pasó settleBy
+    private boolean awaitNoGames(Duration timeout, boolean untilShutdown) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (!activeGames.isEmpty()) {
+            long now = System.nanoTime();
+            if (now - deadline >= 0 || (untilShutdown && stopping && now - settleBy >= 0)) {
+                return false;
+            }
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Liquida una partida sin esperar al cierre de su ronda: la apuesta vigente vuelve a su
+    // apostador (nadie gana el contenedor) y la partida termina con las puntuaciones actuales.
+    // Si endAuctionRound ya está revelando la ronda, esa ronda se liquida por la vía normal.
+    private void settleForDrain(String lobbyName) {
+        GameState gameState = activeGames.get(lobbyName);
+        if (gameState == null) {
+            return;
+        }
+        if (gameState.tryTransitionTo(GamePhase.REVEALING)) {
+            auctionClock.cancel(lobbyName);
+            int seat = AuctionRules.refundOpenBid(gameState);
+            ContainerInfo container = gameState.getCurrentContainer();
+            if (container != null) {
+                resilience.callOrDefer(BackendDependency.BIDS, "cierre de subasta " + container.getId(),
+                        () -> bids.closeAuction(container.getId()));
+            }
+            if (seat >= 0) {
+                PlayerUpdateData updateData = playerUpdate(gameState.getRoster(), seat);
+                broadcaster.toRoomLatest(lobbyName, "playerUpdate", playerUpdateKey(updateData), updateData);
+                logger.info("Drenaje: devuelta la apuesta vigente a {} en lobby {}", updateData.getNickname(), lobbyName);
             }
         }
-        return null;
+        endGame(lobbyName);
+    }
+
+    // Aviso a cada cliente con una espera aleatoria para que no se reconecten todos a la vez
+    private void sendReconnectHints() {
+        if (server == null) {
+            return;
+        }
+        Collection<SocketIOClient> clients = server.getAllClients();
+        broadcaster.inPass(() -> {
+            for (SocketIOClient client : clients) {
+                broadcaster.toClient(client, "reconnectHint", reconnectHint());
+            }
+        });
+        logger.info("reconnectHint enviado a {} clientes", clients.size());
+        if (!clients.isEmpty()) {
+            try {
+                // Dar tiempo a que los avisos salgan antes de cerrar los sockets
+                Thread.sleep(500);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private ReconnectHintData reconnectHint() {
+        long spread = drainProperties.getReconnectSpread().toMillis();
+        long delay = spread > 0 ? ThreadLocalRandom.current().nextLong(spread + 1) : 0;
+        String url = drainProperties.getReconnectUrl();
+        return new ReconnectHintData(url == null || url.isEmpty() ? null : url, delay);
+    }
+
+    // Copia de las partidas activas para recorrerlas fuera del lock del mapa
+    private List<GameState> runningGames() {
+        synchronized (activeGames) {
+            return new ArrayList<>(activeGames.values());
+        }
+    }
+
+    // Número de jugadores de la partida, usado en los eventos de JFR
+    private int playerCount(String lobbyName) {
+        GameState game = activeGames.get(lobbyName);
+        return game != null ? game.getRoster().playerCount() : 0;
+    }
+
+    // Número de clientes en la sala; solo se calcula si JFR está grabando el evento
+    private int roomSize(String lobbyName, GameFlightEvents.GameHotPathEvent flight) {
+        if (!flight.isEnabled() || server == null || lobbyName == null) {
+            return 0;
+        }
+        return server.getRoomOperations(lobbyName).getClients().size();
+    }
+
+    // Método auxiliar para armar la actualización de saldo y puntuación de un asiento
+    private static PlayerUpdateData playerUpdate(GameRoster roster, int seat) {
+        PlayerUpdateData updateData = new PlayerUpdateData();
+        updateData.setNickname(roster.nickname(seat));
+        updateData.setBalance(roster.balance(seat));
+        updateData.setScore(roster.score(seat));
+        return updateData;
     }
 
     // Método auxiliar para enviar errores al cliente
     private void sendErrorToClient(SocketIOClient client, String errorMessage, AckRequest ackRequest) {
         logger.warn(errorMessage);
         if (ackRequest.isAckRequested()) {
-            ackRequest.sendAckData("Error: " + errorMessage);
+            broadcaster.ack(ackRequest, "Error: " + errorMessage);
         }
     }
 }
@@ -1406,107 +1627,29 @@ class StartGameData {
     public void setLobbyName(String lobbyName) { this.lobbyName = lobbyName; }
 }
 
-class GameStartedData {
-    private List<String> players;
-    private ContainerInfo container;
-    private int initialBid;
-    private int round;
-    private int totalRounds;
-
-    public List<String> getPlayers() { return players; }
-    public void setPlayers(List<String> players) { this.players = players; }
-    public ContainerInfo getContainer() { return container; }
-    public void setContainer(ContainerInfo container) { this.container = container; }
-    public int getInitialBid() { return initialBid; }
-    public void setInitialBid(int initialBid) { this.initialBid = initialBid; }
-    public int getRound() { return round; }
-    public void setRound(int round) { this.round = round; }
-    public int getTotalRounds() { return totalRounds; }
-    public void setTotalRounds(int totalRounds) { this.totalRounds = totalRounds; }
-}
-
-class PlaceBidData {
-    private String nickname;
-    private String lobbyName;
-    private String containerId;
-    private int amount;
+// Petición y respuesta del handshake de sincronización de reloj (epoch ms)
+class ClockSyncData {
+    private long clientTime;
 
-    public String getNickname() { return nickname; }
-    public void setNickname(String nickname) { this.nickname = nickname; }
-    public String getLobbyName() { return lobbyName; }
-    public void setLobbyName(String lobbyName) { this.lobbyName = lobbyName; }
-    public String getContainerId() { return containerId; }
-    public void setContainerId(String containerId) { this.containerId = containerId; }
-    public int getAmount() { return amount; }
-    public void setAmount(int amount) { this.amount = amount; }
+    public long getClientTime() { return clientTime; }
+    public void setClientTime(long clientTime) { this.clientTime = clientTime; }
 }
 
-class NewBidData {
-    private String nickname;
-    private int amount;
+class ClockSyncReplyData {
+    private long clientTime;
+    private long serverTime;
 
-    public NewBidData() {}
+    public ClockSyncReplyData() {}
 
-    public NewBidData(String nickname, int amount) {
-        this.nickname = nickname;
-        this.amount = amount;
+    public ClockSyncReplyData(long clientTime, long serverTime) {
+        this.clientTime = clientTime;
+        this.serverTime = serverTime;
     }
 
-    public String getNickname() { return nickname; }
-    public void setNickname(String nickname) { this.nickname = nickname; }
-    public int getAmount() { return amount; }
-    public void setAmount(int amount) { this.amount = amount; }
-}
-
-class BidResultData {
-    private String winner;
-    private String containerId;
-    private String containerType;
-    private int bidAmount;
-    private int containerValue;
-    private int profit;
-
-    public String getWinner() { return winner; }
-    public void setWinner(String winner) { this.winner = winner; }
-    public String getContainerId() { return containerId; }
-    public void setContainerId(String containerId) { this.containerId = containerId; }
-    public String getContainerType() { return containerType; }
-    public void setContainerType(String containerType) { this.containerType = containerType; }
-    public int getBidAmount() { return bidAmount; }
-    public void setBidAmount(int bidAmount) { this.bidAmount = bidAmount; }
-    public int getContainerValue() { return containerValue; }
-    public void setContainerValue(int containerValue) { this.containerValue = containerValue; }
-    public int getProfit() { return profit; }
-    public void setProfit(int profit) { this.profit = profit; }
-}
-
-class NewRoundData {
-    private int round;
-    private int totalRounds;
-    private ContainerInfo container;
-    private int initialBid;
-
-    public int getRound() { return round; }
-    public void setRound(int round) { this.round = round; }
-    public int getTotalRounds() { return totalRounds; }
-    public void setTotalRounds(int totalRounds) { this.totalRounds = totalRounds; }
-    public ContainerInfo getContainer() { return container; }
-    public void setContainer(ContainerInfo container) { this.container = container; }
-    public int getInitialBid() { return initialBid; }
-    public void setInitialBid(int initialBid) { this.initialBid = initialBid; }
-}
-
-class PlayerUpdateData {
-    private String nickname;
-    private int balance;
-    private int score;
-
-    public String getNickname() { return nickname; }
-    public void setNickname(String nickname) { this.nickname = nickname; }
-    public int getBalance() { return balance; }
-    public void setBalance(int balance) { this.balance = balance; }
-    public int getScore() { return score; }
-    public void setScore(int score) { this.score = score; }
+    public long getClientTime() { return clientTime; }
+    public void setClientTime(long clientTime) { this.clientTime = clientTime; }
+    public long getServerTime() { return serverTime; }
+    public void setServerTime(long serverTime) { this.serverTime = serverTime; }
 }
 
 class LeaveGameData {
@@ -1532,65 +1675,23 @@ class PlayerLeftGameData {
     public void setNickname(String nickname) { this.nickname = nickname; }
 }
 
-class GameEndData {
-    private String winner;
-    private List<PlayerState> finalScores;
+// Aviso de drenaje: el cliente debe reconectarse a url (o a la misma dirección si es null)
+// tras esperar retryAfterMillis
+class ReconnectHintData {
+    private String url;
+    private long retryAfterMillis;
 
-    public String getWinner() { return winner; }
-    public void setWinner(String winner) { this.winner = winner; }
-    public List<PlayerState> getFinalScores() { return finalScores; }
-    public void setFinalScores(List<PlayerState> finalScores) { this.finalScores = finalScores; }
-}
+    public ReconnectHintData() {}
 
-class GameState {
-    private String lobbyName;
-    private int currentRound;
-    private int totalRounds;
-    private String status; // STARTING, BIDDING, REVEALING, FINISHED, ERROR
-    private ContainerInfo currentContainer;
-    private int currentBid;
-    private String lastBidder;
-
-    public String getLobbyName() { return lobbyName; }
-    public void setLobbyName(String lobbyName) { this.lobbyName = lobbyName; }
-    public int getCurrentRound() { return currentRound; }
-    public void setCurrentRound(int currentRound) { this.currentRound = currentRound; }
-    public int getTotalRounds() { return totalRounds; }
-    public void setTotalRounds(int totalRounds) { this.totalRounds = totalRounds; }
-    public String getStatus() { return status; }
-    public void setStatus(String status) { this.status = status; }
-    public ContainerInfo getCurrentContainer() { return currentContainer; }
-    public void setCurrentContainer(ContainerInfo currentContainer) { this.currentContainer = currentContainer; }
-    public int getCurrentBid() { return currentBid; }
-    public void setCurrentBid(int currentBid) { this.currentBid = currentBid; }
-    public String getLastBidder() { return lastBidder; }
-    public void setLastBidder(String lastBidder) { this.lastBidder = lastBidder; }
-}
-
-class PlayerState {
-    private String nickname;
-    private int balance;
-    private int score;
-
-    public String getNickname() { return nickname; }
-    public void setNickname(String nickname) { this.nickname = nickname; }
-    public int getBalance() { return balance; }
-    public void setBalance(int balance) { this.balance = balance; }
-    public int getScore() { return score; }
-    public void setScore(int score) { this.score = score; }
-}
+    public ReconnectHintData(String url, long retryAfterMillis) {
+        this.url = url;
+        this.retryAfterMillis = retryAfterMillis;
+    }
 
-class ContainerInfo {
-    private String id;
-    private String type;
-    private int value;
-
-    public String getId() { return id; }
-    public void setId(String id) { this.id = id; }
-    public String getType() { return type; }
-    public void setType(String type) { this.type = type; }
-    public int getValue() { return value; }
-    public void setValue(int value) { this.value = value; }
+    public String getUrl() { return url; }
+    public void setUrl(String url) { this.url = url; }
+    public long getRetryAfterMillis() { return retryAfterMillis; }
+    public void setRetryAfterMillis(long retryAfterMillis) { this.retryAfterMillis = retryAfterMillis; }
 }
 
 // Clases de datos para los eventos
@@ -1716,20 +1817,41 @@ class AllReadyData {
     public void setLobbyName(String lobbyName) { this.lobbyName = lobbyName; }
 }
 
-class ChatMessageData {
+// Solicitud de emparejamiento; balance y rounds son opcionales
+class MatchmakeData {
     private String nickname;
-    private String lobbyName;
-    private String message;
+    private Integer balance;
+    private Integer rounds;
 
-    public ChatMessageData() {}
+    public MatchmakeData() {}
 
     public String getNickname() { return nickname; }
     public void setNickname(String nickname) { this.nickname = nickname; }
+    public Integer getBalance() { return balance; }
+    public void setBalance(Integer balance) { this.balance = balance; }
+    public Integer getRounds() { return rounds; }
+    public void setRounds(Integer rounds) { this.rounds = rounds; }
+}
+
+// Suscripción a la clasificación global; nickname (opcional) es el jugador cuya posición se sigue
+class LeaderboardSubscribeData {
+    private String nickname;
+
+    public LeaderboardSubscribeData() {}
+
+    public String getNickname() { return nickname; }
+    public void setNickname(String nickname) { this.nickname = nickname; }
+}
+
+class WatchLobbyData {
+    private String lobbyName;
+
+    public WatchLobbyData() {}
+
     public String getLobbyName() { return lobbyName; }
     public void setLobbyName(String lobbyName) { this.lobbyName = lobbyName; }
-    public String getMessage() { return message; }
-    public void setMessage(String message) { this.message = message; }
 }
+
 class ReadyForNextRoundData {
     private String nickname;
     private String lobbyName;
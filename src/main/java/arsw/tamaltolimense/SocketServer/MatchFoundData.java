@@ -0,0 +1,29 @@
+package arsw.tamaltolimense.SocketServer;
+
+import java.util.List;
+
+// Lobby asignado por el emparejamiento; el jugador ya está unido a la sala
+class MatchFoundData {
+    private String lobbyName;
+    private List<String> players;
+    private int rounds;
+    private long waitMillis;
+
+    public MatchFoundData() {}
+
+    public MatchFoundData(String lobbyName, List<String> players, int rounds, long waitMillis) {
+        this.lobbyName = lobbyName;
+        this.players = players;
+        this.rounds = rounds;
+        this.waitMillis = waitMillis;
+    }
+
+    public String getLobbyName() { return lobbyName; }
+    public void setLobbyName(String lobbyName) { this.lobbyName = lobbyName; }
+    public List<String> getPlayers() { return players; }
+    public void setPlayers(List<String> players) { this.players = players; }
+    public int getRounds() { return rounds; }
+    public void setRounds(int rounds) { this.rounds = rounds; }
+    public long getWaitMillis() { return waitMillis; }
+    public void setWaitMillis(long waitMillis) { this.waitMillis = waitMillis; }
+}
@@ -0,0 +1,7 @@
+package arsw.tamaltolimense.SocketServer;
+
+import java.util.List;
+
+// Lobby formado por el emparejamiento: nombre, rondas pedidas y jugadores en orden de llegada
+public record MatchedLobby(String name, int rounds, List<String> players) {
+}
@@ -0,0 +1,192 @@
+package arsw.tamaltolimense.SocketServer;
+
+import com.corundumstudio.socketio.SocketIOClient;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Cola de emparejamiento en memoria, repartida en cubos por franja de saldo y rondas pedidas.
+// Los cubos son un arreglo fijo (franja × rondas) y cada uno una cola FIFO con su propio lock,
+// así que encolar es O(1) y no compite con los demás cubos. Cancelar solo marca el ticket, con
+// el lock de su cubo para no cruzarse con la formación; se descarta cuando esta lo encuentra. Un ticket sigue en el índice de sesiones mientras
+// su grupo se registra, hasta placed() o requeue(), para que cancelar lo alcance también entonces.
+// form() la llama un único hilo.
+final class MatchmakingBuckets {
+
+    // Resultado de encolar un ticket
+    enum Offer { QUEUED, DUPLICATE, FULL }
+
+    static final class Ticket {
+        final UUID sessionId;
+        final SocketIOClient client;
+        final String nickname;
+        final int balance;
+        final int rounds;
+        final long enqueuedAt;
+        // Ambos cambian con el lock del ticket; claimed = fuera de su cubo, en un grupo formado
+        private volatile boolean cancelled;
+        private boolean claimed;
+
+        Ticket(UUID sessionId, SocketIOClient client, String nickname, int balance, int rounds, long enqueuedAt) {
+            this.sessionId = sessionId;
+            this.client = client;
+            this.nickname = nickname;
+            this.balance = balance;
+            this.rounds = rounds;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+
+    private final int lobbySize;
+    private final int minPlayers;
+    private final long maxWaitNanos;
+    private final int maxRounds;
+    private final int maxQueued;
+    private final int[] bandLimits;
+    private final ArrayDeque<Ticket>[] buckets;
+    private final Map<UUID, Ticket> bySession = new ConcurrentHashMap<>();
+    private final AtomicInteger queued = new AtomicInteger();
+
+    // bandLimits: límites superiores (exclusivos) de las franjas de saldo, en orden creciente
+    @SuppressWarnings("unchecked")
+    MatchmakingBuckets(int lobbySize, int minPlayers, long maxWaitNanos, int maxRounds, int maxQueued, int[] bandLimits) {
+        this.lobbySize = Math.max(2, lobbySize);
+        this.minPlayers = Math.max(2, Math.min(minPlayers, this.lobbySize));
+        this.maxWaitNanos = maxWaitNanos;
+        this.maxRounds = Math.max(1, maxRounds);
+        this.maxQueued = maxQueued;
+        this.bandLimits = bandLimits.clone();
+        this.buckets = (ArrayDeque<Ticket>[]) new ArrayDeque<?>[(this.bandLimits.length + 1) * this.maxRounds];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+    }
+
+    // Rondas dentro de [1, maxRounds]
+    int clampRounds(int rounds) {
+        return Math.max(1, Math.min(maxRounds, rounds));
+    }
+
+    Offer enqueue(Ticket ticket) {
+        if (queued.get() >= maxQueued) {
+            return Offer.FULL;
+        }
+        if (bySession.putIfAbsent(ticket.sessionId, ticket) != null) {
+            return Offer.DUPLICATE;
+        }
+        ArrayDeque<Ticket> bucket = buckets[bucketOf(ticket.balance, ticket.rounds)];
+        synchronized (bucket) {
+            bucket.addLast(ticket);
+        }
+        queued.incrementAndGet();
+        return Offer.QUEUED;
+    }
+
+    // Saca la sesión de la cola; devuelve false si no estaba esperando. Si su grupo ya se formó
+    // solo se marca, para que requeue no la devuelva a la cola si el registro falla.
+    boolean cancel(UUID sessionId) {
+        Ticket ticket = bySession.remove(sessionId);
+        if (ticket == null) {
+            return false;
+        }
+        synchronized (buckets[bucketOf(ticket.balance, ticket.rounds)]) {
+            synchronized (ticket) {
+                ticket.cancelled = true;
+                if (ticket.claimed) {
+                    return false;
+                }
+            }
+        }
+        queued.decrementAndGet();
+        return true;
+    }
+
+    // Grupos de lobbySize tickets de cada cubo y, si el más antiguo de lo que sobra lleva más de
+    // maxWait esperando, también un grupo incompleto de al menos minPlayers
+    List<List<Ticket>> form(long now) {
+        List<List<Ticket>> groups = new ArrayList<>();
+        for (ArrayDeque<Ticket> bucket : buckets) {
+            synchronized (bucket) {
+                if (bucket.isEmpty()) {
+                    continue;
+                }
+                List<Ticket> group = new ArrayList<>(lobbySize);
+                Ticket next;
+                while ((next = bucket.pollFirst()) != null) {
+                    if (next.cancelled) {
+                        continue;
+                    }
+                    group.add(next);
+                    if (group.size() == lobbySize) {
+                        claim(group, groups);
+                        group = new ArrayList<>(lobbySize);
+                    }
+                }
+                if (group.size() >= minPlayers && now - group.get(0).enqueuedAt > maxWaitNanos) {
+                    claim(group, groups);
+                } else {
+                    // Los que sobran vuelven al frente en el mismo orden
+                    for (int i = group.size() - 1; i >= 0; i--) {
+                        bucket.addFirst(group.get(i));
+                    }
+                }
+            }
+        }
+        return groups;
+    }
+
+    // Devuelve un grupo al frente de su cola, p. ej. si no se pudo registrar el lobby. Quien
+    // canceló mientras tanto no vuelve.
+    void requeue(List<Ticket> group) {
+        for (int i = group.size() - 1; i >= 0; i--) {
+            Ticket ticket = group.get(i);
+            synchronized (ticket) {
+                if (ticket.cancelled) {
+                    continue;
+                }
+                ticket.claimed = false;
+                queued.incrementAndGet();
+            }
+            ArrayDeque<Ticket> bucket = buckets[bucketOf(ticket.balance, ticket.rounds)];
+            synchronized (bucket) {
+                bucket.addFirst(ticket);
+            }
+        }
+    }
+
+    // El grupo quedó registrado en su lobby: sus sesiones salen del índice y pueden volver a encolarse
+    void placed(List<Ticket> group) {
+        for (Ticket ticket : group) {
+            bySession.remove(ticket.sessionId, ticket);
+        }
+    }
+
+    int queued() {
+        return queued.get();
+    }
+
+    // Marca el grupo como formado. Se llama con el lock del cubo, así que nadie del grupo pudo
+    // cancelar desde que salió de la cola.
+    private void claim(List<Ticket> group, List<List<Ticket>> groups) {
+        for (Ticket ticket : group) {
+            synchronized (ticket) {
+                ticket.claimed = true;
+            }
+        }
+        queued.addAndGet(-group.size());
+        groups.add(group);
+    }
+
+    private int bucketOf(int balance, int rounds) {
+        int band = 0;
+        while (band < bandLimits.length && balance >= bandLimits[band]) {
+            band++;
+        }
+        return band * maxRounds + clampRounds(rounds) - 1;
+    }
+}
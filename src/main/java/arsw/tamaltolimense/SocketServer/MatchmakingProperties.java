@@ -0,0 +1,47 @@
+package arsw.tamaltolimense.SocketServer;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Emparejamiento (evento matchmake): cola en memoria por franja de saldo y rondas pedidas que
+// forma lobbies completos cada form-interval y los registra juntos en el servicio de lobbies
+@ConfigurationProperties(prefix = "hiddencargo.matchmaking")
+public class MatchmakingProperties {
+    private boolean enabled = true;
+    // Jugadores por lobby formado
+    private int lobbySize = 4;
+    // Pasado max-wait, se forma un lobby incompleto si hay al menos estos jugadores
+    private int minPlayers = 2;
+    private Duration maxWait = Duration.ofSeconds(15);
+    // Cada cuánto se forman lobbies con lo que haya en la cola
+    private Duration formInterval = Duration.ofMillis(100);
+    // Límites superiores de las franjas de saldo; [1000, 5000] = <1000, 1000-4999 y >=5000
+    private List<Integer> balanceBands = new ArrayList<>(List.of(1000, 3000, 10000));
+    // Rondas que se pueden pedir (1..max-rounds) y las que se usan si no se piden
+    private int maxRounds = 10;
+    private int defaultRounds = 3;
+    // Jugadores en cola como máximo; los siguientes se rechazan
+    private int maxQueued = 100_000;
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public int getLobbySize() { return lobbySize; }
+    public void setLobbySize(int lobbySize) { this.lobbySize = lobbySize; }
+    public int getMinPlayers() { return minPlayers; }
+    public void setMinPlayers(int minPlayers) { this.minPlayers = minPlayers; }
+    public Duration getMaxWait() { return maxWait; }
+    public void setMaxWait(Duration maxWait) { this.maxWait = maxWait; }
+    public Duration getFormInterval() { return formInterval; }
+    public void setFormInterval(Duration formInterval) { this.formInterval = formInterval; }
+    public List<Integer> getBalanceBands() { return balanceBands; }
+    public void setBalanceBands(List<Integer> balanceBands) { this.balanceBands = balanceBands; }
+    public int getMaxRounds() { return maxRounds; }
+    public void setMaxRounds(int maxRounds) { this.maxRounds = maxRounds; }
+    public int getDefaultRounds() { return defaultRounds; }
+    public void setDefaultRounds(int defaultRounds) { this.defaultRounds = defaultRounds; }
+    public int getMaxQueued() { return maxQueued; }
+    public void setMaxQueued(int maxQueued) { this.maxQueued = maxQueued; }
+}
@@ -0,0 +1,203 @@
+package arsw.tamaltolimense.SocketServer;
+
+import com.corundumstudio.socketio.SocketIOClient;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Emparejamiento en el propio nodo. matchmake deja al jugador en MatchmakingBuckets; un hilo
+// propio forma cada form-interval los lobbies de todos los cubos, los registra en el servicio
+// de lobbies con una sola llamada (LobbyGateway.registerLobbies) y une a cada jugador a su sala
+// con matchFound, igual que si hubiera hecho joinLobby. Si el registro falla, los grupos
+// vuelven al frente de su cola.
+@Component
+public final class MatchmakingQueue {
+    private static final Logger logger = LoggerFactory.getLogger(MatchmakingQueue.class);
+
+    private final MatchmakingProperties properties;
+    private final LobbyGateway lobbies;
+    private final BackendResilience resilience;
+    private final GameBroadcaster broadcaster;
+    private final SessionStore sessions;
+    private final MatchmakingBuckets buckets;
+    private final ScheduledExecutorService former;
+    // Prefijo por nodo para que los nombres no choquen entre réplicas
+    private final String namePrefix = "mm-" + Integer.toString(ThreadLocalRandom.current().nextInt(36 * 36 * 36 * 36), 36) + "-";
+    private final AtomicLong sequence = new AtomicLong();
+    private final Counter enqueued;
+    private final Counter rejected;
+    private final Counter cancelled;
+    private final Counter matchedPlayers;
+    private final Counter formedLobbies;
+    private final Counter registrationFailures;
+    private final Timer queueWait;
+
+    public MatchmakingQueue(MatchmakingProperties properties, LobbyGateway lobbies, BackendResilience resilience,
+                            GameBroadcaster broadcaster, GameStores stores, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.lobbies = lobbies;
+        this.resilience = resilience;
+        this.broadcaster = broadcaster;
+        this.sessions = stores.sessions();
+        this.buckets = new MatchmakingBuckets(properties.getLobbySize(), properties.getMinPlayers(),
+                properties.getMaxWait().toNanos(), properties.getMaxRounds(), properties.getMaxQueued(),
+                properties.getBalanceBands().stream().mapToInt(Integer::intValue).sorted().toArray());
+
+        Gauge.builder("hiddencargo.matchmaking.queued", buckets, MatchmakingBuckets::queued)
+                .description("Jugadores esperando partida")
+                .register(meterRegistry);
+        enqueued = Counter.builder("hiddencargo.matchmaking.enqueued")
+                .description("Jugadores que entraron a la cola")
+                .register(meterRegistry);
+        rejected = Counter.builder("hiddencargo.matchmaking.rejected")
+                .description("Solicitudes rechazadas por cola llena o sesión ya en cola")
+                .register(meterRegistry);
+        cancelled = Counter.builder("hiddencargo.matchmaking.cancelled")
+                .description("Jugadores que salieron de la cola sin partida")
+                .register(meterRegistry);
+        matchedPlayers = Counter.builder("hiddencargo.matchmaking.matched")
+                .description("Jugadores ubicados en un lobby")
+                .register(meterRegistry);
+        formedLobbies = Counter.builder("hiddencargo.matchmaking.lobbies")
+                .description("Lobbies formados y registrados")
+                .register(meterRegistry);
+        registrationFailures = Counter.builder("hiddencargo.matchmaking.registration.failures")
+                .description("Lotes de lobbies que el servicio no pudo registrar")
+                .register(meterRegistry);
+        queueWait = Timer.builder("hiddencargo.matchmaking.wait")
+                .description("Tiempo en cola hasta formar el lobby")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+
+        former = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "matchmaker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = Math.max(1, properties.getFormInterval().toMillis());
+        former.scheduleWithFixedDelay(this::formLobbies, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // Pone al jugador en la cola; devuelve el motivo del rechazo o null si quedó esperando
+    String enqueue(SocketIOClient client, String nickname, int balance, Integer rounds) {
+        if (!properties.isEnabled()) {
+            rejected.increment();
+            return "Error: el emparejamiento está desactivado";
+        }
+        int requested = buckets.clampRounds(rounds != null ? rounds : properties.getDefaultRounds());
+        MatchmakingBuckets.Ticket ticket = new MatchmakingBuckets.Ticket(client.getSessionId(), client,
+                nickname, balance, requested, System.nanoTime());
+        switch (buckets.enqueue(ticket)) {
+            case QUEUED -> {
+                enqueued.increment();
+                return null;
+            }
+            case DUPLICATE -> {
+                rejected.increment();
+                return "Error: ya estás buscando partida";
+            }
+            default -> {
+                rejected.increment();
+                return "Error: la cola de emparejamiento está llena, inténtalo de nuevo";
+            }
+        }
+    }
+
+    void cancel(UUID sessionId) {
+        if (buckets.cancel(sessionId)) {
+            cancelled.increment();
+        }
+    }
+
+    int queued() {
+        return buckets.queued();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        former.shutdownNow();
+    }
+
+    void formLobbies() {
+        try {
+            List<List<MatchmakingBuckets.Ticket>> groups = buckets.form(System.nanoTime());
+            if (!groups.isEmpty()) {
+                register(groups);
+            }
+        } catch (RuntimeException e) {
+            // Sin esto el ScheduledExecutorService dejaría de ejecutar la tarea
+            logger.error("Error al formar lobbies de emparejamiento: {}", e.getMessage(), e);
+        }
+    }
+
+    private void register(List<List<MatchmakingBuckets.Ticket>> groups) {
+        List<MatchedLobby> matched = new ArrayList<>(groups.size());
+        for (List<MatchmakingBuckets.Ticket> group : groups) {
+            List<String> players = new ArrayList<>(group.size());
+            for (MatchmakingBuckets.Ticket ticket : group) {
+                players.add(ticket.nickname);
+            }
+            matched.add(new MatchedLobby(namePrefix + Long.toString(sequence.incrementAndGet(), 36),
+                    group.get(0).rounds, players));
+        }
+
+        Set<String> registered;
+        try {
+            registered = new HashSet<>(resilience.call(BackendDependency.LOBBIES, () -> lobbies.registerLobbies(matched)));
+        } catch (RuntimeException e) {
+            registrationFailures.increment();
+            logger.warn("No se pudieron registrar {} lobbies de emparejamiento: {}", matched.size(), e.getMessage());
+            registered = Set.of();
+        }
+
+        long now = System.nanoTime();
+        int placed = 0;
+        List<Runnable> notifications = new ArrayList<>();
+        for (int i = 0; i < groups.size(); i++) {
+            List<MatchmakingBuckets.Ticket> group = groups.get(i);
+            MatchedLobby lobby = matched.get(i);
+            if (!registered.contains(lobby.name())) {
+                buckets.requeue(group);
+                continue;
+            }
+            buckets.placed(group);
+            placed += group.size();
+            formedLobbies.increment();
+            for (MatchmakingBuckets.Ticket ticket : group) {
+                queueWait.record(now - ticket.enqueuedAt, TimeUnit.NANOSECONDS);
+                notifications.add(() -> place(ticket, lobby, now));
+            }
+        }
+        matchedPlayers.increment(placed);
+        broadcaster.inPass(() -> notifications.forEach(Runnable::run));
+    }
+
+    // Lo mismo que joinLobby para un jugador ya registrado en el lobby
+    private void place(MatchmakingBuckets.Ticket ticket, MatchedLobby lobby, long now) {
+        if (!sessions.join(ticket.sessionId.toString(), ticket.nickname, lobby.name())) {
+            // Se fue mientras se formaba el lobby: se le quita del servicio
+            resilience.callOrDefer(BackendDependency.LOBBIES, "quitarJugador " + ticket.nickname + " de " + lobby.name(),
+                    () -> lobbies.removePlayer(lobby.name(), ticket.nickname));
+            return;
+        }
+        ticket.client.joinRoom(lobby.name());
+        broadcaster.toClient(ticket.client, "matchFound", new MatchFoundData(lobby.name(), lobby.players(),
+                lobby.rounds(), TimeUnit.NANOSECONDS.toMillis(now - ticket.enqueuedAt)));
+    }
+}
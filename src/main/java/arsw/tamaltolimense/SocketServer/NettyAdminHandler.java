@@ -0,0 +1,272 @@
+package arsw.tamaltolimense.SocketServer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.health.HealthComponent;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.actuate.metrics.MetricsEndpoint;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// Sirve /actuator/health, /actuator/metrics, /actuator/drain, /actuator/hotlog y /actuator/leaderboard en el puerto de Socket.IO desde los
+// mismos event loops de Netty, delante de los handlers de netty-socketio, cuando la aplicación
+// arranca sin Tomcat (perfil "lean"). Delega en los beans de Actuator, así que las respuestas son
+// las mismas que con el servidor servlet. Los indicadores de salud de este servicio son locales
+// (disco, disponibilidad), por lo que responder en el event loop no lo bloquea.
+// El puerto es público: las operaciones que cambian el nodo (POST de drain y hotlog) exigen el
+// token de administración y, si no hay uno configurado, se rechazan.
+@Component
+@ChannelHandler.Sharable
+public class NettyAdminHandler extends ChannelInboundHandlerAdapter {
+    private static final Logger logger = LoggerFactory.getLogger(NettyAdminHandler.class);
+
+    static final String HANDLER_NAME = "adminHandler";
+
+    private static final String CONTENT_TYPE = "application/vnd.spring-boot.actuator.v3+json";
+
+    private final AdminProperties properties;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<HealthEndpoint> healthEndpoint;
+    private final ObjectProvider<MetricsEndpoint> metricsEndpoint;
+    private final ObjectProvider<DrainEndpoint> drainEndpoint;
+    private final ObjectProvider<HotPathLogEndpoint> hotLogEndpoint;
+    private final ObjectProvider<LeaderboardEndpoint> leaderboardEndpoint;
+
+    public NettyAdminHandler(AdminProperties properties, ObjectMapper objectMapper,
+                             ObjectProvider<HealthEndpoint> healthEndpoint,
+                             ObjectProvider<MetricsEndpoint> metricsEndpoint,
+                             ObjectProvider<DrainEndpoint> drainEndpoint,
+                             ObjectProvider<HotPathLogEndpoint> hotLogEndpoint,
+                             ObjectProvider<LeaderboardEndpoint> leaderboardEndpoint) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.healthEndpoint = healthEndpoint;
+        this.metricsEndpoint = metricsEndpoint;
+        this.drainEndpoint = drainEndpoint;
+        this.hotLogEndpoint = hotLogEndpoint;
+        this.leaderboardEndpoint = leaderboardEndpoint;
+    }
+
+    boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) {
+        if (msg instanceof FullHttpRequest request) {
+            QueryStringDecoder uri = new QueryStringDecoder(request.uri());
+            String base = properties.getBasePath();
+            if (uri.path().equals(base) || uri.path().startsWith(base + "/")) {
+                try {
+                    handle(ctx, request, uri, uri.path().substring(base.length()));
+                } finally {
+                    request.release();
+                }
+                return;
+            }
+        }
+        ctx.fireChannelRead(msg);
+    }
+
+    private void handle(ChannelHandlerContext ctx, FullHttpRequest request, QueryStringDecoder uri, String path) {
+        String[] segments = path.isEmpty() ? new String[0] : path.substring(1).split("/");
+        String endpoint = segments.length > 0 ? segments[0] : "";
+        boolean get = HttpMethod.GET.equals(request.method());
+        try {
+            switch (endpoint) {
+                case "health" -> {
+                    if (!get) {
+                        respond(ctx, request, HttpResponseStatus.METHOD_NOT_ALLOWED, null);
+                        return;
+                    }
+                    respondHealth(ctx, request, segments);
+                }
+                case "metrics" -> {
+                    if (!get) {
+                        respond(ctx, request, HttpResponseStatus.METHOD_NOT_ALLOWED, null);
+                        return;
+                    }
+                    respondMetrics(ctx, request, uri, segments);
+                }
+                case "drain" -> respondDrain(ctx, request, get);
+                case "hotlog" -> respondHotLog(ctx, request, uri, get);
+                case "leaderboard" -> respondLeaderboard(ctx, request, uri, get);
+                default -> respond(ctx, request, HttpResponseStatus.NOT_FOUND, null);
+            }
+        } catch (InvalidEndpointRequestException e) {
+            respond(ctx, request, HttpResponseStatus.BAD_REQUEST, Map.of("error", e.getReason()));
+        } catch (RuntimeException e) {
+            logger.error("Error atendiendo {} {}: {}", request.method(), request.uri(), e.getMessage(), e);
+            respond(ctx, request, HttpResponseStatus.INTERNAL_SERVER_ERROR, null);
+        }
+    }
+
+    // /health, /health/readiness, /health/liveness y cualquier componente o grupo
+    private void respondHealth(ChannelHandlerContext ctx, FullHttpRequest request, String[] segments) {
+        HealthEndpoint endpoint = healthEndpoint.getIfAvailable();
+        if (endpoint == null) {
+            respond(ctx, request, HttpResponseStatus.NOT_FOUND, null);
+            return;
+        }
+        HealthComponent health = segments.length == 1 ? endpoint.health()
+                : endpoint.healthForPath(Arrays.copyOfRange(segments, 1, segments.length));
+        if (health == null) {
+            respond(ctx, request, HttpResponseStatus.NOT_FOUND, null);
+            return;
+        }
+        Status status = health.getStatus();
+        boolean down = Status.DOWN.equals(status) || Status.OUT_OF_SERVICE.equals(status);
+        respond(ctx, request, down ? HttpResponseStatus.SERVICE_UNAVAILABLE : HttpResponseStatus.OK, health);
+    }
+
+    // /metrics lista los nombres; /metrics/{nombre}?tag=clave:valor devuelve las mediciones
+    private void respondMetrics(ChannelHandlerContext ctx, FullHttpRequest request, QueryStringDecoder uri,
+                                String[] segments) {
+        MetricsEndpoint endpoint = metricsEndpoint.getIfAvailable();
+        if (endpoint == null || segments.length > 2) {
+            respond(ctx, request, HttpResponseStatus.NOT_FOUND, null);
+            return;
+        }
+        Object body = segments.length == 1 ? endpoint.listNames()
+                : endpoint.metric(segments[1], uri.parameters().get("tag"));
+        respond(ctx, request, body != null ? HttpResponseStatus.OK : HttpResponseStatus.NOT_FOUND, body);
+    }
+
+    // GET consulta el estado del drenaje; POST lo inicia
+    private void respondDrain(ChannelHandlerContext ctx, FullHttpRequest request, boolean get) {
+        DrainEndpoint endpoint = drainEndpoint.getIfAvailable();
+        if (endpoint == null) {
+            respond(ctx, request, HttpResponseStatus.NOT_FOUND, null);
+        } else if (get) {
+            respond(ctx, request, HttpResponseStatus.OK, endpoint.status());
+        } else if (HttpMethod.POST.equals(request.method())) {
+            if (!authorized(ctx, request)) {
+                return;
+            }
+            logger.info("Drenaje solicitado por {}", ctx.channel().remoteAddress());
+            respond(ctx, request, HttpResponseStatus.OK, endpoint.start());
+        } else {
+            respond(ctx, request, HttpResponseStatus.METHOD_NOT_ALLOWED, null);
+        }
+    }
+
+    // GET muestra el muestreo de logs; POST lo cambia con el cuerpo JSON o parámetros de la URL
+    private void respondHotLog(ChannelHandlerContext ctx, FullHttpRequest request, QueryStringDecoder uri,
+                               boolean get) {
+        HotPathLogEndpoint endpoint = hotLogEndpoint.getIfAvailable();
+        if (endpoint == null) {
+            respond(ctx, request, HttpResponseStatus.NOT_FOUND, null);
+        } else if (get) {
+            respond(ctx, request, HttpResponseStatus.OK, endpoint.status());
+        } else if (HttpMethod.POST.equals(request.method())) {
+            if (!authorized(ctx, request)) {
+                return;
+            }
+            Map<String, String> parameters = new HashMap<>();
+            if (request.content().isReadable()) {
+                try {
+                    Map<?, ?> body = objectMapper.readValue(request.content().toString(StandardCharsets.UTF_8), Map.class);
+                    body.forEach((key, value) -> parameters.put(String.valueOf(key), String.valueOf(value)));
+                } catch (JsonProcessingException e) {
+                    throw new InvalidEndpointRequestException("Cuerpo JSON inválido", "Cuerpo JSON inválido");
+                }
+            }
+            uri.parameters().forEach((key, values) -> parameters.put(key, values.get(0)));
+            respond(ctx, request, HttpResponseStatus.OK, endpoint.configure(parameters.get("kind"),
+                    integerParameter(parameters, "sampleEvery"), integerParameter(parameters, "ratePerSecond")));
+        } else {
+            respond(ctx, request, HttpResponseStatus.METHOD_NOT_ALLOWED, null);
+        }
+    }
+
+    // GET /leaderboard?limit=20&player=ana
+    private void respondLeaderboard(ChannelHandlerContext ctx, FullHttpRequest request, QueryStringDecoder uri,
+                                    boolean get) {
+        LeaderboardEndpoint endpoint = leaderboardEndpoint.getIfAvailable();
+        if (endpoint == null) {
+            respond(ctx, request, HttpResponseStatus.NOT_FOUND, null);
+        } else if (get) {
+            Map<String, String> parameters = new HashMap<>();
+            uri.parameters().forEach((key, values) -> parameters.put(key, values.get(0)));
+            respond(ctx, request, HttpResponseStatus.OK,
+                    endpoint.query(integerParameter(parameters, "limit"), parameters.get("player")));
+        } else {
+            respond(ctx, request, HttpResponseStatus.METHOD_NOT_ALLOWED, null);
+        }
+    }
+
+    // Responde 403 si la petición no trae el token configurado; comparación en tiempo constante
+    private boolean authorized(ChannelHandlerContext ctx, FullHttpRequest request) {
+        String token = properties.getToken();
+        String header = request.headers().get(HttpHeaderNames.AUTHORIZATION);
+        if (!token.isEmpty() && header != null && MessageDigest.isEqual(
+                ("Bearer " + token).getBytes(StandardCharsets.UTF_8), header.getBytes(StandardCharsets.UTF_8))) {
+            return true;
+        }
+        logger.warn("{} {} rechazado sin token de administración válido desde {}", request.method(), request.uri(),
+                ctx.channel().remoteAddress());
+        respond(ctx, request, HttpResponseStatus.FORBIDDEN, null);
+        return false;
+    }
+
+    private static Integer integerParameter(Map<String, String> parameters, String name) {
+        String value = parameters.get(name);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            throw new InvalidEndpointRequestException("Valor inválido para " + name + ": " + value, "Valor inválido");
+        }
+    }
+
+    private void respond(ChannelHandlerContext ctx, FullHttpRequest request, HttpResponseStatus status, Object body) {
+        byte[] json;
+        try {
+            json = body != null ? objectMapper.writeValueAsBytes(body) : new byte[0];
+        } catch (JsonProcessingException e) {
+            logger.error("No se pudo serializar la respuesta de {}: {}", request.uri(), e.getMessage());
+            status = HttpResponseStatus.INTERNAL_SERVER_ERROR;
+            json = new byte[0];
+        }
+        FullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, status,
+                Unpooled.wrappedBuffer(json));
+        if (json.length > 0) {
+            response.headers().set(HttpHeaderNames.CONTENT_TYPE, CONTENT_TYPE);
+        }
+        HttpUtil.setContentLength(response, json.length);
+        boolean keepAlive = HttpUtil.isKeepAlive(request);
+        if (keepAlive) {
+            response.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.KEEP_ALIVE);
+            ctx.writeAndFlush(response);
+        } else {
+            ctx.writeAndFlush(response).addListener(ChannelFutureListener.CLOSE);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package arsw.tamaltolimense.SocketServer;
+
+class NewBidData {
+    private String nickname;
+    private int amount;
+    // Cierre de la subasta tras esta apuesta, en epoch ms del servidor
+    private long deadline;
+
+    public NewBidData() {}
+
+    public NewBidData(String nickname, int amount) {
+        this.nickname = nickname;
+        this.amount = amount;
+    }
+
+    public NewBidData(String nickname, int amount, long deadline) {
+        this(nickname, amount);
+        this.deadline = deadline;
+    }
+
+    public String getNickname() { return nickname; }
+    public void setNickname(String nickname) { this.nickname = nickname; }
+    public int getAmount() { return amount; }
+    public void setAmount(int amount) { this.amount = amount; }
+    public long getDeadline() { return deadline; }
+    public void setDeadline(long deadline) { this.deadline = deadline; }
+}
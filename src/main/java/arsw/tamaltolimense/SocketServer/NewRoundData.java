@@ -0,0 +1,21 @@
+package arsw.tamaltolimense.SocketServer;
+
+class NewRoundData {
+    private int round;
+    private int totalRounds;
+    private ContainerInfo container;
+    private int initialBid;
+    // Cierre de la subasta en epoch ms del servidor
+    private long deadline;
+
+    public int getRound() { return round; }
+    public void setRound(int round) { this.round = round; }
+    public int getTotalRounds() { return totalRounds; }
+    public void setTotalRounds(int totalRounds) { this.totalRounds = totalRounds; }
+    public ContainerInfo getContainer() { return container; }
+    public void setContainer(ContainerInfo container) { this.container = container; }
+    public int getInitialBid() { return initialBid; }
+    public void setInitialBid(int initialBid) { this.initialBid = initialBid; }
+    public long getDeadline() { return deadline; }
+    public void setDeadline(long deadline) { this.deadline = deadline; }
+}
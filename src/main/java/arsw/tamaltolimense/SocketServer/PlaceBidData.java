@@ -0,0 +1,17 @@
+package arsw.tamaltolimense.SocketServer;
+
+class PlaceBidData {
+    private String nickname;
+    private String lobbyName;
+    private String containerId;
+    private int amount;
+
+    public String getNickname() { return nickname; }
+    public void setNickname(String nickname) { this.nickname = nickname; }
+    public String getLobbyName() { return lobbyName; }
+    public void setLobbyName(String lobbyName) { this.lobbyName = lobbyName; }
+    public String getContainerId() { return containerId; }
+    public void setContainerId(String containerId) { this.containerId = containerId; }
+    public int getAmount() { return amount; }
+    public void setAmount(int amount) { this.amount = amount; }
+}
@@ -0,0 +1,15 @@
+package arsw.tamaltolimense.SocketServer;
+
+// Copia de un jugador para los eventos (gameEnd); el estado vivo está en GameRoster
+class PlayerState {
+    private String nickname;
+    private int balance;
+    private int score;
+
+    public String getNickname() { return nickname; }
+    public void setNickname(String nickname) { this.nickname = nickname; }
+    public int getBalance() { return balance; }
+    public void setBalance(int balance) { this.balance = balance; }
+    public int getScore() { return score; }
+    public void setScore(int score) { this.score = score; }
+}
@@ -0,0 +1,43 @@
+package arsw.tamaltolimense.SocketServer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+
+// Abre de antemano las conexiones del cliente HTTP compartido con cada API de Azure (DNS, TCP y
+// handshake TLS) para que la primera partida no pague ese coste. Cualquier respuesta sirve,
+// incluido un 4xx: lo que interesa es la conexión que queda en el pool.
+@Component
+@ConditionalOnProperty(name = "hiddencargo.backend.mode", havingValue = "remote", matchIfMissing = true)
+public class RemoteBackendPreconnect extends RemoteGatewaySupport {
+    private static final Logger logger = LoggerFactory.getLogger(RemoteBackendPreconnect.class);
+
+    public RemoteBackendPreconnect(RestTemplate restTemplate, BackendProperties backend) {
+        super(restTemplate, backend);
+    }
+
+    // Devuelve cuántos servicios respondieron (con cualquier estado)
+    int preconnect() {
+        int reached = 0;
+        for (String url : List.of(backend.getLobbiesUrl(), backend.getBidsUrl(),
+                backend.getContainersUrl(), backend.getUsersUrl())) {
+            try {
+                restTemplate.exchange(url, HttpMethod.HEAD, new HttpEntity<>(headers()), Void.class);
+                reached++;
+            } catch (HttpStatusCodeException e) {
+                reached++;
+            } catch (RestClientException e) {
+                logger.warn("No se pudo abrir conexión con {}: {}", url, e.getMessage());
+            }
+        }
+        return reached;
+    }
+}
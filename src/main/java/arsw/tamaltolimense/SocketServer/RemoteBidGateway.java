@@ -0,0 +1,60 @@
+package arsw.tamaltolimense.SocketServer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Subastas en el microservicio remoto de apuestas
+@Component
+@ConditionalOnProperty(name = "hiddencargo.backend.mode", havingValue = "remote", matchIfMissing = true)
+public class RemoteBidGateway extends RemoteGatewaySupport implements BidGateway {
+    private static final Logger logger = LoggerFactory.getLogger(RemoteBidGateway.class);
+
+    public RemoteBidGateway(RestTemplate restTemplate, BackendProperties backend) {
+        super(restTemplate, backend);
+    }
+
+    @Override
+    public void startAuction(String containerId, int initialValue, int realValue) {
+        // Usar un Map<String, String> para los parámetros
+        Map<String, String> params = new HashMap<>();
+        params.put("container", containerId);
+        params.put("initialValue", String.valueOf(initialValue));
+        params.put("realValue", String.valueOf(realValue));
+
+        ResponseEntity<Object> response = restTemplate.postForEntity(
+                backend.getBidsUrl() + "/bids/start", new HttpEntity<>(params, jsonHeaders()), Object.class);
+        logger.info("Respuesta del servicio de apuestas: {}", response.getStatusCode());
+    }
+
+    @Override
+    public void placeOffer(String containerId, String owner, int amount) {
+        Map<String, String> params = new HashMap<>();
+        params.put("container", containerId);
+        params.put("owner", owner);
+        params.put("amount", String.valueOf(amount));
+
+        ResponseEntity<Object> response = restTemplate.postForEntity(
+                backend.getBidsUrl() + "/bids/offer", new HttpEntity<>(params, jsonHeaders()), Object.class);
+        logger.info("Respuesta del servicio de apuestas: {}", response.getStatusCode());
+    }
+
+    @Override
+    public void closeAuction(String containerId) {
+        ResponseEntity<Object> response = restTemplate.exchange(
+                backend.getBidsUrl() + "/bids/close/" + containerId,
+                HttpMethod.POST,
+                new HttpEntity<>(headers()),
+                Object.class
+        );
+        logger.info("Respuesta al cerrar apuesta: {}", response.getStatusCode());
+    }
+}
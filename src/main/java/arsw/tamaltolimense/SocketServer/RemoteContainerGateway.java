@@ -0,0 +1,43 @@
+package arsw.tamaltolimense.SocketServer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.security.SecureRandom;
+import java.util.Map;
+
+// Contenedores obtenidos del microservicio /api/contenedor
+@Component
+@ConditionalOnProperty(name = "hiddencargo.backend.mode", havingValue = "remote", matchIfMissing = true)
+public class RemoteContainerGateway extends RemoteGatewaySupport implements ContainerGateway {
+    private static final Logger logger = LoggerFactory.getLogger(RemoteContainerGateway.class);
+
+    private final SecureRandom random = new SecureRandom();
+
+    public RemoteContainerGateway(RestTemplate restTemplate, BackendProperties backend) {
+        super(restTemplate, backend);
+    }
+
+    @Override
+    public ContainerInfo nextContainer() {
+        ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
+                backend.getContainersUrl(),
+                HttpMethod.GET,
+                new HttpEntity<>(headers()),
+                JSON_OBJECT
+        );
+
+        Map<String, Object> containerData = response.getBody();
+        if (!response.getStatusCode().is2xxSuccessful() || containerData == null) {
+            logger.warn("Respuesta sin contenedor desde API: {}", response.getStatusCode());
+            return null;
+        }
+        return ContainerFactory.fromApiPayload(containerData, random);
+    }
+}
@@ -0,0 +1,37 @@
+package arsw.tamaltolimense.SocketServer;
+
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Map;
+
+// Base de los gateways que llaman a las APIs de Azure por HTTPS
+abstract class RemoteGatewaySupport {
+    // Cuerpo JSON de objeto, sin pasar por el tipo crudo Map
+    protected static final ParameterizedTypeReference<Map<String, Object>> JSON_OBJECT =
+            new ParameterizedTypeReference<>() {
+            };
+
+    protected final RestTemplate restTemplate;
+    protected final BackendProperties backend;
+
+    RemoteGatewaySupport(RestTemplate restTemplate, BackendProperties backend) {
+        this.restTemplate = restTemplate;
+        this.backend = backend;
+    }
+
+    // Headers con la clave de suscripción del API Management
+    protected HttpHeaders headers() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Ocp-Apim-Subscription-Key", backend.getKey());
+        return headers;
+    }
+
+    protected HttpHeaders jsonHeaders() {
+        HttpHeaders headers = headers();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return headers;
+    }
+}
@@ -0,0 +1,53 @@
+package arsw.tamaltolimense.SocketServer;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Map;
+
+// Lobbies en el microservicio remoto
+@Component
+@ConditionalOnProperty(name = "hiddencargo.backend.mode", havingValue = "remote", matchIfMissing = true)
+public class RemoteLobbyGateway extends RemoteGatewaySupport implements LobbyGateway {
+
+    public RemoteLobbyGateway(RestTemplate restTemplate, BackendProperties backend) {
+        super(restTemplate, backend);
+    }
+
+    @Override
+    public Map<String, Object> getLobby(String lobbyName) {
+        ResponseEntity<Map<String, Object>> response = exchange("/" + lobbyName, HttpMethod.GET);
+        return response.getStatusCode().is2xxSuccessful() ? response.getBody() : null;
+    }
+
+    @Override
+    public boolean addPlayer(String lobbyName, String nickname) {
+        return exchange("/" + lobbyName + "/agregarJugador?nickname=" + nickname, HttpMethod.PUT)
+                .getStatusCode().is2xxSuccessful();
+    }
+
+    @Override
+    public boolean removePlayer(String lobbyName, String nickname) {
+        return exchange("/" + lobbyName + "/quitarJugador?nickname=" + nickname, HttpMethod.PUT)
+                .getStatusCode().is2xxSuccessful();
+    }
+
+    @Override
+    public boolean markReady(String lobbyName) {
+        return exchange("/" + lobbyName + "/agregarListo", HttpMethod.GET).getStatusCode().is2xxSuccessful();
+    }
+
+    @Override
+    public boolean markNotReady(String lobbyName) {
+        return exchange("/" + lobbyName + "/quitarListo", HttpMethod.GET).getStatusCode().is2xxSuccessful();
+    }
+
+    private ResponseEntity<Map<String, Object>> exchange(String path, HttpMethod method) {
+        HttpEntity<String> entity = new HttpEntity<>(jsonHeaders());
+        return restTemplate.exchange(backend.getLobbiesUrl() + path, method, entity, JSON_OBJECT);
+    }
+}
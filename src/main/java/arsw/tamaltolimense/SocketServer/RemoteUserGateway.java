@@ -0,0 +1,48 @@
+package arsw.tamaltolimense.SocketServer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Saldos en el microservicio remoto de usuarios
+@Component
+@ConditionalOnProperty(name = "hiddencargo.backend.mode", havingValue = "remote", matchIfMissing = true)
+public class RemoteUserGateway extends RemoteGatewaySupport implements UserGateway {
+    private static final Logger logger = LoggerFactory.getLogger(RemoteUserGateway.class);
+
+    public RemoteUserGateway(RestTemplate restTemplate, BackendProperties backend) {
+        super(restTemplate, backend);
+    }
+
+    @Override
+    public Integer addToBalance(String username, int amount) {
+        // Crear los datos para la petición
+        Map<String, Object> requestData = new HashMap<>();
+        requestData.put("username", username);
+        requestData.put("amount", amount);
+
+        ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
+                backend.getUsersUrl(),
+                HttpMethod.POST,
+                new HttpEntity<>(requestData, jsonHeaders()),
+                JSON_OBJECT
+        );
+
+        // Verificar respuesta
+        Map<?, ?> responseData = response.getBody();
+        if (response.getStatusCode().is2xxSuccessful() && responseData != null
+                && responseData.get("userBalance") instanceof Number balance) {
+            return balance.intValue();
+        }
+        logger.warn("La respuesta del servicio no contiene el campo userBalance: {}", responseData);
+        return null;
+    }
+}
@@ -0,0 +1,64 @@
+package arsw.tamaltolimense.SocketServer;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+// Tiempos de espera, circuit breakers y bulkheads de las llamadas a los servicios externos
+@ConfigurationProperties(prefix = "hiddencargo.resilience")
+public class ResilienceProperties {
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration readTimeout = Duration.ofSeconds(3);
+
+    // Circuit breaker: ventana por número de llamadas
+    private float failureRateThreshold = 50;
+    private float slowCallRateThreshold = 80;
+    private Duration slowCallDurationThreshold = Duration.ofSeconds(2);
+    private int slidingWindowSize = 20;
+    private int minimumNumberOfCalls = 10;
+    private Duration waitDurationInOpenState = Duration.ofSeconds(10);
+    private int permittedCallsInHalfOpenState = 3;
+
+    // Bulkhead: llamadas concurrentes por dependencia (lobbies, bids, containers, users)
+    private Map<String, Integer> maxConcurrentCalls = new HashMap<>(Map.of(
+            "lobbies", 16,
+            "bids", 32,
+            "containers", 8,
+            "users", 8));
+
+    // Cola de llamadas diferidas que se reenvían cuando el circuito se cierra
+    private int deferredQueueCapacity = 1000;
+    private Duration replayInterval = Duration.ofSeconds(1);
+
+    // Límite de concurrencia de una dependencia; 8 si no está configurada
+    int maxConcurrentCallsFor(BackendDependency dependency) {
+        return maxConcurrentCalls.getOrDefault(dependency.id(), 8);
+    }
+
+    public Duration getConnectTimeout() { return connectTimeout; }
+    public void setConnectTimeout(Duration connectTimeout) { this.connectTimeout = connectTimeout; }
+    public Duration getReadTimeout() { return readTimeout; }
+    public void setReadTimeout(Duration readTimeout) { this.readTimeout = readTimeout; }
+    public float getFailureRateThreshold() { return failureRateThreshold; }
+    public void setFailureRateThreshold(float failureRateThreshold) { this.failureRateThreshold = failureRateThreshold; }
+    public float getSlowCallRateThreshold() { return slowCallRateThreshold; }
+    public void setSlowCallRateThreshold(float slowCallRateThreshold) { this.slowCallRateThreshold = slowCallRateThreshold; }
+    public Duration getSlowCallDurationThreshold() { return slowCallDurationThreshold; }
+    public void setSlowCallDurationThreshold(Duration slowCallDurationThreshold) { this.slowCallDurationThreshold = slowCallDurationThreshold; }
+    public int getSlidingWindowSize() { return slidingWindowSize; }
+    public void setSlidingWindowSize(int slidingWindowSize) { this.slidingWindowSize = slidingWindowSize; }
+    public int getMinimumNumberOfCalls() { return minimumNumberOfCalls; }
+    public void setMinimumNumberOfCalls(int minimumNumberOfCalls) { this.minimumNumberOfCalls = minimumNumberOfCalls; }
+    public Duration getWaitDurationInOpenState() { return waitDurationInOpenState; }
+    public void setWaitDurationInOpenState(Duration waitDurationInOpenState) { this.waitDurationInOpenState = waitDurationInOpenState; }
+    public int getPermittedCallsInHalfOpenState() { return permittedCallsInHalfOpenState; }
+    public void setPermittedCallsInHalfOpenState(int permittedCallsInHalfOpenState) { this.permittedCallsInHalfOpenState = permittedCallsInHalfOpenState; }
+    public Map<String, Integer> getMaxConcurrentCalls() { return maxConcurrentCalls; }
+    public void setMaxConcurrentCalls(Map<String, Integer> maxConcurrentCalls) { this.maxConcurrentCalls = maxConcurrentCalls; }
+    public int getDeferredQueueCapacity() { return deferredQueueCapacity; }
+    public void setDeferredQueueCapacity(int deferredQueueCapacity) { this.deferredQueueCapacity = deferredQueueCapacity; }
+    public Duration getReplayInterval() { return replayInterval; }
+    public void setReplayInterval(Duration replayInterval) { this.replayInterval = replayInterval; }
+}
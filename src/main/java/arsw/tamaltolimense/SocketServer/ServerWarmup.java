@@ -0,0 +1,169 @@
+package arsw.tamaltolimense.SocketServer;
+
+import com.corundumstudio.socketio.namespace.Namespace;
+import com.corundumstudio.socketio.protocol.Event;
+import com.corundumstudio.socketio.protocol.JsonSupport;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.Unpooled;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+// Calentamiento al arrancar: conexiones con los servicios externos, reserva de contenedores y
+// iteraciones sintéticas de codificación/decodificación de eventos y de apuestas para que el JIT
+// compile las rutas críticas. Como ApplicationRunner termina antes de que Spring Boot publique
+// ReadinessState.ACCEPTING_TRAFFIC, /actuator/health/readiness no responde UP hasta entonces.
+@Component
+public class ServerWarmup implements ApplicationRunner {
+    private static final Logger logger = LoggerFactory.getLogger(ServerWarmup.class);
+
+    private static final int PLAYERS = 4;
+    private static final int BIDS_PER_ROUND = 50;
+
+    private final WarmupProperties properties;
+    private final ContainerPool containerPool;
+    private final ObjectProvider<RemoteBackendPreconnect> preconnect;
+    private final LobbySocketService lobbySocketService;
+
+    public ServerWarmup(WarmupProperties properties, ContainerPool containerPool,
+                        ObjectProvider<RemoteBackendPreconnect> preconnect, LobbySocketService lobbySocketService) {
+        this.properties = properties;
+        this.containerPool = containerPool;
+        this.preconnect = preconnect;
+        this.lobbySocketService = lobbySocketService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        if (!properties.isEnabled()) {
+            logger.info("Calentamiento desactivado");
+            return;
+        }
+        long start = System.nanoTime();
+
+        RemoteBackendPreconnect remote = properties.isPreconnect() ? preconnect.getIfAvailable() : null;
+        int reached = remote != null ? remote.preconnect() : 0;
+        int containers = containerPool.prefill();
+        long checksum = encodeDecode(lobbySocketService.jsonSupport(), properties.getIterations());
+        checksum += processBids(properties.getIterations());
+
+        logger.info("Calentamiento completado en {} ms: {} servicios conectados, {} contenedores precargados, {} iteraciones",
+                (System.nanoTime() - start) / 1_000_000, reached, containers, properties.getIterations());
+        logger.debug("Suma de control del calentamiento: {}", checksum);
+    }
+
+    // Los mismos eventos que salen y entran en una partida, con el JsonSupport del servidor
+    // para que sus serializadores queden ya resueltos
+    static long encodeDecode(JsonSupport jsonSupport, int iterations) throws IOException {
+        ContainerInfo container = new ContainerInfo();
+        container.setId("container-warmup-color:azul-objects:Reloj,350.0;Cuadro,1200.5");
+        container.setType("Épico");
+        container.setValue(1550);
+
+        GameRoster roster = new GameRoster(Arrays.asList("warmup-0", "warmup-1", "warmup-2", "warmup-3"));
+        GameStartedData started = new GameStartedData();
+        started.setPlayers(roster.nicknames());
+        started.setContainer(container);
+        started.setInitialBid(AuctionRules.INITIAL_BID);
+        started.setRound(1);
+        started.setTotalRounds(5);
+
+        NewRoundData round = new NewRoundData();
+        round.setRound(1);
+        round.setTotalRounds(5);
+        round.setContainer(container);
+        round.setInitialBid(AuctionRules.INITIAL_BID);
+
+        PlayerUpdateData update = new PlayerUpdateData();
+        update.setNickname("warmup-0");
+        update.setBalance(2000);
+
+        GameEndData end = new GameEndData();
+        end.setWinner("warmup-0");
+        end.setFinalScores(roster.standings());
+
+        List<List<Object>> outbound = List.of(
+                List.of("gameStarted", started),
+                List.of("newRound", round),
+                List.of("newBid", new NewBidData("warmup-1", 150, System.currentTimeMillis())),
+                List.of("playerUpdate", update),
+                List.of("gameEnd", end));
+        byte[] inbound = "[\"placeBid\",{\"lobbyName\":\"warmup\",\"nickname\":\"warmup-0\",\"amount\":150}]"
+                .getBytes(StandardCharsets.UTF_8);
+
+        long checksum = 0;
+        ByteBuf buffer = Unpooled.buffer();
+        try {
+            for (int i = 0; i < iterations; i++) {
+                buffer.clear();
+                jsonSupport.writeValue(new ByteBufOutputStream(buffer), outbound.get(i % outbound.size()));
+                checksum += buffer.readableBytes();
+
+                buffer.clear().writeBytes(inbound);
+                Event event = jsonSupport.readValue(Namespace.DEFAULT_NAME, new ByteBufInputStream(buffer), Event.class);
+                checksum += event.getArgs().size();
+            }
+        } finally {
+            buffer.release();
+        }
+        return checksum;
+    }
+
+    // Apuestas, cierre y liquidación de rondas sobre una partida sintética
+    static long processBids(int iterations) {
+        ContainerInfo container = new ContainerInfo();
+        container.setId("container-warmup");
+        container.setType("Normal");
+        container.setValue(400);
+
+        GameRoster roster = new GameRoster(Arrays.asList("warmup-0", "warmup-1", "warmup-2", "warmup-3"));
+        GameState gameState = new GameState();
+        gameState.setLobbyName("warmup");
+        gameState.setRoster(roster);
+        gameState.setCurrentContainer(container);
+
+        long checksum = 0;
+        int round = 0;
+        for (int i = 0; i < iterations; i++) {
+            if (i % BIDS_PER_ROUND == 0) {
+                if (gameState.getPhase() == GamePhase.BIDDING) {
+                    gameState.transitionTo(GamePhase.REVEALING);
+                    gameState.getBids().close();
+                    // Cada ronda sintética recibe apuestas, así que siempre hay ganador
+                    BidResultData result = AuctionRules.computeRoundResult(gameState);
+                    AuctionRules.settleRound(roster, roster.seatOf(result.getWinner()), result);
+                    checksum += result.getProfit();
+                }
+                gameState.transitionTo(GamePhase.BIDDING);
+                round = round % 1000 + 1;
+                gameState.setCurrentRound(round);
+                gameState.getBids().open(round, AuctionRules.INITIAL_BID);
+                for (int seat = 0; seat < PLAYERS; seat++) {
+                    roster.setBalance(seat, 1 << 20);
+                }
+            }
+            int seat = i % PLAYERS;
+            // Una de cada ocho apuestas no supera la actual y una de cada dieciséis llega con la
+            // ronda anterior, para que también se compilen los rechazos
+            int amount = gameState.getCurrentBid() + (i & 7);
+            int bidRound = (i & 15) == 15 ? round - 1 : round;
+            if (AuctionRules.validateBid(gameState, seat, amount) == null) {
+                long previous = AuctionRules.placeBid(gameState, seat, bidRound, amount);
+                if (previous >= 0) {
+                    checksum += AuctionRules.refundPreviousBidder(gameState, previous, seat);
+                }
+            }
+        }
+        return checksum;
+    }
+}
@@ -0,0 +1,67 @@
+package arsw.tamaltolimense.SocketServer;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Nickname y lobby de cada sesión conectada. A diferencia de BoundedStore, las entradas viven
+// exactamente lo que la conexión: se crean al conectar y se quitan al desconectar, sin
+// expiración ni descarte por tamaño. Perder la de un socket abierto haría que su desconexión no
+// supiera de qué lobby sacar al jugador y lo dejaría fantasma en el lobby. El tamaño queda
+// acotado por las conexiones abiertas y se publica como hiddencargo.store.size{store=sessions}.
+final class SessionStore {
+
+    // Nickname y lobby de una sesión; null hasta que se une a un lobby
+    record Session(String nickname, String lobbyName) {
+        static final Session NONE = new Session(null, null);
+    }
+
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+
+    SessionStore(MeterRegistry meterRegistry) {
+        Gauge.builder("hiddencargo.store.size", sessions, Map::size)
+                .description("Entradas en el mapa en memoria")
+                .tag("store", "sessions")
+                .register(meterRegistry);
+    }
+
+    void connected(String sessionId) {
+        sessions.putIfAbsent(sessionId, Session.NONE);
+    }
+
+    // Quita la sesión y devuelve lo que tenía; NONE si no estaba
+    Session disconnected(String sessionId) {
+        Session session = sessions.remove(sessionId);
+        return session != null ? session : Session.NONE;
+    }
+
+    // Asocia nickname y lobby a la sesión; false si ya se desconectó, en cuyo caso no se guarda
+    // nada que luego nadie quitaría
+    boolean join(String sessionId, String nickname, String lobbyName) {
+        return sessions.computeIfPresent(sessionId, (id, current) -> new Session(nickname, lobbyName)) != null;
+    }
+
+    // La sesión sigue conectada pero sin nickname ni lobby
+    void clear(String sessionId) {
+        sessions.computeIfPresent(sessionId, (id, current) -> Session.NONE);
+    }
+
+    // La sesión conserva su nickname pero deja el lobby
+    void leaveLobby(String sessionId) {
+        sessions.computeIfPresent(sessionId, (id, current) -> new Session(current.nickname(), null));
+    }
+
+    String nickname(String sessionId) {
+        return sessions.getOrDefault(sessionId, Session.NONE).nickname();
+    }
+
+    String lobbyName(String sessionId) {
+        return sessions.getOrDefault(sessionId, Session.NONE).lobbyName();
+    }
+
+    int size() {
+        return sessions.size();
+    }
+}
@@ -0,0 +1,42 @@
+package arsw.tamaltolimense.SocketServer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import org.springframework.stereotype.Component;
+
+// Cuenta escrituras y flushes que llegan al socket (se instala en la cabeza del pipeline),
+// para medir cuántas escrituras agrupa cada flush
+@Component
+@ChannelHandler.Sharable
+public class SocketChannelMetrics extends ChannelOutboundHandlerAdapter {
+
+    static final String HANDLER_NAME = "socketMetrics";
+
+    private final Counter writes;
+    private final Counter flushes;
+
+    public SocketChannelMetrics(MeterRegistry meterRegistry) {
+        writes = Counter.builder("hiddencargo.socket.writes")
+                .description("Buffers escritos hacia el socket")
+                .register(meterRegistry);
+        flushes = Counter.builder("hiddencargo.socket.flushes")
+                .description("Flushes que llegan al socket")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+        writes.increment();
+        super.write(ctx, msg, promise);
+    }
+
+    @Override
+    public void flush(ChannelHandlerContext ctx) throws Exception {
+        flushes.increment();
+        super.flush(ctx);
+    }
+}
@@ -0,0 +1,15 @@
+package arsw.tamaltolimense.SocketServer;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+// Configuración del servidor netty-socketio
+@ConfigurationProperties(prefix = "socketio")
+public class SocketServerProperties {
+    private String hostname = "0.0.0.0";
+    private int port = 443;
+
+    public String getHostname() { return hostname; }
+    public void setHostname(String hostname) { this.hostname = hostname; }
+    public int getPort() { return port; }
+    public void setPort(int port) { this.port = port; }
+}
@@ -0,0 +1,190 @@
+package arsw.tamaltolimense.SocketServer;
+
+import com.corundumstudio.socketio.SocketIOClient;
+import com.corundumstudio.socketio.SocketIOServer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+// Feed de solo lectura para los espectadores de una partida. Cada lobby observado tiene su propia
+// sala ("spectate:<lobby>"), separada de la de los jugadores, así que los eventos de la partida
+// no se multiplican por la audiencia. Un hilo propio toma cada snapshot-interval una foto del
+// estado, la serializa una sola vez (EncodedEvent) y, si cambió, la envía a la sala; en las colas
+// de los clientes atascados solo se conserva la última foto.
+@Component
+public final class SpectatorFeed {
+    private static final Logger logger = LoggerFactory.getLogger(SpectatorFeed.class);
+
+    static final String SNAPSHOT_EVENT = "spectatorSnapshot";
+    private static final String ROOM_PREFIX = "spectate:";
+
+    private final SpectatorProperties properties;
+    private final GameBroadcaster broadcaster;
+    private final AuctionClock auctionClock;
+    private final Map<String, LobbyFeed> feeds = new ConcurrentHashMap<>();
+    private final Set<UUID> spectators = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService ticker;
+    private final Counter snapshots;
+    private final Counter deliveries;
+    private final Counter rejected;
+    private volatile SocketIOServer server;
+    private volatile GameJsonSupport jsonSupport;
+    private volatile Function<String, GameState> games;
+
+    public SpectatorFeed(SpectatorProperties properties, GameBroadcaster broadcaster, AuctionClock auctionClock,
+                         MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.broadcaster = broadcaster;
+        this.auctionClock = auctionClock;
+        Gauge.builder("hiddencargo.spectators.sessions", spectators, Set::size)
+                .description("Sesiones conectadas como espectador")
+                .register(meterRegistry);
+        Gauge.builder("hiddencargo.spectators.lobbies", feeds, Map::size)
+                .description("Lobbies con al menos un espectador")
+                .register(meterRegistry);
+        snapshots = Counter.builder("hiddencargo.spectators.snapshots")
+                .description("Fotos del estado serializadas para los espectadores")
+                .register(meterRegistry);
+        deliveries = Counter.builder("hiddencargo.spectators.deliveries")
+                .description("Fotos entregadas a espectadores (una por espectador)")
+                .register(meterRegistry);
+        rejected = Counter.builder("hiddencargo.spectators.rejected")
+                .description("Espectadores rechazados por lobby lleno o feed desactivado")
+                .register(meterRegistry);
+
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "spectator-feed");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = Math.max(1, properties.getSnapshotInterval().toMillis());
+        ticker.scheduleAtFixedRate(this::publishSnapshots, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    void attach(SocketIOServer server, GameJsonSupport jsonSupport, Function<String, GameState> games) {
+        this.jsonSupport = jsonSupport;
+        this.games = games;
+        this.server = server;
+        server.addDisconnectListener(client -> spectators.remove(client.getSessionId()));
+    }
+
+    boolean isSpectator(SocketIOClient client) {
+        return spectators.contains(client.getSessionId());
+    }
+
+    // Une al cliente al feed del lobby; devuelve el motivo del rechazo o null si quedó dentro
+    String watch(SocketIOClient client, String lobbyName) {
+        if (!properties.isEnabled()) {
+            rejected.increment();
+            return "Error: el modo espectador está desactivado";
+        }
+        if (audience(lobbyName) >= properties.getMaxPerLobby()) {
+            rejected.increment();
+            return "Error: el lobby " + lobbyName + " no admite más espectadores";
+        }
+        spectators.add(client.getSessionId());
+        client.joinRoom(room(lobbyName));
+        LobbyFeed feed = feeds.computeIfAbsent(lobbyName, name -> new LobbyFeed());
+        // La última foto al momento; la siguiente llega con el próximo cambio
+        EncodedEvent last = feed.last;
+        if (last != null) {
+            broadcaster.toClient(client, SNAPSHOT_EVENT, last);
+        }
+        return null;
+    }
+
+    void unwatch(SocketIOClient client, String lobbyName) {
+        client.leaveRoom(room(lobbyName));
+        // Sin ningún otro lobby observado la sesión vuelve a poder jugar
+        if (client.getAllRooms().stream().noneMatch(name -> name.startsWith(ROOM_PREFIX))) {
+            spectators.remove(client.getSessionId());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+    }
+
+    void publishSnapshots() {
+        if (server == null) {
+            return;
+        }
+        for (Map.Entry<String, LobbyFeed> entry : feeds.entrySet()) {
+            try {
+                publish(entry.getKey(), entry.getValue());
+            } catch (IOException | RuntimeException e) {
+                // Sin esto el ScheduledExecutorService dejaría de ejecutar la tarea
+                logger.warn("No se pudo enviar la foto del lobby {} a los espectadores: {}", entry.getKey(), e.toString());
+            }
+        }
+    }
+
+    private void publish(String lobbyName, LobbyFeed feed) throws IOException {
+        int audience = audience(lobbyName);
+        if (audience == 0) {
+            feeds.remove(lobbyName, feed);
+            // Alguien pudo entrar mientras se retiraba el feed
+            if (audience(lobbyName) > 0) {
+                feeds.putIfAbsent(lobbyName, new LobbyFeed());
+            }
+            return;
+        }
+        EncodedEvent frame = jsonSupport.encode(SNAPSHOT_EVENT, snapshot(lobbyName, audience));
+        if (feed.last != null && Arrays.equals(feed.last.packet(), frame.packet())) {
+            return;
+        }
+        feed.last = frame;
+        snapshots.increment();
+        deliveries.increment(audience);
+        broadcaster.toRoomLatest(room(lobbyName), SNAPSHOT_EVENT, room(lobbyName), frame);
+    }
+
+    private SpectatorSnapshotData snapshot(String lobbyName, int audience) {
+        SpectatorSnapshotData snapshot = new SpectatorSnapshotData();
+        snapshot.setLobbyName(lobbyName);
+        snapshot.setSpectators(audience);
+        GameState game = games.apply(lobbyName);
+        if (game == null) {
+            // Sin partida en curso: esperando a que empiece
+            snapshot.setPhase("WAITING");
+            return snapshot;
+        }
+        snapshot.setPhase(game.getPhase().name());
+        snapshot.setRound(game.getCurrentRound());
+        snapshot.setTotalRounds(game.getTotalRounds());
+        snapshot.setCurrentBid(game.getCurrentBid());
+        snapshot.setLastBidder(game.getLastBidder());
+        snapshot.setDeadline(auctionClock.deadline(lobbyName));
+        snapshot.setContainer(game.getCurrentContainer());
+        snapshot.setPlayers(game.getRoster().standings());
+        return snapshot;
+    }
+
+    private int audience(String lobbyName) {
+        return server.getRoomOperations(room(lobbyName)).getClients().size();
+    }
+
+    private static String room(String lobbyName) {
+        return ROOM_PREFIX + lobbyName;
+    }
+
+    private static final class LobbyFeed {
+        private volatile EncodedEvent last;
+    }
+}
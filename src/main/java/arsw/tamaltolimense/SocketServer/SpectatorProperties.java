@@ -0,0 +1,23 @@
+package arsw.tamaltolimense.SocketServer;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+// Espectadores de las partidas (SpectatorFeed): en lugar de los eventos de los jugadores reciben
+// una foto del estado como mucho cada snapshot-interval, y solo si cambió
+@ConfigurationProperties(prefix = "hiddencargo.spectators")
+public class SpectatorProperties {
+    private boolean enabled = true;
+    // 200 ms = 5 fotos por segundo como máximo
+    private Duration snapshotInterval = Duration.ofMillis(200);
+    // Espectadores por lobby; los que lleguen después se rechazan
+    private int maxPerLobby = 1000;
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public Duration getSnapshotInterval() { return snapshotInterval; }
+    public void setSnapshotInterval(Duration snapshotInterval) { this.snapshotInterval = snapshotInterval; }
+    public int getMaxPerLobby() { return maxPerLobby; }
+    public void setMaxPerLobby(int maxPerLobby) { this.maxPerLobby = maxPerLobby; }
+}
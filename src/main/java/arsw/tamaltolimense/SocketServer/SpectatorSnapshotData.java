@@ -0,0 +1,40 @@
+package arsw.tamaltolimense.SocketServer;
+
+import java.util.List;
+
+// Estado de una partida para los espectadores, enviado como mucho a la frecuencia del feed
+class SpectatorSnapshotData {
+    private String lobbyName;
+    private String phase;
+    private int round;
+    private int totalRounds;
+    private int currentBid;
+    private String lastBidder;
+    private long deadline;
+    private ContainerInfo container;
+    private List<PlayerState> players;
+    private int spectators;
+
+    public SpectatorSnapshotData() {}
+
+    public String getLobbyName() { return lobbyName; }
+    public void setLobbyName(String lobbyName) { this.lobbyName = lobbyName; }
+    public String getPhase() { return phase; }
+    public void setPhase(String phase) { this.phase = phase; }
+    public int getRound() { return round; }
+    public void setRound(int round) { this.round = round; }
+    public int getTotalRounds() { return totalRounds; }
+    public void setTotalRounds(int totalRounds) { this.totalRounds = totalRounds; }
+    public int getCurrentBid() { return currentBid; }
+    public void setCurrentBid(int currentBid) { this.currentBid = currentBid; }
+    public String getLastBidder() { return lastBidder; }
+    public void setLastBidder(String lastBidder) { this.lastBidder = lastBidder; }
+    public long getDeadline() { return deadline; }
+    public void setDeadline(long deadline) { this.deadline = deadline; }
+    public ContainerInfo getContainer() { return container; }
+    public void setContainer(ContainerInfo container) { this.container = container; }
+    public List<PlayerState> getPlayers() { return players; }
+    public void setPlayers(List<PlayerState> players) { this.players = players; }
+    public int getSpectators() { return spectators; }
+    public void setSpectators(int spectators) { this.spectators = spectators; }
+}
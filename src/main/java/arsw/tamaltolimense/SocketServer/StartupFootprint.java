@@ -0,0 +1,50 @@
+package arsw.tamaltolimense.SocketServer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+// Huella del proceso al quedar listo (tras el calentamiento): tiempo de arranque, hilos vivos y
+// memoria residente, para comparar el perfil "lean" sin Tomcat con el arranque completo
+@Component
+public class StartupFootprint {
+    private static final Logger logger = LoggerFactory.getLogger(StartupFootprint.class);
+
+    private static final Path PROC_STATUS = Path.of("/proc/self/status");
+
+    @EventListener
+    public void onReady(ApplicationReadyEvent event) {
+        logger.info("Listo en {} ms: pila web {}, {} hilos, RSS {} MB",
+                event.getTimeTaken() != null ? event.getTimeTaken().toMillis() : -1,
+                event.getSpringApplication().getWebApplicationType(),
+                ManagementFactory.getThreadMXBean().getThreadCount(),
+                residentKilobytes() / 1024);
+    }
+
+    // VmRSS de /proc (Linux); -1 si no está disponible
+    static long residentKilobytes() {
+        return residentKilobytes(PROC_STATUS);
+    }
+
+    static long residentKilobytes(Path procStatus) {
+        try {
+            List<String> lines = Files.readAllLines(procStatus);
+            for (String line : lines) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.substring(6).trim().split("\\s+")[0]);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.debug("No se pudo leer la memoria residente: {}", e.getMessage());
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,39 @@
+package arsw.tamaltolimense.SocketServer;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+// Límites de los mapas en memoria de LobbySocketService: cada uno se vacía con el ciclo de vida
+// del jugador o la partida, y el tamaño máximo y la expiración por inactividad evitan que
+// crezcan sin control si algún evento de limpieza no llega. Las sesiones no tienen límite
+// propio: viven lo que su conexión (SessionStore).
+@ConfigurationProperties(prefix = "hiddencargo.stores")
+public class StoreProperties {
+    // Balances informados por los clientes con updatePlayerBalance
+    private int balancesMaxSize = 100_000;
+    private Duration balanceTtl = Duration.ofHours(24);
+    // Jugadores listos para la siguiente ronda por lobby; se borran al terminar la partida
+    private int readyLobbiesMaxSize = 10_000;
+    private Duration readyTtl = Duration.ofHours(1);
+    // Historial de chat por lobby (ChatHistory); su tamaño por lobby se fija en hiddencargo.chat
+    private int chatLobbiesMaxSize = 10_000;
+    private Duration chatTtl = Duration.ofHours(1);
+    // Cada cuánto se retiran las entradas expiradas que nadie ha vuelto a leer
+    private Duration sweepInterval = Duration.ofMinutes(1);
+
+    public int getBalancesMaxSize() { return balancesMaxSize; }
+    public void setBalancesMaxSize(int balancesMaxSize) { this.balancesMaxSize = balancesMaxSize; }
+    public Duration getBalanceTtl() { return balanceTtl; }
+    public void setBalanceTtl(Duration balanceTtl) { this.balanceTtl = balanceTtl; }
+    public int getReadyLobbiesMaxSize() { return readyLobbiesMaxSize; }
+    public void setReadyLobbiesMaxSize(int readyLobbiesMaxSize) { this.readyLobbiesMaxSize = readyLobbiesMaxSize; }
+    public Duration getReadyTtl() { return readyTtl; }
+    public void setReadyTtl(Duration readyTtl) { this.readyTtl = readyTtl; }
+    public int getChatLobbiesMaxSize() { return chatLobbiesMaxSize; }
+    public void setChatLobbiesMaxSize(int chatLobbiesMaxSize) { this.chatLobbiesMaxSize = chatLobbiesMaxSize; }
+    public Duration getChatTtl() { return chatTtl; }
+    public void setChatTtl(Duration chatTtl) { this.chatTtl = chatTtl; }
+    public Duration getSweepInterval() { return sweepInterval; }
+    public void setSweepInterval(Duration sweepInterval) { this.sweepInterval = sweepInterval; }
+}
@@ -0,0 +1,89 @@
+package arsw.tamaltolimense.SocketServer;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+// Transporte de red del servidor Socket.IO. Los valores por defecto son los de netty-socketio
+// (NIO, hilos por defecto de Netty, buffers del sistema); el perfil "production" los ajusta.
+// Un valor de -1 o 0 deja la opción sin tocar.
+@ConfigurationProperties(prefix = "socketio.transport")
+public class TransportProperties {
+    // epoll nativo de Linux; si no está disponible se usa NIO
+    private boolean nativeEpoll = false;
+    private int bossThreads = 0;
+    private int workerThreads = 0;
+
+    // Canales de aceptación sobre el mismo puerto; más de uno requiere epoll y SO_REUSEPORT
+    private int acceptors = 1;
+    private boolean reusePort = false;
+    private boolean reuseAddress = false;
+    private boolean tcpNoDelay = true;
+    private boolean tcpKeepAlive = false;
+    private int acceptBackLog = 1024;
+    private int tcpSendBufferSize = -1;
+    private int tcpReceiveBufferSize = -1;
+
+    // Límites del buffer de escritura por canal: por encima de high el canal deja de ser escribible
+    private int writeBufferLowWaterMark = -1;
+    private int writeBufferHighWaterMark = -1;
+
+    // Agrupa los flushes de cada canal en uno por vuelta del event loop
+    private boolean flushConsolidation = true;
+    private int explicitFlushAfterFlushes = 256;
+
+    private int maxFramePayloadLength = 64 * 1024;
+    private int maxHttpContentLength = 64 * 1024;
+
+    // permessage-deflate en WebSocket (nivel 1-9) y tamaño mínimo de trama a comprimir en bytes
+    private boolean websocketCompression = true;
+    private int compressionLevel = 6;
+    private int compressionMinSize = 0;
+    // gzip de las respuestas de long-polling
+    private boolean httpCompression = true;
+    // Rechaza long-polling: los clientes deben conectarse con transports: ['websocket']
+    private boolean websocketOnly = false;
+
+    public boolean isNativeEpoll() { return nativeEpoll; }
+    public void setNativeEpoll(boolean nativeEpoll) { this.nativeEpoll = nativeEpoll; }
+    public int getBossThreads() { return bossThreads; }
+    public void setBossThreads(int bossThreads) { this.bossThreads = bossThreads; }
+    public int getWorkerThreads() { return workerThreads; }
+    public void setWorkerThreads(int workerThreads) { this.workerThreads = workerThreads; }
+    public int getAcceptors() { return acceptors; }
+    public void setAcceptors(int acceptors) { this.acceptors = acceptors; }
+    public boolean isReusePort() { return reusePort; }
+    public void setReusePort(boolean reusePort) { this.reusePort = reusePort; }
+    public boolean isReuseAddress() { return reuseAddress; }
+    public void setReuseAddress(boolean reuseAddress) { this.reuseAddress = reuseAddress; }
+    public boolean isTcpNoDelay() { return tcpNoDelay; }
+    public void setTcpNoDelay(boolean tcpNoDelay) { this.tcpNoDelay = tcpNoDelay; }
+    public boolean isTcpKeepAlive() { return tcpKeepAlive; }
+    public void setTcpKeepAlive(boolean tcpKeepAlive) { this.tcpKeepAlive = tcpKeepAlive; }
+    public int getAcceptBackLog() { return acceptBackLog; }
+    public void setAcceptBackLog(int acceptBackLog) { this.acceptBackLog = acceptBackLog; }
+    public int getTcpSendBufferSize() { return tcpSendBufferSize; }
+    public void setTcpSendBufferSize(int tcpSendBufferSize) { this.tcpSendBufferSize = tcpSendBufferSize; }
+    public int getTcpReceiveBufferSize() { return tcpReceiveBufferSize; }
+    public void setTcpReceiveBufferSize(int tcpReceiveBufferSize) { this.tcpReceiveBufferSize = tcpReceiveBufferSize; }
+    public int getWriteBufferLowWaterMark() { return writeBufferLowWaterMark; }
+    public void setWriteBufferLowWaterMark(int writeBufferLowWaterMark) { this.writeBufferLowWaterMark = writeBufferLowWaterMark; }
+    public int getWriteBufferHighWaterMark() { return writeBufferHighWaterMark; }
+    public void setWriteBufferHighWaterMark(int writeBufferHighWaterMark) { this.writeBufferHighWaterMark = writeBufferHighWaterMark; }
+    public boolean isFlushConsolidation() { return flushConsolidation; }
+    public void setFlushConsolidation(boolean flushConsolidation) { this.flushConsolidation = flushConsolidation; }
+    public int getExplicitFlushAfterFlushes() { return explicitFlushAfterFlushes; }
+    public void setExplicitFlushAfterFlushes(int explicitFlushAfterFlushes) { this.explicitFlushAfterFlushes = explicitFlushAfterFlushes; }
+    public int getMaxFramePayloadLength() { return maxFramePayloadLength; }
+    public void setMaxFramePayloadLength(int maxFramePayloadLength) { this.maxFramePayloadLength = maxFramePayloadLength; }
+    public int getMaxHttpContentLength() { return maxHttpContentLength; }
+    public void setMaxHttpContentLength(int maxHttpContentLength) { this.maxHttpContentLength = maxHttpContentLength; }
+    public boolean isWebsocketCompression() { return websocketCompression; }
+    public void setWebsocketCompression(boolean websocketCompression) { this.websocketCompression = websocketCompression; }
+    public int getCompressionLevel() { return compressionLevel; }
+    public void setCompressionLevel(int compressionLevel) { this.compressionLevel = compressionLevel; }
+    public int getCompressionMinSize() { return compressionMinSize; }
+    public void setCompressionMinSize(int compressionMinSize) { this.compressionMinSize = compressionMinSize; }
+    public boolean isHttpCompression() { return httpCompression; }
+    public void setHttpCompression(boolean httpCompression) { this.httpCompression = httpCompression; }
+    public boolean isWebsocketOnly() { return websocketOnly; }
+    public void setWebsocketOnly(boolean websocketOnly) { this.websocketOnly = websocketOnly; }
+}
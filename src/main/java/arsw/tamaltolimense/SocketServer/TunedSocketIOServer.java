@@ -0,0 +1,155 @@
+package arsw.tamaltolimense.SocketServer;
+
+import com.corundumstudio.socketio.Configuration;
+import com.corundumstudio.socketio.SocketConfig;
+import com.corundumstudio.socketio.SocketIOChannelInitializer;
+import com.corundumstudio.socketio.SocketIOServer;
+import com.corundumstudio.socketio.Transport;
+import com.corundumstudio.socketio.scheduler.CancelableScheduler;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollChannelOption;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Field;
+import java.net.InetSocketAddress;
+
+// SocketIOServer con el transporte de TransportProperties: epoll nativo, tamaño de los grupos
+// boss/worker, opciones de socket y varios canales de aceptación con SO_REUSEPORT para que
+// el kernel reparta las conexiones nuevas entre ellos.
+class TunedSocketIOServer extends SocketIOServer {
+    private static final Logger logger = LoggerFactory.getLogger(TunedSocketIOServer.class);
+
+    private final TransportProperties transport;
+    private ServerBootstrap bootstrap;
+
+    private TunedSocketIOServer(Configuration config, TransportProperties transport) {
+        super(config);
+        this.transport = transport;
+    }
+
+    // Aplica el transporte sobre la configuración ya armada y crea el servidor
+    static TunedSocketIOServer create(Configuration config, TransportProperties transport,
+                                      SocketChannelMetrics channelMetrics,
+                                      ClientBackpressureHandler backpressureHandler,
+                                      NettyAdminHandler adminHandler) {
+        return create(config, transport, Epoll.isAvailable(), channelMetrics, backpressureHandler, adminHandler);
+    }
+
+    // epollAvailable separado de Epoll.isAvailable() para poder probar el respaldo a NIO en Linux
+    static TunedSocketIOServer create(Configuration config, TransportProperties transport, boolean epollAvailable,
+                                      SocketChannelMetrics channelMetrics,
+                                      ClientBackpressureHandler backpressureHandler,
+                                      NettyAdminHandler adminHandler) {
+        boolean epoll = transport.isNativeEpoll() && epollAvailable;
+        if (transport.isNativeEpoll() && !epoll) {
+            logger.warn("epoll nativo no disponible, se usa NIO: {}", String.valueOf(Epoll.unavailabilityCause()));
+        }
+        config.setUseLinuxNativeEpoll(epoll);
+        if (transport.getBossThreads() > 0 || acceptors(transport, epoll) > 1) {
+            // Cada canal de aceptación necesita su propio hilo boss
+            config.setBossThreads(Math.max(transport.getBossThreads(), acceptors(transport, epoll)));
+        }
+        if (transport.getWorkerThreads() > 0) {
+            config.setWorkerThreads(transport.getWorkerThreads());
+        }
+        config.setMaxFramePayloadLength(transport.getMaxFramePayloadLength());
+        config.setMaxHttpContentLength(transport.getMaxHttpContentLength());
+        // permessage-deflate lo instala GameChannelInitializer con el nivel y el umbral configurados
+        config.setWebsocketCompression(false);
+        config.setHttpCompression(transport.isHttpCompression());
+        int compressionLevel = compressionLevel(transport);
+        if (transport.isWebsocketOnly()) {
+            config.setTransports(Transport.WEBSOCKET);
+        }
+
+        SocketConfig socket = config.getSocketConfig();
+        socket.setTcpNoDelay(transport.isTcpNoDelay());
+        socket.setTcpKeepAlive(transport.isTcpKeepAlive());
+        socket.setReuseAddress(transport.isReuseAddress());
+        socket.setAcceptBackLog(transport.getAcceptBackLog());
+        socket.setTcpSendBufferSize(transport.getTcpSendBufferSize());
+        socket.setTcpReceiveBufferSize(transport.getTcpReceiveBufferSize());
+        socket.setWriteBufferWaterMarkLow(transport.getWriteBufferLowWaterMark());
+        socket.setWriteBufferWaterMarkHigh(transport.getWriteBufferHighWaterMark());
+
+        logger.info("Transporte Socket.IO: {}, boss={}, worker={}, aceptadores={}, TCP_NODELAY={}, consolidación de flush={}",
+                epoll ? "epoll" : "nio", config.getBossThreads(), config.getWorkerThreads(),
+                acceptors(transport, epoll), transport.isTcpNoDelay(), transport.isFlushConsolidation());
+        logger.info("Compresión Socket.IO: websocket={} (nivel {}, mínimo {} bytes), polling={}, solo websocket={}",
+                transport.isWebsocketCompression(), compressionLevel, transport.getCompressionMinSize(),
+                transport.isHttpCompression(), transport.isWebsocketOnly());
+        TunedSocketIOServer server = new TunedSocketIOServer(config, transport);
+        releaseDefaultPipeline(server);
+        server.setPipelineFactory(new GameChannelInitializer(transport, compressionLevel, channelMetrics,
+                backpressureHandler, adminHandler));
+        return server;
+    }
+
+    // Nivel de permessage-deflate que se usa de verdad; no se corrige en TransportProperties porque
+    // otros beans y /actuator leen la configuración tal como se escribió
+    static int compressionLevel(TransportProperties transport) {
+        int level = transport.getCompressionLevel();
+        if (transport.isWebsocketCompression() && !WebSocketDeflate.isValidLevel(level)) {
+            logger.warn("Nivel de compresión {} inválido, se usa 6", level);
+            return 6;
+        }
+        return level;
+    }
+
+    // El constructor de SocketIOServer crea su propio SocketIOChannelInitializer, con un
+    // HashedWheelTimer, que setPipelineFactory descarta. Nadie detiene ese temporizador y Netty lo
+    // reporta como LEAK al recolectarlo. El stop() del inicializador necesita la configuración que
+    // recibe en start(), así que se detiene directamente su planificador.
+    static void releaseDefaultPipeline(SocketIOServer server) {
+        try {
+            Field pipelineField = SocketIOServer.class.getDeclaredField("pipelineFactory");
+            pipelineField.setAccessible(true);
+            Object pipeline = pipelineField.get(server);
+            Field schedulerField = SocketIOChannelInitializer.class.getDeclaredField("scheduler");
+            schedulerField.setAccessible(true);
+            ((CancelableScheduler) schedulerField.get(pipeline)).shutdown();
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            logger.debug("No se pudo detener el temporizador del inicializador por defecto: {}", e.toString());
+        }
+    }
+
+    // Solo con epoll y SO_REUSEPORT pueden varios canales escuchar en el mismo puerto
+    private static int acceptors(TransportProperties transport, boolean epoll) {
+        if (transport.getAcceptors() > 1 && !(epoll && transport.isReusePort())) {
+            return 1;
+        }
+        return Math.max(1, transport.getAcceptors());
+    }
+
+    @Override
+    protected void applyConnectionOptions(ServerBootstrap bootstrap) {
+        super.applyConnectionOptions(bootstrap);
+        if (getConfiguration().isUseLinuxNativeEpoll() && transport.isReusePort()) {
+            bootstrap.option(EpollChannelOption.SO_REUSEPORT, true);
+        }
+        this.bootstrap = bootstrap;
+    }
+
+    @Override
+    public void start() {
+        super.start();
+        int acceptors = acceptors(transport, getConfiguration().isUseLinuxNativeEpoll());
+        if (transport.getAcceptors() > acceptors) {
+            logger.warn("Se pidieron {} aceptadores pero sin epoll y SO_REUSEPORT solo se usa uno",
+                    transport.getAcceptors());
+        }
+        // El primer canal ya lo abrió SocketIOServer; los demás reutilizan el mismo bootstrap
+        for (int i = 1; i < acceptors; i++) {
+            bootstrap.bind(bindAddress()).syncUninterruptibly();
+        }
+    }
+
+    private InetSocketAddress bindAddress() {
+        Configuration config = getConfiguration();
+        return config.getHostname() != null
+                ? new InetSocketAddress(config.getHostname(), config.getPort())
+                : new InetSocketAddress(config.getPort());
+    }
+}
@@ -0,0 +1,8 @@
+package arsw.tamaltolimense.SocketServer;
+
+// Saldos de los usuarios fuera de la partida
+public interface UserGateway {
+
+    // Suma el monto al saldo del usuario; devuelve el nuevo saldo o null si el servicio no lo informa
+    Integer addToBalance(String username, int amount);
+}
@@ -0,0 +1,25 @@
+package arsw.tamaltolimense.SocketServer;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+// Calentamiento antes de declarar el nodo listo (/actuator/health/readiness): conexiones a los
+// servicios externos, contenedores precargados e iteraciones sintéticas para el JIT
+@ConfigurationProperties(prefix = "hiddencargo.warmup")
+public class WarmupProperties {
+    private boolean enabled = true;
+    // Abrir antes las conexiones con los servicios externos (solo con hiddencargo.backend.mode=remote)
+    private boolean preconnect = true;
+    // Iteraciones de codificación/decodificación de eventos y de apuestas; superan el umbral de C2
+    private int iterations = 20_000;
+    // Contenedores pedidos por adelantado para que el inicio de partida no espere al servicio
+    private int containerPoolSize = 32;
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public boolean isPreconnect() { return preconnect; }
+    public void setPreconnect(boolean preconnect) { this.preconnect = preconnect; }
+    public int getIterations() { return iterations; }
+    public void setIterations(int iterations) { this.iterations = iterations; }
+    public int getContainerPoolSize() { return containerPoolSize; }
+    public void setContainerPoolSize(int containerPoolSize) { this.containerPoolSize = containerPoolSize; }
+}
@@ -0,0 +1,49 @@
+package arsw.tamaltolimense.SocketServer;
+
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketExtensionFilter;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketExtensionFilterProvider;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketServerExtensionHandler;
+import io.netty.handler.codec.http.websocketx.extensions.compression.PerMessageDeflateServerExtensionHandshaker;
+
+import java.util.zip.Deflater;
+
+// permessage-deflate con umbral: las tramas por debajo de minSize salen sin comprimir,
+// porque en eventos pequeños (newBid, auctionTimer) la cabecera y el CPU de deflate
+// cuestan más de lo que ahorran. El benchmark de compresión usa este mismo handshaker.
+final class WebSocketDeflate {
+
+    private WebSocketDeflate() {
+    }
+
+    static WebSocketServerExtensionHandler handler(int compressionLevel, int minSize) {
+        return new WebSocketServerExtensionHandler(handshaker(compressionLevel, minSize));
+    }
+
+    static PerMessageDeflateServerExtensionHandshaker handshaker(int compressionLevel, int minSize) {
+        WebSocketExtensionFilter skipSmall = frame -> payloadSize(frame) < minSize;
+        WebSocketExtensionFilterProvider filters = new WebSocketExtensionFilterProvider() {
+            @Override
+            public WebSocketExtensionFilter encoderFilter() {
+                return skipSmall;
+            }
+
+            @Override
+            public WebSocketExtensionFilter decoderFilter() {
+                // Lo que el cliente comprimió siempre hay que descomprimirlo
+                return WebSocketExtensionFilter.NEVER_SKIP;
+            }
+        };
+        // Sin ventana ni contexto propios del servidor: mismos valores por defecto que Netty
+        return new PerMessageDeflateServerExtensionHandshaker(compressionLevel, false,
+                PerMessageDeflateServerExtensionHandshaker.MAX_WINDOW_SIZE, false, false, filters);
+    }
+
+    static boolean isValidLevel(int compressionLevel) {
+        return compressionLevel >= Deflater.BEST_SPEED && compressionLevel <= Deflater.BEST_COMPRESSION;
+    }
+
+    private static int payloadSize(WebSocketFrame frame) {
+        return frame.content().readableBytes();
+    }
+}
@@ -0,0 +1,235 @@
+package arsw.tamaltolimense.SocketServer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class AuctionClockTest {
+    private static final String EXPIRING = "cierre-de-prueba";
+
+    // Tareas programadas con su retraso; el test decide cuándo ejecutarlas
+    private record Scheduled(Runnable task, long delay, ScheduledFuture<?> future) {
+    }
+
+    private final ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+    // Los hilos de trabajo ejecutan cada tarea en el momento, en el hilo que la entrega
+    private final ExecutorService workers = mock(ExecutorService.class);
+    private final List<Scheduled> scheduled = new ArrayList<>();
+    private final AtomicInteger closes = new AtomicInteger();
+    private volatile long time = 1_000;
+    // Si no son null, el cierre que corre en el hilo EXPIRING se detiene al leer la hora
+    private volatile CountDownLatch expiring;
+    private volatile CountDownLatch release;
+    private AuctionClock clock;
+
+    @BeforeEach
+    void setUp() {
+        when(scheduler.schedule(any(Runnable.class), anyLong(), eq(TimeUnit.MILLISECONDS))).thenAnswer(invocation -> {
+            ScheduledFuture<?> future = mock(ScheduledFuture.class);
+            scheduled.add(new Scheduled(invocation.getArgument(0), invocation.getArgument(1), future));
+            return future;
+        });
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(workers).execute(any());
+        clock = new AuctionClock(scheduler, workers) {
+            @Override
+            long now() {
+                if (expiring != null && Thread.currentThread().getName().equals(EXPIRING)) {
+                    expiring.countDown();
+                    awaitQuietly(release);
+                }
+                return time;
+            }
+        };
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Scheduled last() {
+        return scheduled.get(scheduled.size() - 1);
+    }
+
+    @Test
+    void openSchedulesTheCloseAtAnAbsoluteTime() {
+        assertEquals(31_000, clock.open("sala", 30_000, closes::incrementAndGet));
+
+        assertEquals(30_000, last().delay());
+        assertEquals(31_000, clock.deadline("sala"));
+        assertTrue(clock.isOpen("sala", 30_999));
+        assertFalse(clock.isOpen("sala", 31_000));
+        assertEquals(-1, clock.deadline("otra"));
+        assertFalse(clock.isOpen("otra", 0));
+    }
+
+    @Test
+    void closeRunsOnceTheDeadlinePasses() {
+        clock.open("sala", 30_000, closes::incrementAndGet);
+        time = 31_000;
+
+        last().task().run();
+
+        assertEquals(1, closes.get());
+        assertEquals(-1, clock.deadline("sala"));
+        assertEquals(-1, clock.extend("sala", 50_000));
+        assertFalse(clock.isOpen("sala", 30_000));
+    }
+
+    @Test
+    void extendNeverMovesTheCloseForwardAndWakingEarlyReschedules() {
+        clock.open("sala", 30_000, closes::incrementAndGet);
+        assertEquals(31_000, clock.extend("sala", 20_000));
+        assertEquals(40_000, clock.extend("sala", 40_000));
+
+        time = 31_000;
+        last().task().run();
+        assertEquals(0, closes.get());
+        assertEquals(9_000, last().delay());
+        assertTrue(clock.isOpen("sala", 39_999));
+
+        time = 40_000;
+        last().task().run();
+        assertEquals(1, closes.get());
+    }
+
+    @Test
+    void reopeningOrCancellingDropsTheRoundWithoutClosingIt() {
+        clock.open("sala", 30_000, closes::incrementAndGet);
+        Scheduled first = last();
+        assertEquals(61_000, clock.open("sala", 60_000, closes::incrementAndGet));
+        verify(first.future()).cancel(false);
+
+        // Una tarea ya en marcha al cancelarla no cierra nada
+        time = 31_000;
+        first.task().run();
+        assertEquals(0, closes.get());
+        assertEquals(61_000, clock.deadline("sala"));
+
+        clock.cancel("sala");
+        clock.cancel("otra");
+        verify(last().future()).cancel(false);
+        time = 61_000;
+        last().task().run();
+        assertEquals(0, closes.get());
+        assertEquals(-1, clock.deadline("sala"));
+    }
+
+    @Test
+    void failingCloseTaskIsLoggedAndNotPropagated() {
+        clock.open("sala", 0, () -> {
+            throw new IllegalStateException("fallo al cerrar");
+        });
+
+        assertDoesNotThrow(() -> last().task().run());
+        assertEquals(-1, clock.deadline("sala"));
+    }
+
+    @Test
+    void bidsRacingTheCloseSeeItClosed() throws InterruptedException {
+        clock.open("sala", 30_000, closes::incrementAndGet);
+        expiring = new CountDownLatch(1);
+        release = new CountDownLatch(1);
+        time = 31_000;
+        Thread closer = new Thread(last().task(), EXPIRING);
+        closer.start();
+        awaitQuietly(expiring);
+
+        // Mientras el cierre tiene la ronda, la apuesta ya la encontró pero debe esperar
+        AtomicLong extended = new AtomicLong();
+        AtomicReference<Boolean> open = new AtomicReference<>();
+        Thread checker = new Thread(() -> open.set(clock.isOpen("sala", 30_500)));
+        Thread extender = new Thread(() -> extended.set(clock.extend("sala", 45_000)));
+        for (Thread bidder : List.of(checker, extender)) {
+            bidder.start();
+            while (bidder.getState() != Thread.State.BLOCKED) {
+                Thread.onSpinWait();
+            }
+        }
+        release.countDown();
+        closer.join(5_000);
+        checker.join(5_000);
+        extender.join(5_000);
+
+        assertFalse(open.get());
+        assertEquals(-1, extended.get());
+        assertEquals(1, closes.get());
+    }
+
+    @Test
+    void tasksRejectedAtShutdownAreDropped() {
+        doThrow(new RejectedExecutionException("apagado")).when(workers).execute(any());
+        clock.after(0, closes::incrementAndGet);
+
+        assertDoesNotThrow(() -> last().task().run());
+        assertEquals(0, closes.get());
+    }
+
+    @Test
+    void delayedTasksRunOffTheClockThreads() throws InterruptedException {
+        AuctionProperties properties = new AuctionProperties();
+        properties.setClockThreads(0);
+        AuctionClock real = new AuctionClock(properties);
+        CountDownLatch ran = new CountDownLatch(1);
+        AtomicReference<String> thread = new AtomicReference<>();
+
+        // Una tarea que falla no detiene las siguientes
+        real.after(0, () -> {
+            throw new IllegalStateException("fallo en envío diferido");
+        });
+        real.after(10, () -> {
+            thread.set(Thread.currentThread().getName());
+            ran.countDown();
+        });
+
+        assertTrue(ran.await(5, TimeUnit.SECONDS));
+        assertTrue(thread.get().startsWith("auction-worker-"));
+        assertTrue(Math.abs(real.now() - System.currentTimeMillis()) < 1_000);
+        real.shutdown();
+    }
+
+    @Test
+    void blockedTasksDoNotDelayOtherDeadlines() throws InterruptedException {
+        AuctionProperties properties = new AuctionProperties();
+        properties.setClockThreads(1);
+        AuctionClock real = new AuctionClock(properties);
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch closed = new CountDownLatch(1);
+
+        // Una partida que espera (una pausa, una llamada al backend) con el único hilo del reloj
+        real.after(0, () -> {
+            blocked.countDown();
+            awaitQuietly(release);
+        });
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+        real.open("sala", 10, closed::countDown);
+
+        assertTrue(closed.await(5, TimeUnit.SECONDS));
+        release.countDown();
+        real.shutdown();
+    }
+}
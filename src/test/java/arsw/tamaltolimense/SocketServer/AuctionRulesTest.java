@@ -0,0 +1,103 @@
+package arsw.tamaltolimense.SocketServer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuctionRulesTest {
+    private GameState game;
+    private GameRoster roster;
+
+    @BeforeEach
+    void setUp() {
+        roster = new GameRoster(List.of("ana", "luis", "eva"));
+        for (int seat = 0; seat < roster.seats(); seat++) {
+            roster.setBalance(seat, 1000);
+        }
+        game = new GameState();
+        game.setLobbyName("lobby-1");
+        game.setRoster(roster);
+        game.transitionTo(GamePhase.BIDDING);
+        game.getBids().open(1, AuctionRules.INITIAL_BID);
+    }
+
+    @Test
+    void validateBidRejectsEachInvalidCase() {
+        assertEquals("Jugador no encontrado en el juego", AuctionRules.validateBid(game, -1, 200));
+        assertEquals("Saldo insuficiente para realizar esta apuesta", AuctionRules.validateBid(game, 0, 1001));
+        assertEquals("La apuesta debe ser mayor que la apuesta actual", AuctionRules.validateBid(game, 0, 100));
+        assertNull(AuctionRules.validateBid(game, 0, 101));
+
+        game.transitionTo(GamePhase.REVEALING);
+        assertEquals("No se pueden realizar apuestas en este momento", AuctionRules.validateBid(game, 0, 200));
+    }
+
+    @Test
+    void winningBidChargesTheBidderAndRefundsThePreviousOne() {
+        long first = AuctionRules.placeBid(game, 0, 1, 200);
+        assertTrue(first >= 0);
+        assertEquals(800, roster.balance(0));
+        // Nadie había apostado antes: no hay a quién devolver
+        assertEquals(-1, AuctionRules.refundPreviousBidder(game, first, 0));
+
+        long second = AuctionRules.placeBid(game, 1, 1, 300);
+        assertEquals(0, AuctionRules.refundPreviousBidder(game, second, 1));
+        assertEquals(1000, roster.balance(0));
+        assertEquals(700, roster.balance(1));
+
+        // Subir la propia apuesta no devuelve nada
+        long third = AuctionRules.placeBid(game, 1, 1, 400);
+        assertEquals(-1, AuctionRules.refundPreviousBidder(game, third, 1));
+    }
+
+    @Test
+    void losingBidLeavesTheBalanceUntouched() {
+        AuctionRules.placeBid(game, 0, 1, 300);
+
+        assertEquals(BidRegister.TOO_LOW, AuctionRules.placeBid(game, 1, 1, 250));
+        assertEquals(BidRegister.CLOSED, AuctionRules.placeBid(game, 1, 2, 500));
+        assertEquals(1000, roster.balance(1));
+    }
+
+    @Test
+    void refundOpenBidReturnsTheStandingBid() {
+        AuctionRules.placeBid(game, 2, 1, 350);
+
+        assertEquals(2, AuctionRules.refundOpenBid(game));
+        assertEquals(1000, roster.balance(2));
+        assertTrue(BidRegister.isClosed(game.getBids().snapshot()));
+    }
+
+    @Test
+    void refundOpenBidWithoutBidsReturnsNobody() {
+        assertEquals(-1, AuctionRules.refundOpenBid(game));
+    }
+
+    @Test
+    void roundResultAndSettlement() {
+        assertNull(AuctionRules.computeRoundResult(game));
+
+        ContainerInfo container = new ContainerInfo();
+        container.setId("contenedor-1");
+        container.setType("Raro");
+        container.setValue(700);
+        game.setCurrentContainer(container);
+        AuctionRules.placeBid(game, 1, 1, 400);
+        game.getBids().close();
+
+        BidResultData result = AuctionRules.computeRoundResult(game);
+        assertEquals("luis", result.getWinner());
+        assertEquals("contenedor-1", result.getContainerId());
+        assertEquals("Raro", result.getContainerType());
+        assertEquals(400, result.getBidAmount());
+        assertEquals(700, result.getContainerValue());
+        assertEquals(300, result.getProfit());
+
+        AuctionRules.settleRound(roster, 1, result);
+        assertEquals(1300, roster.balance(1));
+        assertEquals(300, roster.score(1));
+    }
+}
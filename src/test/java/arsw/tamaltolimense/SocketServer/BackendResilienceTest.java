@@ -0,0 +1,204 @@
+package arsw.tamaltolimense.SocketServer;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BackendResilienceTest {
+    private SimpleMeterRegistry registry;
+    private ResilienceProperties properties;
+    private BackendResilience resilience;
+    // Servicio simulado: mientras down sea true toda llamada falla
+    private final AtomicBoolean down = new AtomicBoolean();
+    private final List<String> applied = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        properties = new ResilienceProperties();
+        properties.setFailureRateThreshold(100);
+        properties.setSlidingWindowSize(2);
+        properties.setMinimumNumberOfCalls(2);
+        properties.setWaitDurationInOpenState(Duration.ofHours(1));
+        properties.setDeferredQueueCapacity(3);
+        properties.setReplayInterval(Duration.ofMillis(20));
+        resilience = new BackendResilience(properties, registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        resilience.shutdown();
+    }
+
+    private Runnable request(String name) {
+        return () -> {
+            if (down.get()) {
+                throw new IllegalStateException("servicio caído");
+            }
+            applied.add(name);
+        };
+    }
+
+    private void openCircuit(BackendDependency dependency) {
+        for (int i = 0; i < 2; i++) {
+            assertThrows(IllegalStateException.class, () -> resilience.call(dependency, () -> {
+                throw new IllegalStateException("timeout");
+            }));
+        }
+        assertFalse(resilience.isAvailable(dependency));
+    }
+
+    @Test
+    void callRunsRightAwayWhenTheServiceAnswers() {
+        resilience.callOrDefer(BackendDependency.BIDS, "oferta 1", request("oferta 1"));
+
+        assertEquals(List.of("oferta 1"), applied);
+        assertEquals(0, resilience.deferredCount(BackendDependency.BIDS));
+        assertEquals(42, resilience.call(BackendDependency.BIDS, () -> 42));
+    }
+
+    @Test
+    void deferredCallsReplayInOrderOnceTheServiceRecovers() {
+        down.set(true);
+        resilience.callOrDefer(BackendDependency.BIDS, "oferta 1", request("oferta 1"));
+        down.set(false);
+        // Con llamadas pendientes las nuevas se encolan detrás aunque el servicio ya responda
+        resilience.callOrDefer(BackendDependency.BIDS, "oferta 2", request("oferta 2"));
+        resilience.callOrDefer(BackendDependency.BIDS, "cierre", request("cierre"));
+        assertTrue(applied.isEmpty());
+        assertEquals(3, resilience.deferredCount(BackendDependency.BIDS));
+
+        resilience.replayDeferredCalls();
+
+        assertEquals(List.of("oferta 1", "oferta 2", "cierre"), applied);
+        assertEquals(0, resilience.deferredCount(BackendDependency.BIDS));
+    }
+
+    @Test
+    void replayStopsAtTheFirstFailureAndKeepsTheRest() {
+        down.set(true);
+        resilience.callOrDefer(BackendDependency.LOBBIES, "salida 1", request("salida 1"));
+        resilience.callOrDefer(BackendDependency.LOBBIES, "salida 2", request("salida 2"));
+
+        resilience.replayDeferredCalls();
+
+        assertTrue(applied.isEmpty());
+        assertEquals(2, resilience.deferredCount(BackendDependency.LOBBIES));
+    }
+
+    @Test
+    void openCircuitDefersWithoutCallingAndReplayWaits() {
+        openCircuit(BackendDependency.LOBBIES);
+
+        resilience.callOrDefer(BackendDependency.LOBBIES, "salida", request("salida"));
+        resilience.replayDeferredCalls();
+
+        assertTrue(applied.isEmpty());
+        assertEquals(1, resilience.deferredCount(BackendDependency.LOBBIES));
+        assertThrows(CallNotPermittedException.class, () -> resilience.call(BackendDependency.LOBBIES, () -> 1));
+        // Las demás dependencias no se ven afectadas
+        assertTrue(resilience.isAvailable(BackendDependency.BIDS));
+    }
+
+    @Test
+    void clientErrorsAreNeitherDeferredNorRetried() {
+        resilience.callOrDefer(BackendDependency.BIDS, "rechazada", () -> {
+            throw new HttpClientErrorException(HttpStatus.BAD_REQUEST);
+        });
+        assertEquals(0, resilience.deferredCount(BackendDependency.BIDS));
+
+        // Una diferida que al reenviarse recibe un 4xx se descarta y se sigue con la siguiente
+        AtomicBoolean rejected = new AtomicBoolean(true);
+        down.set(true);
+        resilience.callOrDefer(BackendDependency.BIDS, "vieja", () -> {
+            if (down.get()) {
+                throw new IllegalStateException("servicio caído");
+            }
+            if (rejected.get()) {
+                throw new HttpClientErrorException(HttpStatus.CONFLICT);
+            }
+        });
+        resilience.callOrDefer(BackendDependency.BIDS, "nueva", request("nueva"));
+        down.set(false);
+
+        resilience.replayDeferredCalls();
+
+        assertEquals(List.of("nueva"), applied);
+        assertEquals(0, resilience.deferredCount(BackendDependency.BIDS));
+    }
+
+    @Test
+    void fullDeferredQueueDropsAndCounts() {
+        down.set(true);
+        for (int i = 0; i < 4; i++) {
+            resilience.callOrDefer(BackendDependency.CONTAINERS, "llamada " + i, request("llamada " + i));
+        }
+
+        assertEquals(3, resilience.deferredCount(BackendDependency.CONTAINERS));
+        assertEquals(1.0, registry.get("hiddencargo.backend.deferred.dropped").counter().count());
+        assertEquals(3.0, registry.get("hiddencargo.backend.deferred.calls")
+                .tag("dependency", "containers").gauge().value());
+    }
+
+    @Test
+    void callOnceTriesOnlyOnceAndCountsFailures() {
+        assertEquals(1500, resilience.callOnce(BackendDependency.USERS, "abono", () -> 1500));
+
+        down.set(true);
+        Integer result = resilience.callOnce(BackendDependency.USERS, "abono", () -> {
+            request("abono").run();
+            return 2000;
+        });
+
+        assertNull(result);
+        assertEquals(0, resilience.deferredCount(BackendDependency.USERS));
+        assertEquals(1.0, registry.get("hiddencargo.backend.failed.calls")
+                .tag("dependency", "users").counter().count());
+    }
+
+    @Test
+    void scheduledReplayDrainsTheQueue() throws InterruptedException {
+        down.set(true);
+        resilience.callOrDefer(BackendDependency.BIDS, "oferta", request("oferta"));
+        down.set(false);
+
+        resilience.start();
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (resilience.deferredCount(BackendDependency.BIDS) > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(0, resilience.deferredCount(BackendDependency.BIDS));
+        assertEquals(List.of("oferta"), applied);
+    }
+
+    @Test
+    void shutdownWithPendingCallsLosesThem() {
+        down.set(true);
+        resilience.callOrDefer(BackendDependency.LOBBIES, "salida", request("salida"));
+
+        resilience.shutdown();
+
+        assertEquals(1, resilience.deferredCount(BackendDependency.LOBBIES));
+    }
+
+    @Test
+    void unconfiguredDependencyGetsTheDefaultConcurrency() {
+        properties.setMaxConcurrentCalls(Map.of("bids", 2));
+
+        assertEquals(2, properties.maxConcurrentCallsFor(BackendDependency.BIDS));
+        assertEquals(8, properties.maxConcurrentCallsFor(BackendDependency.LOBBIES));
+    }
+}
@@ -0,0 +1,160 @@
+package arsw.tamaltolimense.SocketServer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BidRegisterTest {
+    private static final int BIDDERS = 4;
+
+    private final BidRegister register = new BidRegister();
+
+    @Test
+    void registerStartsClosed() {
+        assertTrue(BidRegister.isClosed(register.snapshot()));
+        assertEquals(BidRegister.CLOSED, register.tryBid(0, 0, 500));
+        assertEquals(-1, register.bidder());
+        assertEquals(0, register.amount());
+    }
+
+    @Test
+    void higherBidWinsAndReturnsThePreviousState() {
+        register.open(3, 100);
+
+        assertEquals(BidRegister.TOO_LOW, register.tryBid(3, 0, 100));
+        long first = register.tryBid(3, 0, 150);
+        assertEquals(-1, BidRegister.seatOf(first));
+        assertEquals(100, BidRegister.amountOf(first));
+        long second = register.tryBid(3, 2, 200);
+        assertEquals(0, BidRegister.seatOf(second));
+        assertEquals(150, BidRegister.amountOf(second));
+        assertEquals(BidRegister.TOO_LOW, register.tryBid(3, 1, 180));
+        // Una apuesta de otra ronda llega tarde aunque sea mayor
+        assertEquals(BidRegister.CLOSED, register.tryBid(2, 1, 900));
+
+        assertEquals(2, register.bidder());
+        assertEquals(200, register.amount());
+    }
+
+    @Test
+    void closeFreezesTheStandingBid() {
+        register.open(1, 100);
+        register.tryBid(1, 1, 300);
+
+        long closed = register.close();
+
+        assertTrue(BidRegister.isClosed(closed));
+        assertEquals(1, BidRegister.seatOf(closed));
+        assertEquals(300, BidRegister.amountOf(closed));
+        assertEquals(BidRegister.CLOSED, register.tryBid(1, 0, 400));
+        assertEquals(closed, register.close());
+    }
+
+    @Test
+    void packKeepsEveryFieldAtItsLimits() {
+        long packed = BidRegister.pack(true, 16383, 65534, Integer.MAX_VALUE);
+
+        assertTrue(packed >= 0);
+        assertTrue(BidRegister.isClosed(packed));
+        assertEquals(16383, BidRegister.roundOf(packed));
+        assertEquals(65534, BidRegister.seatOf(packed));
+        assertEquals(Integer.MAX_VALUE, BidRegister.amountOf(packed));
+    }
+
+    // Cada apuesta aceptada reemplaza exactamente un estado: el de apertura o el de otra aceptada
+    private static void assertNoLostBids(long opening, long last, List<long[]> accepted) {
+        Set<Long> replaced = new HashSet<>();
+        Set<Long> written = new HashSet<>();
+        written.add(opening);
+        for (long[] bid : accepted) {
+            assertTrue(replaced.add(bid[0]), "dos apuestas reemplazaron el mismo estado");
+            written.add(bid[1]);
+        }
+        replaced.add(last);
+        assertEquals(written, replaced);
+    }
+
+    @Test
+    void concurrentBiddersNeverLoseAWinningBid() throws Exception {
+        register.open(1, 100);
+        long opening = register.snapshot();
+        ConcurrentLinkedQueue<long[]> accepted = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(BIDDERS);
+        List<Future<?>> bidders = new ArrayList<>();
+        for (int seat = 0; seat < BIDDERS; seat++) {
+            int bidderSeat = seat;
+            bidders.add(pool.submit(() -> {
+                start.await();
+                // Montos distintos entre asientos: el más alto de todos debe quedar vigente
+                for (int amount = 101 + bidderSeat; amount <= 20_000; amount += BIDDERS) {
+                    long previous = register.tryBid(1, bidderSeat, amount);
+                    if (previous >= 0) {
+                        accepted.add(new long[]{previous, BidRegister.pack(false, 1, bidderSeat, amount)});
+                    } else {
+                        assertEquals(BidRegister.TOO_LOW, previous);
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> bidder : bidders) {
+            bidder.get();
+        }
+        pool.shutdown();
+
+        assertEquals(20_000, register.amount());
+        assertEquals((20_000 - 101) % BIDDERS, register.bidder());
+        assertNoLostBids(opening, register.snapshot(), new ArrayList<>(accepted));
+    }
+
+    @Test
+    void closeDuringBiddingKeepsTheLastAcceptedBid() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(BIDDERS);
+        for (int round = 1; round <= 50; round++) {
+            register.open(round, 100);
+            long opening = register.snapshot();
+            int currentRound = round;
+            ConcurrentLinkedQueue<long[]> accepted = new ConcurrentLinkedQueue<>();
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> bidders = new ArrayList<>();
+            for (int seat = 0; seat < BIDDERS; seat++) {
+                int bidderSeat = seat;
+                bidders.add(pool.submit(() -> {
+                    start.await();
+                    for (int amount = 101 + bidderSeat; amount <= 4_000; amount += BIDDERS) {
+                        long previous = register.tryBid(currentRound, bidderSeat, amount);
+                        if (previous >= 0) {
+                            accepted.add(new long[]{previous, BidRegister.pack(false, currentRound, bidderSeat, amount)});
+                        } else if (previous == BidRegister.CLOSED) {
+                            return null;
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            Thread.yield();
+            long closed = register.close();
+            for (Future<?> bidder : bidders) {
+                bidder.get();
+            }
+
+            // Lo que quedó al cerrar es la última apuesta aceptada y ya no cambia
+            assertEquals(closed, register.snapshot());
+            assertNoLostBids(opening, closed & ~(1L << 62), new ArrayList<>(accepted));
+        }
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,103 @@
+package arsw.tamaltolimense.SocketServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedStoreTest {
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private long time = 1_000;
+    private final BoundedStore<String, Integer> store =
+            new BoundedStore<>("saldos", 3, Duration.ofMillis(100), registry, () -> time);
+
+    private double evictions(String cause) {
+        return registry.get("hiddencargo.store.evictions").tag("store", "saldos").tag("cause", cause)
+                .counter().count();
+    }
+
+    @Test
+    void overflowDropsTheLeastRecentlyUsedEntry() {
+        store.put("ana", 1);
+        store.put("beto", 2);
+        store.put("caro", 3);
+        // Leer a ana la vuelve la más reciente: la que sale es beto
+        assertEquals(1, store.get("ana"));
+        store.put("dani", 4);
+
+        assertNull(store.get("beto"));
+        assertEquals(1, store.get("ana"));
+        assertEquals(3, store.size());
+        assertEquals(3, registry.get("hiddencargo.store.size").tag("store", "saldos").gauge().value());
+        assertEquals(1, evictions("size"));
+    }
+
+    @Test
+    void readingAnExpiredEntryRemovesIt() {
+        store.put("ana", 1);
+        time += 100;
+        assertEquals(1, store.get("ana"));
+
+        // El acceso renovó la entrada; sin otro acceso en más de ttl desaparece
+        time += 101;
+        assertNull(store.get("ana"));
+        assertEquals(0, store.size());
+        assertEquals(1, evictions("expired"));
+        assertNull(store.get("nadie"));
+    }
+
+    @Test
+    void computeIfAbsentReusesLiveEntriesAndReplacesExpiredOnes() {
+        AtomicInteger created = new AtomicInteger();
+        assertEquals(1, store.computeIfAbsent("sala", key -> created.incrementAndGet()));
+        assertEquals(1, store.computeIfAbsent("sala", key -> created.incrementAndGet()));
+
+        time += 101;
+        assertEquals(2, store.computeIfAbsent("sala", key -> created.incrementAndGet()));
+        assertEquals(1, evictions("expired"));
+
+        // También respeta el tamaño máximo
+        store.computeIfAbsent("b", key -> 0);
+        store.computeIfAbsent("c", key -> 0);
+        store.computeIfAbsent("d", key -> 0);
+        assertNull(store.get("sala"));
+        assertEquals(1, evictions("size"));
+    }
+
+    @Test
+    void sweepStopsAtTheFirstLiveEntry() {
+        store.put("ana", 1);
+        store.put("beto", 2);
+        time += 50;
+        store.put("caro", 3);
+        time += 51;
+
+        assertEquals(2, store.removeExpired());
+        assertEquals(3, store.get("caro"));
+        assertEquals(2, evictions("expired"));
+
+        time += 101;
+        assertEquals(1, store.removeExpired());
+        assertEquals(0, store.removeExpired());
+    }
+
+    @Test
+    void removeReturnsThePreviousValue() {
+        store.put("ana", 1);
+
+        assertEquals(1, store.remove("ana"));
+        assertNull(store.remove("ana"));
+    }
+
+    @Test
+    void defaultClockIsTheSystemTime() {
+        BoundedStore<String, Integer> real = new BoundedStore<>("real", 1, Duration.ofHours(1), registry);
+        real.put("ana", 1);
+
+        assertEquals(1, real.get("ana"));
+        assertEquals(0, real.removeExpired());
+    }
+}
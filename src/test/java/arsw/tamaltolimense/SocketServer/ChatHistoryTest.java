@@ -0,0 +1,58 @@
+package arsw.tamaltolimense.SocketServer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChatHistoryTest {
+
+    private static ChatMessageData message(String text) {
+        ChatMessageData message = new ChatMessageData();
+        message.setNickname("ana");
+        message.setMessage(text);
+        return message;
+    }
+
+    private static List<String> texts(ChatHistory history) {
+        return history.snapshot().stream().map(ChatMessageData::getMessage).toList();
+    }
+
+    @Test
+    void keepsTheLatestMessagesInArrivalOrder() {
+        ChatHistory history = new ChatHistory(3, 100);
+
+        for (String text : List.of("a", "b", "c", "d", "e")) {
+            history.add(message(text));
+        }
+
+        assertEquals(List.of("c", "d", "e"), texts(history));
+        assertEquals(3, history.size());
+    }
+
+    @Test
+    void dropsTheOldestWhenTheCharacterBudgetRunsOut() {
+        ChatHistory history = new ChatHistory(10, 10);
+        history.add(message("hola"));
+        history.add(message("buenas"));
+
+        history.add(message("qué tal"));
+        assertEquals(List.of("qué tal"), texts(history));
+
+        // Un mensaje más largo que todo el tope no se guarda ni desplaza a nadie
+        history.add(message("demasiado largo"));
+        history.add(message(null));
+        assertEquals(Arrays.asList("qué tal", null), texts(history));
+    }
+
+    @Test
+    void capacityIsAtLeastOne() {
+        ChatHistory history = new ChatHistory(0, 100);
+        history.add(message("a"));
+        history.add(message("b"));
+
+        assertEquals(List.of("b"), texts(history));
+    }
+}
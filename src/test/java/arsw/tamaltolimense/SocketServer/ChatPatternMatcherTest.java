@@ -0,0 +1,68 @@
+package arsw.tamaltolimense.SocketServer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChatPatternMatcherTest {
+    private final ChatPatternMatcher matcher = new ChatPatternMatcher(
+            List.of("pendejo", "jo", "mala palabra", "  ", "Жук"), List.of("http://", "www."));
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "eres un pendejo|eres un *******",
+            "PÉNDEJO!|*******!",
+            "jo jo, pendejo|** **, *******",
+            "una mala palabra y otra|una ************ y otra",
+            "mira www.ejemplo.com/x ahora|mira ***************** ahora",
+            "http://a.b|**********",
+            "жук в траве|*** в траве"})
+    void matchesAreMasked(String text, String masked) {
+        assertTrue(matcher.find(text, 0) >= 0);
+        assertEquals(masked, matcher.mask(text));
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "todo bien por aquí",
+            "pendejos y apendejo no son la palabra",
+            "malapalabra",
+            "ajo y joya",
+            "wwwhttp",
+            "''"})
+    void cleanTextIsReturnedAsIs(String text) {
+        assertEquals(-1, matcher.find(text, 0));
+        assertSame(text, matcher.mask(text));
+    }
+
+    @Test
+    void findReportsStartAndEndFromTheGivenOffset() {
+        String text = "jo, pendejo";
+
+        long first = matcher.find(text, 0);
+        assertEquals(0, first >>> 32);
+        assertEquals(2, (int) first);
+        long second = matcher.find(text, 2);
+        assertEquals(4, second >>> 32);
+        assertEquals(11, (int) second);
+        assertEquals(-1, matcher.find(text, 11));
+    }
+
+    @Test
+    void blankPatternsAreIgnored() {
+        assertEquals(6, matcher.patterns());
+        assertEquals(0, new ChatPatternMatcher(List.of(), List.of()).patterns());
+        assertEquals(-1, new ChatPatternMatcher(List.of(), List.of()).find("lo que sea", 0));
+    }
+
+    @Test
+    void foldingRemovesAccentsAndCase() {
+        assertEquals('e', ChatPatternMatcher.fold('É'));
+        assertEquals('n', ChatPatternMatcher.fold('ñ'));
+        assertEquals('ж', ChatPatternMatcher.fold('Ж'));
+    }
+}
@@ -0,0 +1,144 @@
+package arsw.tamaltolimense.SocketServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ChatWordFilterTest {
+    @TempDir
+    Path dir;
+
+    private final ChatFilterProperties properties = new ChatFilterProperties();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private ChatWordFilter filter;
+
+    @AfterEach
+    void tearDown() {
+        filter.shutdown();
+    }
+
+    private ChatWordFilter filter(ResourceLoader resourceLoader) {
+        filter = new ChatWordFilter(properties, resourceLoader, registry);
+        return filter;
+    }
+
+    private static ChatMessageData message(String text) {
+        ChatMessageData message = new ChatMessageData();
+        message.setNickname("ana");
+        message.setMessage(text);
+        return message;
+    }
+
+    private String processed(String text) {
+        ChatMessageData result = filter.process("sala", message(text));
+        return result != null ? result.getMessage() : null;
+    }
+
+    private double filtered(String action) {
+        return registry.get("hiddencargo.chat.filtered").tag("action", action).counter().count();
+    }
+
+    private Path wordsFile(String content, long modified) throws IOException {
+        Path file = dir.resolve("palabras.txt");
+        Files.writeString(file, content);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(modified));
+        return file;
+    }
+
+    @Test
+    void bundledListMasksWordsAndLinks() {
+        filter(new DefaultResourceLoader());
+        ChatMessageData clean = message("buena apuesta");
+
+        assertSame(clean, filter.process("sala", clean));
+        assertEquals("qué ******, mira *********", processed("qué carajo, mira www.x.com"));
+        assertNull(processed(null));
+        assertEquals(1, filtered("masked"));
+    }
+
+    @Test
+    void dropActionDiscardsTheMessage() {
+        properties.setWordsFile("");
+        properties.setWords(List.of("tramposo"));
+        properties.setBlockLinks(false);
+        properties.setAction(ChatFilterProperties.Action.DROP);
+        filter(new DefaultResourceLoader());
+
+        assertNull(processed("eres un TRAMPOSO"));
+        assertEquals("mira www.x.com", processed("mira www.x.com"));
+        assertEquals(1, filtered("dropped"));
+        assertEquals(1, filter.reload());
+        filter.reloadIfChanged();
+    }
+
+    @Test
+    void wordsFileIsReloadedOnlyWhenItChanges() throws IOException {
+        Path file = wordsFile("# comentario\n\n  tramposo  \n", 1_000);
+        properties.setWordsFile("file:" + file);
+        properties.setBlockLinks(false);
+        filter(new DefaultResourceLoader());
+        assertEquals("eres un ********", processed("eres un tramposo"));
+
+        // Mismo archivo y misma fecha: no se recompila
+        Files.writeString(file, "otra\n");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(1_000));
+        filter.reloadIfChanged();
+        assertEquals("otra vez", processed("otra vez"));
+
+        Files.setLastModifiedTime(file, FileTime.fromMillis(2_000));
+        filter.reloadIfChanged();
+        assertEquals("**** vez", processed("otra vez"));
+        assertEquals("tramposo", processed("tramposo"));
+
+        // Si el archivo desaparece queda solo la lista de las propiedades
+        Files.delete(file);
+        filter.reloadIfChanged();
+        assertEquals("otra vez", processed("otra vez"));
+    }
+
+    @Test
+    void unreadableFileKeepsTheCurrentPatterns() throws IOException {
+        properties.setWords(List.of("tramposo"));
+        properties.setBlockLinks(false);
+        Resource resource = mock(Resource.class);
+        when(resource.exists()).thenReturn(true);
+        when(resource.lastModified()).thenReturn(1_000L).thenThrow(new IOException("sin permiso"));
+        when(resource.getInputStream()).thenReturn(new ByteArrayInputStream("otra\n".getBytes(StandardCharsets.UTF_8)));
+        ResourceLoader resourceLoader = mock(ResourceLoader.class);
+        when(resourceLoader.getResource(properties.getWordsFile())).thenReturn(resource);
+        filter(resourceLoader);
+
+        assertEquals(2, filter.reload());
+        filter.reloadIfChanged();
+        assertEquals("**** y ********", processed("otra y tramposo"));
+    }
+
+    @Test
+    void unreadableFileAtStartupFallsBackToTheConfiguredWords() throws IOException {
+        properties.setWords(List.of("tramposo"));
+        properties.setBlockLinks(false);
+        Resource resource = mock(Resource.class);
+        when(resource.exists()).thenReturn(true);
+        when(resource.lastModified()).thenThrow(new IOException("sin permiso"));
+        ResourceLoader resourceLoader = mock(ResourceLoader.class);
+        when(resourceLoader.getResource(properties.getWordsFile())).thenReturn(resource);
+        filter(resourceLoader);
+
+        assertEquals("********", processed("tramposo"));
+    }
+}
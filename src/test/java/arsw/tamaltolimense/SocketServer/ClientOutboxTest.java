@@ -0,0 +1,83 @@
+package arsw.tamaltolimense.SocketServer;
+
+import com.corundumstudio.socketio.SocketIOClient;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ClientOutboxTest {
+    private static final int HIGH_WATER_MARK = 2;
+
+    private final SocketIOClient client = mock(SocketIOClient.class);
+    private final ClientOutbox outbox = new ClientOutbox(client);
+
+    private ClientOutbox.Offer offer(String event, Object key, Object value, long now) {
+        return outbox.offer(event, key, new Object[]{value}, HIGH_WATER_MARK, now);
+    }
+
+    @Test
+    void writableChannelSendsStraightThrough() {
+        assertEquals(ClientOutbox.Offer.SENT, offer("saldo", "saldo", 1000, 0));
+
+        verify(client).sendEvent("saldo", 1000);
+        assertEquals(0, outbox.size());
+        assertSame(client, outbox.client());
+    }
+
+    @Test
+    void blockedChannelQueuesAndKeepsOnlyTheLatestReplaceableEvent() {
+        outbox.writabilityChanged(false);
+
+        assertEquals(ClientOutbox.Offer.QUEUED, offer("saldo", "saldo:ana", 1000, 0));
+        assertEquals(ClientOutbox.Offer.QUEUED, offer("chat", null, "hola", 0));
+        assertEquals(ClientOutbox.Offer.QUEUED, offer("chat", null, "hola", 0));
+        assertEquals(ClientOutbox.Offer.CONFLATED, offer("saldo", "saldo:ana", 900, 0));
+        assertEquals(3, outbox.size());
+        verify(client, never()).sendEvent(anyString(), any(Object[].class));
+
+        outbox.writabilityChanged(true);
+
+        // El saldo conflacionado sale después de lo que ya estaba en cola
+        InOrder order = inOrder(client);
+        order.verify(client, times(2)).sendEvent("chat", "hola");
+        order.verify(client).sendEvent("saldo", 900);
+        verify(client, never()).sendEvent("saldo", 1000);
+        assertEquals(0, outbox.size());
+    }
+
+    @Test
+    void clientStuckOverTheLimitBecomesSlowAfterTheTimeout() {
+        outbox.writabilityChanged(false);
+        offer("ronda", null, 1, 10);
+        offer("ronda", null, 2, 20);
+        assertFalse(outbox.isSlowConsumer(1_000, 100));
+
+        // Supera el límite en t=30; seguir por encima no reinicia la cuenta
+        offer("ronda", null, 3, 30);
+        offer("ronda", null, 4, 90);
+        assertFalse(outbox.isSlowConsumer(130, 100));
+        assertTrue(outbox.isSlowConsumer(131, 100));
+
+        // Vaciar la cola lo perdona
+        outbox.writabilityChanged(true);
+        assertFalse(outbox.isSlowConsumer(1_000, 100));
+    }
+
+    @Test
+    void pollingBacklogPausesAndResumesLikeAFullChannel() {
+        outbox.pollingBacklogChanged(5, 5);
+        assertEquals(ClientOutbox.Offer.QUEUED, offer("temporizador", "reloj", 10, 0));
+        outbox.pollingBacklogChanged(6, 5);
+        assertEquals(ClientOutbox.Offer.CONFLATED, offer("temporizador", "reloj", 9, 0));
+
+        outbox.pollingBacklogChanged(0, 5);
+
+        verify(client).sendEvent("temporizador", 9);
+        outbox.pollingBacklogChanged(1, 5);
+        assertEquals(ClientOutbox.Offer.SENT, offer("temporizador", "reloj", 8, 0));
+    }
+}
@@ -0,0 +1,94 @@
+package arsw.tamaltolimense.SocketServer;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Las clases @ConfigurationProperties solo guardan valores: cada propiedad con setter debe
+// devolver lo que se le asigna y las de solo lectura (mapas que Spring rellena) no pueden ser null
+class ConfigurationPropertiesTest {
+
+    static Stream<Class<?>> propertiesClasses() {
+        return Stream.of(
+                SocketServerProperties.class,
+                BackendProperties.class,
+                ResilienceProperties.class,
+                EmbeddedBackendProperties.class,
+                TransportProperties.class,
+                BackpressureProperties.class,
+                AuctionProperties.class,
+                StoreProperties.class,
+                DrainProperties.class,
+                WarmupProperties.class,
+                AdminProperties.class,
+                HotPathLogProperties.class,
+                ChatProperties.class,
+                ChatFilterProperties.class,
+                SpectatorProperties.class,
+                MatchmakingProperties.class,
+                LeaderboardProperties.class,
+                GameExportProperties.class);
+    }
+
+    @ParameterizedTest
+    @MethodSource("propertiesClasses")
+    void everyPropertyKeepsItsValue(Class<?> type) throws Exception {
+        Object properties = type.getDeclaredConstructor().newInstance();
+        for (PropertyDescriptor property : Introspector.getBeanInfo(type, Object.class).getPropertyDescriptors()) {
+            String name = type.getSimpleName() + "." + property.getName();
+            Method getter = property.getReadMethod();
+            Method setter = property.getWriteMethod();
+            assertNotNull(getter, name);
+            Object initial = getter.invoke(properties);
+            if (setter == null) {
+                assertNotNull(initial, name);
+                continue;
+            }
+            Object value = otherValue(property.getPropertyType(), initial);
+            setter.invoke(properties, value);
+            assertEquals(value, getter.invoke(properties), name);
+        }
+    }
+
+    // Un valor del tipo de la propiedad distinto del que trae por defecto
+    private static Object otherValue(Class<?> type, Object initial) {
+        if (type == int.class) {
+            return (Integer) initial + 1;
+        }
+        if (type == long.class) {
+            return (Long) initial + 1;
+        }
+        if (type == float.class) {
+            return (Float) initial + 0.5f;
+        }
+        if (type == boolean.class) {
+            return !(Boolean) initial;
+        }
+        if (type == String.class) {
+            return "valor-de-prueba";
+        }
+        if (type == Duration.class) {
+            return initial == null ? Duration.ofSeconds(1) : ((Duration) initial).plusSeconds(1);
+        }
+        if (type.isEnum()) {
+            return Arrays.stream(type.getEnumConstants()).filter(constant -> constant != initial).findFirst().orElseThrow();
+        }
+        if (type == List.class) {
+            return List.of();
+        }
+        if (type == Map.class) {
+            return Map.of();
+        }
+        throw new IllegalArgumentException("Sin valor de prueba para " + type);
+    }
+}
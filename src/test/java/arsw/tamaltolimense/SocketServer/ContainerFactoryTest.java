@@ -0,0 +1,88 @@
+package arsw.tamaltolimense.SocketServer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContainerFactoryTest {
+
+    @Test
+    void payloadWithObjectsSumsPricesAndKeepsThemInTheId() {
+        Map<String, Object> payload = Map.of("color", "azul", "objetos", List.of(
+                Map.of("nombre", "Reloj", "precio", 350.0),
+                Map.of("nombre", "Cuadro", "precio", 1200.5)));
+
+        ContainerInfo container = ContainerFactory.fromApiPayload(payload, new Random(1));
+
+        assertEquals("Épico", container.getType());
+        assertEquals(1551, container.getValue());
+        assertTrue(container.getId().startsWith("container-"));
+        assertTrue(container.getId().endsWith("-color:azul-objects:Reloj,350.0;Cuadro,1200.5"));
+    }
+
+    @Test
+    void objectWithoutPriceCountsAsZero() {
+        Map<String, Object> sinPrecio = new HashMap<>();
+        sinPrecio.put("nombre", "Caja");
+        Map<String, Object> payload = Map.of("color", "gris", "objetos", List.of(sinPrecio,
+                Map.of("nombre", "Anillo", "precio", 80)));
+
+        ContainerInfo container = ContainerFactory.fromApiPayload(payload, new Random(1));
+
+        assertEquals("Raro", container.getType());
+        assertEquals(80, container.getValue());
+        assertTrue(container.getId().endsWith("-objects:Caja,0.0;Anillo,80.0"));
+    }
+
+    @Test
+    void payloadWithoutObjectsUsesTheDefaultValueOfItsType() {
+        ContainerInfo missing = ContainerFactory.fromApiPayload(Map.of("color", "dorado"), new Random(1));
+        assertEquals("Legendario", missing.getType());
+        assertTrue(missing.getValue() >= 2000 && missing.getValue() < 5000);
+
+        ContainerInfo empty = ContainerFactory.fromApiPayload(Map.of("color", "blanco", "objetos", List.of()),
+                new Random(1));
+        assertEquals("Normal", empty.getType());
+        assertTrue(empty.getValue() >= 200 && empty.getValue() < 500);
+    }
+
+    @Test
+    void colorsMapToTypes() {
+        assertEquals("Raro", ContainerFactory.typeForColor("GRIS"));
+        assertEquals("Normal", ContainerFactory.typeForColor("blanco"));
+        assertEquals("Épico", ContainerFactory.typeForColor("azul"));
+        assertEquals("Legendario", ContainerFactory.typeForColor("dorado"));
+        assertEquals("Normal", ContainerFactory.typeForColor("verde"));
+        assertEquals("Normal", ContainerFactory.typeForColor(null));
+    }
+
+    @Test
+    void defaultValuesStayInTheRangeOfEachType() {
+        Random random = new Random(7);
+        for (int i = 0; i < 100; i++) {
+            int raro = ContainerFactory.defaultValueForType("Raro", random);
+            int epico = ContainerFactory.defaultValueForType("Épico", random);
+            int legendario = ContainerFactory.defaultValueForType("Legendario", random);
+            int normal = ContainerFactory.defaultValueForType("Normal", random);
+            assertTrue(raro >= 500 && raro < 1000);
+            assertTrue(epico >= 1000 && epico < 2000);
+            assertTrue(legendario >= 2000 && legendario < 5000);
+            assertTrue(normal >= 200 && normal < 500);
+        }
+    }
+
+    @Test
+    void localContainerIsMarkedAsLocal() {
+        ContainerInfo container = ContainerFactory.localContainer(new Random(3));
+
+        assertTrue(container.getId().startsWith("container-"));
+        assertTrue(container.getId().endsWith("-local"));
+        assertTrue(List.of("Normal", "Raro", "Épico", "Legendario").contains(container.getType()));
+        assertTrue(container.getValue() >= 200);
+    }
+}
@@ -0,0 +1,89 @@
+package arsw.tamaltolimense.SocketServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContainerPoolTest {
+    private final WarmupProperties properties = new WarmupProperties();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final BackendResilience resilience = new BackendResilience(new ResilienceProperties(), registry);
+    private final AtomicInteger served = new AtomicInteger();
+    private ContainerPool pool;
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+        resilience.shutdown();
+    }
+
+    private ContainerInfo nextContainer() {
+        ContainerInfo container = new ContainerInfo();
+        container.setId("contenedor-" + served.incrementAndGet());
+        return container;
+    }
+
+    private ContainerPool pool(ContainerGateway gateway) {
+        pool = new ContainerPool(gateway, resilience, properties, registry);
+        return pool;
+    }
+
+    @Test
+    void prefillStopsWhenThePoolIsFull() {
+        properties.setContainerPoolSize(3);
+        pool(this::nextContainer);
+
+        assertEquals(3, pool.prefill());
+        assertEquals(3, served.get());
+        assertEquals(3, registry.get("hiddencargo.containers.pool.size").gauge().value());
+    }
+
+    @Test
+    void prefillStopsWhenTheServiceHasNothingOrFails() {
+        properties.setContainerPoolSize(3);
+        pool(() -> switch (served.incrementAndGet()) {
+            case 1 -> new ContainerInfo();
+            case 2 -> null;
+            default -> throw new IllegalStateException("servicio caído");
+        });
+
+        assertEquals(1, pool.prefill());
+        assertEquals(1, pool.prefill());
+        assertEquals(3, served.get());
+    }
+
+    @Test
+    void pollRefillsInTheBackgroundOneRefillAtATime() throws InterruptedException {
+        // Con tamaño 0 la reserva guarda igualmente un contenedor
+        properties.setContainerPoolSize(0);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        pool(() -> {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return nextContainer();
+        });
+
+        assertNull(pool.poll());
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        // Mientras el relleno está en marcha no se programa otro
+        assertNull(pool.poll());
+        release.countDown();
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (pool.size() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals("contenedor-1", pool.poll().getId());
+    }
+}
@@ -0,0 +1,46 @@
+package arsw.tamaltolimense.SocketServer;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DrainEndpointTest {
+    private final LobbySocketService lobbySocketService = mock(LobbySocketService.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final DrainEndpoint endpoint = new DrainEndpoint(lobbySocketService, eventPublisher);
+    private final CompletableFuture<Void> drained = new CompletableFuture<>();
+
+    @Test
+    void statusBeforeDrainingIsNotDrainedEvenIfIdle() {
+        when(lobbySocketService.drain()).thenReturn(CompletableFuture.completedFuture(null));
+
+        assertEquals(Map.of("draining", false, "drained", false, "activeGames", 0), endpoint.status());
+        verify(lobbySocketService, never()).drain();
+    }
+
+    @Test
+    void startRefusesTrafficAndReportsWhenTheGamesAreDone() {
+        when(lobbySocketService.drain()).thenReturn(drained);
+        when(lobbySocketService.activeGameCount()).thenReturn(2);
+
+        when(lobbySocketService.isDraining()).thenReturn(true);
+        Map<String, Object> started = endpoint.start();
+
+        ArgumentCaptor<AvailabilityChangeEvent<?>> event = ArgumentCaptor.forClass(AvailabilityChangeEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(ReadinessState.REFUSING_TRAFFIC, event.getValue().getState());
+        assertEquals(Map.of("draining", true, "drained", false, "activeGames", 2), started);
+
+        drained.complete(null);
+        when(lobbySocketService.activeGameCount()).thenReturn(0);
+        assertEquals(Map.of("draining", true, "drained", true, "activeGames", 0), endpoint.status());
+    }
+}
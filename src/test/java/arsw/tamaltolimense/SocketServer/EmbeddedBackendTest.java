@@ -0,0 +1,165 @@
+package arsw.tamaltolimense.SocketServer;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmbeddedBackendTest {
+    private final EmbeddedBackendProperties properties = new EmbeddedBackendProperties();
+    private final List<String> persisted = new ArrayList<>();
+
+    // Hook que anota cada cambio que el modo embebido pide persistir
+    private final BackendPersistenceHook recorder = new BackendPersistenceHook() {
+        @Override
+        public void lobbyChanged(Map<String, Object> lobby) {
+            persisted.add("lobby " + lobby.get("nombre") + " " + lobby.get("jugadores") + " listos=" + lobby.get("jugadoresListos"));
+        }
+
+        @Override
+        public void lobbyRemoved(String lobbyName) {
+            persisted.add("sin lobby " + lobbyName);
+        }
+
+        @Override
+        public void auctionClosed(String containerId, String winner, int amount, int realValue) {
+            persisted.add("subasta " + containerId + " " + winner + " " + amount + "/" + realValue);
+        }
+
+        @Override
+        public void balanceChanged(String username, int balance) {
+            persisted.add("saldo " + username + " " + balance);
+        }
+    };
+
+    private ObjectProvider<BackendPersistenceHook> withRecorder() {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("recorder", recorder);
+        return beans.getBeanProvider(BackendPersistenceHook.class);
+    }
+
+    private static ObjectProvider<BackendPersistenceHook> withoutHook() {
+        return new StaticListableBeanFactory().getBeanProvider(BackendPersistenceHook.class);
+    }
+
+    @Test
+    void lobbyLivesFromTheFirstPlayerToTheLast() {
+        EmbeddedLobbyGateway lobbies = new EmbeddedLobbyGateway(properties, withRecorder());
+        assertNull(lobbies.getLobby("sala"));
+        assertFalse(lobbies.addPlayer("sala", null));
+        assertFalse(lobbies.addPlayer("sala", ""));
+
+        assertTrue(lobbies.addPlayer("sala", "ana"));
+        assertTrue(lobbies.addPlayer("sala", "luis"));
+        assertTrue(lobbies.addPlayer("sala", "ana"));
+
+        Map<String, Object> lobby = lobbies.getLobby("sala");
+        assertEquals("sala", lobby.get("nombre"));
+        assertEquals(2, lobby.get("jugadoresConectados"));
+        assertEquals(5, lobby.get("numeroDeRondas"));
+        assertEquals(List.of("ana", "luis"), lobby.get("jugadores"));
+
+        assertTrue(lobbies.removePlayer("sala", "luis"));
+        assertTrue(lobbies.removePlayer("sala", "ana"));
+        assertNull(lobbies.getLobby("sala"));
+        assertFalse(lobbies.removePlayer("sala", "ana"));
+        assertEquals("sin lobby sala", persisted.get(persisted.size() - 1));
+    }
+
+    @Test
+    void readyCountStaysBetweenZeroAndThePlayers() {
+        EmbeddedLobbyGateway lobbies = new EmbeddedLobbyGateway(properties, withRecorder());
+        assertFalse(lobbies.markReady("sala"));
+        assertFalse(lobbies.markNotReady("sala"));
+        lobbies.addPlayer("sala", "ana");
+        lobbies.addPlayer("sala", "luis");
+
+        assertTrue(lobbies.markNotReady("sala"));
+        assertEquals(0, lobbies.getLobby("sala").get("jugadoresListos"));
+        lobbies.markReady("sala");
+        lobbies.markReady("sala");
+        lobbies.markReady("sala");
+        assertEquals(2, lobbies.getLobby("sala").get("jugadoresListos"));
+
+        // Si sale un jugador listo el conteo no puede quedar por encima de los que quedan
+        lobbies.removePlayer("sala", "luis");
+        assertEquals(1, lobbies.getLobby("sala").get("jugadoresListos"));
+        assertEquals("lobby sala [ana] listos=1", persisted.get(persisted.size() - 1));
+    }
+
+    @Test
+    void registerLobbiesCreatesEachNameOnce() {
+        properties.setRoundsPerGame(3);
+        EmbeddedLobbyGateway lobbies = new EmbeddedLobbyGateway(properties, withoutHook());
+        lobbies.addPlayer("mm-1", "eva");
+
+        List<String> registered = lobbies.registerLobbies(List.of(
+                new MatchedLobby("mm-1", 4, List.of("ana", "luis")),
+                new MatchedLobby("mm-2", 4, List.of("ana", "luis"))));
+
+        assertEquals(List.of("mm-2"), registered);
+        assertEquals(List.of("eva"), lobbies.getLobby("mm-1").get("jugadores"));
+        assertEquals(3, lobbies.getLobby("mm-1").get("numeroDeRondas"));
+        assertEquals(4, lobbies.getLobby("mm-2").get("numeroDeRondas"));
+        assertTrue(lobbies.removePlayer("mm-2", "ana"));
+    }
+
+    @Test
+    void auctionKeepsTheBestOfferUntilItCloses() {
+        EmbeddedBidGateway bids = new EmbeddedBidGateway(withRecorder());
+        bids.placeOffer("c-1", "ana", 500);
+        bids.closeAuction("c-1");
+
+        bids.startAuction("c-1", 100, 900);
+        bids.placeOffer("c-1", "ana", 300);
+        bids.placeOffer("c-1", "luis", 250);
+        bids.closeAuction("c-1");
+        // Cerrada: la oferta tardía ya no cuenta
+        bids.placeOffer("c-1", "luis", 800);
+
+        bids.startAuction("c-2", 100, 400);
+        bids.placeOffer("c-2", "ana", 100);
+        bids.closeAuction("c-2");
+
+        assertEquals(List.of("subasta c-1 ana 300/900"), persisted);
+    }
+
+    @Test
+    void balancesStartFromTheInitialBalance() {
+        properties.setInitialBalance(1000);
+        EmbeddedUserGateway users = new EmbeddedUserGateway(properties, withRecorder());
+
+        assertEquals(1250, users.addToBalance("ana", 250));
+        assertEquals(1150, users.addToBalance("ana", -100));
+        assertEquals(1000, users.addToBalance("luis", 0));
+        assertEquals(List.of("saldo ana 1250", "saldo ana 1150", "saldo luis 1000"), persisted);
+    }
+
+    @Test
+    void withoutHookNothingIsPersisted() {
+        EmbeddedBidGateway bids = new EmbeddedBidGateway(withoutHook());
+        bids.startAuction("c-1", 100, 900);
+        bids.placeOffer("c-1", "ana", 300);
+        bids.closeAuction("c-1");
+        EmbeddedLobbyGateway lobbies = new EmbeddedLobbyGateway(properties, withoutHook());
+        lobbies.addPlayer("sala", "ana");
+        lobbies.removePlayer("sala", "ana");
+        EmbeddedUserGateway users = new EmbeddedUserGateway(properties, withoutHook());
+
+        assertEquals(2100, users.addToBalance("ana", 100));
+        assertTrue(persisted.isEmpty());
+    }
+
+    @Test
+    void containersUseTheLocalTypes() {
+        ContainerInfo container = new EmbeddedContainerGateway().nextContainer();
+
+        assertTrue(container.getId().endsWith("-local"));
+        assertTrue(List.of("Normal", "Raro", "Épico", "Legendario").contains(container.getType()));
+    }
+}
@@ -0,0 +1,279 @@
+package arsw.tamaltolimense.SocketServer;
+
+import com.corundumstudio.socketio.AckRequest;
+import com.corundumstudio.socketio.BroadcastOperations;
+import com.corundumstudio.socketio.SocketIOClient;
+import com.corundumstudio.socketio.SocketIOServer;
+import com.corundumstudio.socketio.Transport;
+import com.corundumstudio.socketio.listener.ConnectListener;
+import com.corundumstudio.socketio.listener.DisconnectListener;
+import com.corundumstudio.socketio.handler.ClientHead;
+import com.corundumstudio.socketio.protocol.Packet;
+import com.corundumstudio.socketio.protocol.PacketType;
+import com.corundumstudio.socketio.transport.NamespaceClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class GameBroadcasterTest {
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private GameBroadcaster broadcaster;
+    private final SocketIOServer server = mock(SocketIOServer.class);
+    private final BroadcastOperations room = mock(BroadcastOperations.class);
+    private ConnectListener onConnect;
+    private DisconnectListener onDisconnect;
+    private SocketIOClient ana;
+    private SocketIOClient luis;
+
+    @BeforeEach
+    void setUp() {
+        // Más de dos eventos en cola cuentan como atasco, y cualquier atasco ya es demasiado largo
+        BackpressureProperties properties = new BackpressureProperties();
+        properties.setHighWaterMark(2);
+        properties.setPollingHighWaterMark(3);
+        properties.setSlowConsumerTimeout(Duration.ZERO);
+        broadcaster = new GameBroadcaster(properties, registry);
+        broadcaster.attach(server);
+        ArgumentCaptor<ConnectListener> connect = ArgumentCaptor.forClass(ConnectListener.class);
+        ArgumentCaptor<DisconnectListener> disconnect = ArgumentCaptor.forClass(DisconnectListener.class);
+        verify(server).addConnectListener(connect.capture());
+        verify(server).addDisconnectListener(disconnect.capture());
+        onConnect = connect.getValue();
+        onDisconnect = disconnect.getValue();
+
+        ana = connectedClient();
+        luis = connectedClient();
+        when(server.getRoomOperations("sala")).thenReturn(room);
+        when(room.getClients()).thenReturn(List.of(ana, luis));
+    }
+
+    private SocketIOClient connectedClient() {
+        SocketIOClient client = mock(SocketIOClient.class);
+        when(client.getSessionId()).thenReturn(UUID.randomUUID());
+        when(client.getTransport()).thenReturn(Transport.WEBSOCKET);
+        onConnect.onConnect(client);
+        return client;
+    }
+
+    @Test
+    void outsideAPassEventsGoOutRightAway() {
+        AckRequest ack = mock(AckRequest.class);
+
+        broadcaster.toClient(ana, "saldo", 1500);
+        broadcaster.ack(ack, "ok");
+        // flush sin pase abierto no tiene nada que despachar
+        broadcaster.flush();
+
+        verify(ana).sendEvent("saldo", 1500);
+        verify(ack).sendAckData("ok");
+    }
+
+    @Test
+    void aPassSendsEverythingTogetherAtTheEnd() {
+        AckRequest ack = mock(AckRequest.class);
+
+        broadcaster.inPass(() -> {
+            broadcaster.toRoom("sala", "nuevaApuesta", "ana", 300);
+            broadcaster.ack(ack, "aceptada");
+            broadcaster.toClient(luis, "saldo", 700);
+            verifyNoInteractions(ack);
+            verify(ana, never()).sendEvent(anyString(), any(Object[].class));
+            verify(luis, never()).sendEvent(anyString(), any(Object[].class));
+        });
+
+        InOrder order = inOrder(ana, luis, ack);
+        order.verify(ana).sendEvent("nuevaApuesta", "ana", 300);
+        order.verify(luis).sendEvent("nuevaApuesta", "ana", 300);
+        order.verify(ack).sendAckData("aceptada");
+        order.verify(luis).sendEvent("saldo", 700);
+    }
+
+    @Test
+    void nestedPassesJoinTheOuterOne() {
+        broadcaster.inPass(() -> {
+            broadcaster.inPass(() -> broadcaster.toClient(ana, "ronda", 1));
+            verify(ana, never()).sendEvent(anyString(), any(Object[].class));
+            broadcaster.toClient(ana, "ronda", 2);
+        });
+
+        InOrder order = inOrder(ana);
+        order.verify(ana).sendEvent("ronda", 1);
+        order.verify(ana).sendEvent("ronda", 2);
+    }
+
+    @Test
+    void flushDispatchesWhatThePassHasSoFar() {
+        broadcaster.inPass(() -> {
+            broadcaster.flush();
+            broadcaster.toClient(ana, "resultado", "luis");
+            broadcaster.flush();
+            verify(ana).sendEvent("resultado", "luis");
+            broadcaster.toClient(ana, "nuevaRonda", 2);
+            verify(ana, never()).sendEvent("nuevaRonda", 2);
+        });
+
+        verify(ana).sendEvent("nuevaRonda", 2);
+    }
+
+    @Test
+    void aFailingPassStillSendsWhatItQueued() {
+        // El error sigue subiendo, pero lo acumulado no se pierde
+        assertThrows(IllegalStateException.class, () -> broadcaster.inPass(() -> {
+            broadcaster.toClient(ana, "saldo", 1000);
+            throw new IllegalStateException("fallo en el procesamiento");
+        }));
+
+        verify(ana).sendEvent("saldo", 1000);
+        broadcaster.toClient(ana, "saldo", 900);
+        verify(ana).sendEvent("saldo", 900);
+    }
+
+    @Test
+    void disconnectedClientsGetNothing() {
+        onDisconnect.onDisconnect(luis);
+
+        broadcaster.toRoom("sala", "finDelJuego", "ana");
+        broadcaster.toClient(luis, "saldo", 0);
+
+        verify(ana).sendEvent("finDelJuego", "ana");
+        verify(luis, never()).sendEvent(anyString(), any(Object[].class));
+    }
+
+    private double counter(String name) {
+        return registry.get(name).counter().count();
+    }
+
+    @Test
+    void fullChannelHoldsEventsUntilItDrains() {
+        broadcaster.writabilityChanged(ana.getSessionId(), false);
+        // Una sesión sin cola (ya desconectada) se ignora
+        broadcaster.writabilityChanged(UUID.randomUUID(), false);
+
+        broadcaster.toRoomLatest("sala", "temporizador", "reloj", 10);
+        broadcaster.toRoomLatest("sala", "temporizador", "reloj", 9);
+
+        verify(ana, never()).sendEvent(anyString(), any(Object[].class));
+        verify(luis).sendEvent("temporizador", 9);
+        assertEquals(1.0, counter("hiddencargo.socket.outbox.queued"));
+        assertEquals(1.0, counter("hiddencargo.socket.outbox.conflated"));
+        assertEquals(1.0, registry.get("hiddencargo.socket.outbox.pending").gauge().value());
+
+        broadcaster.writabilityChanged(ana.getSessionId(), true);
+
+        verify(ana).sendEvent("temporizador", 9);
+        verify(ana, never()).sendEvent("temporizador", 10);
+        assertEquals(0.0, registry.get("hiddencargo.socket.outbox.pending").gauge().value());
+    }
+
+    @Test
+    void clientStuckTooLongIsDisconnected() {
+        broadcaster.writabilityChanged(ana.getSessionId(), false);
+
+        for (int round = 1; round <= 4; round++) {
+            broadcaster.toClient(ana, "ronda", round);
+        }
+
+        verify(ana).disconnect();
+        assertEquals(1.0, counter("hiddencargo.socket.slow.consumers"));
+        // Sin cola ya no se le envía nada más
+        broadcaster.toClient(ana, "ronda", 5);
+        verify(ana, never()).sendEvent(anyString(), any(Object[].class));
+    }
+
+    @Test
+    void queueOverTwiceTheLimitIsDisconnectedWithoutWaitingForTheTimeout() {
+        BackpressureProperties properties = new BackpressureProperties();
+        properties.setHighWaterMark(2);
+        properties.setSlowConsumerTimeout(Duration.ofHours(1));
+        GameBroadcaster patient = new GameBroadcaster(properties, new SimpleMeterRegistry());
+        SocketIOServer other = mock(SocketIOServer.class);
+        patient.attach(other);
+        ArgumentCaptor<ConnectListener> connect = ArgumentCaptor.forClass(ConnectListener.class);
+        verify(other).addConnectListener(connect.capture());
+        connect.getValue().onConnect(ana);
+        patient.writabilityChanged(ana.getSessionId(), false);
+
+        // Por encima del límite pero dentro del timeout: sigue conectado
+        for (int message = 1; message <= 4; message++) {
+            patient.toClient(ana, "chat", message);
+        }
+        verify(ana, never()).disconnect();
+
+        patient.toClient(ana, "chat", 5);
+        verify(ana).disconnect();
+    }
+
+    @Test
+    void pollingClientPausesWhileItsBacklogIsFull() {
+        Queue<Packet> backlog = new ArrayDeque<>();
+        ClientHead head = mock(ClientHead.class);
+        when(head.getPacketsQueue(Transport.POLLING)).thenReturn(backlog);
+        NamespaceClient polling = mock(NamespaceClient.class);
+        when(polling.getSessionId()).thenReturn(UUID.randomUUID());
+        when(polling.getTransport()).thenReturn(Transport.POLLING);
+        when(polling.getBaseClient()).thenReturn(head);
+        onConnect.onConnect(polling);
+        for (int i = 0; i < 3; i++) {
+            backlog.add(new Packet(PacketType.MESSAGE));
+        }
+
+        broadcaster.toClient(polling, "saldo", 1000);
+        verify(polling, never()).sendEvent(anyString(), any(Object[].class));
+
+        // El cliente recogió sus paquetes: lo retenido sale antes que lo nuevo
+        backlog.clear();
+        broadcaster.toClient(polling, "saldo", 900);
+        verify(polling).sendEvent("saldo", 1000);
+        verify(polling).sendEvent("saldo", 900);
+    }
+
+    @Test
+    void pollingClientWithoutSessionDetailsIsAlwaysWritable() {
+        SocketIOClient other = connectedClient();
+        when(other.getTransport()).thenReturn(Transport.POLLING);
+
+        broadcaster.toClient(other, "saldo", 1000);
+
+        verify(other).sendEvent("saldo", 1000);
+    }
+
+    @Test
+    void backpressureHandlerFollowsTheChannelWaterMarks() {
+        UUID session = ana.getSessionId();
+        ClientHead head = mock(ClientHead.class);
+        when(head.getSessionId()).thenReturn(session);
+        EmbeddedChannel channel = new EmbeddedChannel(broadcaster.backpressureHandler());
+        channel.config().setWriteBufferWaterMark(new WriteBufferWaterMark(8, 16));
+
+        // Antes del handshake el canal no tiene cliente y el cambio no afecta a nadie
+        channel.write(Unpooled.wrappedBuffer(new byte[32]));
+        channel.flush();
+        channel.attr(ClientHead.CLIENT).set(head);
+        channel.write(Unpooled.wrappedBuffer(new byte[32]));
+        assertFalse(channel.isWritable());
+        broadcaster.toClient(ana, "saldo", 1000);
+        verify(ana, never()).sendEvent(anyString(), any(Object[].class));
+
+        channel.flush();
+
+        assertTrue(channel.isWritable());
+        verify(ana).sendEvent("saldo", 1000);
+        channel.finishAndReleaseAll();
+    }
+}
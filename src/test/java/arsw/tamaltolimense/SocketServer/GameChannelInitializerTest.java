@@ -0,0 +1,77 @@
+package arsw.tamaltolimense.SocketServer;
+
+import com.corundumstudio.socketio.Configuration;
+import com.corundumstudio.socketio.SocketIOChannelInitializer;
+import com.corundumstudio.socketio.protocol.JacksonJsonSupport;
+import com.corundumstudio.socketio.namespace.NamespacesHub;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameChannelInitializerTest {
+    private final TransportProperties transport = new TransportProperties();
+    private final AdminProperties admin = new AdminProperties();
+    private final Configuration config = new Configuration();
+    private GameChannelInitializer initializer;
+    private EmbeddedChannel channel;
+
+    @BeforeEach
+    void setUp() {
+        config.setJsonSupport(new JacksonJsonSupport());
+        // Como en TunedSocketIOServer: la compresión de netty-socketio queda apagada
+        config.setWebsocketCompression(false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (channel != null) {
+            channel.finishAndReleaseAll();
+        }
+        initializer.stop();
+    }
+
+    private List<String> pipeline() {
+        initializer = new GameChannelInitializer(transport, transport.getCompressionLevel(),
+                new SocketChannelMetrics(new SimpleMeterRegistry()),
+                new GameBroadcaster(new BackpressureProperties(), new SimpleMeterRegistry()).backpressureHandler(),
+                new NettyAdminHandler(admin, new ObjectMapper(), null, null, null, null, null));
+        initializer.start(config, new NamespacesHub(config));
+        channel = new EmbeddedChannel(initializer);
+        return channel.pipeline().names();
+    }
+
+    @Test
+    void defaultPipelineAddsMetricsFlushConsolidationAndBackpressureInFront() {
+        List<String> names = pipeline();
+
+        assertEquals(List.of(SocketChannelMetrics.HANDLER_NAME, GameChannelInitializer.FLUSH_CONSOLIDATION,
+                ClientBackpressureHandler.HANDLER_NAME), names.subList(0, 3));
+        // Compresión propia delante del transporte WebSocket, y sin administración si está apagada
+        assertEquals(names.indexOf(SocketIOChannelInitializer.WEB_SOCKET_TRANSPORT) - 1,
+                names.indexOf(SocketIOChannelInitializer.WEB_SOCKET_TRANSPORT_COMPRESSION));
+        assertFalse(names.contains(NettyAdminHandler.HANDLER_NAME));
+    }
+
+    @Test
+    void adminHandlerGoesRightBeforeThePacketHandler() {
+        admin.setEnabled(true);
+        transport.setWebsocketCompression(false);
+        transport.setFlushConsolidation(false);
+
+        List<String> names = pipeline();
+
+        assertEquals(List.of(SocketChannelMetrics.HANDLER_NAME, ClientBackpressureHandler.HANDLER_NAME),
+                names.subList(0, 2));
+        assertEquals(names.indexOf(SocketIOChannelInitializer.PACKET_HANDLER) - 1,
+                names.indexOf(NettyAdminHandler.HANDLER_NAME));
+        assertFalse(names.contains(SocketIOChannelInitializer.WEB_SOCKET_TRANSPORT_COMPRESSION));
+        assertFalse(names.contains(GameChannelInitializer.FLUSH_CONSOLIDATION));
+    }
+}
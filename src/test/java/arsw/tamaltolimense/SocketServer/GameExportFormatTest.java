@@ -0,0 +1,186 @@
+package arsw.tamaltolimense.SocketServer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameExportFormatTest {
+    private static final long STARTED_AT = 1_700_000_000_000L;
+
+    private final GameExportFormat format = new GameExportFormat();
+
+    // Partida de ana y beto con una ronda ganada, otra sin apuestas y tres apuestas
+    static GameState game(String lobbyName) {
+        GameState game = new GameState();
+        game.setLobbyName(lobbyName);
+        game.setTotalRounds(5);
+        GameRoster roster = new GameRoster(List.of("ana", "beto"));
+        roster.setBalance(0, 1250);
+        roster.setBalance(1, 900);
+        roster.addScore(0, 350);
+        roster.addScore(1, -100);
+        game.setRoster(roster);
+        game.startRecording(STARTED_AT);
+        GameRecord record = game.getRecord();
+        record.bid(1, 0, 150, STARTED_AT + 1_000);
+        // Una apuesta recibida antes del inicio cuenta desde el inicio
+        record.bid(1, 1, 200, STARTED_AT - 5);
+        record.bid(2, 0, 300, STARTED_AT + 2_500);
+        record.round(new GameRecord.RoundOutcome(1, "container-1", "Épico", 1550, 1, 200, 1350));
+        record.round(new GameRecord.RoundOutcome(2, null, null, 0, -1, 0, 0));
+        return game;
+    }
+
+    // Lee un archivo de exportación completo: cabecera y una partida por registro
+    static List<Map<String, Object>> readFile(byte[] file) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(file));
+        byte[] magic = new byte[GameExportFormat.MAGIC.length];
+        in.readFully(magic);
+        assertArrayEquals(GameExportFormat.MAGIC, magic);
+        assertEquals(GameExportFormat.VERSION, in.readByte());
+        List<Map<String, Object>> games = new ArrayList<>();
+        while (in.available() > 0) {
+            byte[] record = new byte[(int) readVarLong(in)];
+            in.readFully(record);
+            games.add(decode(record));
+        }
+        return games;
+    }
+
+    private static Map<String, Object> decode(byte[] record) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+        Map<String, Object> game = new LinkedHashMap<>();
+        game.put("startedAt", readVarLong(in));
+        game.put("durationMs", readVarLong(in));
+        game.put("lobby", readString(in));
+        game.put("totalRounds", readVarLong(in));
+        List<List<Object>> players = new ArrayList<>();
+        for (long seat = readVarLong(in); seat > 0; seat--) {
+            players.add(List.of(readString(in), readZigZag(in), readZigZag(in)));
+        }
+        game.put("players", players);
+        game.put("winnerSeat", readZigZag(in));
+        List<List<Object>> rounds = new ArrayList<>();
+        for (long round = readVarLong(in); round > 0; round--) {
+            rounds.add(List.of(readVarLong(in), readString(in), readString(in), readZigZag(in), readZigZag(in),
+                    readZigZag(in), readZigZag(in)));
+        }
+        game.put("rounds", rounds);
+        List<List<Long>> bids = new ArrayList<>();
+        for (long bid = readVarLong(in); bid > 0; bid--) {
+            bids.add(List.of(readVarLong(in), readVarLong(in), readVarLong(in), readZigZag(in)));
+        }
+        game.put("bids", bids);
+        assertEquals(0, in.available());
+        return game;
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[(int) readVarLong(in)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static long readZigZag(DataInputStream in) throws IOException {
+        long value = readVarLong(in);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+    }
+
+    private byte[] file(GameState game, int winnerSeat, long endedAt) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        GameExportFormat.writeHeader(out);
+        int size = format.encode(game, winnerSeat, endedAt);
+        int written = format.writeTo(out);
+        assertEquals(out.size() - GameExportFormat.MAGIC.length - 1, written);
+        assertTrue(written > size);
+        return out.toByteArray();
+    }
+
+    @Test
+    void encodedGameRoundTrips() throws IOException {
+        List<Map<String, Object>> games = readFile(file(game("sala"), 0, STARTED_AT + 60_000));
+
+        assertEquals(1, games.size());
+        Map<String, Object> game = games.get(0);
+        assertEquals(STARTED_AT, game.get("startedAt"));
+        assertEquals(60_000L, game.get("durationMs"));
+        assertEquals("sala", game.get("lobby"));
+        assertEquals(5L, game.get("totalRounds"));
+        assertEquals(List.of(List.of("ana", 350L, 1250L), List.of("beto", -100L, 900L)), game.get("players"));
+        assertEquals(0L, game.get("winnerSeat"));
+        assertEquals(List.of(List.of(1L, "container-1", "Épico", 1550L, 1L, 200L, 1350L),
+                List.of(2L, "", "", 0L, -1L, 0L, 0L)), game.get("rounds"));
+        // El tiempo de cada apuesta va como diferencia con la anterior
+        assertEquals(List.of(List.of(1L, 0L, 150L, 1_000L), List.of(1L, 1L, 200L, -1_000L),
+                List.of(2L, 0L, 300L, 2_500L)), game.get("bids"));
+        assertEquals(3, format.bidCount());
+    }
+
+    @Test
+    void gameWithoutBidsOrWinnerEndsNoEarlierThanItStarted() throws IOException {
+        GameState game = new GameState();
+        game.setLobbyName("vacía");
+        game.startRecording(STARTED_AT);
+
+        Map<String, Object> decoded = readFile(file(game, -1, STARTED_AT - 10)).get(0);
+
+        assertEquals(0L, decoded.get("durationMs"));
+        assertEquals(List.of(), decoded.get("players"));
+        assertEquals(-1L, decoded.get("winnerSeat"));
+        assertEquals(List.of(), decoded.get("rounds"));
+        assertEquals(List.of(), decoded.get("bids"));
+        assertEquals(0, format.bidCount());
+        assertArrayEquals(new int[0], game.getRecord().bids());
+    }
+
+    @Test
+    void largeGamesGrowTheBuffersAndTheEncoderIsReused() throws IOException {
+        GameState large = game("x".repeat(5_000));
+        for (int i = 0; i < 2_000; i++) {
+            large.getRecord().bid(3, i % 2, 400 + i, STARTED_AT + 3_000 + i);
+        }
+
+        Map<String, Object> decoded = readFile(file(large, 1, STARTED_AT + 90_000)).get(0);
+        assertEquals(5_000, ((String) decoded.get("lobby")).length());
+        List<?> bids = (List<?>) decoded.get("bids");
+        assertEquals(2_003, bids.size());
+        assertEquals(List.of(3L, 1L, 2_399L, 1L), bids.get(2_002));
+        assertEquals(2_003 * GameRecord.BID_FIELDS, large.getRecord().bids().length);
+
+        // El siguiente registro no arrastra nada del anterior
+        byte[] small = file(game("sala"), 0, STARTED_AT);
+        assertEquals("sala", readFile(small).get(0).get("lobby"));
+        assertEquals(3, ((List<?>) readFile(small).get(0).get("bids")).size());
+    }
+
+    @Test
+    void headerIsMagicAndVersion() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        GameExportFormat.writeHeader(out);
+
+        assertArrayEquals(new byte[]{'H', 'C', 'G', 'X', 1}, out.toByteArray());
+        assertEquals(List.of(), readFile(out.toByteArray()));
+    }
+}
@@ -0,0 +1,258 @@
+package arsw.tamaltolimense.SocketServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameExporterTest {
+    @TempDir
+    Path dir;
+
+    private final GameExportProperties properties = new GameExportProperties();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    // Reloj del exportador: solo avanza cuando el test lo decide
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+    private final AtomicInteger opened = new AtomicInteger();
+    // Abre el archivo de cada rotación; null = el archivo real
+    private volatile Opener opener;
+    private GameExporter exporter;
+
+    private interface Opener {
+        OutputStream open(Path file) throws IOException;
+    }
+
+    @BeforeEach
+    void setUp() {
+        properties.setEnabled(true);
+        properties.setDirectory(dir.resolve("exports").toString());
+        properties.setFlushInterval(Duration.ofMillis(10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        exporter.shutdown();
+    }
+
+    private GameExporter exporter() {
+        exporter = new GameExporter(properties, registry) {
+            @Override
+            long now() {
+                return clock.get();
+            }
+
+            @Override
+            OutputStream open(Path file) throws IOException {
+                opened.incrementAndGet();
+                Opener current = opener;
+                return current != null ? current.open(file) : super.open(file);
+            }
+        };
+        exporter.start();
+        return exporter;
+    }
+
+    private double count(String name) {
+        return registry.get(name).counter().count();
+    }
+
+    private void awaitCount(String name, double expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (count(name) < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(expected, count(name));
+    }
+
+    private List<Path> exportFiles() throws IOException {
+        try (Stream<Path> listing = Files.list(Path.of(properties.getDirectory()))) {
+            return listing.filter(path -> path.toString().endsWith(".hcg")).sorted().toList();
+        }
+    }
+
+    private static List<Object> lobbies(Path file) throws IOException {
+        return GameExportFormatTest.readFile(Files.readAllBytes(file)).stream()
+                .map(game -> game.get("lobby")).toList();
+    }
+
+    @Test
+    void disabledExporterIgnoresGames() {
+        properties.setEnabled(false);
+        exporter();
+
+        exporter.export(GameExportFormatTest.game("sala"), 0);
+
+        assertFalse(exporter.isEnabled());
+        assertEquals(0, registry.get("hiddencargo.export.queued").gauge().value());
+        assertFalse(Files.exists(Path.of(properties.getDirectory())));
+    }
+
+    @Test
+    void gamesAreWrittenFlushedWhenDueAndDrainedOnShutdown() throws Exception {
+        exporter();
+        // Sin registro la partida empezó con la exportación desactivada
+        exporter.export(new GameState(), 0);
+        exporter.export(GameExportFormatTest.game("sala"), 0);
+        awaitCount("hiddencargo.export.games", 1);
+
+        // Todavía en el búfer: el volcado no toca hasta que pase flush-interval
+        Path file = exportFiles().get(0);
+        Thread.sleep(50);
+        assertEquals(0, Files.size(file));
+        clock.addAndGet(10);
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (Files.size(file) == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(Files.size(file) > 0);
+
+        exporter.export(GameExportFormatTest.game("otra"), -1);
+        exporter.shutdown();
+
+        assertEquals(List.of(file), exportFiles());
+        assertEquals(List.of("sala", "otra"), lobbies(file));
+        assertEquals(2, count("hiddencargo.export.games"));
+        assertEquals(6, count("hiddencargo.export.bids"));
+        assertEquals(Files.size(file) - GameExportFormat.MAGIC.length - 1, count("hiddencargo.export.bytes"));
+        assertEquals(0, count("hiddencargo.export.errors"));
+    }
+
+    @Test
+    void realClockWritesToTheRealFile() throws Exception {
+        exporter = new GameExporter(properties, registry);
+        exporter.start();
+
+        exporter.export(GameExportFormatTest.game("sala"), 0);
+        awaitCount("hiddencargo.export.games", 1);
+        exporter.shutdown();
+
+        assertEquals(List.of("sala"), lobbies(exportFiles().get(0)));
+    }
+
+    @Test
+    void filesRollByAgeAndSizeAndOnlyTheNewestAreKept() throws Exception {
+        properties.setMaxFiles(2);
+        Path directory = Files.createDirectories(Path.of(properties.getDirectory()));
+        Files.writeString(directory.resolve("notas.txt"), "no es de la exportación");
+        Files.writeString(directory.resolve("games-viejo.tmp"), "tampoco");
+        exporter();
+
+        exporter.export(GameExportFormatTest.game("primera"), 0);
+        awaitCount("hiddencargo.export.games", 1);
+        clock.addAndGet(properties.getRollInterval().toMillis());
+        exporter.export(GameExportFormatTest.game("segunda"), 0);
+        awaitCount("hiddencargo.export.games", 2);
+        properties.setMaxFileBytes(1);
+        exporter.export(GameExportFormatTest.game("tercera"), 0);
+        awaitCount("hiddencargo.export.games", 3);
+        exporter.shutdown();
+
+        List<Path> files = exportFiles();
+        assertEquals(3, opened.get());
+        assertEquals(2, files.size());
+        assertEquals(List.of("segunda"), lobbies(files.get(0)));
+        assertEquals(List.of("tercera"), lobbies(files.get(1)));
+        assertTrue(Files.exists(directory.resolve("notas.txt")));
+        assertTrue(Files.exists(directory.resolve("games-viejo.tmp")));
+    }
+
+    @Test
+    void failedOpenIsCountedAndTheNextGameUsesANewFile() throws Exception {
+        opener = file -> {
+            throw new IOException("disco lleno");
+        };
+        exporter();
+
+        exporter.export(GameExportFormatTest.game("perdida"), 0);
+        awaitCount("hiddencargo.export.errors", 1);
+        opener = null;
+        exporter.export(GameExportFormatTest.game("sala"), 0);
+        awaitCount("hiddencargo.export.games", 1);
+        exporter.shutdown();
+
+        assertEquals(List.of("sala"), lobbies(exportFiles().get(0)));
+    }
+
+    @Test
+    void failedFlushClosesTheFile() throws Exception {
+        opener = file -> new ByteArrayOutputStream() {
+            @Override
+            public void flush() throws IOException {
+                throw new IOException("disco lleno");
+            }
+
+            @Override
+            public void close() throws IOException {
+                throw new IOException("disco lleno");
+            }
+        };
+        exporter();
+
+        exporter.export(GameExportFormatTest.game("sala"), 0);
+        awaitCount("hiddencargo.export.games", 1);
+        clock.addAndGet(10);
+        awaitCount("hiddencargo.export.errors", 1);
+        exporter.export(GameExportFormatTest.game("otra"), 0);
+        awaitCount("hiddencargo.export.games", 2);
+
+        assertEquals(2, opened.get());
+    }
+
+    @Test
+    void fullQueueDropsGamesAndShutdownDoesNotWaitForever() throws Exception {
+        properties.setQueueCapacity(1);
+        properties.setShutdownTimeout(Duration.ofMillis(20));
+        CountDownLatch opening = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // El escritor se queda abriendo el archivo, sin atender la interrupción
+        opener = file -> {
+            opening.countDown();
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    release.await();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            return new ByteArrayOutputStream();
+        };
+        exporter();
+
+        exporter.export(GameExportFormatTest.game("primera"), 0);
+        assertTrue(opening.await(5, TimeUnit.SECONDS));
+        exporter.export(GameExportFormatTest.game("segunda"), 0);
+        exporter.export(GameExportFormatTest.game("descartada"), 0);
+        assertEquals(1, count("hiddencargo.export.dropped"));
+
+        exporter.shutdown();
+        // Quien apaga también puede ser interrumpido mientras espera
+        Thread.currentThread().interrupt();
+        exporter.shutdown();
+        assertTrue(Thread.interrupted());
+
+        release.countDown();
+        awaitCount("hiddencargo.export.games", 2);
+    }
+}
@@ -0,0 +1,107 @@
+package arsw.tamaltolimense.SocketServer;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameFlightEventsTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void withoutRecordingNothingIsTimed() {
+        GameFlightEvents.PlaceBidEvent event = new GameFlightEvents.PlaceBidEvent();
+        event.start();
+        long http = event.httpStart();
+        event.httpEnd(http);
+        long pause = event.pauseStart();
+        event.pauseEnd(pause);
+        event.frameSent();
+        event.finish(4);
+
+        assertEquals(0L, http);
+        assertEquals(0L, pause);
+        assertEquals(0L, event.httpTime);
+        assertEquals(0L, event.pauseTime);
+        assertEquals(1, event.frames);
+        assertEquals(0, event.fanOut);
+    }
+
+    @Test
+    void recordedEventCarriesTimesAndFanOut() throws Exception {
+        Path file = dir.resolve("place-bid.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(GameFlightEvents.PlaceBidEvent.class);
+            recording.start();
+
+            GameFlightEvents.PlaceBidEvent event = new GameFlightEvents.PlaceBidEvent();
+            event.start();
+            event.lobby = "lobby-1";
+            event.round = 2;
+            event.playerCount = 3;
+            event.nickname = "ana";
+            event.amount = 150;
+            event.accepted = true;
+            event.httpEnd(event.httpStart() - 1_000);
+            event.pauseEnd(event.pauseStart() - 1_000);
+            event.frameSent();
+            event.frameSent();
+            event.finish(3);
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(e -> e.getEventType().getName().equals("arsw.hiddencargo.PlaceBid"))
+                .toList();
+        assertEquals(1, events.size());
+        RecordedEvent recorded = events.get(0);
+        assertEquals("lobby-1", recorded.getString("lobby"));
+        assertEquals("ana", recorded.getString("nickname"));
+        assertEquals(6, recorded.getInt("fanOut"));
+        assertTrue(recorded.getDuration("httpTime").toNanos() >= 1_000);
+        assertTrue(recorded.getDuration("pauseTime").toNanos() >= 1_000);
+        assertTrue(recorded.getDuration("localTime").toNanos() >= 0);
+    }
+
+    @Test
+    void eventUnderThresholdIsNotCommitted() {
+        try (Recording recording = new Recording()) {
+            recording.enable(GameFlightEvents.StartNewRoundEvent.class).withThreshold(Duration.ofHours(1));
+            recording.start();
+
+            GameFlightEvents.StartNewRoundEvent event = new GameFlightEvents.StartNewRoundEvent();
+            event.start();
+            event.containerId = "contenedor-1";
+            event.frameSent();
+            event.finish(4);
+
+            // Los campos derivados solo se calculan si el evento se va a guardar
+            assertEquals(0, event.fanOut);
+            assertEquals(0L, event.localTime);
+        }
+    }
+
+    @Test
+    void everyEventTypeCanBeCreated() {
+        GameFlightEvents.EndAuctionRoundEvent end = new GameFlightEvents.EndAuctionRoundEvent();
+        end.winner = "ana";
+        end.profit = 300;
+        GameFlightEvents.GenerateContainersEvent generate = new GameFlightEvents.GenerateContainersEvent();
+        generate.requested = 10;
+        generate.generated = 8;
+
+        assertEquals("ana", end.winner);
+        assertEquals(8, generate.generated);
+    }
+}
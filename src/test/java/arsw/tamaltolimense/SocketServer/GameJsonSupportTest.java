@@ -0,0 +1,249 @@
+package arsw.tamaltolimense.SocketServer;
+
+import com.corundumstudio.socketio.namespace.Namespace;
+import com.corundumstudio.socketio.protocol.Event;
+import com.corundumstudio.socketio.protocol.JacksonJsonSupport;
+import com.corundumstudio.socketio.protocol.JsonSupport;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameJsonSupportTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final GameJsonSupport json = new GameJsonSupport();
+    // Lo que produce netty-socketio sin los serializadores propios
+    private final JacksonJsonSupport reference = new JacksonJsonSupport();
+
+    @BeforeEach
+    void setUp() {
+        for (JsonSupport support : List.of(json, reference)) {
+            support.addEventMapping(Namespace.DEFAULT_NAME, "placeBid", PlaceBidData.class);
+            support.addEventMapping(Namespace.DEFAULT_NAME, "chatMessage", ChatMessageData.class);
+        }
+    }
+
+    private static String write(JsonSupport support, Object value) throws IOException {
+        ByteBuf buffer = Unpooled.buffer();
+        try {
+            support.writeValue(new ByteBufOutputStream(buffer), value);
+            return buffer.toString(StandardCharsets.UTF_8);
+        } finally {
+            buffer.release();
+        }
+    }
+
+    private static Event read(JsonSupport support, String namespace, String text) throws IOException {
+        ByteBuf buffer = Unpooled.copiedBuffer(text, StandardCharsets.UTF_8);
+        try {
+            return support.readValue(namespace, new ByteBufInputStream(buffer), Event.class);
+        } finally {
+            buffer.release();
+        }
+    }
+
+    // Nombre y argumentos leídos, o el tipo de excepción si la lectura falla
+    private String outcome(JsonSupport support, String text) {
+        return outcome(support, Namespace.DEFAULT_NAME, text);
+    }
+
+    private String outcome(JsonSupport support, String namespace, String text) {
+        try {
+            Event event = read(support, namespace, text);
+            return event.getName() + objectMapper.writeValueAsString(event.getArgs());
+        } catch (IOException | RuntimeException e) {
+            return e.getClass().getSimpleName();
+        }
+    }
+
+    private static ContainerInfo container() {
+        ContainerInfo container = new ContainerInfo();
+        container.setId("container-1");
+        container.setType("Épico");
+        container.setValue(1550);
+        return container;
+    }
+
+    private static PlayerState player(String nickname) {
+        PlayerState player = new PlayerState();
+        player.setNickname(nickname);
+        player.setBalance(900);
+        player.setScore(40);
+        return player;
+    }
+
+    static Stream<Object> events() {
+        PlayerUpdateData update = new PlayerUpdateData();
+        update.setNickname("ana");
+        update.setBalance(850);
+        update.setScore(-20);
+
+        BidResultData result = new BidResultData();
+        result.setWinner("ana");
+        result.setContainerId("container-1");
+        result.setContainerType("Épico");
+        result.setBidAmount(300);
+        result.setContainerValue(1550);
+        result.setProfit(1250);
+
+        NewRoundData round = new NewRoundData();
+        round.setRound(2);
+        round.setTotalRounds(5);
+        round.setContainer(container());
+        round.setInitialBid(100);
+        round.setDeadline(31_000);
+
+        GameStartedData started = new GameStartedData();
+        started.setPlayers(List.of("ana", "beto"));
+        started.setContainer(container());
+        started.setInitialBid(100);
+        started.setRound(1);
+        started.setTotalRounds(5);
+
+        GameEndData end = new GameEndData();
+        end.setWinner("ana");
+        end.setFinalScores(Arrays.asList(player("ana"), null));
+
+        SpectatorSnapshotData snapshot = new SpectatorSnapshotData();
+        snapshot.setLobbyName("sala");
+        snapshot.setPhase("BIDDING");
+        snapshot.setRound(2);
+        snapshot.setTotalRounds(5);
+        snapshot.setCurrentBid(300);
+        snapshot.setLastBidder("ana");
+        snapshot.setDeadline(31_000);
+        snapshot.setContainer(container());
+        snapshot.setPlayers(List.of(player("ana"), player("beto")));
+        snapshot.setSpectators(3);
+
+        // Y las mismas clases con los campos opcionales vacíos
+        return Stream.of(new NewBidData("ana", 150, 31_000), new NewBidData(), update, new PlayerUpdateData(),
+                result, new BidResultData(), round, new NewRoundData(), started, new GameStartedData(),
+                end, new GameEndData(), container(), new ContainerInfo(), player("ana"), new PlayerState(),
+                snapshot, new SpectatorSnapshotData());
+    }
+
+    @ParameterizedTest
+    @MethodSource("events")
+    void ownWritersProduceTheSameJsonAsJackson(Object data) throws IOException {
+        assertEquals(write(reference, List.of("evento", data)), write(json, List.of("evento", data)));
+        // Dentro de otros valores los escribe el ObjectMapper con los mismos escritores
+        assertEquals(write(reference, Map.of("datos", data)), write(json, Map.of("datos", data)));
+        assertEquals(write(reference, List.of("evento", data)), new String(json.encode("evento", data).packet(),
+                StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void packetsWithoutOwnWritersGoTheGeneralWay() throws IOException {
+        List<Object> withNull = new ArrayList<>();
+        withNull.add("evento");
+        withNull.add(null);
+
+        for (Object value : List.of(withNull, List.of("evento", Map.of("a", 1)), List.of("solo", "texto"), "texto")) {
+            assertEquals(write(reference, value), write(json, value));
+        }
+        assertEquals("[\"evento\",null]", new String(json.encode("evento", null).packet(), StandardCharsets.UTF_8));
+        assertEquals("[\"evento\",{\"a\":1}]",
+                new String(json.encode("evento", Map.of("a", 1)).packet(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void encodedEventIsCopiedOrEmbeddedWithoutSerializingAgain() throws IOException {
+        NewBidData bid = new NewBidData("ana", 150, 31_000);
+        EncodedEvent encoded = json.encode("newBid", bid);
+        String data = objectMapper.writeValueAsString(bid);
+
+        assertEquals(write(reference, List.of("newBid", bid)), write(json, List.of("newBid", encoded)));
+        assertEquals(write(reference, List.of("newBid", bid)).length(), encoded.size());
+        // Con otro nombre, u otro número de elementos, solo se reutilizan los datos
+        assertEquals("[\"otro\"," + data + "]", write(json, List.of("otro", encoded)));
+        assertEquals("[" + data + "]", write(json, List.of(encoded)));
+        assertEquals("[\"a\",\"b\"," + data + "]", write(json, List.of("a", "b", encoded)));
+        assertEquals("{\"datos\":" + data + "}", write(json, Map.of("datos", encoded)));
+    }
+
+    @Test
+    void hotEventsAreReadWithTheOwnReaders() throws IOException {
+        Event bid = read(json, Namespace.DEFAULT_NAME, "[\"placeBid\",{\"nickname\":\"ana\",\"lobbyName\":\"sala\","
+                + "\"containerId\":\"container-1\",\"amount\":150,\"extra\":{\"a\":[1]}}]");
+        PlaceBidData placeBid = (PlaceBidData) bid.getArgs().get(0);
+        assertEquals("placeBid", bid.getName());
+        assertEquals("ana", placeBid.getNickname());
+        assertEquals("sala", placeBid.getLobbyName());
+        assertEquals("container-1", placeBid.getContainerId());
+        assertEquals(150, placeBid.getAmount());
+
+        Event chat = read(json, Namespace.DEFAULT_NAME,
+                "[\"chatMessage\",{\"nickname\":\"ana\",\"lobbyName\":\"sala\",\"message\":null,\"x\":1}]");
+        ChatMessageData message = (ChatMessageData) chat.getArgs().get(0);
+        assertEquals("ana", message.getNickname());
+        assertEquals("sala", message.getLobbyName());
+        assertNull(message.getMessage());
+        chat = read(json, Namespace.DEFAULT_NAME, "[\"chatMessage\",{\"message\":\"hola\"}]");
+        assertEquals("hola", ((ChatMessageData) chat.getArgs().get(0)).getMessage());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "[\"placeBid\",{\"nickname\":\"ana\",\"amount\":150}]",
+            "[\"placeBid\",{\"amount\":\"150\"}]",
+            "[\"placeBid\",{\"nickname\":5}]",
+            "[\"placeBid\",{\"amount\":1},\"extra\"]",
+            "[\"placeBid\",5]",
+            "[\"chatMessage\",{\"message\":3}]",
+            "[\"joinLobby\",{\"lobbyName\":\"sala\"}]",
+            "[5,{}]",
+            "{\"placeBid\":1}"})
+    void anyOtherShapeIsReadLikeJackson(String text) {
+        assertEquals(outcome(reference, text), outcome(json, text));
+    }
+
+    @Test
+    void truncatedHotEventFails() {
+        assertThrows(IOException.class, () -> read(json, Namespace.DEFAULT_NAME, "[\"placeBid\",{\"amount\":1"));
+    }
+
+    @Test
+    void onlyDefaultNamespaceEventsWithOneOwnReaderAreHot() throws IOException {
+        String text = "[\"placeBid\",{\"amount\":\"150\"}]";
+        assertEquals(outcome(new JacksonJsonSupport(), text), outcome(new GameJsonSupport(), text));
+        assertEquals(outcome(reference, "/otro", text), outcome(json, "/otro", text));
+        ByteBuf map = Unpooled.copiedBuffer("{\"a\":1}", StandardCharsets.UTF_8);
+        assertEquals(Map.of("a", 1), json.readValue(Namespace.DEFAULT_NAME, new ByteBufInputStream(map), Map.class));
+        map.release();
+
+        // Otro espacio de nombres, más de un argumento u otra clase dejan el evento al camino general
+        for (JsonSupport support : List.of(json, reference)) {
+            support.addEventMapping("/otro", "placeBid", PlaceBidData.class);
+            support.addEventMapping(Namespace.DEFAULT_NAME, "placeBid", PlaceBidData.class, Integer.class);
+            support.addEventMapping(Namespace.DEFAULT_NAME, "chatMessage", Map.class);
+        }
+        for (String event : List.of("[\"placeBid\",{\"amount\":1},2]", "[\"chatMessage\",{\"message\":\"hola\"}]")) {
+            assertEquals(outcome(reference, event), outcome(json, event));
+        }
+        assertInstanceOf(Map.class, read(json, Namespace.DEFAULT_NAME, "[\"chatMessage\",{}]").getArgs().get(0));
+
+        for (JsonSupport support : List.of(json, reference)) {
+            support.addEventMapping(Namespace.DEFAULT_NAME, "placeBid", PlaceBidData.class);
+            support.removeEventMapping("/otro", "placeBid");
+            support.removeEventMapping(Namespace.DEFAULT_NAME, "placeBid");
+        }
+        assertEquals(outcome(reference, text), outcome(json, text));
+    }
+}
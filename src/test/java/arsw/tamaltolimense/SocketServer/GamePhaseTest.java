@@ -0,0 +1,28 @@
+package arsw.tamaltolimense.SocketServer;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GamePhaseTest {
+
+    // Misma tabla que documenta GamePhase
+    private static final Map<GamePhase, Set<GamePhase>> ALLOWED = Map.of(
+            GamePhase.STARTING, EnumSet.of(GamePhase.BIDDING, GamePhase.FINISHED),
+            GamePhase.BIDDING, EnumSet.of(GamePhase.REVEALING, GamePhase.FINISHED),
+            GamePhase.REVEALING, EnumSet.of(GamePhase.BIDDING, GamePhase.FINISHED),
+            GamePhase.FINISHED, EnumSet.noneOf(GamePhase.class));
+
+    @ParameterizedTest
+    @EnumSource(GamePhase.class)
+    void onlyDocumentedTransitionsAreAllowed(GamePhase from) {
+        for (GamePhase to : GamePhase.values()) {
+            assertEquals(ALLOWED.get(from).contains(to), from.canMoveTo(to), from + " -> " + to);
+        }
+    }
+}
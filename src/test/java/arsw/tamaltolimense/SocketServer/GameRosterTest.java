@@ -0,0 +1,90 @@
+package arsw.tamaltolimense.SocketServer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameRosterTest {
+    private final GameRoster roster = new GameRoster(List.of("ana", "luis", "eva"));
+
+    @Test
+    void seatsFollowTheStartingOrder() {
+        assertEquals(3, roster.seats());
+        assertEquals(3, roster.playerCount());
+        assertEquals(1, roster.seatOf("luis"));
+        assertEquals(-1, roster.seatOf("pedro"));
+        assertEquals("eva", roster.nickname(2));
+        assertEquals(List.of("ana", "luis", "eva"), roster.nicknames());
+        assertEquals(0, GameRoster.EMPTY.seats());
+        assertEquals(-1, GameRoster.EMPTY.leader());
+    }
+
+    @Test
+    void leavingKeepsTheSeatButHidesThePlayer() {
+        assertTrue(roster.leave(1));
+        assertFalse(roster.leave(1));
+
+        assertEquals(3, roster.seats());
+        assertEquals(2, roster.playerCount());
+        assertFalse(roster.isPresent(1));
+        assertEquals(-1, roster.seatOf("luis"));
+        assertEquals(2, roster.seatOf("eva"));
+        assertEquals(List.of("ana", "eva"), roster.nicknames());
+        assertEquals(List.of("ana", "eva"), roster.standings().stream().map(PlayerState::getNickname).toList());
+    }
+
+    @Test
+    void balancesAndScoresAreKeptPerSeat() {
+        roster.setBalance(0, 1000);
+        assertEquals(700, roster.addBalance(0, -300));
+        assertEquals(700, roster.balance(0));
+        assertEquals(250, roster.addScore(2, 250));
+        assertEquals(250, roster.score(2));
+
+        PlayerState eva = roster.toPlayerState(2);
+        assertEquals("eva", eva.getNickname());
+        assertEquals(0, eva.getBalance());
+        assertEquals(250, eva.getScore());
+    }
+
+    @Test
+    void leaderIsTheFirstHighestScoreAmongThoseWhoStayed() {
+        assertEquals(0, roster.leader());
+        roster.addScore(1, 300);
+        roster.addScore(2, 300);
+        assertEquals(1, roster.leader());
+
+        roster.leave(1);
+        assertEquals(2, roster.leader());
+        roster.leave(0);
+        roster.leave(2);
+        assertEquals(-1, roster.leader());
+    }
+
+    @Test
+    void concurrentBalanceChangesAreNotLost() throws Exception {
+        roster.setBalance(0, 0);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        List<Future<?>> tasks = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            tasks.add(pool.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    roster.addBalance(0, 2);
+                    roster.addBalance(0, -1);
+                }
+            }));
+        }
+        for (Future<?> task : tasks) {
+            task.get();
+        }
+        pool.shutdown();
+
+        assertEquals(40_000, roster.balance(0));
+    }
+}
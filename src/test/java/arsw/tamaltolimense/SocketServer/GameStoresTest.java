@@ -0,0 +1,62 @@
+package arsw.tamaltolimense.SocketServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameStoresTest {
+    private final StoreProperties properties = new StoreProperties();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private GameStores stores;
+
+    @AfterEach
+    void tearDown() {
+        stores.shutdown();
+    }
+
+    @Test
+    void eachStoreTakesItsOwnLimits() {
+        properties.setBalancesMaxSize(1);
+        stores = new GameStores(properties, registry);
+
+        stores.playerBalances().put("ana", 1000);
+        stores.playerBalances().put("beto", 900);
+        stores.readyPlayers().put("sala", Set.of("ana"));
+
+        assertEquals(1, stores.playerBalances().size());
+        assertEquals(Set.of("ana"), stores.readyPlayers().get("sala"));
+        assertNull(stores.chatHistories().get("sala"));
+        assertNotNull(stores.sessions());
+        assertEquals(1, registry.get("hiddencargo.store.size").tag("store", "readyPlayers").gauge().value());
+    }
+
+    @Test
+    void sweeperRemovesExpiredEntriesFromEveryStore() throws InterruptedException {
+        properties.setBalanceTtl(Duration.ZERO);
+        properties.setReadyTtl(Duration.ZERO);
+        properties.setSweepInterval(Duration.ofMillis(5));
+        stores = new GameStores(properties, registry);
+        // Un barrido sin nada expirado no hace nada
+        stores.removeExpired();
+        stores.playerBalances().put("ana", 1000);
+        stores.readyPlayers().put("sala", Set.of("ana"));
+        stores.chatHistories().put("sala", new ChatHistory(10, 200));
+        Thread.sleep(2);
+
+        stores.start();
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (stores.playerBalances().size() + stores.readyPlayers().size() > 0
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(0, stores.playerBalances().size());
+        assertEquals(0, stores.readyPlayers().size());
+        assertEquals(1, stores.chatHistories().size());
+    }
+}
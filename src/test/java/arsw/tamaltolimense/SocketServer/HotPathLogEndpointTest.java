@@ -0,0 +1,50 @@
+package arsw.tamaltolimense.SocketServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotPathLogEndpointTest {
+    private final HotPathLogEndpoint endpoint =
+            new HotPathLogEndpoint(new HotPathLog(new HotPathLogProperties(), new SimpleMeterRegistry()));
+
+    @SuppressWarnings("unchecked")
+    private static Object setting(Map<String, Object> status, String kind, String name) {
+        return ((Map<String, Object>) status.get(kind)).get(name);
+    }
+
+    @ParameterizedTest
+    @NullSource
+    @ValueSource(strings = {"", "  "})
+    void withoutKindEveryKindChanges(String kind) {
+        Map<String, Object> status = endpoint.configure(kind, 10, null);
+
+        for (HotPathLog.Kind each : HotPathLog.Kind.values()) {
+            assertEquals(10, setting(status, each.key(), "sampleEvery"));
+            assertEquals(0, setting(status, each.key(), "ratePerSecond"));
+        }
+    }
+
+    @Test
+    void kindIsCaseInsensitive() {
+        Map<String, Object> status = endpoint.configure(" Chat ", null, 20);
+
+        assertEquals(20, setting(status, "chat", "ratePerSecond"));
+        assertEquals(0, setting(status, "bid", "ratePerSecond"));
+        assertEquals(status, endpoint.status());
+    }
+
+    @Test
+    void unknownKindIsABadRequest() {
+        InvalidEndpointRequestException error = assertThrows(InvalidEndpointRequestException.class,
+                () -> endpoint.configure("apuestas", 1, 1));
+        assertEquals("Tipo de evento desconocido", error.getReason());
+    }
+}
@@ -0,0 +1,105 @@
+package arsw.tamaltolimense.SocketServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.spi.NOPLoggingEventBuilder;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class HotPathLogTest {
+    private static final Logger LOGGER = LoggerFactory.getLogger(HotPathLogTest.class);
+    private static final long SECOND = 1L << 30;
+
+    private final HotPathLogProperties properties = new HotPathLogProperties();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private long nanoTime = 5 * SECOND;
+
+    private HotPathLog hotLog() {
+        return new HotPathLog(properties, registry) {
+            @Override
+            long nanoTime() {
+                return nanoTime;
+            }
+        };
+    }
+
+    private static boolean written(HotPathLog hotLog, HotPathLog.Kind kind) {
+        return hotLog.at(kind, LOGGER) != NOPLoggingEventBuilder.singleton();
+    }
+
+    private double count(HotPathLog.Kind kind, String outcome) {
+        return registry.get("hiddencargo.log.hotpath").tag("kind", kind.key()).tag("outcome", outcome)
+                .functionCounter().count();
+    }
+
+    @Test
+    void everythingIsWrittenByDefault() {
+        HotPathLog hotLog = hotLog();
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(written(hotLog, HotPathLog.Kind.BID));
+        }
+        assertEquals(10, count(HotPathLog.Kind.BID, "emitted"));
+        assertEquals(0, count(HotPathLog.Kind.CHAT, "emitted"));
+    }
+
+    @Test
+    void disabledLoggerGetsTheNopBuilderWithoutCounting() {
+        Logger quiet = mock(Logger.class);
+
+        assertSame(NOPLoggingEventBuilder.singleton(), hotLog().at(HotPathLog.Kind.BID, quiet));
+        assertEquals(0, count(HotPathLog.Kind.BID, "emitted") + count(HotPathLog.Kind.BID, "sampled"));
+    }
+
+    @Test
+    void samplingWritesAboutOneInN() {
+        properties.setSampleEvery(Map.of(HotPathLog.Kind.CHAT, 4, HotPathLog.Kind.READY, 0));
+        HotPathLog hotLog = hotLog();
+
+        int writtenChats = 0;
+        for (int i = 0; i < 4_000; i++) {
+            writtenChats += written(hotLog, HotPathLog.Kind.CHAT) ? 1 : 0;
+            assertFalse(written(hotLog, HotPathLog.Kind.READY));
+        }
+        assertTrue(writtenChats > 700 && writtenChats < 1_300, "escritos: " + writtenChats);
+        assertEquals(4_000 - writtenChats, count(HotPathLog.Kind.CHAT, "sampled"));
+        assertEquals(4_000, count(HotPathLog.Kind.READY, "sampled"));
+    }
+
+    @Test
+    void rateLimitResetsWithEachWindow() {
+        properties.setRatePerSecond(Map.of(HotPathLog.Kind.BROADCAST, 2));
+        HotPathLog hotLog = hotLog();
+
+        assertTrue(written(hotLog, HotPathLog.Kind.BROADCAST));
+        assertTrue(written(hotLog, HotPathLog.Kind.BROADCAST));
+        nanoTime += SECOND - 1;
+        assertFalse(written(hotLog, HotPathLog.Kind.BROADCAST));
+
+        nanoTime += 1;
+        assertTrue(written(hotLog, HotPathLog.Kind.BROADCAST));
+        assertEquals(3, count(HotPathLog.Kind.BROADCAST, "emitted"));
+        assertEquals(1, count(HotPathLog.Kind.BROADCAST, "limited"));
+    }
+
+    @Test
+    void configureClampsNegativesAndKeepsWhatIsNull() {
+        properties.setSampleEvery(Map.of(HotPathLog.Kind.BID, -3));
+        HotPathLog hotLog = hotLog();
+        assertFalse(written(hotLog, HotPathLog.Kind.BID));
+
+        hotLog.configure(HotPathLog.Kind.BID, 1, -5);
+        hotLog.configure(HotPathLog.Kind.BID, null, null);
+
+        assertTrue(written(hotLog, HotPathLog.Kind.BID));
+        assertEquals(Map.of("sampleEvery", 1, "ratePerSecond", 0, "emitted", 1L, "sampled", 1L, "limited", 0L),
+                hotLog.status().get("bid"));
+        assertEquals(HotPathLog.Kind.values().length, hotLog.status().size());
+        assertTrue(Math.abs(new HotPathLog(properties, new SimpleMeterRegistry()).nanoTime() - System.nanoTime()) < SECOND);
+    }
+}
@@ -0,0 +1,50 @@
+package arsw.tamaltolimense.SocketServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class LeaderboardEndpointTest {
+    private final Leaderboard leaderboard = new Leaderboard(new LeaderboardProperties(), mock(GameBroadcaster.class),
+            new SimpleMeterRegistry());
+    private final LeaderboardEndpoint endpoint = new LeaderboardEndpoint(leaderboard);
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 15; i++) {
+            leaderboard.recordRound("jugador" + i, i * 100);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        leaderboard.shutdown();
+    }
+
+    @Test
+    void defaultLimitWithoutPlayer() {
+        Map<String, Object> body = endpoint.query(null, null);
+
+        assertEquals(15, body.get("players"));
+        assertEquals(10, ((List<?>) body.get("top")).size());
+        assertFalse(body.containsKey("player"));
+        assertFalse(endpoint.query(null, "  ").containsKey("player"));
+    }
+
+    @Test
+    void limitAndPlayerAreApplied() {
+        Map<String, Object> body = endpoint.query(3, " jugador14 ");
+
+        assertEquals(List.of(leaderboard.entry("jugador14"), leaderboard.entry("jugador13"),
+                leaderboard.entry("jugador12")), body.get("top"));
+        assertEquals(new LeaderboardEntry(1, "jugador14", 1400, 0, 1), body.get("player"));
+        assertNull(endpoint.query(3, "nadie").get("player"));
+    }
+}
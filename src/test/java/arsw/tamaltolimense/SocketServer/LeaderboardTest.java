@@ -0,0 +1,188 @@
+package arsw.tamaltolimense.SocketServer;
+
+import com.corundumstudio.socketio.SocketIOClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class LeaderboardTest {
+    private final LeaderboardProperties properties = new LeaderboardProperties();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final GameBroadcaster broadcaster = mock(GameBroadcaster.class);
+    private Leaderboard leaderboard;
+
+    @BeforeEach
+    void setUp() {
+        // El hilo del pusher no llega a correr: el test llama a pushChanges
+        properties.setPushInterval(Duration.ofHours(1));
+        properties.setTopSize(3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        leaderboard.shutdown();
+    }
+
+    private Leaderboard leaderboard() {
+        leaderboard = new Leaderboard(properties, broadcaster, registry);
+        return leaderboard;
+    }
+
+    private static SocketIOClient client() {
+        SocketIOClient client = mock(SocketIOClient.class);
+        when(client.getSessionId()).thenReturn(UUID.randomUUID());
+        return client;
+    }
+
+    private double count(String name) {
+        return registry.get(name).counter().count();
+    }
+
+    // Posiciones enviadas a la sala en el último leaderboardChanges
+    private LeaderboardUpdateData lastChanges(int sent) {
+        ArgumentCaptor<Object> data = ArgumentCaptor.forClass(Object.class);
+        verify(broadcaster, times(sent)).toRoom(eq("leaderboard"), eq("leaderboardChanges"), data.capture());
+        return (LeaderboardUpdateData) data.getValue();
+    }
+
+    @Test
+    void roundsAndGamesAddUpPerPlayer() {
+        leaderboard();
+        leaderboard.recordRound("ana", 300);
+        leaderboard.recordRound("ana", -100);
+        leaderboard.recordGame("ana");
+        leaderboard.recordRound("beto", 500);
+        leaderboard.recordRound(null, 900);
+        leaderboard.recordGame(null);
+
+        assertEquals(new LeaderboardEntry(2, "ana", 200, 1, 2), leaderboard.entry("ana"));
+        assertEquals(List.of("beto", "ana"), leaderboard.top(10).stream().map(LeaderboardEntry::nickname).toList());
+        assertEquals(4, count("hiddencargo.leaderboard.updates"));
+        assertEquals(2, registry.get("hiddencargo.leaderboard.players").gauge().value());
+    }
+
+    @Test
+    void queriesAreClampedAndTheLastPlayerIsDroppedPastTheLimit() {
+        properties.setMaxQuery(2);
+        properties.setMaxPlayers(3);
+        leaderboard();
+        for (String nickname : List.of("ana", "beto", "carla", "dani")) {
+            leaderboard.recordRound(nickname, nickname.length() * 100);
+        }
+
+        assertEquals(3, leaderboard.size());
+        assertNull(leaderboard.entry("ana"));
+        assertEquals(2, leaderboard.top(10).size());
+        assertEquals(List.of(), leaderboard.top(-1));
+    }
+
+    @Test
+    void disabledLeaderboardIgnoresResultsAndSubscriptions() {
+        properties.setEnabled(false);
+        leaderboard();
+        SocketIOClient client = client();
+
+        leaderboard.recordRound("ana", 300);
+
+        assertEquals("Error: la clasificación está desactivada", leaderboard.subscribe(client, "ana"));
+        assertEquals(0, leaderboard.size());
+        verify(client, never()).joinRoom(any());
+    }
+
+    @Test
+    void subscriberGetsTheFullTopAndItsRank() {
+        leaderboard();
+        leaderboard.recordRound("ana", 300);
+        leaderboard.recordRound("beto", 100);
+        SocketIOClient follower = client();
+        SocketIOClient viewer = client();
+        SocketIOClient newcomer = client();
+
+        assertNull(leaderboard.subscribe(follower, "beto"));
+        assertNull(leaderboard.subscribe(viewer, null));
+        assertNull(leaderboard.subscribe(newcomer, "carla"));
+
+        ArgumentCaptor<Object> top = ArgumentCaptor.forClass(Object.class);
+        verify(broadcaster).toClient(eq(viewer), eq("leaderboardTop"), top.capture());
+        LeaderboardUpdateData data = (LeaderboardUpdateData) top.getValue();
+        assertEquals(2, data.getPlayers());
+        assertEquals(2, data.getSize());
+        assertEquals("ana", data.getEntries().get(0).nickname());
+        verify(follower).joinRoom("leaderboard");
+        verify(broadcaster).toClient(follower, "leaderboardRank", new LeaderboardEntry(2, "beto", 100, 0, 1));
+        verify(broadcaster, never()).toClient(eq(newcomer), eq("leaderboardRank"), any());
+        assertEquals(3, registry.get("hiddencargo.leaderboard.subscribers").gauge().value());
+
+        leaderboard.unsubscribe(viewer);
+        leaderboard.unsubscribe(viewer);
+        verify(viewer, times(1)).leaveRoom("leaderboard");
+    }
+
+    @Test
+    void onlyChangedPositionsAndMovedRanksArePushed() {
+        leaderboard();
+        leaderboard.recordRound("ana", 300);
+        leaderboard.recordRound("beto", 200);
+        SocketIOClient follower = client();
+        SocketIOClient newcomer = client();
+        leaderboard.subscribe(follower, "beto");
+        leaderboard.subscribe(newcomer, "eva");
+        leaderboard.subscribe(client(), null);
+
+        // El primer envío manda el top entero; sin resultados nuevos no se manda nada
+        leaderboard.pushChanges();
+        assertEquals(2, lastChanges(1).getEntries().size());
+        leaderboard.pushChanges();
+        lastChanges(1);
+
+        // beto pasa al primer puesto y entra carla
+        leaderboard.recordRound("beto", 200);
+        leaderboard.recordRound("carla", 100);
+        leaderboard.pushChanges();
+        LeaderboardUpdateData changes = lastChanges(2);
+        assertEquals(3, changes.getPlayers());
+        assertEquals(List.of("beto", "ana", "carla"), changes.getEntries().stream().map(LeaderboardEntry::nickname).toList());
+        verify(broadcaster).toClient(follower, "leaderboardRank", new LeaderboardEntry(1, "beto", 400, 0, 2));
+
+        // Fuera del top y sin mover a nadie seguido: no hay nada que enviar
+        leaderboard.recordRound("dani", 50);
+        leaderboard.pushChanges();
+        lastChanges(2);
+        verify(broadcaster, times(2)).toClient(eq(follower), eq("leaderboardRank"), any());
+        verify(broadcaster, never()).toClient(eq(newcomer), eq("leaderboardRank"), any());
+        assertEquals(6, count("hiddencargo.leaderboard.pushes"));
+    }
+
+    @Test
+    void nothingIsPushedWithoutSubscribers() {
+        leaderboard();
+        leaderboard.recordRound("ana", 300);
+
+        leaderboard.pushChanges();
+
+        verifyNoInteractions(broadcaster);
+    }
+
+    @Test
+    void failedPushDoesNotStopTheTask() {
+        leaderboard();
+        leaderboard.subscribe(client(), null);
+        leaderboard.recordRound("ana", 300);
+        doThrow(new IllegalStateException("broadcaster detenido")).when(broadcaster)
+                .toRoom(eq("leaderboard"), eq("leaderboardChanges"), any());
+
+        assertDoesNotThrow(leaderboard::pushChanges);
+        assertEquals(0, count("hiddencargo.leaderboard.pushes"));
+    }
+}
@@ -0,0 +1,115 @@
+package arsw.tamaltolimense.SocketServer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeaderboardTreeTest {
+    private static final Comparator<LeaderboardEntry> ORDER = Comparator
+            .comparingLong(LeaderboardEntry::profit).reversed()
+            .thenComparing(Comparator.comparingInt(LeaderboardEntry::wins).reversed())
+            .thenComparing(Comparator.comparingInt(LeaderboardEntry::roundsWon).reversed())
+            .thenComparing(LeaderboardEntry::nickname);
+
+    private final LeaderboardTree tree = new LeaderboardTree();
+
+    // Clasificación esperada, ordenando todo cada vez
+    private static List<LeaderboardEntry> ranked(Map<String, long[]> totals) {
+        List<LeaderboardEntry> sorted = new ArrayList<>();
+        for (Map.Entry<String, long[]> total : totals.entrySet()) {
+            long[] values = total.getValue();
+            sorted.add(new LeaderboardEntry(0, total.getKey(), values[0], (int) values[1], (int) values[2]));
+        }
+        sorted.sort(ORDER);
+        List<LeaderboardEntry> ranked = new ArrayList<>();
+        for (LeaderboardEntry entry : sorted) {
+            ranked.add(new LeaderboardEntry(ranked.size() + 1, entry.nickname(), entry.profit(), entry.wins(),
+                    entry.roundsWon()));
+        }
+        return ranked;
+    }
+
+    @Test
+    void emptyTreeHasNoEntries() {
+        tree.removeLast();
+
+        assertEquals(0, tree.size());
+        assertEquals(List.of(), tree.top(10));
+        assertEquals(-1, tree.rank("ana"));
+        assertNull(tree.entry("ana"));
+    }
+
+    @Test
+    void tiesAreBrokenByWinsRoundsAndNickname() {
+        tree.add("eva", 100, 0, 0);
+        tree.add("beto", 100, 1, 0);
+        tree.add("carla", 100, 1, 2);
+        tree.add("dani", 100, 1, 2);
+        tree.add("ana", 300, 0, 0);
+        tree.add("fede", -50, 3, 1);
+
+        assertEquals(List.of("ana", "carla", "dani", "beto", "eva", "fede"),
+                tree.top(10).stream().map(LeaderboardEntry::nickname).toList());
+        assertEquals(new LeaderboardEntry(2, "carla", 100, 1, 2), tree.entry("carla"));
+        assertEquals(6, tree.rank("fede"));
+    }
+
+    @Test
+    void updatesMovePlayersAndTopKStopsEarly() {
+        assertEquals(1, tree.add("ana", 100, 0, 1));
+        assertEquals(2, tree.add("beto", 50, 0, 1));
+        assertEquals(1, tree.add("beto", 100, 1, 1));
+        assertEquals(3, tree.add("carla", 10, 0, 1));
+
+        assertEquals(List.of(new LeaderboardEntry(1, "beto", 150, 1, 2), new LeaderboardEntry(2, "ana", 100, 0, 1)),
+                tree.top(2));
+        assertEquals(List.of(), tree.top(0));
+
+        tree.removeLast();
+        assertEquals(2, tree.size());
+        assertEquals(-1, tree.rank("carla"));
+    }
+
+    @Test
+    void rankAndTopMatchAFullSortAfterManyUpdates() {
+        Random random = new Random(42);
+        Map<String, long[]> totals = new HashMap<>();
+        for (int i = 0; i < 3_000; i++) {
+            String nickname = "jugador" + random.nextInt(300);
+            // Pocos valores distintos para que haya muchos empates
+            long profit = random.nextInt(7) - 3;
+            int wins = random.nextInt(2);
+            int roundsWon = random.nextInt(2);
+            int rank = tree.add(nickname, profit, wins, roundsWon);
+
+            long[] total = totals.computeIfAbsent(nickname, name -> new long[3]);
+            total[0] += profit;
+            total[1] += wins;
+            total[2] += roundsWon;
+            if (i % 500 == 0) {
+                // Y de vez en cuando se descarta al último, como al pasarse de maxPlayers
+                String last = ranked(totals).get(totals.size() - 1).nickname();
+                tree.removeLast();
+                totals.remove(last);
+                assertEquals(-1, tree.rank(last));
+            } else {
+                assertEquals(tree.rank(nickname), rank);
+            }
+        }
+
+        List<LeaderboardEntry> expected = ranked(totals);
+        assertEquals(expected.size(), tree.size());
+        assertEquals(expected, tree.top(expected.size() + 5));
+        assertEquals(expected.subList(0, 25), tree.top(25));
+        for (LeaderboardEntry entry : expected) {
+            assertEquals(entry, tree.entry(entry.nickname()));
+        }
+    }
+}
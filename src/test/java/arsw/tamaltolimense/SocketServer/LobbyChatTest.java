@@ -0,0 +1,156 @@
+package arsw.tamaltolimense.SocketServer;
+
+import com.corundumstudio.socketio.SocketIOClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class LobbyChatTest {
+    private final ChatProperties properties = new ChatProperties();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final GameStores stores = new GameStores(new StoreProperties(), registry);
+    private final GameBroadcaster broadcaster = mock(GameBroadcaster.class);
+    private final AuctionClock auctionClock = mock(AuctionClock.class);
+    private final StaticListableBeanFactory stages = new StaticListableBeanFactory();
+    // Cierres de ventana programados; el test decide cuándo corren
+    private final List<Runnable> windows = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        doAnswer(invocation -> windows.add(invocation.getArgument(1))).when(auctionClock).after(anyLong(), any());
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(0)).run();
+            return null;
+        }).when(broadcaster).inPass(any());
+    }
+
+    @AfterEach
+    void tearDown() {
+        stores.shutdown();
+    }
+
+    private LobbyChat chat() {
+        return new LobbyChat(properties, stores, broadcaster, auctionClock,
+                stages.getBeanProvider(ChatStage.class), registry);
+    }
+
+    private static ChatMessageData message(String text) {
+        ChatMessageData message = new ChatMessageData();
+        message.setNickname("ana");
+        message.setLobbyName("sala");
+        message.setMessage(text);
+        return message;
+    }
+
+    private double count(String name) {
+        return registry.get(name).counter().count();
+    }
+
+    @Test
+    void withoutWindowEachMessageGoesOutAtOnceAndIsReplayed() {
+        LobbyChat chat = chat();
+        ChatMessageData hola = message("hola");
+        SocketIOClient client = mock(SocketIOClient.class);
+
+        chat.replay(client, "sala");
+        chat.publish("sala", hola);
+        chat.publish(null, message("sin lobby"));
+        chat.replay(client, "sala");
+
+        verify(broadcaster).toRoom("sala", "chatMessage", hola);
+        verify(broadcaster).toClient(client, "chatHistory", List.of(hola));
+        verify(auctionClock, never()).after(anyLong(), any());
+        assertEquals(1, count("hiddencargo.chat.messages"));
+        assertEquals(1, count("hiddencargo.chat.frames"));
+        assertEquals(1, count("hiddencargo.chat.replays"));
+    }
+
+    @Test
+    void emptyHistoryIsNotReplayed() {
+        properties.setHistoryMaxChars(3);
+        LobbyChat chat = chat();
+
+        chat.publish("sala", message("demasiado largo para guardar"));
+        chat.replay(mock(SocketIOClient.class), "sala");
+
+        verify(broadcaster, never()).toClient(any(), anyString(), any(Object[].class));
+    }
+
+    @Test
+    void stagesCanRewriteOrDropMessages() {
+        stages.addBean("mayusculas", (ChatStage) (lobby, message) -> message("[" + message.getMessage() + "]"));
+        stages.addBean("descarte", (ChatStage) (lobby, message) -> message.getMessage().contains("spam") ? null : message);
+        LobbyChat chat = chat();
+
+        chat.publish("sala", message("spam"));
+        chat.publish("sala", message("hola"));
+
+        ArgumentCaptor<ChatMessageData> sent = ArgumentCaptor.forClass(ChatMessageData.class);
+        verify(broadcaster).toRoom(eq("sala"), eq("chatMessage"), sent.capture());
+        assertEquals("[hola]", sent.getValue().getMessage());
+        assertEquals(1, count("hiddencargo.chat.messages"));
+    }
+
+    @Test
+    void windowGroupsMessagesIntoOneBatch() {
+        properties.setBatchWindow(Duration.ofMillis(200));
+        LobbyChat chat = chat();
+        ChatMessageData a = message("a");
+        ChatMessageData b = message("b");
+
+        chat.publish("sala", a);
+        chat.publish("sala", b);
+        verify(broadcaster, never()).toRoom(anyString(), anyString(), any(Object[].class));
+        assertEquals(1, windows.size());
+
+        windows.get(0).run();
+        verify(broadcaster).toRoom("sala", "chatBatch", List.of(a, b));
+
+        // Tras el cierre, el siguiente mensaje abre otra ventana; un lote de uno sale como chatMessage
+        ChatMessageData c = message("c");
+        chat.publish("sala", c);
+        assertEquals(2, windows.size());
+        windows.get(1).run();
+        verify(broadcaster).toRoom("sala", "chatMessage", c);
+        assertEquals(2, count("hiddencargo.chat.frames"));
+    }
+
+    @Test
+    void fullBatchGoesOutBeforeTheWindowEnds() {
+        properties.setBatchWindow(Duration.ofMillis(200));
+        properties.setBatchMaxMessages(2);
+        LobbyChat chat = chat();
+        ChatMessageData a = message("a");
+        ChatMessageData b = message("b");
+        ChatMessageData c = message("c");
+
+        chat.publish("sala", a);
+        chat.publish("sala", b);
+        verify(broadcaster).toRoom("sala", "chatBatch", List.of(a, b));
+        chat.publish("sala", c);
+        assertEquals(1, windows.size());
+
+        windows.get(0).run();
+        verify(broadcaster).toRoom("sala", "chatMessage", c);
+        // Una ventana que se cierra sin nada pendiente no envía nada
+        chat.publish("sala", a);
+        chat.publish("sala", b);
+        windows.get(1).run();
+        verify(broadcaster, times(2)).toRoom("sala", "chatBatch", List.of(a, b));
+        assertEquals(3, count("hiddencargo.chat.frames"));
+    }
+}
@@ -0,0 +1,104 @@
+package arsw.tamaltolimense.SocketServer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LobbyGatewayTest {
+
+    // Servicio de lobbies en memoria que usa el registerLobbies por defecto
+    private static final class FakeLobbies implements LobbyGateway {
+        private final List<String> joined = new ArrayList<>();
+        private final Set<String> refused = new HashSet<>();
+        private final Set<String> failing = new HashSet<>();
+        private boolean removeFails;
+
+        @Override
+        public Map<String, Object> getLobby(String lobbyName) { return null; }
+
+        @Override
+        public boolean addPlayer(String lobbyName, String nickname) {
+            if (failing.contains(nickname)) {
+                throw new IllegalStateException("servicio caído");
+            }
+            if (refused.contains(nickname)) {
+                return false;
+            }
+            joined.add(lobbyName + ":" + nickname);
+            return true;
+        }
+
+        @Override
+        public boolean removePlayer(String lobbyName, String nickname) {
+            if (removeFails) {
+                throw new IllegalStateException("servicio caído");
+            }
+            return joined.remove(lobbyName + ":" + nickname);
+        }
+
+        @Override
+        public boolean markReady(String lobbyName) { return true; }
+
+        @Override
+        public boolean markNotReady(String lobbyName) { return true; }
+    }
+
+    private final FakeLobbies lobbies = new FakeLobbies();
+
+    private static MatchedLobby lobby(String name, String... players) {
+        return new MatchedLobby(name, 3, List.of(players));
+    }
+
+    @Test
+    void everyPlayerIsAddedToItsLobby() {
+        List<String> registered = lobbies.registerLobbies(List.of(lobby("a", "ana", "beto"), lobby("b", "carla")));
+
+        assertEquals(List.of("a", "b"), registered);
+        assertEquals(List.of("a:ana", "a:beto", "b:carla"), lobbies.joined);
+    }
+
+    @Test
+    void refusedPlayerUndoesOnlyItsLobby() {
+        lobbies.refused.add("beto");
+
+        List<String> registered = lobbies.registerLobbies(List.of(lobby("a", "ana", "beto", "carla"), lobby("b", "dani")));
+
+        assertEquals(List.of("b"), registered);
+        assertEquals(List.of("b:dani"), lobbies.joined);
+    }
+
+    @Test
+    void failureBeforeAnyLobbyReachesTheCaller() {
+        lobbies.failing.add("beto");
+
+        assertThrows(IllegalStateException.class,
+                () -> lobbies.registerLobbies(List.of(lobby("a", "ana", "beto"), lobby("b", "carla"))));
+        assertEquals(List.of(), lobbies.joined);
+    }
+
+    @Test
+    void failureAfterSomeLobbiesKeepsThem() {
+        lobbies.failing.add("dani");
+
+        List<String> registered = lobbies.registerLobbies(
+                List.of(lobby("a", "ana"), lobby("b", "beto", "dani"), lobby("c", "eva")));
+
+        assertEquals(List.of("a"), registered);
+        assertEquals(List.of("a:ana"), lobbies.joined);
+    }
+
+    @Test
+    void failedRollbackContinuesWithTheOtherPlayers() {
+        lobbies.refused.add("carla");
+        lobbies.removeFails = true;
+
+        assertEquals(List.of(), lobbies.registerLobbies(List.of(lobby("a", "ana", "beto", "carla"))));
+        assertEquals(List.of("a:ana", "a:beto"), lobbies.joined);
+    }
+}
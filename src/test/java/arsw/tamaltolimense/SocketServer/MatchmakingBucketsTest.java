@@ -0,0 +1,137 @@
+package arsw.tamaltolimense.SocketServer;
+
+import com.corundumstudio.socketio.SocketIOClient;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class MatchmakingBucketsTest {
+    private static final long MAX_WAIT = 100;
+
+    private final SocketIOClient client = mock(SocketIOClient.class);
+    // Lobbies de 3, incompletos desde 2; franjas <1000, 1000-4999 y >=5000; hasta 5 rondas
+    private final MatchmakingBuckets buckets = new MatchmakingBuckets(3, 2, MAX_WAIT, 5, 10, new int[]{1000, 5000});
+
+    private MatchmakingBuckets.Ticket ticket(String nickname, int balance, int rounds, long enqueuedAt) {
+        return new MatchmakingBuckets.Ticket(UUID.randomUUID(), client, nickname, balance, rounds, enqueuedAt);
+    }
+
+    private MatchmakingBuckets.Ticket queued(String nickname, int balance, int rounds, long enqueuedAt) {
+        MatchmakingBuckets.Ticket ticket = ticket(nickname, balance, rounds, enqueuedAt);
+        assertEquals(MatchmakingBuckets.Offer.QUEUED, buckets.enqueue(ticket));
+        return ticket;
+    }
+
+    private static List<List<String>> nicknames(List<List<MatchmakingBuckets.Ticket>> groups) {
+        List<List<String>> nicknames = new ArrayList<>();
+        for (List<MatchmakingBuckets.Ticket> group : groups) {
+            nicknames.add(group.stream().map(ticket -> ticket.nickname).toList());
+        }
+        return nicknames;
+    }
+
+    @Test
+    void fullGroupsFormPerBucketInArrivalOrder() {
+        for (String nickname : List.of("ana", "beto", "carla", "dani")) {
+            queued(nickname, 500, 3, 0);
+        }
+        // Otra franja y otras rondas: cada uno en su cubo
+        queued("eva", 1000, 3, 0);
+        queued("fede", 999, 4, 0);
+        queued("gabi", 9000, 9, 0);
+
+        assertEquals(List.of(List.of("ana", "beto", "carla")), nicknames(buckets.form(0)));
+        assertEquals(4, buckets.queued());
+        assertEquals(List.of(), buckets.form(10_000));
+    }
+
+    @Test
+    void leftoversFormAnIncompleteGroupOnlyAfterMaxWait() {
+        queued("ana", 500, 3, 0);
+        queued("beto", 500, 3, 50);
+
+        assertEquals(List.of(), buckets.form(MAX_WAIT));
+        assertEquals(List.of(List.of("ana", "beto")), nicknames(buckets.form(MAX_WAIT + 1)));
+        assertEquals(0, buckets.queued());
+    }
+
+    @Test
+    void roundsAreClampedToTheConfiguredRange() {
+        assertEquals(1, buckets.clampRounds(0));
+        assertEquals(3, buckets.clampRounds(3));
+        assertEquals(5, buckets.clampRounds(9));
+
+        queued("ana", 500, 5, 0);
+        queued("beto", 500, 12, 0);
+        queued("carla", 500, 7, 0);
+        assertEquals(List.of(List.of("ana", "beto", "carla")), nicknames(buckets.form(0)));
+    }
+
+    @Test
+    void duplicatesAndAFullQueueAreRejected() {
+        MatchmakingBuckets small = new MatchmakingBuckets(2, 2, MAX_WAIT, 1, 2, new int[0]);
+        MatchmakingBuckets.Ticket ana = ticket("ana", 500, 1, 0);
+
+        assertEquals(MatchmakingBuckets.Offer.QUEUED, small.enqueue(ana));
+        assertEquals(MatchmakingBuckets.Offer.DUPLICATE,
+                small.enqueue(new MatchmakingBuckets.Ticket(ana.sessionId, client, "ana", 500, 1, 0)));
+        assertEquals(MatchmakingBuckets.Offer.QUEUED, small.enqueue(ticket("beto", 500, 1, 0)));
+        assertEquals(MatchmakingBuckets.Offer.FULL, small.enqueue(ticket("carla", 500, 1, 0)));
+        assertEquals(2, small.queued());
+    }
+
+    @Test
+    void cancelledTicketsAreSkippedWhenForming() {
+        queued("ana", 500, 3, 0);
+        MatchmakingBuckets.Ticket beto = queued("beto", 500, 3, 0);
+        queued("carla", 500, 3, 0);
+        queued("dani", 500, 3, 0);
+
+        assertTrue(buckets.cancel(beto.sessionId));
+        assertFalse(buckets.cancel(beto.sessionId));
+        assertFalse(buckets.cancel(UUID.randomUUID()));
+        assertEquals(3, buckets.queued());
+
+        assertEquals(List.of(List.of("ana", "carla", "dani")), nicknames(buckets.form(0)));
+        assertEquals(0, buckets.queued());
+    }
+
+    @Test
+    void failedRegistrationRequeuesTheGroupExceptWhoCancelled() {
+        MatchmakingBuckets.Ticket ana = queued("ana", 500, 3, 0);
+        queued("beto", 500, 3, 10);
+        queued("carla", 500, 3, 20);
+        List<MatchmakingBuckets.Ticket> group = buckets.form(0).get(0);
+
+        // Ya está en un grupo: solo se marca para que no vuelva
+        assertFalse(buckets.cancel(ana.sessionId));
+        buckets.requeue(group);
+
+        assertEquals(2, buckets.queued());
+        assertEquals(List.of(), buckets.form(MAX_WAIT));
+        List<List<MatchmakingBuckets.Ticket>> retried = buckets.form(MAX_WAIT + 20);
+        assertEquals(List.of(List.of("beto", "carla")), nicknames(retried));
+    }
+
+    @Test
+    void placedSessionsCanQueueAgain() {
+        MatchmakingBuckets.Ticket ana = queued("ana", 500, 3, 0);
+        queued("beto", 500, 3, 0);
+        queued("carla", 500, 3, 0);
+        List<MatchmakingBuckets.Ticket> group = buckets.form(0).get(0);
+
+        assertEquals(MatchmakingBuckets.Offer.DUPLICATE,
+                buckets.enqueue(new MatchmakingBuckets.Ticket(ana.sessionId, client, "ana", 500, 3, 1)));
+        buckets.placed(group);
+
+        assertFalse(buckets.cancel(ana.sessionId));
+        assertEquals(MatchmakingBuckets.Offer.QUEUED,
+                buckets.enqueue(new MatchmakingBuckets.Ticket(ana.sessionId, client, "ana", 500, 3, 1)));
+        assertEquals(1, buckets.queued());
+    }
+}
@@ -0,0 +1,205 @@
+package arsw.tamaltolimense.SocketServer;
+
+import com.corundumstudio.socketio.SocketIOClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class MatchmakingQueueTest {
+    private final MatchmakingProperties properties = new MatchmakingProperties();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final GameStores stores = new GameStores(new StoreProperties(), registry);
+    private final BackendResilience resilience = new BackendResilience(new ResilienceProperties(), registry);
+    private final LobbyGateway lobbies = mock(LobbyGateway.class);
+    private final GameBroadcaster broadcaster = mock(GameBroadcaster.class);
+    private MatchmakingQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        // El hilo del emparejamiento no llega a correr: el test llama a formLobbies
+        properties.setFormInterval(Duration.ofHours(1));
+        properties.setLobbySize(2);
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(0)).run();
+            return null;
+        }).when(broadcaster).inPass(any());
+        // Por defecto el servicio registra todos los lobbies
+        when(lobbies.registerLobbies(anyList())).thenAnswer(invocation -> {
+            List<MatchedLobby> matched = invocation.getArgument(0);
+            return matched.stream().map(MatchedLobby::name).toList();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        queue.shutdown();
+        resilience.shutdown();
+        stores.shutdown();
+    }
+
+    private MatchmakingQueue queue() {
+        queue = new MatchmakingQueue(properties, lobbies, resilience, broadcaster, stores, registry);
+        return queue;
+    }
+
+    // Cliente con su sesión conectada
+    private SocketIOClient client() {
+        SocketIOClient client = mock(SocketIOClient.class);
+        UUID sessionId = UUID.randomUUID();
+        when(client.getSessionId()).thenReturn(sessionId);
+        stores.sessions().connected(sessionId.toString());
+        return client;
+    }
+
+    private double count(String name) {
+        return registry.get(name).counter().count();
+    }
+
+    private MatchFoundData matchFound(SocketIOClient client) {
+        ArgumentCaptor<Object> data = ArgumentCaptor.forClass(Object.class);
+        verify(broadcaster).toClient(eq(client), eq("matchFound"), data.capture());
+        return (MatchFoundData) data.getValue();
+    }
+
+    @Test
+    void disabledMatchmakingRejectsThePlayer() {
+        properties.setEnabled(false);
+
+        assertEquals("Error: el emparejamiento está desactivado", queue().enqueue(client(), "ana", 500, 3));
+        assertEquals(1, count("hiddencargo.matchmaking.rejected"));
+        assertEquals(0, queue.queued());
+    }
+
+    @Test
+    void duplicatesAndAFullQueueAreRejected() {
+        properties.setMaxQueued(2);
+        queue();
+        SocketIOClient ana = client();
+
+        assertNull(queue.enqueue(ana, "ana", 500, null));
+        assertEquals("Error: ya estás buscando partida", queue.enqueue(ana, "ana", 500, 3));
+        assertNull(queue.enqueue(client(), "beto", 500, 3));
+        assertEquals("Error: la cola de emparejamiento está llena, inténtalo de nuevo",
+                queue.enqueue(client(), "carla", 500, 3));
+
+        assertEquals(2, count("hiddencargo.matchmaking.enqueued"));
+        assertEquals(2, count("hiddencargo.matchmaking.rejected"));
+        assertEquals(2, registry.get("hiddencargo.matchmaking.queued").gauge().value());
+    }
+
+    @Test
+    void cancelCountsOnlyPlayersThatWereWaiting() {
+        queue();
+        SocketIOClient ana = client();
+        queue.enqueue(ana, "ana", 500, 3);
+
+        queue.cancel(ana.getSessionId());
+        queue.cancel(ana.getSessionId());
+
+        assertEquals(1, count("hiddencargo.matchmaking.cancelled"));
+        assertEquals(0, queue.queued());
+    }
+
+    @Test
+    void formedLobbyIsRegisteredAndEachPlayerJoinsItsRoom() {
+        queue();
+        SocketIOClient ana = client();
+        SocketIOClient beto = client();
+        queue.formLobbies();
+        verify(lobbies, never()).registerLobbies(anyList());
+
+        queue.enqueue(ana, "ana", 500, null);
+        queue.enqueue(beto, "beto", 700, 3);
+        queue.formLobbies();
+
+        MatchFoundData found = matchFound(ana);
+        assertTrue(found.getLobbyName().startsWith("mm-"));
+        assertEquals(List.of("ana", "beto"), found.getPlayers());
+        assertEquals(3, found.getRounds());
+        assertTrue(found.getWaitMillis() >= 0);
+        assertEquals(found.getLobbyName(), matchFound(beto).getLobbyName());
+        verify(ana).joinRoom(found.getLobbyName());
+        assertEquals(found.getLobbyName(), stores.sessions().lobbyName(beto.getSessionId().toString()));
+        assertEquals(1, count("hiddencargo.matchmaking.lobbies"));
+        assertEquals(2, count("hiddencargo.matchmaking.matched"));
+        assertEquals(2, registry.get("hiddencargo.matchmaking.wait").timer().count());
+        assertEquals(0, queue.queued());
+    }
+
+    @Test
+    void playerThatLeftWhileFormingIsRemovedFromTheLobby() {
+        queue();
+        SocketIOClient ana = client();
+        SocketIOClient beto = client();
+        queue.enqueue(ana, "ana", 500, 3);
+        queue.enqueue(beto, "beto", 500, 3);
+        stores.sessions().disconnected(beto.getSessionId().toString());
+
+        queue.formLobbies();
+
+        String lobbyName = matchFound(ana).getLobbyName();
+        verify(lobbies).removePlayer(lobbyName, "beto");
+        verify(beto, never()).joinRoom(any());
+    }
+
+    @Test
+    void lobbiesTheServiceDidNotRegisterGoBackToTheQueue() {
+        queue();
+        SocketIOClient ana = client();
+        SocketIOClient beto = client();
+        queue.enqueue(ana, "ana", 500, 3);
+        queue.enqueue(beto, "beto", 500, 3);
+        queue.enqueue(client(), "carla", 9000, 3);
+        queue.enqueue(client(), "dani", 9000, 3);
+        // Solo el primer lobby queda creado
+        when(lobbies.registerLobbies(anyList())).thenAnswer(invocation -> {
+            List<MatchedLobby> matched = invocation.getArgument(0);
+            return List.of(matched.get(0).name());
+        });
+
+        queue.formLobbies();
+
+        assertEquals(1, count("hiddencargo.matchmaking.lobbies"));
+        assertEquals(2, count("hiddencargo.matchmaking.matched"));
+        assertEquals(2, queue.queued());
+    }
+
+    @Test
+    void failedRegistrationRequeuesEveryGroup() {
+        queue();
+        SocketIOClient ana = client();
+        queue.enqueue(ana, "ana", 500, 3);
+        queue.enqueue(client(), "beto", 500, 3);
+        when(lobbies.registerLobbies(anyList())).thenThrow(new IllegalStateException("servicio caído"));
+
+        queue.formLobbies();
+
+        assertEquals(1, count("hiddencargo.matchmaking.registration.failures"));
+        assertEquals(2, queue.queued());
+        assertEquals(0, count("hiddencargo.matchmaking.matched"));
+        verify(broadcaster, never()).toClient(any(), any(), any());
+    }
+
+    @Test
+    void unexpectedErrorDoesNotEscapeTheFormingTask() {
+        queue();
+        queue.enqueue(client(), "ana", 500, 3);
+        queue.enqueue(client(), "beto", 500, 3);
+        doThrow(new IllegalStateException("broadcaster detenido")).when(broadcaster).inPass(any());
+
+        assertDoesNotThrow(queue::formLobbies);
+        assertEquals(1, count("hiddencargo.matchmaking.lobbies"));
+    }
+}
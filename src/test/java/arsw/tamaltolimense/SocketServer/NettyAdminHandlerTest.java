@@ -0,0 +1,241 @@
+package arsw.tamaltolimense.SocketServer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.actuate.metrics.MetricsEndpoint;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class NettyAdminHandlerTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final HealthEndpoint health = mock(HealthEndpoint.class);
+    private final DrainEndpoint drain = mock(DrainEndpoint.class);
+    private final HotPathLogEndpoint hotLog = mock(HotPathLogEndpoint.class);
+    private final LeaderboardEndpoint leaderboard = mock(LeaderboardEndpoint.class);
+    private NettyAdminHandler handler;
+    private EmbeddedChannel channel;
+    private String token = "secreto";
+    // Cabecera Authorization de las peticiones; null = sin cabecera
+    private String authorization = "Bearer secreto";
+
+    // Respuesta ya leída y liberada
+    private record Reply(HttpResponseStatus status, String body, String contentType, boolean open) {
+        @SuppressWarnings("unchecked")
+        Map<String, Object> json(ObjectMapper objectMapper) throws Exception {
+            return objectMapper.readValue(body, Map.class);
+        }
+    }
+
+    private static <T> ObjectProvider<T> provider(Class<T> type, T bean) {
+        StaticListableBeanFactory factory = new StaticListableBeanFactory();
+        if (bean != null) {
+            factory.addBean(type.getSimpleName(), bean);
+        }
+        return factory.getBeanProvider(type);
+    }
+
+    private NettyAdminHandler handler(boolean withEndpoints) {
+        AdminProperties properties = new AdminProperties();
+        properties.setEnabled(true);
+        properties.setToken(token);
+        return new NettyAdminHandler(properties, objectMapper,
+                provider(HealthEndpoint.class, withEndpoints ? health : null),
+                provider(MetricsEndpoint.class, withEndpoints ? new MetricsEndpoint(registry) : null),
+                provider(DrainEndpoint.class, withEndpoints ? drain : null),
+                provider(HotPathLogEndpoint.class, withEndpoints ? hotLog : null),
+                provider(LeaderboardEndpoint.class, withEndpoints ? leaderboard : null));
+    }
+
+    @BeforeEach
+    void setUp() {
+        handler = handler(true);
+        registry.counter("hiddencargo.bids", "result", "accepted").increment();
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.finishAndReleaseAll();
+    }
+
+    private Reply send(HttpMethod method, String uri) {
+        return send(method, uri, "", true);
+    }
+
+    private Reply send(HttpMethod method, String uri, String body, boolean keepAlive) {
+        channel = new EmbeddedChannel(handler);
+        FullHttpRequest request = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, method, uri,
+                Unpooled.copiedBuffer(body, StandardCharsets.UTF_8));
+        if (!keepAlive) {
+            request.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.CLOSE);
+        }
+        if (authorization != null) {
+            request.headers().set(HttpHeaderNames.AUTHORIZATION, authorization);
+        }
+        channel.writeInbound(request);
+        assertEquals(0, request.refCnt());
+        FullHttpResponse response = channel.readOutbound();
+        try {
+            return new Reply(response.status(), response.content().toString(StandardCharsets.UTF_8),
+                    response.headers().get(HttpHeaderNames.CONTENT_TYPE), channel.isOpen());
+        } finally {
+            response.release();
+        }
+    }
+
+    @Test
+    void requestsOutsideTheBasePathAndOtherMessagesPassThrough() {
+        channel = new EmbeddedChannel(handler);
+        FullHttpRequest socketIo = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/socket.io/?EIO=4");
+        FullHttpRequest similar = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/actuatorx/health");
+
+        channel.writeInbound(socketIo, similar, "trama");
+
+        assertSame(socketIo, channel.readInbound());
+        assertSame(similar, channel.readInbound());
+        assertEquals("trama", channel.readInbound());
+        assertNull(channel.readOutbound());
+        assertTrue(handler.isEnabled());
+    }
+
+    @Test
+    void healthMapsDownAndOutOfServiceToServiceUnavailable() throws Exception {
+        when(health.health()).thenReturn(Health.up().build());
+        when(health.healthForPath("readiness")).thenReturn(Health.down().build());
+        when(health.healthForPath("liveness")).thenReturn(Health.status(Status.OUT_OF_SERVICE).build());
+
+        Reply up = send(HttpMethod.GET, "/actuator/health");
+        assertEquals(HttpResponseStatus.OK, up.status());
+        assertEquals("UP", up.json(objectMapper).get("status"));
+        assertEquals("application/vnd.spring-boot.actuator.v3+json", up.contentType());
+        assertTrue(up.open());
+        assertEquals(HttpResponseStatus.SERVICE_UNAVAILABLE, send(HttpMethod.GET, "/actuator/health/readiness").status());
+        assertEquals(HttpResponseStatus.SERVICE_UNAVAILABLE, send(HttpMethod.GET, "/actuator/health/liveness").status());
+        assertEquals(HttpResponseStatus.NOT_FOUND, send(HttpMethod.GET, "/actuator/health/disco").status());
+        assertEquals(HttpResponseStatus.METHOD_NOT_ALLOWED, send(HttpMethod.POST, "/actuator/health").status());
+    }
+
+    @Test
+    void metricsListNamesAndFilterByTag() throws Exception {
+        Reply names = send(HttpMethod.GET, "/actuator/metrics");
+        assertEquals(HttpResponseStatus.OK, names.status());
+        assertTrue(names.body().contains("hiddencargo.bids"));
+
+        Reply metric = send(HttpMethod.GET, "/actuator/metrics/hiddencargo.bids?tag=result:accepted");
+        assertEquals(HttpResponseStatus.OK, metric.status());
+        assertEquals("hiddencargo.bids", metric.json(objectMapper).get("name"));
+
+        assertEquals(HttpResponseStatus.NOT_FOUND, send(HttpMethod.GET, "/actuator/metrics/no.existe").status());
+        assertEquals(HttpResponseStatus.NOT_FOUND, send(HttpMethod.GET, "/actuator/metrics/a/b").status());
+        assertEquals(HttpResponseStatus.BAD_REQUEST,
+                send(HttpMethod.GET, "/actuator/metrics/hiddencargo.bids?tag=sin-valor").status());
+        assertEquals(HttpResponseStatus.METHOD_NOT_ALLOWED, send(HttpMethod.DELETE, "/actuator/metrics").status());
+    }
+
+    @Test
+    void drainReportsOnGetAndStartsOnPost() throws Exception {
+        when(drain.status()).thenReturn(Map.of("draining", false));
+        when(drain.start()).thenReturn(Map.of("draining", true));
+
+        assertEquals(false, send(HttpMethod.GET, "/actuator/drain").json(objectMapper).get("draining"));
+        assertEquals(true, send(HttpMethod.POST, "/actuator/drain").json(objectMapper).get("draining"));
+        assertEquals(HttpResponseStatus.METHOD_NOT_ALLOWED, send(HttpMethod.PUT, "/actuator/drain").status());
+        verify(drain).start();
+    }
+
+    @Test
+    void hotLogTakesTheJsonBodyAndQueryParameters() {
+        when(hotLog.status()).thenReturn(Map.of("newBid", 1));
+        when(hotLog.configure(any(), any(), any())).thenReturn(Map.of());
+
+        assertEquals(HttpResponseStatus.OK, send(HttpMethod.GET, "/actuator/hotlog").status());
+        // Los parámetros de la URL tienen prioridad sobre el cuerpo
+        assertEquals(HttpResponseStatus.OK, send(HttpMethod.POST, "/actuator/hotlog?ratePerSecond=5",
+                "{\"kind\":\"newBid\",\"sampleEvery\":\" 10 \",\"ratePerSecond\":1}", true).status());
+        verify(hotLog).configure("newBid", 10, 5);
+        assertEquals(HttpResponseStatus.OK, send(HttpMethod.POST, "/actuator/hotlog").status());
+        verify(hotLog).configure(null, null, null);
+
+        assertEquals(HttpResponseStatus.BAD_REQUEST, send(HttpMethod.POST, "/actuator/hotlog", "{no es json", true).status());
+        assertEquals(HttpResponseStatus.BAD_REQUEST, send(HttpMethod.POST, "/actuator/hotlog?sampleEvery=diez").status());
+        assertEquals(HttpResponseStatus.METHOD_NOT_ALLOWED, send(HttpMethod.PUT, "/actuator/hotlog").status());
+    }
+
+    @Test
+    void changesWithoutTheTokenAreForbiddenButQueriesAreNot() {
+        when(drain.status()).thenReturn(Map.of("draining", false));
+        when(hotLog.status()).thenReturn(Map.of("newBid", 1));
+
+        authorization = null;
+        assertEquals(HttpResponseStatus.FORBIDDEN, send(HttpMethod.POST, "/actuator/drain").status());
+        assertEquals(HttpResponseStatus.OK, send(HttpMethod.GET, "/actuator/drain").status());
+        assertEquals(HttpResponseStatus.OK, send(HttpMethod.GET, "/actuator/hotlog").status());
+        authorization = "Bearer otro";
+        assertEquals(HttpResponseStatus.FORBIDDEN, send(HttpMethod.POST, "/actuator/hotlog?sampleEvery=1").status());
+
+        // Sin token configurado ni siquiera el valor vacío abre las operaciones
+        token = "";
+        handler = handler(true);
+        authorization = "Bearer ";
+        assertEquals(HttpResponseStatus.FORBIDDEN, send(HttpMethod.POST, "/actuator/drain").status());
+        verify(drain, never()).start();
+        verify(hotLog, never()).configure(any(), any(), any());
+    }
+
+    @Test
+    void leaderboardPassesLimitAndPlayer() throws Exception {
+        when(leaderboard.query(5, "ana")).thenReturn(Map.of("rank", 2));
+
+        assertEquals(2, send(HttpMethod.GET, "/actuator/leaderboard?limit=5&player=ana").json(objectMapper).get("rank"));
+        assertEquals(HttpResponseStatus.METHOD_NOT_ALLOWED, send(HttpMethod.POST, "/actuator/leaderboard").status());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/actuator/health", "/actuator/metrics", "/actuator/drain", "/actuator/hotlog",
+            "/actuator/leaderboard", "/actuator", "/actuator/env"})
+    void missingEndpointsAnswerNotFound(String uri) {
+        handler = handler(false);
+
+        Reply reply = send(HttpMethod.GET, uri);
+
+        assertEquals(HttpResponseStatus.NOT_FOUND, reply.status());
+        assertEquals("", reply.body());
+        assertNull(reply.contentType());
+    }
+
+    @Test
+    void failuresAnswerServerErrorAndCloseWhenAsked() {
+        when(health.health()).thenThrow(new IllegalStateException("indicador roto"));
+        // Jackson no sabe serializar un Object vacío
+        when(drain.status()).thenReturn(Map.of("draining", new Object()));
+
+        assertEquals(HttpResponseStatus.INTERNAL_SERVER_ERROR, send(HttpMethod.GET, "/actuator/health").status());
+        Reply unserializable = send(HttpMethod.GET, "/actuator/drain", "", false);
+        assertEquals(HttpResponseStatus.INTERNAL_SERVER_ERROR, unserializable.status());
+        assertFalse(unserializable.open());
+    }
+}
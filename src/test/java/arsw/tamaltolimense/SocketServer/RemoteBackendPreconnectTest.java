@@ -0,0 +1,42 @@
+package arsw.tamaltolimense.SocketServer;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withException;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class RemoteBackendPreconnectTest {
+
+    @Test
+    void anyHttpResponseCountsAsReachedButNetworkErrorsDoNot() {
+        BackendProperties backend = new BackendProperties();
+        backend.setLobbiesUrl("http://backend/lobbies");
+        backend.setBidsUrl("http://backend/bids");
+        backend.setContainersUrl("http://backend/contenedor");
+        backend.setUsersUrl("http://backend/users");
+        backend.setKey("clave");
+        RestTemplate restTemplate = new RestTemplate();
+        MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+        server.expect(requestTo("http://backend/lobbies"))
+                .andExpect(method(HttpMethod.HEAD))
+                .andExpect(header("Ocp-Apim-Subscription-Key", "clave"))
+                .andRespond(withSuccess());
+        server.expect(requestTo("http://backend/bids")).andRespond(withStatus(HttpStatus.METHOD_NOT_ALLOWED));
+        server.expect(requestTo("http://backend/contenedor")).andRespond(withException(new IOException("sin red")));
+        server.expect(requestTo("http://backend/users")).andRespond(withStatus(HttpStatus.SERVICE_UNAVAILABLE));
+
+        assertEquals(3, new RemoteBackendPreconnect(restTemplate, backend).preconnect());
+        server.verify();
+    }
+}
@@ -0,0 +1,129 @@
+package arsw.tamaltolimense.SocketServer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.content;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class RemoteGatewaysTest {
+    private static final String KEY_HEADER = "Ocp-Apim-Subscription-Key";
+
+    private final BackendProperties backend = new BackendProperties();
+    private final RestTemplate restTemplate = new RestTemplate();
+    private MockRestServiceServer server;
+
+    @BeforeEach
+    void setUp() {
+        backend.setLobbiesUrl("http://backend/lobbies");
+        backend.setBidsUrl("http://backend/bids");
+        backend.setContainersUrl("http://backend/contenedor");
+        backend.setUsersUrl("http://backend/users");
+        backend.setKey("clave");
+        server = MockRestServiceServer.bindTo(restTemplate).build();
+    }
+
+    @AfterEach
+    void verifyAllCallsWereMade() {
+        server.verify();
+    }
+
+    @Test
+    void lobbyCallsUseTheKeyAndReportTheStatus() {
+        RemoteLobbyGateway lobbies = new RemoteLobbyGateway(restTemplate, backend);
+        server.expect(requestTo("http://backend/lobbies/sala"))
+                .andExpect(method(HttpMethod.GET))
+                .andExpect(header(KEY_HEADER, "clave"))
+                .andRespond(withSuccess("{\"nombre\":\"sala\",\"jugadoresListos\":1}", MediaType.APPLICATION_JSON));
+        server.expect(requestTo("http://backend/lobbies/sala/agregarJugador?nickname=ana"))
+                .andExpect(method(HttpMethod.PUT))
+                .andRespond(withSuccess());
+        server.expect(requestTo("http://backend/lobbies/sala/quitarJugador?nickname=ana"))
+                .andExpect(method(HttpMethod.PUT))
+                .andRespond(withSuccess());
+        server.expect(requestTo("http://backend/lobbies/sala/agregarListo"))
+                .andRespond(withSuccess());
+        // Un 3xx no lanza excepción pero tampoco cuenta como éxito
+        server.expect(requestTo("http://backend/lobbies/sala/quitarListo"))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+        server.expect(requestTo("http://backend/lobbies/vacia"))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+
+        assertEquals(Map.of("nombre", "sala", "jugadoresListos", 1), lobbies.getLobby("sala"));
+        assertTrue(lobbies.addPlayer("sala", "ana"));
+        assertTrue(lobbies.removePlayer("sala", "ana"));
+        assertTrue(lobbies.markReady("sala"));
+        assertFalse(lobbies.markNotReady("sala"));
+        assertNull(lobbies.getLobby("vacia"));
+    }
+
+    @Test
+    void bidCallsPostTheAuctionData() {
+        RemoteBidGateway bids = new RemoteBidGateway(restTemplate, backend);
+        server.expect(requestTo("http://backend/bids/bids/start"))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(content().json("{\"container\":\"c-1\",\"initialValue\":\"100\",\"realValue\":\"900\"}"))
+                .andRespond(withSuccess());
+        server.expect(requestTo("http://backend/bids/bids/offer"))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(content().json("{\"container\":\"c-1\",\"owner\":\"ana\",\"amount\":\"300\"}"))
+                .andRespond(withSuccess());
+        server.expect(requestTo("http://backend/bids/bids/close/c-1"))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(header(KEY_HEADER, "clave"))
+                .andRespond(withSuccess());
+
+        bids.startAuction("c-1", 100, 900);
+        bids.placeOffer("c-1", "ana", 300);
+        bids.closeAuction("c-1");
+    }
+
+    @Test
+    void containerComesFromThePayloadOrIsMissing() {
+        RemoteContainerGateway containers = new RemoteContainerGateway(restTemplate, backend);
+        server.expect(requestTo("http://backend/contenedor"))
+                .andRespond(withSuccess("{\"color\":\"azul\",\"objetos\":[{\"nombre\":\"Reloj\",\"precio\":350}]}",
+                        MediaType.APPLICATION_JSON));
+        server.expect(requestTo("http://backend/contenedor")).andRespond(withSuccess());
+        server.expect(requestTo("http://backend/contenedor")).andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+
+        ContainerInfo container = containers.nextContainer();
+        assertEquals("Épico", container.getType());
+        assertEquals(350, container.getValue());
+        assertNull(containers.nextContainer());
+        assertNull(containers.nextContainer());
+    }
+
+    @Test
+    void balanceIsReadFromUserBalance() {
+        RemoteUserGateway users = new RemoteUserGateway(restTemplate, backend);
+        server.expect(requestTo("http://backend/users"))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(content().json("{\"username\":\"ana\",\"amount\":250}"))
+                .andRespond(withSuccess("{\"userBalance\":1250}", MediaType.APPLICATION_JSON));
+        server.expect(requestTo("http://backend/users"))
+                .andRespond(withSuccess("{\"userBalance\":\"mucho\"}", MediaType.APPLICATION_JSON));
+        server.expect(requestTo("http://backend/users")).andRespond(withSuccess());
+        server.expect(requestTo("http://backend/users"))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED)
+                        .contentType(MediaType.APPLICATION_JSON).body("{\"userBalance\":1}"));
+
+        assertEquals(1250, users.addToBalance("ana", 250));
+        assertNull(users.addToBalance("ana", 250));
+        assertNull(users.addToBalance("ana", 250));
+        assertNull(users.addToBalance("ana", 250));
+    }
+}
@@ -0,0 +1,72 @@
+package arsw.tamaltolimense.SocketServer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.DefaultApplicationArguments;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ServerWarmupTest {
+    private final WarmupProperties properties = new WarmupProperties();
+    private final ContainerPool containerPool = mock(ContainerPool.class);
+    @SuppressWarnings("unchecked")
+    private final ObjectProvider<RemoteBackendPreconnect> provider = mock(ObjectProvider.class);
+    private final RemoteBackendPreconnect preconnect = mock(RemoteBackendPreconnect.class);
+    private final LobbySocketService lobbySocketService = mock(LobbySocketService.class);
+    private final ServerWarmup warmup = new ServerWarmup(properties, containerPool, provider, lobbySocketService);
+
+    @BeforeEach
+    void setUp() {
+        properties.setIterations(200);
+        when(lobbySocketService.jsonSupport()).thenReturn(new GameJsonSupport());
+    }
+
+    private void run() throws IOException {
+        warmup.run(new DefaultApplicationArguments());
+    }
+
+    @Test
+    void disabledWarmupTouchesNothing() throws IOException {
+        properties.setEnabled(false);
+
+        run();
+
+        verifyNoInteractions(containerPool, provider, lobbySocketService);
+    }
+
+    @Test
+    void enabledWarmupPreconnectsAndFillsTheContainerPool() throws IOException {
+        when(provider.getIfAvailable()).thenReturn(preconnect);
+
+        run();
+
+        verify(preconnect).preconnect();
+        verify(containerPool).prefill();
+    }
+
+    @Test
+    void preconnectIsSkippedWhenDisabledOrWithoutRemoteBackend() throws IOException {
+        properties.setPreconnect(false);
+        run();
+        verify(provider, never()).getIfAvailable();
+
+        // En modo embebido no hay bean RemoteBackendPreconnect
+        properties.setPreconnect(true);
+        run();
+        verify(provider).getIfAvailable();
+        verify(containerPool, times(2)).prefill();
+    }
+
+    @Test
+    void syntheticIterationsAreDeterministic() throws IOException {
+        assertTrue(ServerWarmup.encodeDecode(new GameJsonSupport(), 10) > 0);
+        long checksum = ServerWarmup.processBids(500);
+
+        assertTrue(checksum > 0);
+        assertEquals(checksum, ServerWarmup.processBids(500));
+    }
+}
@@ -0,0 +1,88 @@
+package arsw.tamaltolimense.SocketServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionStoreTest {
+    private SimpleMeterRegistry registry;
+    private SessionStore sessions;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        sessions = new SessionStore(registry);
+    }
+
+    @Test
+    void joinKeepsNicknameAndLobbyWhileConnected() {
+        sessions.connected("s1");
+        assertNull(sessions.nickname("s1"));
+
+        assertTrue(sessions.join("s1", "ana", "lobby-1"));
+
+        assertEquals("ana", sessions.nickname("s1"));
+        assertEquals("lobby-1", sessions.lobbyName("s1"));
+        assertEquals(1, registry.get("hiddencargo.store.size").tag("store", "sessions").gauge().value());
+    }
+
+    @Test
+    void joinAfterDisconnectStoresNothing() {
+        // Un evento que llega tras la desconexión no debe dejar una entrada que nadie quitaría
+        assertFalse(sessions.join("s1", "ana", "lobby-1"));
+        sessions.connected("s2");
+        sessions.disconnected("s2");
+        assertFalse(sessions.join("s2", "ana", "lobby-1"));
+
+        assertEquals(0, sessions.size());
+        assertNull(sessions.lobbyName("s2"));
+    }
+
+    @Test
+    void disconnectReturnsTheSessionAndRemovesIt() {
+        sessions.connected("s1");
+        sessions.join("s1", "ana", "lobby-1");
+
+        SessionStore.Session session = sessions.disconnected("s1");
+
+        assertEquals(new SessionStore.Session("ana", "lobby-1"), session);
+        assertEquals(0, sessions.size());
+        assertSame(SessionStore.Session.NONE, sessions.disconnected("s1"));
+    }
+
+    @Test
+    void reconnectDoesNotResetAnExistingSession() {
+        sessions.connected("s1");
+        sessions.join("s1", "ana", "lobby-1");
+        sessions.connected("s1");
+
+        assertEquals("lobby-1", sessions.lobbyName("s1"));
+    }
+
+    @Test
+    void leaveLobbyKeepsTheNicknameAndClearForgetsBoth() {
+        sessions.connected("s1");
+        sessions.join("s1", "ana", "lobby-1");
+
+        sessions.leaveLobby("s1");
+        assertEquals("ana", sessions.nickname("s1"));
+        assertNull(sessions.lobbyName("s1"));
+
+        sessions.clear("s1");
+        assertNull(sessions.nickname("s1"));
+        assertEquals(1, sessions.size());
+    }
+
+    @Test
+    void manySessionsAreNeverEvicted() {
+        // Sin límite de tamaño ni expiración: solo la desconexión quita una sesión
+        for (int i = 0; i < 100_000; i++) {
+            sessions.connected("s" + i);
+            sessions.join("s" + i, "jugador-" + i, "lobby-" + (i % 100));
+        }
+        assertEquals(100_000, sessions.size());
+        assertEquals("jugador-0", sessions.nickname("s0"));
+    }
+}
@@ -0,0 +1,26 @@
+package arsw.tamaltolimense.SocketServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SocketChannelMetricsTest {
+
+    @Test
+    void countsWritesAndFlushesSeparately() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        EmbeddedChannel channel = new EmbeddedChannel(new SocketChannelMetrics(registry));
+
+        channel.write("uno");
+        channel.write("dos");
+        channel.writeAndFlush("tres");
+
+        assertEquals(3.0, registry.get("hiddencargo.socket.writes").counter().count());
+        assertEquals(1.0, registry.get("hiddencargo.socket.flushes").counter().count());
+        // Los mensajes siguen su camino hacia el socket
+        assertEquals("uno", channel.readOutbound());
+        assertTrue(channel.finishAndReleaseAll());
+    }
+}
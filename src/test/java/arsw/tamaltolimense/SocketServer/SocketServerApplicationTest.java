@@ -4,10 +4,12 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
+@ActiveProfiles("test")
 class SocketServerApplicationTest {
     @Autowired
     private ApplicationContext applicationContext;
@@ -21,7 +23,7 @@ class SocketServerApplicationTest {
     @Test
     void mainMethodStartsApplication() {
         // Prueba que el método main se ejecuta sin errores
-        SocketServerApplication.main(new String[]{});
+        SocketServerApplication.main(new String[]{"--spring.profiles.active=test"});
     }
 
 }
\ No newline at end of file
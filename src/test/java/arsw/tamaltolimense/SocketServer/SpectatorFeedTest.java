@@ -0,0 +1,227 @@
+package arsw.tamaltolimense.SocketServer;
+
+import com.corundumstudio.socketio.BroadcastOperations;
+import com.corundumstudio.socketio.SocketIOClient;
+import com.corundumstudio.socketio.SocketIOServer;
+import com.corundumstudio.socketio.listener.DisconnectListener;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class SpectatorFeedTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SpectatorProperties properties = new SpectatorProperties();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final GameBroadcaster broadcaster = mock(GameBroadcaster.class);
+    private final AuctionClock auctionClock = mock(AuctionClock.class);
+    private final SocketIOServer server = mock(SocketIOServer.class);
+    private final BroadcastOperations room = mock(BroadcastOperations.class);
+    private final Map<String, GameState> games = new HashMap<>();
+    private final SocketIOClient client = mock(SocketIOClient.class);
+    private SpectatorFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        // El ticker no llega a correr: el test llama a publishSnapshots cuando quiere
+        properties.setSnapshotInterval(Duration.ofHours(1));
+        when(server.getRoomOperations("spectate:sala")).thenReturn(room);
+        audience(0);
+        when(client.getSessionId()).thenReturn(UUID.randomUUID());
+        when(auctionClock.deadline("sala")).thenReturn(31_000L);
+        feed = new SpectatorFeed(properties, broadcaster, auctionClock, registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        feed.shutdown();
+    }
+
+    private void attach(Function<String, GameState> lookup) {
+        feed.attach(server, new GameJsonSupport(), lookup);
+    }
+
+    private void audience(int size) {
+        when(room.getClients()).thenReturn(Collections.nCopies(size, mock(SocketIOClient.class)));
+    }
+
+    private double count(String name) {
+        return registry.get(name).counter().count();
+    }
+
+    private double gauge(String name) {
+        return registry.get(name).gauge().value();
+    }
+
+    private static GameState game() {
+        ContainerInfo container = new ContainerInfo();
+        container.setId("container-1");
+        container.setType("Épico");
+        container.setValue(1550);
+        GameState game = new GameState();
+        game.setLobbyName("sala");
+        game.setCurrentRound(2);
+        game.setTotalRounds(5);
+        game.setCurrentContainer(container);
+        game.setRoster(new GameRoster(List.of("ana", "beto")));
+        return game;
+    }
+
+    // Datos de la última foto enviada a la sala
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> lastSnapshot(int sent) throws Exception {
+        ArgumentCaptor<Object> frame = ArgumentCaptor.forClass(Object.class);
+        verify(broadcaster, times(sent)).toRoomLatest(eq("spectate:sala"), eq(SpectatorFeed.SNAPSHOT_EVENT),
+                eq("spectate:sala"), frame.capture());
+        EncodedEvent event = (EncodedEvent) frame.getValue();
+        assertEquals(SpectatorFeed.SNAPSHOT_EVENT, event.event());
+        return objectMapper.readValue(event.dataJson(), Map.class);
+    }
+
+    @Test
+    void disabledFeedOrFullLobbyRejectsTheSpectator() {
+        attach(games::get);
+        properties.setEnabled(false);
+        assertEquals("Error: el modo espectador está desactivado", feed.watch(client, "sala"));
+
+        properties.setEnabled(true);
+        properties.setMaxPerLobby(2);
+        audience(2);
+        assertEquals("Error: el lobby sala no admite más espectadores", feed.watch(client, "sala"));
+
+        verify(client, never()).joinRoom(any());
+        assertFalse(feed.isSpectator(client));
+        assertEquals(2, count("hiddencargo.spectators.rejected"));
+        assertEquals(0, gauge("hiddencargo.spectators.lobbies"));
+    }
+
+    @Test
+    void snapshotIsSentOnlyWhenItChangesAndReplayedToNewSpectators() throws Exception {
+        ArgumentCaptor<DisconnectListener> disconnect = ArgumentCaptor.forClass(DisconnectListener.class);
+        attach(games::get);
+        verify(server).addDisconnectListener(disconnect.capture());
+
+        assertNull(feed.watch(client, "sala"));
+        verify(client).joinRoom("spectate:sala");
+        verify(broadcaster, never()).toClient(any(), any(), any());
+        assertTrue(feed.isSpectator(client));
+        assertEquals(1, gauge("hiddencargo.spectators.sessions"));
+
+        // Sin partida el lobby aparece esperando
+        audience(3);
+        feed.publishSnapshots();
+        Map<String, Object> waiting = lastSnapshot(1);
+        assertEquals("WAITING", waiting.get("phase"));
+        assertEquals(3, waiting.get("spectators"));
+        feed.publishSnapshots();
+        lastSnapshot(1);
+
+        // Quien llega después recibe la última foto al momento
+        SocketIOClient late = mock(SocketIOClient.class);
+        when(late.getSessionId()).thenReturn(UUID.randomUUID());
+        assertNull(feed.watch(late, "sala"));
+        verify(broadcaster).toClient(eq(late), eq(SpectatorFeed.SNAPSHOT_EVENT), any(EncodedEvent.class));
+
+        games.put("sala", game());
+        feed.publishSnapshots();
+        Map<String, Object> playing = lastSnapshot(2);
+        assertEquals("STARTING", playing.get("phase"));
+        assertEquals(2, playing.get("round"));
+        assertEquals(5, playing.get("totalRounds"));
+        assertNull(playing.get("lastBidder"));
+        assertEquals(31_000, playing.get("deadline"));
+        assertEquals(2, ((List<?>) playing.get("players")).size());
+        assertEquals(2, count("hiddencargo.spectators.snapshots"));
+        assertEquals(6, count("hiddencargo.spectators.deliveries"));
+
+        feed.unwatch(client, "sala");
+        verify(client).leaveRoom("spectate:sala");
+        disconnect.getValue().onDisconnect(client);
+        assertFalse(feed.isSpectator(client));
+        assertTrue(feed.isSpectator(late));
+    }
+
+    @Test
+    void stopWatchingEveryLobbyLetsTheSessionPlayAgain() {
+        // Las salas del cliente, como las lleva netty-socketio; "sala" es la del lobby como jugador
+        Set<String> rooms = new HashSet<>();
+        doAnswer(invocation -> rooms.add(invocation.getArgument(0))).when(client).joinRoom(any());
+        doAnswer(invocation -> rooms.remove(invocation.getArgument(0))).when(client).leaveRoom(any());
+        when(client.getAllRooms()).thenReturn(rooms);
+        when(server.getRoomOperations("spectate:otra")).thenReturn(room);
+        attach(games::get);
+        rooms.add("sala");
+
+        feed.watch(client, "sala");
+        feed.watch(client, "otra");
+        feed.unwatch(client, "sala");
+        // Sigue mirando otro lobby: joinLobby y el resto de eventos de jugador siguen rechazados
+        assertTrue(feed.isSpectator(client));
+
+        feed.unwatch(client, "otra");
+        assertFalse(feed.isSpectator(client));
+        assertEquals(0, gauge("hiddencargo.spectators.sessions"));
+    }
+
+    @Test
+    void emptyRoomRetiresTheFeedUnlessSomeoneJustArrived() {
+        attach(games::get);
+        feed.watch(client, "sala");
+        assertEquals(1, gauge("hiddencargo.spectators.lobbies"));
+
+        feed.publishSnapshots();
+        assertEquals(0, gauge("hiddencargo.spectators.lobbies"));
+
+        // Un espectador entra entre el conteo y el retiro del feed
+        feed.watch(client, "sala");
+        when(room.getClients()).thenReturn(List.of()).thenReturn(List.of(client));
+        feed.publishSnapshots();
+        assertEquals(1, gauge("hiddencargo.spectators.lobbies"));
+        verify(broadcaster, never()).toRoomLatest(any(), any(), any(), any());
+    }
+
+    @Test
+    void failedSnapshotDoesNotStopTheOtherLobbies() throws Exception {
+        BroadcastOperations otherRoom = mock(BroadcastOperations.class);
+        when(otherRoom.getClients()).thenReturn(List.of(client));
+        when(server.getRoomOperations("spectate:rota")).thenReturn(otherRoom);
+        attach(lobbyName -> {
+            if (lobbyName.equals("rota")) {
+                throw new IllegalStateException("partida corrupta");
+            }
+            return null;
+        });
+        feed.watch(client, "rota");
+        feed.watch(client, "sala");
+
+        audience(1);
+        feed.publishSnapshots();
+
+        assertEquals("WAITING", lastSnapshot(1).get("phase"));
+        assertEquals(1, count("hiddencargo.spectators.snapshots"));
+    }
+
+    @Test
+    void nothingIsPublishedBeforeAttaching() {
+        feed.publishSnapshots();
+
+        verifyNoInteractions(server, broadcaster);
+    }
+}
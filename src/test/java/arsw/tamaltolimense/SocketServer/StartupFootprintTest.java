@@ -0,0 +1,49 @@
+package arsw.tamaltolimense.SocketServer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class StartupFootprintTest {
+    @TempDir
+    Path dir;
+
+    private Path status(String content) throws IOException {
+        return Files.writeString(dir.resolve("status"), content);
+    }
+
+    @Test
+    void residentMemoryComesFromTheVmRssLine() throws IOException {
+        assertEquals(51234, StartupFootprint.residentKilobytes(status("Name:\tjava\nVmRSS:\t   51234 kB\nThreads:\t40\n")));
+    }
+
+    @Test
+    void missingOrMalformedStatusReportsMinusOne() throws IOException {
+        assertEquals(-1, StartupFootprint.residentKilobytes(dir.resolve("no-existe")));
+        assertEquals(-1, StartupFootprint.residentKilobytes(status("Name:\tjava\n")));
+        assertEquals(-1, StartupFootprint.residentKilobytes(status("VmRSS:\tmucho kB\n")));
+    }
+
+    @Test
+    void readyEventIsLoggedWithOrWithoutStartupTime() {
+        StartupFootprint footprint = new StartupFootprint();
+        ConfigurableApplicationContext context = mock(ConfigurableApplicationContext.class);
+
+        for (Duration timeTaken : new Duration[]{Duration.ofMillis(1_200), null}) {
+            assertDoesNotThrow(() -> footprint.onReady(
+                    new ApplicationReadyEvent(new SpringApplication(), new String[0], context, timeTaken)));
+        }
+        // En Linux se lee la del propio proceso
+        assertTrue(StartupFootprint.residentKilobytes() != 0);
+    }
+}
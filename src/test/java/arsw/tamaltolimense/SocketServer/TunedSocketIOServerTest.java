@@ -0,0 +1,192 @@
+package arsw.tamaltolimense.SocketServer;
+
+import com.corundumstudio.socketio.Configuration;
+import com.corundumstudio.socketio.SocketIOServer;
+import com.corundumstudio.socketio.Transport;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.channel.epoll.Epoll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class TunedSocketIOServerTest {
+    private final TransportProperties transport = new TransportProperties();
+    private final Configuration config = new Configuration();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    // Solo se detiene el servidor que llegó a arrancar: stop() sin start() no tiene grupos que cerrar
+    private TunedSocketIOServer started;
+
+    @AfterEach
+    void tearDown() {
+        if (started != null) {
+            started.stop();
+        }
+    }
+
+    private TunedSocketIOServer create(boolean epollAvailable) {
+        return TunedSocketIOServer.create(config, transport, epollAvailable, new SocketChannelMetrics(registry),
+                new GameBroadcaster(new BackpressureProperties(), registry).backpressureHandler(),
+                new NettyAdminHandler(new AdminProperties(), new ObjectMapper(), null, null, null, null, null));
+    }
+
+    private void start(TunedSocketIOServer server) {
+        server.start();
+        started = server;
+    }
+
+    private static int freePort() throws IOException, InterruptedException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    // Apertura de sesión por long-polling: atraviesa el pipeline entero de GameChannelInitializer.
+    // Varias veces para que con SO_REUSEPORT el kernel reparta entre los canales de aceptación.
+    private void assertHandshakes(int port) throws IOException, InterruptedException {
+        for (int i = 0; i < 6; i++) {
+            HttpResponse<String> response = http.send(HttpRequest.newBuilder(
+                            URI.create("http://127.0.0.1:" + port + "/socket.io/?EIO=3&transport=polling"))
+                    .timeout(Duration.ofSeconds(5)).build(), HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, response.statusCode());
+            assertTrue(response.body().contains("\"sid\""), response.body());
+        }
+        // Las respuestas pasaron por los handlers propios del pipeline
+        assertTrue(registry.get("hiddencargo.socket.flushes").counter().count() > 0);
+    }
+
+    @Test
+    void defaultsLeaveNettyThreadsAndTransportsAlone() {
+        Configuration defaults = new Configuration();
+        create(true);
+
+        assertFalse(config.isUseLinuxNativeEpoll());
+        assertEquals(defaults.getBossThreads(), config.getBossThreads());
+        assertEquals(defaults.getWorkerThreads(), config.getWorkerThreads());
+        assertEquals(defaults.getTransports(), config.getTransports());
+        // La compresión de WebSocket la pone GameChannelInitializer, no netty-socketio
+        assertFalse(config.isWebsocketCompression());
+        assertTrue(config.isHttpCompression());
+        assertEquals(6, transport.getCompressionLevel());
+    }
+
+    @Test
+    void propertiesAreCopiedToTheConfiguration() {
+        transport.setBossThreads(2);
+        transport.setWorkerThreads(4);
+        transport.setMaxFramePayloadLength(1024);
+        transport.setMaxHttpContentLength(2048);
+        transport.setHttpCompression(false);
+        transport.setWebsocketOnly(true);
+        transport.setTcpNoDelay(false);
+        transport.setTcpKeepAlive(true);
+        transport.setReuseAddress(true);
+        transport.setAcceptBackLog(64);
+        transport.setTcpSendBufferSize(8192);
+        transport.setTcpReceiveBufferSize(4096);
+        transport.setWriteBufferLowWaterMark(16 * 1024);
+        transport.setWriteBufferHighWaterMark(32 * 1024);
+
+        create(false);
+
+        assertEquals(2, config.getBossThreads());
+        assertEquals(4, config.getWorkerThreads());
+        assertEquals(1024, config.getMaxFramePayloadLength());
+        assertEquals(2048, config.getMaxHttpContentLength());
+        assertFalse(config.isHttpCompression());
+        assertEquals(List.of(Transport.WEBSOCKET), config.getTransports());
+        assertFalse(config.getSocketConfig().isTcpNoDelay());
+        assertTrue(config.getSocketConfig().isTcpKeepAlive());
+        assertTrue(config.getSocketConfig().isReuseAddress());
+        assertEquals(64, config.getSocketConfig().getAcceptBackLog());
+        assertEquals(8192, config.getSocketConfig().getTcpSendBufferSize());
+        assertEquals(4096, config.getSocketConfig().getTcpReceiveBufferSize());
+        assertEquals(16 * 1024, config.getSocketConfig().getWriteBufferWaterMarkLow());
+        assertEquals(32 * 1024, config.getSocketConfig().getWriteBufferWaterMarkHigh());
+    }
+
+    @Test
+    void invalidCompressionLevelFallsBackToSixWithoutRewritingTheProperties() {
+        transport.setCompressionLevel(12);
+        assertEquals(6, TunedSocketIOServer.compressionLevel(transport));
+        create(false);
+        assertEquals(12, transport.getCompressionLevel());
+
+        transport.setCompressionLevel(9);
+        assertEquals(9, TunedSocketIOServer.compressionLevel(transport));
+
+        // Sin compresión de WebSocket el nivel no se usa y no se corrige
+        transport.setWebsocketCompression(false);
+        transport.setCompressionLevel(0);
+        assertEquals(0, TunedSocketIOServer.compressionLevel(transport));
+    }
+
+    @Test
+    void withoutEpollExtraAcceptorsAreIgnored() throws IOException, InterruptedException {
+        transport.setNativeEpoll(true);
+        transport.setReusePort(true);
+        transport.setAcceptors(3);
+        config.setPort(freePort());
+
+        start(create(false));
+
+        assertFalse(config.isUseLinuxNativeEpoll());
+        assertEquals(new Configuration().getBossThreads(), config.getBossThreads());
+        assertHandshakes(config.getPort());
+    }
+
+    @ParameterizedTest
+    @NullSource
+    @ValueSource(strings = "127.0.0.1")
+    void epollWithReusePortOpensOneChannelPerAcceptor(String hostname) throws IOException, InterruptedException {
+        assumeTrue(Epoll.isAvailable(), "epoll solo existe en Linux");
+        transport.setNativeEpoll(true);
+        transport.setReusePort(true);
+        transport.setAcceptors(3);
+        config.setHostname(hostname);
+        config.setPort(freePort());
+
+        start(create(true));
+
+        assertTrue(config.isUseLinuxNativeEpoll());
+        assertEquals(3, config.getBossThreads());
+        assertHandshakes(config.getPort());
+    }
+
+    @Test
+    void epollWithoutReusePortKeepsASingleAcceptor() throws IOException, InterruptedException {
+        assumeTrue(Epoll.isAvailable(), "epoll solo existe en Linux");
+        transport.setNativeEpoll(true);
+        transport.setAcceptors(2);
+        config.setPort(freePort());
+
+        start(create(true));
+
+        assertTrue(config.isUseLinuxNativeEpoll());
+        assertHandshakes(config.getPort());
+    }
+
+    @Test
+    void releasingTheDefaultPipelineToleratesAMissingInitializer() {
+        SocketIOServer plain = new SocketIOServer(new Configuration());
+        TunedSocketIOServer.releaseDefaultPipeline(plain);
+        plain.setPipelineFactory(null);
+
+        assertDoesNotThrow(() -> TunedSocketIOServer.releaseDefaultPipeline(plain));
+    }
+}
@@ -0,0 +1,74 @@
+package arsw.tamaltolimense.SocketServer;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketExtension;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketExtensionData;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketServerExtension;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WebSocketDeflateTest {
+    private static final String SMALL = "{\"evento\":\"newBid\",\"monto\":300}";
+    private static final String LARGE = "{\"jugadores\":[" + "{\"nombre\":\"ana\",\"saldo\":1000},".repeat(40) + "{}]}";
+
+    private static WebSocketServerExtension negotiate(int minSize) {
+        WebSocketServerExtension extension = WebSocketDeflate.handshaker(6, minSize)
+                .handshakeExtension(new WebSocketExtensionData("permessage-deflate", Map.of()));
+        assertNotNull(extension);
+        return extension;
+    }
+
+    private static TextWebSocketFrame frame(String text) {
+        return new TextWebSocketFrame(Unpooled.copiedBuffer(text, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void framesUnderTheThresholdGoOutUncompressed() {
+        EmbeddedChannel channel = new EmbeddedChannel(negotiate(128).newExtensionEncoder());
+
+        channel.writeOutbound(frame(SMALL));
+        TextWebSocketFrame small = channel.readOutbound();
+        channel.writeOutbound(frame(LARGE));
+        TextWebSocketFrame large = channel.readOutbound();
+
+        assertEquals(0, small.rsv() & WebSocketExtension.RSV1);
+        assertEquals(SMALL, small.text());
+        assertEquals(WebSocketExtension.RSV1, large.rsv() & WebSocketExtension.RSV1);
+        assertTrue(large.content().readableBytes() < LARGE.length());
+        small.release();
+        large.release();
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    void compressedFramesFromTheClientAreAlwaysInflated() {
+        WebSocketServerExtension extension = negotiate(0);
+        EmbeddedChannel encoder = new EmbeddedChannel(extension.newExtensionEncoder());
+        EmbeddedChannel decoder = new EmbeddedChannel(extension.newExtensionDecoder());
+
+        // Aunque sea pequeña, una trama comprimida se descomprime
+        encoder.writeOutbound(frame(SMALL));
+        TextWebSocketFrame compressed = encoder.readOutbound();
+        decoder.writeInbound(compressed);
+        TextWebSocketFrame inflated = decoder.readInbound();
+
+        assertEquals(SMALL, inflated.text());
+        inflated.release();
+        encoder.finishAndReleaseAll();
+        decoder.finishAndReleaseAll();
+    }
+
+    @Test
+    void onlyDeflaterLevelsAreValid() {
+        assertFalse(WebSocketDeflate.isValidLevel(0));
+        assertTrue(WebSocketDeflate.isValidLevel(1));
+        assertTrue(WebSocketDeflate.isValidLevel(9));
+        assertFalse(WebSocketDeflate.isValidLevel(10));
+    }
+}